@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+
+/**
+ * Utility methods shared by the benchmarks that need a running member.
+ *
+ * The members are created on top of the mock network of the test framework, so the benchmarks run completely
+ * in-process and their numbers don't depend on the network of the machine they are run on.
+ */
+public final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates the config used by the benchmarks; logging, phone home and the management center are disabled
+     * since they would only add noise.
+     *
+     * @return the config
+     */
+    public static Config newConfig() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.LOGGING_TYPE, "none");
+        config.setProperty(GroupProperty.VERSION_CHECK_ENABLED, "false");
+        config.setProperty(GroupProperty.ENABLE_JMX, "false");
+        return config;
+    }
+
+    /**
+     * Starts a single member on the mock network.
+     *
+     * @param config the config of the member
+     * @return the started member
+     */
+    public static HazelcastInstance newMember(Config config) {
+        TestHazelcastInstanceFactory factory = new TestHazelcastInstanceFactory(1);
+        HazelcastInstance hz = factory.newHazelcastInstance(config);
+        HazelcastTestSupport.warmUpPartitions(hz);
+        return hz;
+    }
+
+    public static NodeEngineImpl getNodeEngine(HazelcastInstance hz) {
+        return HazelcastTestSupport.getNodeEngineImpl(hz);
+    }
+
+    public static void shutdown(HazelcastInstance hz) {
+        if (hz != null) {
+            hz.getLifecycleService().terminate();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.client;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapGetCodec;
+import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the encoding and decoding of {@link ClientMessage}s through the generated codecs, including
+ * the copy from and to the socket buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ClientMessageCodecBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+    private static final long THREAD_ID = 1;
+    private static final long NO_TTL = -1;
+
+    @Param({"100", "10000"})
+    public int valueSize;
+
+    private Data key;
+    private Data value;
+    private ClientMessage encodedPutRequest;
+    private ClientMessage encodedGetResponse;
+    private ByteBuffer socketBuffer;
+
+    @Setup
+    public void setup() {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        key = serializationService.toData("key");
+        value = serializationService.toData(new byte[valueSize]);
+        encodedPutRequest = MapPutCodec.encodeRequest(MAP_NAME, key, value, THREAD_ID, NO_TTL);
+        encodedGetResponse = MapGetCodec.encodeResponse(value);
+        socketBuffer = ByteBuffer.allocate(encodedPutRequest.getFrameLength());
+    }
+
+    @Benchmark
+    public ClientMessage mapPutEncodeRequest() {
+        return MapPutCodec.encodeRequest(MAP_NAME, key, value, THREAD_ID, NO_TTL);
+    }
+
+    @Benchmark
+    public MapPutCodec.RequestParameters mapPutDecodeRequest() {
+        ClientMessage clientMessage = ClientMessage.createForDecode(encodedPutRequest.buffer(), 0);
+        return MapPutCodec.decodeRequest(clientMessage);
+    }
+
+    @Benchmark
+    public ClientMessage mapGetEncodeResponse() {
+        return MapGetCodec.encodeResponse(value);
+    }
+
+    @Benchmark
+    public MapGetCodec.ResponseParameters mapGetDecodeResponse() {
+        ClientMessage clientMessage = ClientMessage.createForDecode(encodedGetResponse.buffer(), 0);
+        return MapGetCodec.decodeResponse(clientMessage);
+    }
+
+    @Benchmark
+    public MapPutCodec.RequestParameters mapPutRoundTrip() {
+        ClientMessage request = MapPutCodec.encodeRequest(MAP_NAME, key, value, THREAD_ID, NO_TTL);
+        socketBuffer.clear();
+        request.writeTo(socketBuffer);
+        socketBuffer.flip();
+
+        ClientMessage received = ClientMessage.create();
+        received.readFrom(socketBuffer);
+        ClientMessage decoded = ClientMessage.createForDecode(received.buffer(), 0);
+        return MapPutCodec.decodeRequest(decoded);
+    }
+}
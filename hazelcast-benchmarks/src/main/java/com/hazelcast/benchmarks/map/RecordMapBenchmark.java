@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.map;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.collection.Data2ObjectHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the map backing a record store, {@link Data2ObjectHashMap}, with the {@link ConcurrentHashMap}
+ * it replaced. Run with {@code -prof gc} to compare the allocation rate, the retained heap per entry can be
+ * compared by taking a heap histogram of a forked JVM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RecordMapBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int keyCount;
+
+    @Param({"Data2ObjectHashMap", "ConcurrentHashMap"})
+    public String mapType;
+
+    private Map<Data, Object> map;
+    private Data[] keys;
+    private Object value;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("ConcurrentHashMap".equals(mapType)) {
+            map = new ConcurrentHashMap<Data, Object>(1000, 0.75f, 1);
+        } else {
+            map = new Data2ObjectHashMap<Object>();
+        }
+
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        keys = new Data[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = serializationService.toData(i);
+        }
+        value = new Object();
+        for (Data key : keys) {
+            map.put(key, value);
+        }
+        random = new Random(0);
+    }
+
+    @Benchmark
+    public Object put() {
+        return map.put(randomKey(), value);
+    }
+
+    @Benchmark
+    public Object get() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    public Object removeAndPut() {
+        Data key = randomKey();
+        map.remove(key);
+        return map.put(key, value);
+    }
+
+    private Data randomKey() {
+        return keys[random.nextInt(keyCount)];
+    }
+}
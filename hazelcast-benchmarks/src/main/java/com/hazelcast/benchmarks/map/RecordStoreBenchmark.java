@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.getNodeEngine;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMember;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+
+/**
+ * Measures {@code DefaultRecordStore.put/get} directly, so without the operation and invocation overhead.
+ *
+ * The record store is accessed from the benchmark thread; since there is a single benchmark thread the
+ * single writer assumption of the record store still holds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class RecordStoreBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+    private static final long NO_TTL = -1;
+
+    @Param({"100000"})
+    public int keyCount;
+
+    @Param({"100"})
+    public int valueSize;
+
+    @Param({"BINARY", "OBJECT"})
+    public InMemoryFormat inMemoryFormat;
+
+    private HazelcastInstance hz;
+    private RecordStore recordStore;
+    private Data[] keys;
+    private Data value;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Config config = newConfig();
+        config.getMapConfig(MAP_NAME).setInMemoryFormat(inMemoryFormat);
+        hz = newMember(config);
+
+        NodeEngineImpl nodeEngine = getNodeEngine(hz);
+        MapService mapService = nodeEngine.getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        recordStore = mapServiceContext.getRecordStore(0, MAP_NAME);
+
+        SerializationService serializationService = nodeEngine.getSerializationService();
+        keys = new Data[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = serializationService.toData(i);
+        }
+        value = serializationService.toData(new byte[valueSize]);
+        for (Data key : keys) {
+            recordStore.put(key, value, NO_TTL);
+        }
+        random = new Random(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shutdown(hz);
+    }
+
+    @Benchmark
+    public Object put() {
+        return recordStore.put(randomKey(), value, NO_TTL);
+    }
+
+    @Benchmark
+    public Object get() {
+        return recordStore.get(randomKey(), false);
+    }
+
+    private Data randomKey() {
+        return keys[random.nextInt(keyCount)];
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.nio;
+
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.IOThreadingModelFactory;
+import com.hazelcast.nio.tcp.MockIOService;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
+import com.hazelcast.nio.tcp.nonblocking.SelectNow_NonBlockingIOThreadingModelFactory;
+import com.hazelcast.nio.tcp.nonblocking.Select_NonBlockingIOThreadingModelFactory;
+import com.hazelcast.nio.tcp.spinning.Spinning_IOThreadingModelFactory;
+import com.hazelcast.spi.impl.PacketHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+
+/**
+ * Compares the {@link com.hazelcast.nio.tcp.IOThreadingModel} implementations by sending packets between two
+ * connection managers over the loopback interface and echoing them back.
+ *
+ * The 'select' and 'selectNow' models make use of the optimized selected-keys set; the 'unoptimized' variants use the
+ * plain JDK Selector, so the difference shows the cost of the HashSet based selected keys. Run with '-prof gc' to
+ * see the allocation rate of the models.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class IOThreadingModelBenchmark {
+
+    private static final int PORT_A = 5901;
+    private static final int PORT_B = 5902;
+    private static final int PAYLOAD_SIZE = 100;
+    private static final int BURST_SIZE = 100;
+
+    @Param({"select", "select-unoptimized", "selectNow", "selectNow-unoptimized", "spinning"})
+    public String threadingModel;
+
+    private final byte[] payload = new byte[PAYLOAD_SIZE];
+    private final BlockingQueue<Packet> responses = new LinkedBlockingQueue<Packet>();
+    private TcpIpConnectionManager connManagerA;
+    private TcpIpConnectionManager connManagerB;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connManagerA = newConnectionManager(PORT_A);
+        connManagerB = newConnectionManager(PORT_B);
+
+        ((MockIOService) connManagerA.getIoService()).packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                responses.add(packet);
+            }
+        };
+        ((MockIOService) connManagerB.getIoService()).packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                connManagerB.transmit(new Packet(payload), packet.getConn());
+            }
+        };
+
+        connManagerA.start();
+        connManagerB.start();
+
+        Address addressB = new Address("127.0.0.1", PORT_B);
+        connManagerA.getOrConnect(addressB);
+        while ((connection = connManagerA.getConnection(addressB)) == null) {
+            Thread.sleep(10);
+        }
+    }
+
+    private TcpIpConnectionManager newConnectionManager(int port) throws Exception {
+        MockIOService ioService = new MockIOService(port);
+        ioService.selectorOptimizationEnabled = !threadingModel.endsWith("-unoptimized");
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(ioService.getLogger("metrics"), INFO);
+
+        return new TcpIpConnectionManager(
+                ioService,
+                ioService.serverSocketChannel,
+                ioService.loggingService,
+                metricsRegistry,
+                newThreadingModelFactory().create(ioService, metricsRegistry));
+    }
+
+    private IOThreadingModelFactory newThreadingModelFactory() {
+        if (threadingModel.startsWith("selectNow")) {
+            return new SelectNow_NonBlockingIOThreadingModelFactory();
+        } else if (threadingModel.startsWith("select")) {
+            return new Select_NonBlockingIOThreadingModelFactory();
+        } else if (threadingModel.equals("spinning")) {
+            return new Spinning_IOThreadingModelFactory();
+        }
+        throw new IllegalArgumentException("Unknown threading model: " + threadingModel);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connManagerA != null) {
+            connManagerA.shutdown();
+        }
+        if (connManagerB != null) {
+            connManagerB.shutdown();
+        }
+    }
+
+    /**
+     * Measures the round trip time of a single packet.
+     */
+    @Benchmark
+    public Packet pingPong() throws Exception {
+        connManagerA.transmit(new Packet(payload), connection);
+        return responses.take();
+    }
+
+    /**
+     * Measures the time per packet when many packets are in flight; so the threads process multiple packets
+     * and selection keys per select.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public Packet burst() throws Exception {
+        for (int k = 0; k < BURST_SIZE; k++) {
+            connManagerA.transmit(new Packet(payload), connection);
+        }
+
+        Packet packet = null;
+        for (int k = 0; k < BURST_SIZE; k++) {
+            packet = responses.take();
+        }
+        return packet;
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/**
+ * <p>This package contains the JMH benchmarks for the Hazelcast hot paths.</p>
+ *
+ * The benchmarks are packaged into a self contained jar and don't need any network access, e.g.:
+ * <pre>
+ * mvn clean install -pl hazelcast-benchmarks -am -DskipTests
+ * java -jar hazelcast-benchmarks/target/benchmarks.jar -f 1 -wi 5 -i 10
+ * </pre>
+ */
+package com.hazelcast.benchmarks;
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.query;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.ComparisonType;
+import com.hazelcast.query.impl.IndexImpl;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+
+/**
+ * Measures {@link IndexImpl#getRecords(Comparable)} and the range lookups of an ordered index, so an index
+ * backed by the {@code NumericSortedIndexStore}. The matching entries are iterated, so the cost of the returned
+ * result set is included.
+ *
+ * The indexed values are longs, e.g. timestamps; every distinct value is shared by {@code entriesPerValue}
+ * entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SortedIndexBenchmark {
+
+    @Param({"100000"})
+    public int entryCount;
+
+    @Param({"1", "10"})
+    public int entriesPerValue;
+
+    @Param({"100"})
+    public int rangeWidth;
+
+    private IndexImpl index;
+    private int distinctValues;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+        index = new IndexImpl(THIS_ATTRIBUTE_NAME, true);
+        distinctValues = entryCount / entriesPerValue;
+        for (int i = 0; i < entryCount; i++) {
+            Data key = serializationService.toData(i);
+            Long value = (long) (i % distinctValues);
+            index.saveEntryIndex(new QueryEntry(serializationService, key, key, value));
+        }
+        random = new Random(0);
+    }
+
+    @Benchmark
+    public void getRecordsEqual(Blackhole blackhole) {
+        consume(index.getRecords(randomValue(distinctValues)), blackhole);
+    }
+
+    @Benchmark
+    public void getSubRecordsBetween(Blackhole blackhole) {
+        long from = randomValue(distinctValues - rangeWidth);
+        consume(index.getSubRecordsBetween(from, from + rangeWidth - 1), blackhole);
+    }
+
+    @Benchmark
+    public void getSubRecordsGreater(Blackhole blackhole) {
+        long from = distinctValues - rangeWidth - 1;
+        consume(index.getSubRecords(ComparisonType.GREATER, from), blackhole);
+    }
+
+    private long randomValue(int bound) {
+        return random.nextInt(bound);
+    }
+
+    private static void consume(Set<QueryableEntry> entries, Blackhole blackhole) {
+        for (QueryableEntry entry : entries) {
+            blackhole.consume(entry);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.nio.serialization.DataSerializableFactory;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.nio.serialization.Portable;
+import com.hazelcast.nio.serialization.PortableFactory;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+
+import java.io.IOException;
+
+/**
+ * The same small value object in the different serialization flavours, so the numbers of the
+ * {@link SerializationBenchmark} can be compared with each other.
+ */
+public final class SampleObjects {
+
+    public static final int FACTORY_ID = 1;
+    public static final int CLASS_ID = 1;
+
+    private SampleObjects() {
+    }
+
+    public static PortableEmployee newPortableEmployee() {
+        return new PortableEmployee(1L, "Joe Doe", 34, 1234.56d, true);
+    }
+
+    public static IdentifiedEmployee newIdentifiedEmployee() {
+        return new IdentifiedEmployee(1L, "Joe Doe", 34, 1234.56d, true);
+    }
+
+    public static DataSerializableEmployee newDataSerializableEmployee() {
+        return new DataSerializableEmployee(1L, "Joe Doe", 34, 1234.56d, true);
+    }
+
+    /**
+     * {@link PortableFactory} for the {@link PortableEmployee}.
+     */
+    public static class EmployeePortableFactory implements PortableFactory {
+        @Override
+        public Portable create(int classId) {
+            return classId == CLASS_ID ? new PortableEmployee() : null;
+        }
+    }
+
+    /**
+     * {@link DataSerializableFactory} for the {@link IdentifiedEmployee}.
+     */
+    public static class EmployeeDataSerializableFactory implements DataSerializableFactory {
+        @Override
+        public IdentifiedDataSerializable create(int typeId) {
+            return typeId == CLASS_ID ? new IdentifiedEmployee() : null;
+        }
+    }
+
+    /**
+     * Portable version of the employee.
+     */
+    public static class PortableEmployee implements Portable {
+        private long id;
+        private String name;
+        private int age;
+        private double salary;
+        private boolean active;
+
+        public PortableEmployee() {
+        }
+
+        public PortableEmployee(long id, String name, int age, double salary, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.salary = salary;
+            this.active = active;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getClassId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writePortable(PortableWriter writer) throws IOException {
+            writer.writeLong("id", id);
+            writer.writeUTF("name", name);
+            writer.writeInt("age", age);
+            writer.writeDouble("salary", salary);
+            writer.writeBoolean("active", active);
+        }
+
+        @Override
+        public void readPortable(PortableReader reader) throws IOException {
+            id = reader.readLong("id");
+            name = reader.readUTF("name");
+            age = reader.readInt("age");
+            salary = reader.readDouble("salary");
+            active = reader.readBoolean("active");
+        }
+    }
+
+    /**
+     * IdentifiedDataSerializable version of the employee.
+     */
+    public static class IdentifiedEmployee implements IdentifiedDataSerializable {
+        private long id;
+        private String name;
+        private int age;
+        private double salary;
+        private boolean active;
+
+        public IdentifiedEmployee() {
+        }
+
+        public IdentifiedEmployee(long id, String name, int age, double salary, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.salary = salary;
+            this.active = active;
+        }
+
+        @Override
+        public int getFactoryId() {
+            return FACTORY_ID;
+        }
+
+        @Override
+        public int getId() {
+            return CLASS_ID;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeUTF(name);
+            out.writeInt(age);
+            out.writeDouble(salary);
+            out.writeBoolean(active);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            name = in.readUTF();
+            age = in.readInt();
+            salary = in.readDouble();
+            active = in.readBoolean();
+        }
+    }
+
+    /**
+     * DataSerializable version of the employee; the class name is written to the stream and resolved
+     * by reflection on deserialization.
+     */
+    public static class DataSerializableEmployee implements DataSerializable {
+        private long id;
+        private String name;
+        private int age;
+        private double salary;
+        private boolean active;
+
+        public DataSerializableEmployee() {
+        }
+
+        public DataSerializableEmployee(long id, String name, int age, double salary, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.salary = salary;
+            this.active = active;
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeLong(id);
+            out.writeUTF(name);
+            out.writeInt(age);
+            out.writeDouble(salary);
+            out.writeBoolean(active);
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            id = in.readLong();
+            name = in.readUTF();
+            age = in.readInt();
+            salary = in.readDouble();
+            active = in.readBoolean();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.serialization;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.serialization.SampleObjects.FACTORY_ID;
+
+/**
+ * Measures {@code SerializationServiceImpl.toData/toObject} for Portable, IdentifiedDataSerializable
+ * and DataSerializable objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private SerializationService serializationService;
+
+    private Object portable;
+    private Object identified;
+    private Object dataSerializable;
+
+    private Data portableData;
+    private Data identifiedData;
+    private Data dataSerializableData;
+
+    @Setup
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder()
+                .addPortableFactory(FACTORY_ID, new SampleObjects.EmployeePortableFactory())
+                .addDataSerializableFactory(FACTORY_ID, new SampleObjects.EmployeeDataSerializableFactory())
+                .build();
+
+        portable = SampleObjects.newPortableEmployee();
+        identified = SampleObjects.newIdentifiedEmployee();
+        dataSerializable = SampleObjects.newDataSerializableEmployee();
+
+        portableData = serializationService.toData(portable);
+        identifiedData = serializationService.toData(identified);
+        dataSerializableData = serializationService.toData(dataSerializable);
+    }
+
+    @Benchmark
+    public Data toDataPortable() {
+        return serializationService.toData(portable);
+    }
+
+    @Benchmark
+    public Object toObjectPortable() {
+        return serializationService.toObject(portableData);
+    }
+
+    @Benchmark
+    public Data toDataIdentifiedDataSerializable() {
+        return serializationService.toData(identified);
+    }
+
+    @Benchmark
+    public Object toObjectIdentifiedDataSerializable() {
+        return serializationService.toObject(identifiedData);
+    }
+
+    @Benchmark
+    public Data toDataDataSerializable() {
+        return serializationService.toData(dataSerializable);
+    }
+
+    @Benchmark
+    public Object toObjectDataSerializable() {
+        return serializationService.toObject(dataSerializableData);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.benchmarks.spi;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.operation.GetOperation;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.benchmarks.BenchmarkSupport.getNodeEngine;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newConfig;
+import static com.hazelcast.benchmarks.BenchmarkSupport.newMember;
+import static com.hazelcast.benchmarks.BenchmarkSupport.shutdown;
+
+/**
+ * Measures {@code OperationServiceImpl.invokeOnPartition} on a single member; so the invocation is always
+ * local and the numbers show the cost of the invocation, the handoff to the partition thread and the response
+ * handling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class InvokeOnPartitionBenchmark {
+
+    private static final String MAP_NAME = "benchmark";
+
+    private HazelcastInstance hz;
+    private OperationService operationService;
+    private Data key;
+    private int partitionId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        hz = newMember(newConfig());
+        NodeEngineImpl nodeEngine = getNodeEngine(hz);
+        operationService = nodeEngine.getOperationService();
+
+        IMap<String, String> map = hz.getMap(MAP_NAME);
+        map.put("key", "value");
+        key = nodeEngine.toData("key");
+        partitionId = nodeEngine.getPartitionService().getPartitionId(key);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        shutdown(hz);
+    }
+
+    @Benchmark
+    public Object noOperation() {
+        InternalCompletableFuture<Object> f = operationService.invokeOnPartition(null, new NoOperation(), partitionId);
+        return f.getSafely();
+    }
+
+    @Benchmark
+    public Object mapGet() {
+        GetOperation op = new GetOperation(MAP_NAME, key);
+        InternalCompletableFuture<Object> f = operationService.invokeOnPartition(MapService.SERVICE_NAME, op, partitionId);
+        return f.getSafely();
+    }
+
+    /**
+     * Operation that doesn't do anything, so only the invocation overhead is measured.
+     */
+    private static class NoOperation extends AbstractOperation {
+        @Override
+        public void run() throws Exception {
+        }
+
+        @Override
+        public Object getResponse() {
+            return Boolean.TRUE;
+        }
+    }
+}
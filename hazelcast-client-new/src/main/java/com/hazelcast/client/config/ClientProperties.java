@@ -82,6 +82,19 @@ public class ClientProperties {
      */
     public static final String PROP_INVOCATION_TIMEOUT_SECONDS_DEFAULT = "120";
 
+    /**
+     * Interval of the task that compares the invalidations a map near cache has received with the invalidation
+     * sequences of the members, and drops the partitions for which an invalidation was lost. A value of 0 or less
+     * disables the task.
+     */
+    public static final String PROP_MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS
+            = "hazelcast.client.map.invalidation.reconciliation.interval.seconds";
+
+    /**
+     * Default value of the map near cache reconciliation interval seconds.
+     */
+    public static final String PROP_MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS_DEFAULT = "60";
+
 
     private final ClientProperty heartbeatTimeout;
     private final ClientProperty heartbeatInterval;
@@ -89,6 +102,7 @@ public class ClientProperties {
     private final ClientProperty eventQueueCapacity;
     private final ClientProperty invocationTimeout;
     private final ClientProperty shuffleMemberList;
+    private final ClientProperty mapInvalidationReconciliationInterval;
 
 
     public ClientProperties(ClientConfig clientConfig) {
@@ -100,6 +114,9 @@ public class ClientProperties {
                 PROP_INVOCATION_TIMEOUT_SECONDS_DEFAULT);
         shuffleMemberList = new ClientProperty(clientConfig, PROP_SHUFFLE_MEMBER_LIST,
                 PROP_SHUFFLE_INITIAL_MEMBER_LIST_DEFAULT);
+        mapInvalidationReconciliationInterval = new ClientProperty(clientConfig,
+                PROP_MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS,
+                PROP_MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS_DEFAULT);
     }
 
     public ClientProperty getHeartbeatTimeout() {
@@ -126,6 +143,10 @@ public class ClientProperties {
         return shuffleMemberList;
     }
 
+    public ClientProperty getMapInvalidationReconciliationIntervalSeconds() {
+        return mapInvalidationReconciliationInterval;
+    }
+
     /**
      * A single client property.
      */
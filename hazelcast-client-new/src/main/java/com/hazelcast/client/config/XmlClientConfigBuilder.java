@@ -26,6 +26,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.InvalidConfigurationException;
 import com.hazelcast.config.ListenerConfig;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.config.SSLConfig;
 import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.config.SocketInterceptorConfig;
@@ -262,11 +263,34 @@ public class XmlClientConfigBuilder extends AbstractConfigBuilder {
                 nearCacheConfig.setLocalUpdatePolicy(policy);
             } else if ("eviction".equals(nodeName)) {
                 nearCacheConfig.setEvictionConfig(getEvictionConfig(child));
+            } else if ("preloader".equals(nodeName)) {
+                nearCacheConfig.setPreloaderConfig(getPreloaderConfig(child));
             }
         }
         clientConfig.addNearCacheConfig(name, nearCacheConfig);
     }
 
+    private NearCachePreloaderConfig getPreloaderConfig(Node node) {
+        NearCachePreloaderConfig preloaderConfig = new NearCachePreloaderConfig();
+        Node enabled = node.getAttributes().getNamedItem("enabled");
+        Node directory = node.getAttributes().getNamedItem("directory");
+        Node storeInitialDelaySeconds = node.getAttributes().getNamedItem("store-initial-delay-seconds");
+        Node storeIntervalSeconds = node.getAttributes().getNamedItem("store-interval-seconds");
+        if (enabled != null) {
+            preloaderConfig.setEnabled(Boolean.parseBoolean(getTextContent(enabled)));
+        }
+        if (directory != null) {
+            preloaderConfig.setDirectory(getTextContent(directory));
+        }
+        if (storeInitialDelaySeconds != null) {
+            preloaderConfig.setStoreInitialDelaySeconds(Integer.parseInt(getTextContent(storeInitialDelaySeconds)));
+        }
+        if (storeIntervalSeconds != null) {
+            preloaderConfig.setStoreIntervalSeconds(Integer.parseInt(getTextContent(storeIntervalSeconds)));
+        }
+        return preloaderConfig;
+    }
+
 
     private EvictionConfig getEvictionConfig(final Node node) {
         final EvictionConfig evictionConfig = new EvictionConfig();
@@ -17,11 +17,13 @@
 package com.hazelcast.client.nearcache;
 
 import com.hazelcast.client.spi.ClientContext;
+import com.hazelcast.client.spi.ClientPartitionService;
 import com.hazelcast.client.spi.impl.ClientExecutionServiceImpl;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
 import com.hazelcast.map.impl.nearcache.NearCacheRecord;
+import com.hazelcast.map.impl.nearcache.RepairingHandler;
 import com.hazelcast.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.util.Clock;
@@ -29,7 +31,9 @@ import com.hazelcast.util.ExceptionUtil;
 
 import java.util.Comparator;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
@@ -59,6 +63,7 @@ public class ClientHeapNearCache<K>
     final ConcurrentMap<K, NearCacheRecord> cache;
     final NearCacheStatsImpl stats;
     private final Comparator<NearCacheRecord> selectedComparator;
+    private final RepairingHandler repairingHandler;
 
     private volatile long lastCleanup;
     private volatile String id;
@@ -82,6 +87,7 @@ public class ClientHeapNearCache<K>
         canEvict = new AtomicBoolean(true);
         lastCleanup = Clock.currentTimeMillis();
         stats = new NearCacheStatsImpl();
+        repairingHandler = new RepairingHandler(context.getPartitionService().getPartitionCount());
     }
 
     public void setId(String id) {
@@ -206,6 +212,13 @@ public class ClientHeapNearCache<K>
         }
     }
 
+    /**
+     * Returns a live view of the cached keys.
+     */
+    public Set<K> keySet() {
+        return cache.keySet();
+    }
+
     public void remove(K key) {
         cache.remove(key);
     }
@@ -214,6 +227,56 @@ public class ClientHeapNearCache<K>
         cache.remove(key);
     }
 
+    /**
+     * Invalidates a key on receipt of an invalidation from the owner of its partition.
+     *
+     * @param key           the invalidated key.
+     * @param partitionId   the partition of the key.
+     * @param partitionUuid the UUID of the partition at the owner.
+     * @param sequence      the sequence number of the invalidation.
+     */
+    public void invalidate(K key, int partitionId, UUID partitionUuid, long sequence) {
+        invalidate(key);
+        if (repairingHandler.onInvalidation(partitionId, partitionUuid, sequence)) {
+            boolean[] partitions = new boolean[context.getPartitionService().getPartitionCount()];
+            partitions[partitionId] = true;
+            invalidatePartitions(partitions);
+        }
+    }
+
+    /**
+     * Compares the received invalidations with the invalidation meta data of the partition owners and drops the
+     * partitions for which invalidations have been lost.
+     *
+     * @param partitionIds   the partitions.
+     * @param partitionUuids the UUIDs of the partitions at their owners.
+     * @param sequences      the sequence numbers of the last invalidations sent by the owners.
+     * @return the number of dropped partitions.
+     */
+    public int reconcile(int[] partitionIds, UUID[] partitionUuids, long[] sequences) {
+        boolean[] partitions = new boolean[context.getPartitionService().getPartitionCount()];
+        int repairCount = 0;
+        for (int i = 0; i < partitionIds.length; i++) {
+            if (repairingHandler.reconcile(partitionIds[i], partitionUuids[i], sequences[i])) {
+                partitions[partitionIds[i]] = true;
+                repairCount++;
+            }
+        }
+        if (repairCount > 0) {
+            invalidatePartitions(partitions);
+        }
+        return repairCount;
+    }
+
+    private void invalidatePartitions(boolean[] partitions) {
+        ClientPartitionService partitionService = context.getPartitionService();
+        for (K key : cache.keySet()) {
+            if (partitions[partitionService.getPartitionId(key)]) {
+                invalidate(key);
+            }
+        }
+    }
+
     public NearCacheStatsImpl getNearCacheStats() {
         long ownedEntryCount = 0;
         long ownedEntryMemory = 0;
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.nearcache;
+
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.nio.IOUtil.closeResource;
+
+/**
+ * Stores the keys of a near cache in a file and loads them again, so a new near cache can be populated with the
+ * keys its predecessor had cached.
+ * <p/>
+ * The file contains a magic number, the number of keys and then the length and the bytes of every key. The keys
+ * are written to a temporary file first, which replaces the file when it is complete, so a crash while storing
+ * never leaves a truncated file behind. The file is memory mapped for loading.
+ */
+public class ClientNearCachePreloader {
+
+    private static final int MAGIC = 0xE1A8C7E5;
+    private static final int BUFFER_SIZE = 65536;
+
+    private final File storeFile;
+    private final File tmpStoreFile;
+    private final ILogger logger = Logger.getLogger(ClientNearCachePreloader.class);
+
+    public ClientNearCachePreloader(String instanceName, String mapName, NearCachePreloaderConfig preloaderConfig) {
+        String fileName = toFileName("nearcache-" + instanceName + "-" + mapName) + ".store";
+        this.storeFile = new File(preloaderConfig.getDirectory(), fileName).getAbsoluteFile();
+        this.tmpStoreFile = new File(storeFile.getParentFile(), fileName + ".tmp");
+    }
+
+    private static String toFileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    public File getStoreFile() {
+        return storeFile;
+    }
+
+    /**
+     * Stores the keys, replacing the keys stored before.
+     *
+     * @param keys the keys of the near cache; can be modified concurrently.
+     */
+    public void storeKeys(Collection<Data> keys) {
+        List<Data> snapshot = new ArrayList<Data>(keys);
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpStoreFile), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeInt(snapshot.size());
+            for (Data key : snapshot) {
+                byte[] bytes = key.toByteArray();
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.close();
+            out = null;
+            // renameTo doesn't replace an existing file on every platform
+            if ((storeFile.exists() && !storeFile.delete()) || !tmpStoreFile.renameTo(storeFile)) {
+                logger.warning("Could not replace the near cache key file " + storeFile);
+            }
+        } catch (IOException e) {
+            logger.warning("Could not store the near cache keys to " + tmpStoreFile, e);
+        } finally {
+            closeResource(out);
+        }
+    }
+
+    /**
+     * Loads the stored keys.
+     *
+     * @return the stored keys; empty if no keys have been stored or the file can't be read.
+     */
+    public List<Data> loadKeys() {
+        if (!storeFile.exists()) {
+            return Collections.emptyList();
+        }
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(storeFile);
+            FileChannel channel = in.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 2 * (Integer.SIZE / Byte.SIZE) || buffer.getInt() != MAGIC) {
+                logger.warning("Ignoring near cache key file " + storeFile + ", it has an unknown format");
+                return Collections.emptyList();
+            }
+            int count = buffer.getInt();
+            List<Data> keys = new ArrayList<Data>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                keys.add(new HeapData(bytes));
+            }
+            return keys;
+        } catch (Exception e) {
+            logger.warning("Could not load the near cache keys from " + storeFile, e);
+            return Collections.emptyList();
+        } finally {
+            closeResource(in);
+        }
+    }
+}
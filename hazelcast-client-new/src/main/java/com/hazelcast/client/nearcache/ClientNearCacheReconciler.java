@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.nearcache;
+
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapFetchNearCacheInvalidationMetadataCodec;
+import com.hazelcast.client.spi.ClientContext;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.core.Member;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Future;
+
+/**
+ * Fetches the invalidation meta data of the partitions from the members and repairs the near cache of a map, so
+ * the near cache drops the partitions for which an invalidation was lost.
+ *
+ * @see com.hazelcast.map.impl.nearcache.RepairingHandler
+ */
+public class ClientNearCacheReconciler implements Runnable {
+
+    private final ILogger logger = Logger.getLogger(ClientNearCacheReconciler.class);
+
+    private final String mapName;
+    private final ClientHeapNearCache<Data> nearCache;
+    private final ClientContext context;
+
+    public ClientNearCacheReconciler(String mapName, ClientHeapNearCache<Data> nearCache, ClientContext context) {
+        this.mapName = mapName;
+        this.nearCache = nearCache;
+        this.context = context;
+    }
+
+    @Override
+    public void run() {
+        try {
+            reconcile();
+        } catch (Throwable t) {
+            logger.warning("Failed to reconcile the near cache of " + mapName, t);
+        }
+    }
+
+    private void reconcile() throws Exception {
+        for (Future<ClientMessage> future : fetchMetaData()) {
+            MapFetchNearCacheInvalidationMetadataCodec.ResponseParameters response =
+                    MapFetchNearCacheInvalidationMetadataCodec.decodeResponse(future.get());
+            UUID[] partitionUuids = new UUID[response.partitionUuids.size()];
+            for (int i = 0; i < partitionUuids.length; i++) {
+                partitionUuids[i] = UUID.fromString(response.partitionUuids.get(i));
+            }
+            nearCache.reconcile(response.partitionIds, partitionUuids, response.sequences);
+        }
+    }
+
+    private List<Future<ClientMessage>> fetchMetaData() {
+        HazelcastClientInstanceImpl client = (HazelcastClientInstanceImpl) context.getHazelcastInstance();
+        List<String> names = Collections.singletonList(mapName);
+        List<Future<ClientMessage>> futures = new ArrayList<Future<ClientMessage>>();
+        for (Member member : context.getClusterService().getMemberList()) {
+            Address address = member.getAddress();
+            ClientMessage request = MapFetchNearCacheInvalidationMetadataCodec.encodeRequest(names, address);
+            futures.add(new ClientInvocation(client, request, address).invoke());
+        }
+        return futures;
+    }
+}
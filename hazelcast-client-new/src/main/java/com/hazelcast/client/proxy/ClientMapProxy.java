@@ -16,6 +16,7 @@
 
 package com.hazelcast.client.proxy;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.client.impl.ClientMessageDecoder;
 import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerCodec;
@@ -24,8 +25,9 @@ import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerToKeyWithPred
 import com.hazelcast.client.impl.protocol.codec.MapAddEntryListenerWithPredicateCodec;
 import com.hazelcast.client.impl.protocol.codec.MapAddIndexCodec;
 import com.hazelcast.client.impl.protocol.codec.MapAddInterceptorCodec;
-import com.hazelcast.client.impl.protocol.codec.MapAddNearCacheEntryListenerCodec;
+import com.hazelcast.client.impl.protocol.codec.MapAddNearCacheInvalidationListenerCodec;
 import com.hazelcast.client.impl.protocol.codec.MapAddPartitionLostListenerCodec;
+import com.hazelcast.client.impl.protocol.codec.MapAggregateCodec;
 import com.hazelcast.client.impl.protocol.codec.MapClearCodec;
 import com.hazelcast.client.impl.protocol.codec.MapContainsKeyCodec;
 import com.hazelcast.client.impl.protocol.codec.MapContainsValueCodec;
@@ -53,6 +55,7 @@ import com.hazelcast.client.impl.protocol.codec.MapKeySetWithPredicateCodec;
 import com.hazelcast.client.impl.protocol.codec.MapLoadAllCodec;
 import com.hazelcast.client.impl.protocol.codec.MapLoadGivenKeysCodec;
 import com.hazelcast.client.impl.protocol.codec.MapLockCodec;
+import com.hazelcast.client.impl.protocol.codec.MapProjectCodec;
 import com.hazelcast.client.impl.protocol.codec.MapPutAllCodec;
 import com.hazelcast.client.impl.protocol.codec.MapPutAsyncCodec;
 import com.hazelcast.client.impl.protocol.codec.MapPutCodec;
@@ -78,6 +81,9 @@ import com.hazelcast.client.impl.protocol.codec.MapValuesWithPagingPredicateCode
 import com.hazelcast.client.impl.protocol.codec.MapValuesWithPredicateCodec;
 import com.hazelcast.client.nearcache.ClientHeapNearCache;
 import com.hazelcast.client.nearcache.ClientNearCache;
+import com.hazelcast.client.nearcache.ClientNearCachePreloader;
+import com.hazelcast.client.nearcache.ClientNearCacheReconciler;
+import com.hazelcast.client.spi.ClientExecutionService;
 import com.hazelcast.client.spi.ClientListenerService;
 import com.hazelcast.client.spi.ClientPartitionService;
 import com.hazelcast.client.spi.ClientProxy;
@@ -87,6 +93,7 @@ import com.hazelcast.client.spi.impl.ClientInvocationFuture;
 import com.hazelcast.client.spi.impl.ListenerRemoveCodec;
 import com.hazelcast.client.util.ClientDelegatingFuture;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.core.EntryEvent;
 import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.EntryListener;
@@ -122,8 +129,10 @@ import com.hazelcast.mapreduce.aggregation.Supplier;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.IterationType;
 import com.hazelcast.util.Preconditions;
@@ -140,21 +149,29 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
 import static com.hazelcast.util.SortingUtil.getSortedQueryResultSet;
 
 public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
 
     protected static final String NULL_KEY_IS_NOT_ALLOWED = "Null key is not allowed!";
     protected static final String NULL_VALUE_IS_NOT_ALLOWED = "Null value is not allowed!";
+    protected static final String NULL_PREDICATE_IS_NOT_ALLOWED = "Predicate should not be null!";
+
+    private static final int NEAR_CACHE_PRELOAD_BATCH_SIZE = 100;
 
     private final AtomicBoolean nearCacheInitialized = new AtomicBoolean();
     private volatile ClientHeapNearCache<Data> nearCache;
+    private volatile ScheduledFuture<?> nearCacheStoreFuture;
+    private volatile ScheduledFuture<?> nearCacheReconcilerFuture;
 
     private static final ClientMessageDecoder getAsyncResponseDecoder = new ClientMessageDecoder() {
         @Override
@@ -1064,6 +1081,60 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         throw new UnsupportedOperationException("Locality is ambiguous for client!!!");
     }
 
+    @Override
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator) {
+        return aggregate(aggregator, TruePredicate.INSTANCE);
+    }
+
+    @Override
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator, Predicate predicate) {
+        checkNotNull(aggregator, "Aggregator should not be null!");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate);
+
+        ClientMessage request = MapAggregateCodec.encodeRequest(name, toData(aggregator), toData(predicate));
+        ClientMessage response = invoke(request);
+        MapAggregateCodec.ResponseParameters resultParameters = MapAggregateCodec.decodeResponse(response);
+        return toObject(resultParameters.response);
+    }
+
+    private static void checkNotPagingPredicate(Predicate predicate) {
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Predicate should not be a type of paging predicate");
+        }
+    }
+
+    @Override
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection) {
+        return project(projection, TruePredicate.INSTANCE);
+    }
+
+    @Override
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection, Predicate predicate) {
+        checkNotNull(projection, "Projection should not be null!");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate);
+
+        ClientMessage request = MapProjectCodec.encodeRequest(name, toData(projection), toData(predicate));
+        ClientMessage response = invoke(request);
+        MapProjectCodec.ResponseParameters resultParameters = MapProjectCodec.decodeResponse(response);
+        List<R> results = new ArrayList<R>(resultParameters.list.size());
+        for (Data data : resultParameters.list) {
+            R result = toObject(data);
+            results.add(result);
+        }
+        return results;
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator(Predicate predicate, int fetchSize) {
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkPositive(fetchSize, "fetchSize should be positive!");
+        checkNotPagingPredicate(predicate);
+
+        return new ClientMapQueryIterator<K, V>(getContext(), name, predicate, fetchSize);
+    }
+
     @Override
     public void addIndex(String attribute, boolean ordered) {
         ClientMessage request = MapAddIndexCodec.encodeRequest(name, attribute, ordered);
@@ -1284,6 +1355,12 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
     }
 
     private void destroyNearCache() {
+        if (nearCacheStoreFuture != null) {
+            nearCacheStoreFuture.cancel(false);
+        }
+        if (nearCacheReconcilerFuture != null) {
+            nearCacheReconcilerFuture.cancel(false);
+        }
         if (nearCache != null) {
             removeNearCacheInvalidationListener();
             nearCache.destroy();
@@ -1337,19 +1414,72 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
             nearCache = new ClientHeapNearCache<Data>(name, getContext(), nearCacheConfig);
             if (nearCache.isInvalidateOnChange()) {
                 addNearCacheInvalidateListener();
+                startNearCacheReconciler();
+            }
+            NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+            if (preloaderConfig.isEnabled()) {
+                startNearCachePreloader(preloaderConfig);
+            }
+        }
+    }
+
+    private void startNearCacheReconciler() {
+        int intervalSeconds = getClient().getClientProperties().getMapInvalidationReconciliationIntervalSeconds()
+                .getInteger();
+        if (intervalSeconds <= 0) {
+            return;
+        }
+        ClientNearCacheReconciler reconciler = new ClientNearCacheReconciler(name, nearCache, getContext());
+        ClientExecutionService executionService = getContext().getExecutionService();
+        // the near cache adopts the current sequences right away, so it can detect the invalidations lost after that
+        executionService.execute(reconciler);
+        nearCacheReconcilerFuture = executionService.scheduleWithFixedDelay(reconciler, intervalSeconds, intervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    private void startNearCachePreloader(NearCachePreloaderConfig preloaderConfig) {
+        final ClientNearCachePreloader preloader = new ClientNearCachePreloader(
+                getContext().getHazelcastInstance().getName(), name, preloaderConfig);
+        final ClientHeapNearCache<Data> cache = nearCache;
+        ClientExecutionService executionService = getContext().getExecutionService();
+        executionService.execute(new Runnable() {
+            @Override
+            public void run() {
+                preloadNearCache(cache, preloader.loadKeys());
+            }
+        });
+        nearCacheStoreFuture = executionService.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                preloader.storeKeys(cache.keySet());
+            }
+        }, preloaderConfig.getStoreInitialDelaySeconds(), preloaderConfig.getStoreIntervalSeconds(), TimeUnit.SECONDS);
+    }
+
+    private void preloadNearCache(ClientHeapNearCache<Data> cache, List<Data> keys) {
+        try {
+            for (int from = 0; from < keys.size(); from += NEAR_CACHE_PRELOAD_BATCH_SIZE) {
+                int to = Math.min(from + NEAR_CACHE_PRELOAD_BATCH_SIZE, keys.size());
+                ClientMessage request = MapGetAllCodec.encodeRequest(name, new HashSet<Data>(keys.subList(from, to)));
+                ClientMessage response = invoke(request);
+                for (Entry<Data, Data> entry : MapGetAllCodec.decodeResponse(response).entrySet) {
+                    cache.put(entry.getKey(), entry.getValue());
+                }
             }
+        } catch (Exception e) {
+            Logger.getLogger(ClientMapProxy.class).warning("Could not preload the near cache of " + name, e);
         }
     }
 
     private void addNearCacheInvalidateListener() {
         try {
-            ClientMessage request = MapAddNearCacheEntryListenerCodec.encodeRequest(name, false);
+            ClientMessage request = MapAddNearCacheInvalidationListenerCodec.encodeRequest(name);
             EventHandler handler = new ClientMapAddNearCacheEventHandler();
             String registrationId = getContext().getListenerService().startListening(request, null, handler,
                     new ClientMessageDecoder() {
                         @Override
                         public <T> T decodeClientMessage(ClientMessage clientMessage) {
-                            return (T) MapAddNearCacheEntryListenerCodec.decodeResponse(clientMessage).response;
+                            return (T) MapAddNearCacheInvalidationListenerCodec.decodeResponse(clientMessage).response;
                         }
                     });
             nearCache.setId(registrationId);
@@ -1480,7 +1610,7 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         }
     }
 
-    private class ClientMapAddNearCacheEventHandler extends MapAddNearCacheEntryListenerCodec.AbstractEventHandler
+    private class ClientMapAddNearCacheEventHandler extends MapAddNearCacheInvalidationListenerCodec.AbstractEventHandler
             implements EventHandler<ClientMessage> {
 
         @Override
@@ -1494,25 +1624,26 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         }
 
         @Override
-        public void handle(Data key, Data value, Data oldValue, Data mergingValue,
-                           int eventType, String uuid, int numberOfAffectedEntries) {
-            EntryEventType entryEventType = EntryEventType.getByType(eventType);
-            switch (entryEventType) {
-                case ADDED:
-                case REMOVED:
-                case UPDATED:
-                case MERGED:
-                case EVICTED:
-                    nearCache.remove(key);
-                    break;
-                case CLEAR_ALL:
-                case EVICT_ALL:
-                    nearCache.clear();
-                    break;
-                default:
-                    throw new IllegalArgumentException("Not a known event type " + entryEventType);
+        public void handle(Data key, String partitionUuid, long sequence) {
+            // a null key means that all entries of the map are invalidated, e.g. by a clear
+            if (key == null) {
+                nearCache.clear();
+            } else {
+                invalidate(key, partitionUuid, sequence);
+            }
+        }
+
+        @Override
+        public void handle(List<Data> keys, List<String> partitionUuids, long[] sequences) {
+            for (int i = 0; i < keys.size(); i++) {
+                invalidate(keys.get(i), partitionUuids.get(i), sequences[i]);
             }
         }
+
+        private void invalidate(Data key, String partitionUuid, long sequence) {
+            int partitionId = getContext().getPartitionService().getPartitionId(key);
+            nearCache.invalidate(key, partitionId, UUID.fromString(partitionUuid), sequence);
+        }
     }
 
 }
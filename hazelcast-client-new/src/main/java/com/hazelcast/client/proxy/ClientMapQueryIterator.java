@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.proxy;
+
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapFetchWithQueryCodec;
+import com.hazelcast.client.spi.ClientContext;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.client.spi.impl.ClientInvocationFuture;
+import com.hazelcast.map.impl.query.AbstractMapQueryIterator;
+import com.hazelcast.map.impl.query.QueryBatchResult;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.util.ExceptionUtil;
+
+/**
+ * Client side {@link AbstractMapQueryIterator}, which fetches every batch from the owner of its partition.
+ *
+ * @param <K> the type of key.
+ * @param <V> the type of value.
+ */
+public class ClientMapQueryIterator<K, V> extends AbstractMapQueryIterator<K, V> {
+
+    private final ClientContext context;
+    private final Data predicateData;
+
+    public ClientMapQueryIterator(ClientContext context, String mapName, Predicate predicate, int fetchSize) {
+        super(mapName, predicate, fetchSize, context.getPartitionService().getPartitionCount());
+        this.context = context;
+        this.predicateData = context.getSerializationService().toData(predicate);
+    }
+
+    @Override
+    protected QueryBatchResult fetch(int partitionId, int tableIndex) {
+        ClientMessage request = MapFetchWithQueryCodec
+                .encodeRequest(mapName, partitionId, tableIndex, fetchSize, predicateData);
+        HazelcastClientInstanceImpl client = (HazelcastClientInstanceImpl) context.getHazelcastInstance();
+        try {
+            ClientInvocation clientInvocation = new ClientInvocation(client, request, partitionId);
+            ClientInvocationFuture f = clientInvocation.invoke();
+            MapFetchWithQueryCodec.ResponseParameters responseParameters = MapFetchWithQueryCodec.decodeResponse(f.get());
+            return new QueryBatchResult(responseParameters.keys, responseParameters.values,
+                    responseParameters.nextTableIndex);
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
+        }
+    }
+
+    @Override
+    protected <T> T toObject(Data data) {
+        return context.getSerializationService().toObject(data);
+    }
+}
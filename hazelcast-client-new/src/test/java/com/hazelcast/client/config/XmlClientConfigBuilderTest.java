@@ -25,6 +25,7 @@ import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.ListenerConfig;
 import com.hazelcast.config.MapIndexConfig;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
 import com.hazelcast.config.QueryCacheConfig;
 import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.config.SerializerConfig;
@@ -251,6 +252,12 @@ public class XmlClientConfigBuilderTest {
         assertEquals(100, nearCacheConfig.getEvictionConfig().getSize());
         assertEquals(EvictionConfig.MaxSizePolicy.ENTRY_COUNT, nearCacheConfig.getEvictionConfig().getMaximumSizePolicy());
         assertEquals(EvictionPolicy.LFU, nearCacheConfig.getEvictionConfig().getEvictionPolicy());
+
+        NearCachePreloaderConfig preloaderConfig = nearCacheConfig.getPreloaderConfig();
+        assertTrue(preloaderConfig.isEnabled());
+        assertEquals("/tmp", preloaderConfig.getDirectory());
+        assertEquals(60, preloaderConfig.getStoreInitialDelaySeconds());
+        assertEquals(30, preloaderConfig.getStoreIntervalSeconds());
     }
 
     @Test
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapNearCacheInvalidationTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 100;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+    private final String mapName = randomMapName();
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testInvalidation_whenNotBatched() {
+        testInvalidation(new Config());
+    }
+
+    @Test
+    public void testInvalidation_whenBatchSizeReached() {
+        // the batch frequency is too long to be involved
+        testInvalidation(newBatchingConfig(10, 10000));
+    }
+
+    @Test
+    public void testInvalidation_whenBatchFrequencyPassed() {
+        // the batch size is too large to be involved
+        testInvalidation(newBatchingConfig(1000, 1));
+    }
+
+    @Test
+    public void testInvalidation_whenPutAll() {
+        // the keys left over by the batch size are sent when the batch frequency has passed
+        Config config = newBatchingConfig(10, 1);
+        IMap<Integer, Integer> memberMap = hazelcastFactory.newHazelcastInstance(config).getMap(mapName);
+        hazelcastFactory.newHazelcastInstance(config);
+        IMap<Integer, Integer> clientMap = newNearCachedClientMap();
+        fillAndCache(memberMap, clientMap);
+
+        Map<Integer, Integer> entries = new HashMap<Integer, Integer>();
+        for (int i = 0; i < COUNT; i++) {
+            entries.put(i, i + 1);
+        }
+        memberMap.putAll(entries);
+
+        assertNearCacheEmptyEventually(clientMap);
+        assertEquals(Integer.valueOf(COUNT), clientMap.get(COUNT - 1));
+    }
+
+    @Test
+    public void testInvalidation_whenCleared() {
+        IMap<Integer, Integer> memberMap = hazelcastFactory.newHazelcastInstance().getMap(mapName);
+        hazelcastFactory.newHazelcastInstance();
+        IMap<Integer, Integer> clientMap = newNearCachedClientMap();
+        fillAndCache(memberMap, clientMap);
+
+        memberMap.clear();
+
+        assertNearCacheEmptyEventually(clientMap);
+        assertEquals(null, clientMap.get(0));
+    }
+
+    private void testInvalidation(Config config) {
+        IMap<Integer, Integer> memberMap = hazelcastFactory.newHazelcastInstance(config).getMap(mapName);
+        hazelcastFactory.newHazelcastInstance(config);
+        IMap<Integer, Integer> clientMap = newNearCachedClientMap();
+        fillAndCache(memberMap, clientMap);
+
+        // the updates of the same key are coalesced into a single invalidation if batched
+        for (int k = 1; k <= 10; k++) {
+            for (int i = 0; i < COUNT; i++) {
+                memberMap.put(i, i + k);
+            }
+        }
+
+        assertNearCacheEmptyEventually(clientMap);
+        assertEquals(Integer.valueOf(COUNT - 1 + 10), clientMap.get(COUNT - 1));
+    }
+
+    private IMap<Integer, Integer> newNearCachedClientMap() {
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.addNearCacheConfig(new NearCacheConfig(mapName).setInvalidateOnChange(true));
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+        return client.getMap(mapName);
+    }
+
+    private static void fillAndCache(IMap<Integer, Integer> memberMap, IMap<Integer, Integer> clientMap) {
+        for (int i = 0; i < COUNT; i++) {
+            memberMap.put(i, i);
+        }
+        for (int i = 0; i < COUNT; i++) {
+            clientMap.get(i);
+        }
+        assertEquals(COUNT, clientMap.getLocalMapStats().getNearCacheStats().getOwnedEntryCount());
+    }
+
+    private static void assertNearCacheEmptyEventually(final IMap<Integer, Integer> clientMap) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(0, clientMap.getLocalMapStats().getNearCacheStats().getOwnedEntryCount());
+            }
+        });
+    }
+
+    private static Config newBatchingConfig(int batchSize, int batchFrequencySeconds) {
+        Config config = new Config();
+        config.setProperty(GroupProperty.MAP_INVALIDATION_BATCH_ENABLED, "true");
+        config.setProperty(GroupProperty.MAP_INVALIDATION_BATCH_SIZE, String.valueOf(batchSize));
+        config.setProperty(GroupProperty.MAP_INVALIDATION_BATCH_FREQUENCY_SECONDS, String.valueOf(batchFrequencySeconds));
+        return config;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.nearcache.ClientNearCachePreloader;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.config.NearCachePreloaderConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.test.HazelcastTestSupport.assertTrueEventually;
+import static com.hazelcast.test.HazelcastTestSupport.randomMapName;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapNearCachePreloaderTest {
+
+    private static final int KEY_COUNT = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testNearCache_isPreloaded_fromKeysStoredByPreviousClient() {
+        String mapName = randomMapName();
+        HazelcastInstance member = hazelcastFactory.newHazelcastInstance();
+        IMap<Integer, Integer> memberMap = member.getMap(mapName);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            memberMap.put(i, i);
+        }
+
+        ClientConfig clientConfig = newClientConfig(mapName);
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(clientConfig);
+        final IMap<Integer, Integer> map = client.getMap(mapName);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            map.get(i);
+        }
+        final ClientNearCachePreloader preloader = new ClientNearCachePreloader(client.getName(), mapName,
+                clientConfig.getNearCacheConfig(mapName).getPreloaderConfig());
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(KEY_COUNT, preloader.loadKeys().size());
+            }
+        });
+        client.shutdown();
+
+        HazelcastInstance restartedClient = hazelcastFactory.newHazelcastClient(clientConfig);
+        final IMap<Integer, Integer> restartedMap = restartedClient.getMap(mapName);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                long ownedEntryCount = restartedMap.getLocalMapStats().getNearCacheStats().getOwnedEntryCount();
+                assertEquals(KEY_COUNT, ownedEntryCount);
+            }
+        });
+        for (int i = 0; i < KEY_COUNT; i++) {
+            assertEquals(Integer.valueOf(i), restartedMap.get(i));
+        }
+        assertEquals(KEY_COUNT, restartedMap.getLocalMapStats().getNearCacheStats().getHits());
+    }
+
+    private ClientConfig newClientConfig(String mapName) {
+        NearCachePreloaderConfig preloaderConfig = new NearCachePreloaderConfig()
+                .setEnabled(true)
+                .setDirectory(folder.getRoot().getAbsolutePath())
+                .setStoreInitialDelaySeconds(1)
+                .setStoreIntervalSeconds(1);
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(mapName)
+                .setPreloaderConfig(preloaderConfig);
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setInstanceName("preloader-client");
+        clientConfig.addNearCacheConfig(nearCacheConfig);
+        return clientConfig;
+    }
+}
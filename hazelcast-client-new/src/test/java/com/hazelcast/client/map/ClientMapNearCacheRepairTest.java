@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.config.ClientProperties;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.nearcache.InvalidationMetaDataGenerator;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMapNearCacheRepairTest extends HazelcastTestSupport {
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+    private final String mapName = randomMapName();
+
+    private HazelcastInstance member;
+    private IMap<String, Integer> memberMap;
+    private IMap<String, Integer> clientMap;
+
+    @Before
+    public void setUp() {
+        member = hazelcastFactory.newHazelcastInstance();
+        memberMap = member.getMap(mapName);
+
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setProperty(ClientProperties.PROP_MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS, "1");
+        clientConfig.addNearCacheConfig(new NearCacheConfig(mapName).setInvalidateOnChange(true));
+        clientMap = hazelcastFactory.newHazelcastClient(clientConfig).getMap(mapName);
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testRepair_whenInvalidationLost() {
+        testRepair(false);
+    }
+
+    @Test
+    public void testRepair_whenPartitionOwnerChanged() {
+        testRepair(true);
+    }
+
+    private void testRepair(boolean ownerChanged) {
+        String key = randomString();
+        memberMap.put(key, 0);
+
+        // neither the first nor the later reconciliations drop anything while no invalidations are lost
+        clientMap.get(key);
+        assertNearCacheSizeAllTheTime(1);
+
+        int partitionId = member.getPartitionService().getPartition(key).getPartitionId();
+        InvalidationMetaDataGenerator generator = getInvalidationMetaDataGenerator(member);
+        if (ownerChanged) {
+            generator.regenerateUuid(partitionId);
+        } else {
+            // an invalidation is sent with this sequence, but it never arrives
+            generator.nextSequence(mapName, partitionId);
+        }
+        assertNearCacheSizeEventually(0);
+    }
+
+    @Test
+    public void testNoRepair_whenInvalidationsReceived() {
+        String key = randomString();
+        memberMap.put(key, 0);
+
+        for (int value = 1; value <= 3; value++) {
+            clientMap.get(key);
+            memberMap.put(key, value);
+            // the invalidation has arrived
+            assertNearCacheSizeEventually(0);
+        }
+
+        assertEquals(Integer.valueOf(3), clientMap.get(key));
+        assertNearCacheSizeAllTheTime(1);
+    }
+
+    private void assertNearCacheSizeEventually(final int expectedSize) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(expectedSize, clientMap.getLocalMapStats().getNearCacheStats().getOwnedEntryCount());
+            }
+        });
+    }
+
+    private void assertNearCacheSizeAllTheTime(final int expectedSize) {
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(expectedSize, clientMap.getLocalMapStats().getNearCacheStats().getOwnedEntryCount());
+            }
+        }, 3);
+    }
+
+    private static InvalidationMetaDataGenerator getInvalidationMetaDataGenerator(HazelcastInstance instance) {
+        MapService service = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return service.getMapServiceContext().getNearCacheProvider().getInvalidationMetaDataGenerator();
+    }
+}
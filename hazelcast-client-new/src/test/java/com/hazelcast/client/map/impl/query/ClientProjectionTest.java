@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.map.impl.query;
+
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientProjectionTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 500;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+    private IMap<Integer, Employee> map;
+
+    @Before
+    public void setup() {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient();
+        map = client.getMap(randomMapName());
+    }
+
+    @After
+    public void tearDown() {
+        hazelcastFactory.terminateAll();
+    }
+
+    private void fill() {
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, new Employee(i, "name" + i, i % 50, (i & 1) == 1, i));
+        }
+    }
+
+    @Test
+    public void testSingleAttribute() {
+        fill();
+
+        Collection<Long> ids = map.project(Projections.<Object, Long>singleAttribute("id"));
+
+        assertEquals(COUNT, ids.size());
+        Set<Long> expected = new HashSet<Long>();
+        for (long i = 0; i < COUNT; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, new HashSet<Long>(ids));
+    }
+
+    @Test
+    public void testSingleAttribute_withPredicate() {
+        map.addIndex("age", true);
+        fill();
+
+        Collection<Integer> ages = map.project(Projections.<Object, Integer>singleAttribute("age"),
+                new SqlPredicate("age < 10"));
+
+        assertEquals(100, ages.size());
+        for (Integer age : ages) {
+            assertTrue(age < 10);
+        }
+    }
+
+    @Test
+    public void testSingleAttribute_whenNull() {
+        map.put(1, new Employee(1, null, 30, true, 100));
+
+        Collection<String> names = map.project(Projections.<Object, String>singleAttribute("name"));
+
+        assertEquals(1, names.size());
+        assertNull(names.iterator().next());
+    }
+
+    @Test
+    public void testMultiAttribute() {
+        fill();
+
+        Collection<Object[]> rows = map.project(Projections.multiAttribute("name", "age"), new SqlPredicate("id = 42"));
+
+        assertEquals(1, rows.size());
+        Object[] row = rows.iterator().next();
+        assertEquals("name42", row[0]);
+        assertEquals(42, row[1]);
+    }
+
+    @Test
+    public void testProject_whenEmpty() {
+        assertTrue(map.project(Projections.singleAttribute("id")).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProject_withPagingPredicate() {
+        map.project(Projections.singleAttribute("id"), new PagingPredicate(10));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testProject_withNullPredicate() {
+        map.project(Projections.singleAttribute("id"), null);
+    }
+}
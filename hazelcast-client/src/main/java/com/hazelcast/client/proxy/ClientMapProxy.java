@@ -16,6 +16,7 @@
 
 package com.hazelcast.client.proxy;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.client.impl.client.BaseClientRemoveListenerRequest;
 import com.hazelcast.client.impl.client.ClientRequest;
 import com.hazelcast.client.nearcache.ClientHeapNearCache;
@@ -50,8 +51,9 @@ import com.hazelcast.map.impl.SimpleEntryView;
 import com.hazelcast.map.impl.client.MapAddEntryListenerRequest;
 import com.hazelcast.map.impl.client.MapAddIndexRequest;
 import com.hazelcast.map.impl.client.MapAddInterceptorRequest;
-import com.hazelcast.map.impl.client.MapAddNearCacheEntryListenerRequest;
+import com.hazelcast.map.impl.client.MapAddNearCacheInvalidationListenerRequest;
 import com.hazelcast.map.impl.client.MapAddPartitionLostListenerRequest;
+import com.hazelcast.map.impl.client.MapAggregateRequest;
 import com.hazelcast.map.impl.client.MapClearRequest;
 import com.hazelcast.map.impl.client.MapContainsKeyRequest;
 import com.hazelcast.map.impl.client.MapContainsValueRequest;
@@ -73,6 +75,7 @@ import com.hazelcast.map.impl.client.MapKeySetRequest;
 import com.hazelcast.map.impl.client.MapLoadAllKeysRequest;
 import com.hazelcast.map.impl.client.MapLoadGivenKeysRequest;
 import com.hazelcast.map.impl.client.MapLockRequest;
+import com.hazelcast.map.impl.client.MapProjectRequest;
 import com.hazelcast.map.impl.client.MapPutAllRequest;
 import com.hazelcast.map.impl.client.MapPutIfAbsentRequest;
 import com.hazelcast.map.impl.client.MapPutRequest;
@@ -91,6 +94,9 @@ import com.hazelcast.map.impl.client.MapTryPutRequest;
 import com.hazelcast.map.impl.client.MapTryRemoveRequest;
 import com.hazelcast.map.impl.client.MapUnlockRequest;
 import com.hazelcast.map.impl.client.MapValuesRequest;
+import com.hazelcast.map.impl.event.BatchInvalidationEventData;
+import com.hazelcast.map.impl.event.EventData;
+import com.hazelcast.map.impl.event.InvalidationEventData;
 import com.hazelcast.map.listener.MapListener;
 import com.hazelcast.map.listener.MapPartitionLostListener;
 import com.hazelcast.mapreduce.Collator;
@@ -107,10 +113,13 @@ import com.hazelcast.mapreduce.aggregation.Supplier;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.monitor.impl.LocalMapStatsImpl;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
+import com.hazelcast.query.TruePredicate;
 import com.hazelcast.spi.impl.PortableEntryEvent;
 import com.hazelcast.spi.impl.PortableMapPartitionLostEvent;
+import com.hazelcast.spi.impl.SerializableList;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.IterationType;
 import com.hazelcast.util.Preconditions;
@@ -136,12 +145,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 import static com.hazelcast.map.impl.ListenerAdapters.createListenerAdapter;
 import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
 import static com.hazelcast.util.SortingUtil.getSortedQueryResultSet;
 
 public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
 
     protected static final String NULL_KEY_IS_NOT_ALLOWED = "Null key is not allowed!";
     protected static final String NULL_VALUE_IS_NOT_ALLOWED = "Null value is not allowed!";
+    protected static final String NULL_PREDICATE_IS_NOT_ALLOWED = "Predicate should not be null!";
 
     private final String name;
     private final AtomicBoolean nearCacheInitialized = new AtomicBoolean();
@@ -883,6 +894,56 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
         throw new UnsupportedOperationException("Locality is ambiguous for client!!!");
     }
 
+    @Override
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator) {
+        return aggregate(aggregator, TruePredicate.INSTANCE);
+    }
+
+    @Override
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator, Predicate predicate) {
+        checkNotNull(aggregator, "Aggregator should not be null!");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate);
+
+        MapAggregateRequest request = new MapAggregateRequest(name, aggregator, predicate);
+        return invoke(request);
+    }
+
+    private static void checkNotPagingPredicate(Predicate predicate) {
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Predicate should not be a type of paging predicate");
+        }
+    }
+
+    @Override
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection) {
+        return project(projection, TruePredicate.INSTANCE);
+    }
+
+    @Override
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection, Predicate predicate) {
+        checkNotNull(projection, "Projection should not be null!");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkNotPagingPredicate(predicate);
+
+        SerializableList dataList = invoke(new MapProjectRequest(name, projection, predicate));
+        List<R> results = new ArrayList<R>(dataList.getCollection().size());
+        for (Data data : dataList) {
+            R result = toObject(data);
+            results.add(result);
+        }
+        return results;
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator(Predicate predicate, int fetchSize) {
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkPositive(fetchSize, "fetchSize should be positive!");
+        checkNotPagingPredicate(predicate);
+
+        return new ClientMapQueryIterator<K, V>(getContext(), name, predicate, fetchSize);
+    }
+
     @Override
     public void addIndex(String attribute, boolean ordered) {
         MapAddIndexRequest request = new MapAddIndexRequest(name, attribute, ordered);
@@ -1153,25 +1214,24 @@ public class ClientMapProxy<K, V> extends ClientProxy implements IMap<K, V> {
 
     private void addNearCacheInvalidateListener() {
         try {
-            ClientRequest request = new MapAddNearCacheEntryListenerRequest(name, false);
-            EventHandler handler = new EventHandler<PortableEntryEvent>() {
+            ClientRequest request = new MapAddNearCacheInvalidationListenerRequest(name);
+            EventHandler handler = new EventHandler<EventData>() {
                 @Override
-                public void handle(PortableEntryEvent event) {
-                    switch (event.getEventType()) {
-                        case ADDED:
-                        case REMOVED:
-                        case UPDATED:
-                        case MERGED:
-                        case EVICTED:
-                            final Data key = event.getKey();
-                            nearCache.remove(key);
-                            break;
-                        case CLEAR_ALL:
-                        case EVICT_ALL:
+                public void handle(EventData event) {
+                    if (event instanceof InvalidationEventData) {
+                        // a null key means that all entries of the map are invalidated, e.g. by a clear
+                        Data key = ((InvalidationEventData) event).getKey();
+                        if (key == null) {
                             nearCache.clear();
-                            break;
-                        default:
-                            throw new IllegalArgumentException("Not a known event type " + event.getEventType());
+                        } else {
+                            nearCache.remove(key);
+                        }
+                    } else if (event instanceof BatchInvalidationEventData) {
+                        for (Data key : ((BatchInvalidationEventData) event).getKeys()) {
+                            nearCache.remove(key);
+                        }
+                    } else {
+                        throw new IllegalArgumentException("Not a known invalidation " + event);
                     }
                 }
 
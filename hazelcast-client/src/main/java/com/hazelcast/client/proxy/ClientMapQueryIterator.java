@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.proxy;
+
+import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
+import com.hazelcast.client.spi.ClientContext;
+import com.hazelcast.client.spi.impl.ClientInvocation;
+import com.hazelcast.map.impl.client.MapFetchWithQueryRequest;
+import com.hazelcast.map.impl.query.AbstractMapQueryIterator;
+import com.hazelcast.map.impl.query.QueryBatchResult;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.util.ExceptionUtil;
+
+import java.util.concurrent.Future;
+
+/**
+ * Client side {@link AbstractMapQueryIterator}, which fetches every batch from the owner of its partition.
+ *
+ * @param <K> the type of key.
+ * @param <V> the type of value.
+ */
+public class ClientMapQueryIterator<K, V> extends AbstractMapQueryIterator<K, V> {
+
+    private final ClientContext context;
+
+    public ClientMapQueryIterator(ClientContext context, String mapName, Predicate predicate, int fetchSize) {
+        super(mapName, predicate, fetchSize, context.getPartitionService().getPartitionCount());
+        this.context = context;
+    }
+
+    @Override
+    protected QueryBatchResult fetch(int partitionId, int tableIndex) {
+        MapFetchWithQueryRequest request = new MapFetchWithQueryRequest(mapName, partitionId, tableIndex, fetchSize,
+                predicate);
+        HazelcastClientInstanceImpl client = (HazelcastClientInstanceImpl) context.getHazelcastInstance();
+        try {
+            ClientInvocation clientInvocation = new ClientInvocation(client, request, partitionId);
+            Future<QueryBatchResult> f = clientInvocation.invoke();
+            return context.getSerializationService().toObject(f.get());
+        } catch (Exception e) {
+            throw ExceptionUtil.rethrow(e);
+        }
+    }
+
+    @Override
+    protected <T> T toObject(Data data) {
+        return context.getSerializationService().toObject(data);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import java.io.Serializable;
+
+/**
+ * Computes an aggregated value over the entries of a map, see
+ * {@link com.hazelcast.core.IMap#aggregate(Aggregator, com.hazelcast.query.Predicate)}.
+ * <p/>
+ * The aggregation runs in three phases:
+ * <ol>
+ * <li>a copy of the aggregator accumulates the matching entries of every partition on the partition thread,</li>
+ * <li>the copies of a member are combined on the member,</li>
+ * <li>the results of the members are combined on the caller, which returns {@link #aggregate()}.</li>
+ * </ol>
+ * An aggregator is serialized to be copied, so it must not hold any state besides the accumulated one.
+ * A predefined set of aggregators can be found in {@link Aggregators}.
+ *
+ * @param <I> the type of the accumulated entries
+ * @param <R> the type of the aggregated value
+ * @since 3.6
+ */
+public abstract class Aggregator<I, R> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Accumulates an entry.
+     *
+     * @param input the entry
+     */
+    public abstract void accumulate(I input);
+
+    /**
+     * Combines the state of another aggregator of the same type into this aggregator.
+     *
+     * @param aggregator the aggregator to combine
+     */
+    public abstract void combine(Aggregator aggregator);
+
+    /**
+     * @return the aggregated value of all accumulated and combined entries
+     */
+    public abstract R aggregate();
+}
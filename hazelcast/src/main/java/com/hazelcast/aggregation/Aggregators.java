@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation;
+
+import com.hazelcast.aggregation.impl.ComparableMaxAggregator;
+import com.hazelcast.aggregation.impl.ComparableMinAggregator;
+import com.hazelcast.aggregation.impl.CountAggregator;
+import com.hazelcast.aggregation.impl.DoubleAverageAggregator;
+import com.hazelcast.aggregation.impl.DoubleSumAggregator;
+import com.hazelcast.aggregation.impl.LongSumAggregator;
+
+/**
+ * Provides the predefined {@link Aggregator}s.
+ * <p/>
+ * The aggregators taking an attribute path aggregate the given attribute of the map values, the attribute
+ * is extracted the same way as by a {@link com.hazelcast.query.Predicate}. If the path is {@code null},
+ * they aggregate the map values themselves.
+ * <p/>
+ * The type of the accumulated entries is inferred, so the aggregators can be passed to
+ * {@link com.hazelcast.core.IMap#aggregate(Aggregator)} directly.
+ *
+ * @since 3.6
+ */
+public final class Aggregators {
+
+    private Aggregators() {
+    }
+
+    /**
+     * @return an aggregator counting the entries
+     */
+    public static <I> Aggregator<I, Long> count() {
+        return new CountAggregator<I>();
+    }
+
+    /**
+     * @param attributePath the path of the summed attribute, its values must be integral numbers
+     * @return an aggregator summing the attribute values as longs
+     */
+    public static <I> Aggregator<I, Long> longSum(String attributePath) {
+        return new LongSumAggregator<I>(attributePath);
+    }
+
+    /**
+     * @param attributePath the path of the summed attribute, its values must be numbers
+     * @return an aggregator summing the attribute values as doubles
+     */
+    public static <I> Aggregator<I, Double> doubleSum(String attributePath) {
+        return new DoubleSumAggregator<I>(attributePath);
+    }
+
+    /**
+     * @param attributePath the path of the averaged attribute, its values must be numbers
+     * @return an aggregator computing the average of the attribute values, or {@code null} if there is no entry
+     */
+    public static <I> Aggregator<I, Double> doubleAvg(String attributePath) {
+        return new DoubleAverageAggregator<I>(attributePath);
+    }
+
+    /**
+     * @param attributePath the path of the compared attribute, its values must be {@link Comparable}
+     * @return an aggregator finding the greatest attribute value, or {@code null} if there is no entry
+     */
+    public static <I, R extends Comparable> Aggregator<I, R> comparableMax(String attributePath) {
+        return new ComparableMaxAggregator<I, R>(attributePath);
+    }
+
+    /**
+     * @param attributePath the path of the compared attribute, its values must be {@link Comparable}
+     * @return an aggregator finding the least attribute value, or {@code null} if there is no entry
+     */
+    public static <I, R extends Comparable> Aggregator<I, R> comparableMin(String attributePath) {
+        return new ComparableMinAggregator<I, R>(attributePath);
+    }
+}
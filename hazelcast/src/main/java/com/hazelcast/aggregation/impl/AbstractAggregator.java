@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.Map;
+
+/**
+ * Base class of the predefined aggregators of an attribute.
+ *
+ * @param <I> the type of the accumulated entries
+ * @param <R> the type of the aggregated value
+ */
+public abstract class AbstractAggregator<I, R> extends Aggregator<I, R> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String attributePath;
+
+    protected AbstractAggregator(String attributePath) {
+        this.attributePath = attributePath;
+    }
+
+    @Override
+    public final void accumulate(I input) {
+        Object value = extract(input);
+        if (value != null) {
+            accumulateValue(value);
+        }
+    }
+
+    /**
+     * Accumulates a non-null attribute value.
+     */
+    protected abstract void accumulateValue(Object value);
+
+    private Object extract(I input) {
+        if (attributePath == null) {
+            return ((Map.Entry) input).getValue();
+        }
+        if (input instanceof QueryableEntry) {
+            return ((QueryableEntry) input).getAttribute(attributePath);
+        }
+        throw new IllegalArgumentException("Cannot extract attribute '" + attributePath + "' from " + input);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.aggregation.impl;
+
+import com.hazelcast.aggregation.Aggregator;
+
+/**
+ * Finds the greatest attribute value.
+ *
+ * @param <I> the type of the accumulated entries
+ * @param <R> the type of the attribute values
+ */
+public final class ComparableMaxAggregator<I, R extends Comparable> extends AbstractAggregator<I, R> {
+
+    private static final long serialVersionUID = 1L;
+
+    private R max;
+
+    public ComparableMaxAggregator(String attributePath) {
+        super(attributePath);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void accumulateValue(Object value) {
+        if (max == null || max.compareTo(value) < 0) {
+            max = (R) value;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void combine(Aggregator aggregator) {
+        R other = ((ComparableMaxAggregator<I, R>) aggregator).max;
+        if (other != null) {
+            accumulateValue(other);
+        }
+    }
+
+    @Override
+    public R aggregate() {
+        return max;
+    }
+}
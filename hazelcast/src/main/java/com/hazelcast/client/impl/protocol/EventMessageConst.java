@@ -46,4 +46,6 @@ public final class EventMessageConst {
     public static final int EVENT_QUERYCACHEBATCH = 213;
 
     public static final int EVENT_CACHEPARTITIONLOST = 214;
+    public static final int EVENT_IMAPINVALIDATION = 215;
+    public static final int EVENT_IMAPBATCHINVALIDATION = 216;
 }
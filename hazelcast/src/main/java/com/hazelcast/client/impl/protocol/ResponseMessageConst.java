@@ -44,4 +44,6 @@ public final class ResponseMessageConst {
     public static final int SET_ENTRY = 114;
     public static final int READ_RESULT_SET = 115;
     public static final int CACHE_KEY_ITERATOR_RESULT = 116;
+    public static final int QUERY_BATCH_RESULT = 117;
+    public static final int NEAR_CACHE_INVALIDATION_META_DATA = 118;
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task.map;
+
+import com.hazelcast.client.ClientEndpoint;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapAddNearCacheInvalidationListenerCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractCallableMessageTask;
+import com.hazelcast.instance.Node;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.event.BatchInvalidationEventData;
+import com.hazelcast.map.impl.event.InvalidationEventData;
+import com.hazelcast.map.impl.nearcache.InvalidationListener;
+import com.hazelcast.map.impl.nearcache.NearCacheProvider;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class MapAddNearCacheInvalidationListenerMessageTask
+        extends AbstractCallableMessageTask<MapAddNearCacheInvalidationListenerCodec.RequestParameters> {
+
+    public MapAddNearCacheInvalidationListenerMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Object call() {
+        final ClientEndpoint endpoint = getEndpoint();
+        final MapService mapService = getService(MapService.SERVICE_NAME);
+        NearCacheProvider nearCacheProvider = mapService.getMapServiceContext().getNearCacheProvider();
+        String registrationId = nearCacheProvider.addInvalidationListener(parameters.name, new ClientInvalidationListener());
+        endpoint.addListenerDestroyAction(MapService.SERVICE_NAME, parameters.name, registrationId);
+        return registrationId;
+    }
+
+    private final class ClientInvalidationListener extends InvalidationListener {
+
+        @Override
+        public void onInvalidation(InvalidationEventData event) {
+            if (endpoint.isAlive()) {
+                UUID partitionUuid = event.getPartitionUuid();
+                ClientMessage eventMessage = MapAddNearCacheInvalidationListenerCodec.encodeIMapInvalidationEvent(
+                        event.getKey(), partitionUuid == null ? null : partitionUuid.toString(), event.getSequence());
+                sendClientMessage(event.getKey(), eventMessage);
+            }
+        }
+
+        @Override
+        public void onBatchInvalidation(BatchInvalidationEventData event) {
+            if (endpoint.isAlive()) {
+                List<String> partitionUuids = new ArrayList<String>(event.getPartitionUuids().size());
+                for (UUID partitionUuid : event.getPartitionUuids()) {
+                    partitionUuids.add(partitionUuid.toString());
+                }
+                ClientMessage eventMessage = MapAddNearCacheInvalidationListenerCodec.encodeIMapBatchInvalidationEvent(
+                        event.getKeys(), partitionUuids, event.getSequences());
+                sendClientMessage(event.getMapName(), eventMessage);
+            }
+        }
+    }
+
+    @Override
+    protected MapAddNearCacheInvalidationListenerCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return MapAddNearCacheInvalidationListenerCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        return MapAddNearCacheInvalidationListenerCodec.encodeResponse((String) response);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "addNearCacheInvalidationListener";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return null;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new MapPermission(parameters.name, ActionConstants.ACTION_LISTEN);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task.map;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapFetchNearCacheInvalidationMetadataCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractInvocationMessageTask;
+import com.hazelcast.instance.Node;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.operation.MapGetInvalidationMetaDataOperation;
+import com.hazelcast.map.impl.operation.MapGetInvalidationMetaDataOperation.MetaDataResponse;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.spi.InvocationBuilder;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
+
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fetches the near cache invalidation meta data of the partitions owned by a member, so a client can reconcile its
+ * near caches.
+ *
+ * @see MapGetInvalidationMetaDataOperation
+ */
+public class MapFetchNearCacheInvalidationMetadataMessageTask
+        extends AbstractInvocationMessageTask<MapFetchNearCacheInvalidationMetadataCodec.RequestParameters> {
+
+    public MapFetchNearCacheInvalidationMetadataMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        return new MapGetInvalidationMetaDataOperation(parameters.names);
+    }
+
+    @Override
+    protected InvocationBuilder getInvocationBuilder(Operation op) {
+        InternalOperationService operationService = nodeEngine.getOperationService();
+        return operationService.createInvocationBuilder(getServiceName(), op, parameters.address);
+    }
+
+    @Override
+    protected MapFetchNearCacheInvalidationMetadataCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return MapFetchNearCacheInvalidationMetadataCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        MetaDataResponse metaData = (MetaDataResponse) response;
+        int[] partitionIds = metaData.getPartitionIds();
+        List<String> partitionUuids = new ArrayList<String>(partitionIds.length);
+        for (UUID partitionUuid : metaData.getPartitionUuids()) {
+            partitionUuids.add(partitionUuid.toString());
+        }
+        long[] sequences = new long[parameters.names.size() * partitionIds.length];
+        int offset = 0;
+        for (String name : parameters.names) {
+            long[] mapSequences = metaData.getSequences(name);
+            System.arraycopy(mapSequences, 0, sequences, offset, mapSequences.length);
+            offset += mapSequences.length;
+        }
+        return MapFetchNearCacheInvalidationMetadataCodec.encodeResponse(partitionIds, partitionUuids, sequences);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return null;
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return null;
+    }
+
+    @Override
+    public String getMethodName() {
+        return null;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return null;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task.map;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapFetchWithQueryCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractPartitionMessageTask;
+import com.hazelcast.instance.Node;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.query.QueryBatchResult;
+import com.hazelcast.map.impl.query.QueryPartitionBatchOperation;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+import com.hazelcast.spi.Operation;
+
+import java.security.Permission;
+
+/**
+ * Fetches a batch of the matching entries of a partition for the query iterator of a client.
+ *
+ * @see QueryPartitionBatchOperation
+ */
+public class MapFetchWithQueryMessageTask
+        extends AbstractPartitionMessageTask<MapFetchWithQueryCodec.RequestParameters> {
+
+    public MapFetchWithQueryMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Operation prepareOperation() {
+        Predicate predicate = serializationService.toObject(parameters.predicate);
+        return new QueryPartitionBatchOperation(parameters.name, predicate, parameters.tableIndex, parameters.batch);
+    }
+
+    @Override
+    protected MapFetchWithQueryCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return MapFetchWithQueryCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        // the operation may have run on another member if the partition has just migrated
+        QueryBatchResult result = serializationService.toObject(response);
+        return MapFetchWithQueryCodec.encodeResponse(result.getNextTableIndex(), result.getKeys(), result.getValues());
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new MapPermission(parameters.name, ActionConstants.ACTION_READ);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "iterator";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[]{parameters.predicate, parameters.batch};
+    }
+}
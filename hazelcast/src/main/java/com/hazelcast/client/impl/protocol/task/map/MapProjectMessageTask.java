@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task.map;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.MapProjectCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractCallableMessageTask;
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.query.MapQueryEngine;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Projects the entries of a map for a client. The projected objects are collected on the members like the
+ * results of an aggregation, so only the projected objects are sent to the client.
+ */
+public class MapProjectMessageTask extends AbstractCallableMessageTask<MapProjectCodec.RequestParameters> {
+
+    public MapProjectMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Object call() throws Exception {
+        Projection projection = serializationService.toObject(parameters.projection);
+        Predicate predicate = serializationService.toObject(parameters.predicate);
+        MapService mapService = getService(MapService.SERVICE_NAME);
+        MapQueryEngine queryEngine = mapService.getMapServiceContext().getMapQueryEngine();
+        Collection results = queryEngine.project(parameters.name, projection, predicate);
+        List<Data> dataList = new ArrayList<Data>(results.size());
+        for (Object result : results) {
+            Data data = serializationService.toData(result);
+            // a list response can not contain null elements, the empty data is read back as null
+            dataList.add(data == null ? new HeapData(new byte[0]) : data);
+        }
+        return dataList;
+    }
+
+    @Override
+    protected MapProjectCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return MapProjectCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected ClientMessage encodeResponse(Object response) {
+        return MapProjectCodec.encodeResponse((List<Data>) response);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new MapPermission(parameters.name, ActionConstants.ACTION_READ);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "project";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[]{parameters.projection, parameters.predicate};
+    }
+}
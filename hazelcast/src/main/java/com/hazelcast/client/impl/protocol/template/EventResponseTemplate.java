@@ -189,4 +189,22 @@ public interface EventResponseTemplate {
     @EventResponse(EventMessageConst.EVENT_CACHEPARTITIONLOST)
     void CachePartitionLost(int partitionId, String uuid);
 
+    /**
+     *
+     * @param key The key of the invalidated entry, or null if all entries of the map are invalidated.
+     * @param partitionUuid The UUID of the partition of the key at its owner, or null if all entries are invalidated.
+     * @param sequence The sequence of the invalidation in the partition of the key.
+     */
+    @EventResponse(EventMessageConst.EVENT_IMAPINVALIDATION)
+    void IMapInvalidation(@Nullable Data key, @Nullable String partitionUuid, long sequence);
+
+    /**
+     *
+     * @param keys The keys of the invalidated entries in batch invalidation.
+     * @param partitionUuids The UUIDs of the partitions of the keys at their owners, in the order of the keys.
+     * @param sequences The sequences of the invalidations, in the order of the keys.
+     */
+    @EventResponse(EventMessageConst.EVENT_IMAPBATCHINVALIDATION)
+    void IMapBatchInvalidation(List<Data> keys, List<String> partitionUuids, long[] sequences);
+
 }
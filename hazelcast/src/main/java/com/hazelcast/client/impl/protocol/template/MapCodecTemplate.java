@@ -20,8 +20,10 @@ import com.hazelcast.annotation.GenerateCodec;
 import com.hazelcast.annotation.Request;
 import com.hazelcast.client.impl.protocol.EventMessageConst;
 import com.hazelcast.client.impl.protocol.ResponseMessageConst;
+import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -735,4 +737,67 @@ public interface MapCodecTemplate {
     @Request(id = 58, retryable = false, response = ResponseMessageConst.SET_ENTRY)
     Object entriesWithPagingPredicate(String name, Data predicate);
 
+    /**
+     * Applies the aggregator to the entries of the map which satisfy the predicate. Every member accumulates the
+     * entries of its own partitions on the partition threads and the partial results are combined by the member
+     * that handles this request.
+     *
+     * @param name name of map
+     * @param aggregator aggregator to aggregate the entries with
+     * @param predicate specified query criteria.
+     * @return the aggregated value.
+     */
+    @Request(id = 59, retryable = false, response = ResponseMessageConst.DATA)
+    Object aggregate(String name, Data aggregator, Data predicate);
+
+    /**
+     * Applies the projection to the entries of the map which satisfy the predicate. The projected objects are
+     * collected like the results of an aggregation, a null projected object is returned as an empty data.
+     *
+     * @param name name of map
+     * @param projection projection to transform the entries with
+     * @param predicate specified query criteria.
+     * @return the projected objects.
+     */
+    @Request(id = 60, retryable = false, response = ResponseMessageConst.LIST_DATA)
+    Object project(String name, Data projection, Data predicate);
+
+    /**
+     * Fetches the next batch of the entries of a partition which satisfy the predicate. The scan of the partition
+     * continues from the given table index, the returned table index is the one to continue from. The iteration of
+     * a partition starts from Integer.MAX_VALUE and ends when a negative table index is returned.
+     *
+     * @param name name of map
+     * @param partitionId the partition to query
+     * @param tableIndex the table index to continue the scan of the partition from
+     * @param batch the maximum number of entries to return
+     * @param predicate specified query criteria.
+     * @return the next table index and the matching entries.
+     */
+    @Request(id = 61, retryable = true, response = ResponseMessageConst.QUERY_BATCH_RESULT)
+    Object fetchWithQuery(String name, int partitionId, int tableIndex, int batch, Data predicate);
+
+    /**
+     * Adds a listener for the invalidations of the near cache of the map. The invalidated keys are sent as single
+     * invalidations, or as batches of invalidations if batching is enabled on the members. A null key in a single
+     * invalidation means that all entries of the map are invalidated.
+     *
+     * @param name name of map
+     * @return A unique string which is used as a key to remove the listener.
+     */
+    @Request(id = 62, retryable = true, response = ResponseMessageConst.STRING,
+            event = {EventMessageConst.EVENT_IMAPINVALIDATION, EventMessageConst.EVENT_IMAPBATCHINVALIDATION})
+    Object addNearCacheInvalidationListener(String name);
+
+    /**
+     * Fetches the near cache invalidation meta data of the partitions owned by the member, so a client can detect
+     * the invalidations of its near caches that were lost.
+     *
+     * @param names the names of the maps
+     * @param address the address of the member
+     * @return the partitions owned by the member, their UUIDs and their current sequences per map.
+     */
+    @Request(id = 63, retryable = true, response = ResponseMessageConst.NEAR_CACHE_INVALIDATION_META_DATA)
+    Object fetchNearCacheInvalidationMetadata(List<String> names, Address address);
+
 }
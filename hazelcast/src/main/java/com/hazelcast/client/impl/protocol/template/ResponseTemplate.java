@@ -144,6 +144,23 @@ public interface ResponseTemplate {
     @Response(ResponseMessageConst.CACHE_KEY_ITERATOR_RESULT)
     void CacheKeyIteratorResult(int tableIndex, List<Data> keys);
 
+    /***
+     * @param nextTableIndex the table index to continue the partition from, negative if the partition is exhausted
+     * @param keys           list of keys
+     * @param values         list of values, in the order of the keys
+     */
+    @Response(ResponseMessageConst.QUERY_BATCH_RESULT)
+    void QueryBatchResult(int nextTableIndex, List<Data> keys, List<Data> values);
+
+    /***
+     * @param partitionIds   the partitions owned by the member
+     * @param partitionUuids the UUIDs of the partitions, in the order of the partition ids
+     * @param sequences      the current invalidation sequences of the partitions per requested map, in the order of
+     *                       the map names and the partition ids
+     */
+    @Response(ResponseMessageConst.NEAR_CACHE_INVALIDATION_META_DATA)
+    void NearCacheInvalidationMetaData(int[] partitionIds, List<String> partitionUuids, long[] sequences);
+
     /**
      * @param errorCode      error code of this exception
      * @param className      java class name of exception
@@ -21,6 +21,7 @@ import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
 import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 
+import java.io.EOFException;
 import java.io.IOException;
 
 public class BindMessage implements IdentifiedDataSerializable {
@@ -28,14 +29,16 @@ public class BindMessage implements IdentifiedDataSerializable {
     private Address localAddress;
     private Address targetAddress;
     private boolean reply;
+    private boolean compressionEnabled;
 
     public BindMessage() {
     }
 
-    public BindMessage(Address localAddress, Address targetAddress, boolean reply) {
+    public BindMessage(Address localAddress, Address targetAddress, boolean reply, boolean compressionEnabled) {
         this.localAddress = localAddress;
         this.targetAddress = targetAddress;
         this.reply = reply;
+        this.compressionEnabled = compressionEnabled;
     }
 
     public Address getLocalAddress() {
@@ -50,6 +53,15 @@ public class BindMessage implements IdentifiedDataSerializable {
         return reply;
     }
 
+    /**
+     * Checks if the sender of this message accepts compressed packets.
+     *
+     * @return true if compressed packets are accepted, false otherwise
+     */
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
     @Override
     public int getFactoryId() {
         return ClusterDataSerializerHook.F_ID;
@@ -70,6 +82,19 @@ public class BindMessage implements IdentifiedDataSerializable {
             targetAddress.readData(in);
         }
         reply = in.readBoolean();
+        compressionEnabled = readCompressionEnabled(in);
+    }
+
+    /**
+     * The compression flag is only written if the sender has compression enabled; so a member without compression
+     * sends the same bind message as members that don't know about compression, and these members ignore the flag.
+     */
+    private static boolean readCompressionEnabled(ObjectDataInput in) throws IOException {
+        try {
+            return in.readBoolean();
+        } catch (EOFException e) {
+            return false;
+        }
     }
 
     @Override
@@ -81,6 +106,9 @@ public class BindMessage implements IdentifiedDataSerializable {
             targetAddress.writeData(out);
         }
         out.writeBoolean(reply);
+        if (compressionEnabled) {
+            out.writeBoolean(true);
+        }
     }
 
     @Override
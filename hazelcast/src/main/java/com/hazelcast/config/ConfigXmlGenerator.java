@@ -524,7 +524,8 @@ public class ConfigXmlGenerator {
         if (!m.getMapIndexConfigs().isEmpty()) {
             xml.append("<indexes>");
             for (MapIndexConfig indexCfg : m.getMapIndexConfigs()) {
-                xml.append("<index ordered=\"").append(indexCfg.isOrdered()).append("\">");
+                xml.append("<index ordered=\"").append(indexCfg.isOrdered())
+                        .append("\" bitmap=\"").append(indexCfg.isBitmap()).append("\">");
                 xml.append(indexCfg.getAttribute());
                 xml.append("</index>");
             }
@@ -27,6 +27,7 @@ public class MapIndexConfig {
 
     private String attribute;
     private boolean ordered;
+    private boolean bitmap;
     private MapIndexConfigReadOnly readOnly;
 
     /**
@@ -51,6 +52,7 @@ public class MapIndexConfig {
     public MapIndexConfig(MapIndexConfig config) {
         attribute = config.getAttribute();
         ordered = config.isOrdered();
+        bitmap = config.isBitmap();
     }
 
     public MapIndexConfigReadOnly getAsReadOnly() {
@@ -105,11 +107,36 @@ public class MapIndexConfig {
         return this;
     }
 
+    /**
+     * Checks if the index should be a bitmap index.
+     *
+     * @return true if bitmap, false otherwise.
+     * @see #setBitmap(boolean)
+     */
+    public boolean isBitmap() {
+        return bitmap;
+    }
+
+    /**
+     * Configures the index to be a bitmap index or not. A bitmap index keeps a bitmap of the matching entries
+     * per distinct value, so it suits attributes with a few distinct values, such as a status or a region.
+     * Equality, in, and, or queries over bitmap indexed attributes are evaluated with bitwise operations.
+     * A bitmap index is not ordered, the ordered setting is ignored for it.
+     *
+     * @param bitmap if the index should be a bitmap index.
+     * @return the updated MapIndexConfig.
+     */
+    public MapIndexConfig setBitmap(boolean bitmap) {
+        this.bitmap = bitmap;
+        return this;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("MapIndexConfig{");
         sb.append("attribute='").append(attribute).append('\'');
         sb.append(", ordered=").append(ordered);
+        sb.append(", bitmap=").append(bitmap);
         sb.append('}');
         return sb.toString();
     }
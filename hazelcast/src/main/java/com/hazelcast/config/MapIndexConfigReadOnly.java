@@ -31,4 +31,8 @@ public class MapIndexConfigReadOnly extends MapIndexConfig {
     public MapIndexConfig setOrdered(boolean ordered) {
         throw new UnsupportedOperationException("This config is read-only");
     }
+
+    public MapIndexConfig setBitmap(boolean bitmap) {
+        throw new UnsupportedOperationException("This config is read-only");
+    }
 }
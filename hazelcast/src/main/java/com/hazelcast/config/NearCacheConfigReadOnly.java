@@ -59,4 +59,8 @@ public class NearCacheConfigReadOnly extends NearCacheConfig {
     public NearCacheConfig setCacheLocalEntries(boolean cacheLocalEntries) {
         throw new UnsupportedOperationException("This config is read-only");
     }
+
+    public NearCacheConfig setPreloaderConfig(NearCachePreloaderConfig preloaderConfig) {
+        throw new UnsupportedOperationException("This config is read-only");
+    }
 }
@@ -1201,8 +1201,9 @@ public class XmlConfigBuilder extends AbstractConfigBuilder implements ConfigBui
             if ("index".equals(cleanNodeName(indexNode))) {
                 final NamedNodeMap attrs = indexNode.getAttributes();
                 boolean ordered = checkTrue(getTextContent(attrs.getNamedItem("ordered")));
+                boolean bitmap = checkTrue(getTextContent(attrs.getNamedItem("bitmap")));
                 String attribute = getTextContent(indexNode);
-                mapConfig.addMapIndexConfig(new MapIndexConfig(attribute, ordered));
+                mapConfig.addMapIndexConfig(new MapIndexConfig(attribute, ordered).setBitmap(bitmap));
             }
         }
     }
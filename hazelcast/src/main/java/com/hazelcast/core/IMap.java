@@ -16,6 +16,7 @@
 
 package com.hazelcast.core;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.QueryResultSizeExceededException;
@@ -25,9 +26,11 @@ import com.hazelcast.mapreduce.JobTracker;
 import com.hazelcast.mapreduce.aggregation.Aggregation;
 import com.hazelcast.mapreduce.aggregation.Supplier;
 import com.hazelcast.monitor.LocalMapStats;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -1215,6 +1218,27 @@ public interface IMap<K, V>
      */
     Collection<V> values(Predicate predicate);
 
+    /**
+     * Queries the map based on the specified predicate and returns an iterator over the matching entries.
+     * <p/>
+     * Unlike {@link #entrySet(Predicate)}, the entries are fetched partition by partition in batches of at most
+     * <tt>fetchSize</tt> entries while iterating, so the result is never materialized as a whole and the
+     * {@link com.hazelcast.instance.GroupProperty#QUERY_RESULT_SIZE_LIMIT} does not apply.
+     * <p/>
+     * <p><b>Warning:</b></p>
+     * The iterator is weakly consistent: entries updated during the iteration may or may not be returned,
+     * entries of a partition which is resized or migrated during the iteration may be skipped or returned twice.
+     * The iterator does not support {@link Iterator#remove()}.
+     *
+     * @param predicate specified query criteria.
+     * @param fetchSize maximum number of entries fetched in a batch.
+     * @return iterator over the matching entries.
+     * @throws IllegalArgumentException if the predicate is a {@link com.hazelcast.query.PagingPredicate}
+     *                                  or the fetch size is not positive
+     * @since 3.6
+     */
+    Iterator<Map.Entry<K, V>> iterator(Predicate predicate, int fetchSize);
+
     /**
      * Returns the locally owned set of keys.
      * <p/>
@@ -1409,4 +1433,60 @@ public interface IMap<K, V>
     <SuppliedValue, Result> Result aggregate(Supplier<K, V, SuppliedValue> supplier,
                                              Aggregation<K, SuppliedValue, Result> aggregation,
                                              JobTracker jobTracker);
+
+    /**
+     * Applies the aggregation logic on all map entries and returns the result.
+     * <p/>
+     * Unlike {@link #aggregate(Supplier, Aggregation)}, the entries are accumulated directly on the partition
+     * threads of the owning members, the partial results are combined on every member and then on the caller,
+     * no MapReduce job is started. A predefined set of aggregators can be found in
+     * {@link com.hazelcast.aggregation.Aggregators}.
+     *
+     * @param aggregator aggregator to aggregate the entries with
+     * @param <R>        type of the result
+     * @return the result of the given type
+     * @since 3.6
+     */
+    <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator);
+
+    /**
+     * Applies the aggregation logic on map entries filtered with the predicate and returns the result.
+     * <p/>
+     * The predicate is evaluated with the indexes where possible, the same way as by {@link #values(Predicate)}.
+     *
+     * @param aggregator aggregator to aggregate the entries with
+     * @param predicate  predicate to filter the entries with
+     * @param <R>        type of the result
+     * @return the result of the given type
+     * @throws IllegalArgumentException if the predicate is a {@link com.hazelcast.query.PagingPredicate}
+     * @since 3.6
+     */
+    <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator, Predicate predicate);
+
+    /**
+     * Applies the projection logic on all map entries and returns the result.
+     * <p/>
+     * The entries are transformed on the owning members, so only the projected objects are sent back to the caller.
+     * A predefined set of projections can be found in {@link com.hazelcast.projection.Projections}.
+     *
+     * @param projection projection to transform the entries with
+     * @param <R>        type of the projected objects
+     * @return the projected objects, one per entry; may contain duplicates
+     * @since 3.6
+     */
+    <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection);
+
+    /**
+     * Applies the projection logic on map entries filtered with the predicate and returns the result.
+     * <p/>
+     * The predicate is evaluated with the indexes where possible, the same way as by {@link #values(Predicate)}.
+     *
+     * @param projection projection to transform the entries with
+     * @param predicate  predicate to filter the entries with
+     * @param <R>        type of the projected objects
+     * @return the projected objects, one per matching entry; may contain duplicates
+     * @throws IllegalArgumentException if the predicate is a {@link com.hazelcast.query.PagingPredicate}
+     * @since 3.6
+     */
+    <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection, Predicate predicate);
 }
@@ -21,11 +21,14 @@ import com.hazelcast.cache.impl.ICacheService;
 import com.hazelcast.client.impl.protocol.MessageTaskFactory;
 import com.hazelcast.client.impl.protocol.MessageTaskFactoryImpl;
 import com.hazelcast.config.Config;
+import com.hazelcast.config.NativeMemoryConfig;
 import com.hazelcast.config.SerializationConfig;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.internal.storage.DataRef;
 import com.hazelcast.internal.storage.Storage;
+import com.hazelcast.internal.storage.impl.OffHeapMemoryStats;
+import com.hazelcast.internal.storage.impl.OffHeapStorage;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.memory.DefaultMemoryStats;
@@ -33,6 +36,7 @@ import com.hazelcast.memory.MemoryStats;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.IOService;
 import com.hazelcast.nio.MemberSocketInterceptor;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.nio.tcp.DefaultSocketChannelWrapperFactory;
@@ -59,13 +63,22 @@ public class DefaultNodeExtension implements NodeExtension {
     protected volatile ILogger logger;
     protected volatile ILogger systemLogger;
 
-    private final MemoryStats memoryStats = new DefaultMemoryStats();
+    private volatile MemoryStats memoryStats = new DefaultMemoryStats();
+    private volatile OffHeapStorage nativeDataStorage;
 
     @Override
     public void beforeStart(Node node) {
         this.node = node;
         logger = node.getLogger(NodeExtension.class);
         systemLogger = node.getLogger("com.hazelcast.system");
+
+        NativeMemoryConfig nativeMemoryConfig = node.getConfig().getNativeMemoryConfig();
+        if (nativeMemoryConfig.isEnabled()) {
+            OffHeapStorage storage = new OffHeapStorage(nativeMemoryConfig);
+            logger.info("Using off-heap storage: " + storage);
+            nativeDataStorage = storage;
+            memoryStats = new OffHeapMemoryStats(storage);
+        }
     }
 
     @Override
@@ -84,6 +97,10 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public void afterStart(Node node) {
+        OffHeapStorage storage = nativeDataStorage;
+        if (storage != null) {
+            node.nodeEngine.getMetricsRegistry().scanAndRegister(storage, "native.storage");
+        }
     }
 
     @Override
@@ -94,7 +111,11 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public Storage<DataRef> getNativeDataStorage() {
-        throw new UnsupportedOperationException("Native memory feature is only available on Hazelcast Enterprise!");
+        OffHeapStorage storage = nativeDataStorage;
+        if (storage == null) {
+            throw new UnsupportedOperationException("Native memory is not enabled, see NativeMemoryConfig!");
+        }
+        return storage;
     }
 
     public SerializationService createSerializationService() {
@@ -163,7 +184,8 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public ReadHandler createReadHandler(TcpIpConnection connection, IOService ioService) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher());
+        PacketPayloadPool payloadPool = ioService.isSocketReceivePayloadPoolingEnabled() ? new PacketPayloadPool() : null;
+        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher(), payloadPool);
     }
 
     @Override
@@ -192,6 +214,10 @@ public class DefaultNodeExtension implements NodeExtension {
     @Override
     public void destroy() {
         logger.info("Destroying node NodeExtension.");
+        OffHeapStorage storage = nativeDataStorage;
+        if (storage != null) {
+            storage.destroy();
+        }
     }
 
     @Override
@@ -28,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 
 import static com.hazelcast.util.Preconditions.checkHasText;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -76,6 +77,84 @@ public enum GroupProperty implements HazelcastProperty {
      */
     GENERIC_OPERATION_THREAD_COUNT("hazelcast.operation.generic.thread.count", -1),
 
+    /**
+     * Makes the partition operation threads use a bounded, array backed, lock-free multi producer/single consumer
+     * queue instead of the default blocking queue. Adding a task to this queue doesn't create litter or take a lock,
+     * and an idle partition thread is only unparked if it is idling according to the
+     * {@link #OPERATION_PARTITION_QUEUE_IDLE_STRATEGY}.
+     * <p/>
+     * The default is false.
+     */
+    OPERATION_PARTITION_QUEUE_MPSC_ENABLED("hazelcast.operation.partition.queue.mpsc.enabled", false),
+
+    /**
+     * The capacity of the array of the multi producer/single consumer queue of a partition operation thread.
+     * It will be rounded up to the next power of two. If the array is full, tasks spill over into an unbounded
+     * overflow queue.
+     * <p/>
+     * The default is 16384.
+     */
+    OPERATION_PARTITION_QUEUE_MPSC_CAPACITY("hazelcast.operation.partition.queue.mpsc.capacity", 16384),
+
+    /**
+     * The idle strategy of a partition operation thread with a multi producer/single consumer queue that has no
+     * work. Can be 'backoff' (spin, then yield, then park with an increasing period) or 'busyspin' (never park; only
+     * use it when there are enough cores for the partition threads).
+     * <p/>
+     * The default is 'backoff'.
+     */
+    OPERATION_PARTITION_QUEUE_IDLE_STRATEGY("hazelcast.operation.partition.queue.idle.strategy", "backoff"),
+
+    /**
+     * The number of times the 'backoff' idle strategy spins before it starts to yield.
+     * <p/>
+     * The default is 1000.
+     */
+    OPERATION_PARTITION_QUEUE_IDLE_MAX_SPINS("hazelcast.operation.partition.queue.idle.max.spins", 1000),
+
+    /**
+     * The number of times the 'backoff' idle strategy yields before it starts to park.
+     * <p/>
+     * The default is 100.
+     */
+    OPERATION_PARTITION_QUEUE_IDLE_MAX_YIELDS("hazelcast.operation.partition.queue.idle.max.yields", 100),
+
+    /**
+     * The maximum period the 'backoff' idle strategy parks.
+     * <p/>
+     * The default is 1000 microseconds.
+     */
+    OPERATION_PARTITION_QUEUE_IDLE_MAX_PARK_MICROS("hazelcast.operation.partition.queue.idle.max.park.micros",
+            1000, MICROSECONDS),
+
+    /**
+     * Coalesces the partition operations and the responses that are send to the same member within a short window
+     * into a single packet. This reduces the number of packets, writes and I/O thread wakeups when many small
+     * operations are send to the same member, e.g. by a lot of IMap.getAsync calls, at the price of a higher latency
+     * when the load is low. Urgent operations and operations that are not partition specific are never batched.
+     * <p/>
+     * All members of the cluster should run a version that supports batching.
+     * <p/>
+     * The default is false.
+     */
+    OPERATION_BATCHING_ENABLED("hazelcast.operation.batching.enabled", false),
+
+    /**
+     * The time a batch of {@link #OPERATION_BATCHING_ENABLED operation batching} waits for more packets before it is
+     * send.
+     * <p/>
+     * The default is 100 microseconds.
+     */
+    OPERATION_BATCHING_WINDOW_MICROS("hazelcast.operation.batching.window.micros", 100, MICROSECONDS),
+
+    /**
+     * The size in bytes at which a batch of {@link #OPERATION_BATCHING_ENABLED operation batching} is send, without
+     * waiting for the window to expire.
+     * <p/>
+     * The default is 32768.
+     */
+    OPERATION_BATCHING_MAX_BYTES("hazelcast.operation.batching.max.bytes", 32768),
+
     /**
      * The number of threads that the client engine has available for processing requests that are not partition specific.
      * Most of the requests, such as map.put and map.get, are partition specific and will use a partition-operation-thread, but
@@ -177,6 +256,26 @@ public enum GroupProperty implements HazelcastProperty {
      */
     IO_BALANCER_INTERVAL_SECONDS("hazelcast.io.balancer.interval.seconds", 20, SECONDS),
 
+    /**
+     * Enables work stealing between the socket input threads. An input thread that has multiple ready connections
+     * hands out all but one to idle input threads, so that a single hot connection doesn't delay the other
+     * connections of the same thread. This reacts within a single select, where the
+     * {@link com.hazelcast.nio.tcp.nonblocking.iobalancer.IOBalancer IOBalancer} needs at least one balancer interval
+     * to migrate a connection. When enabled, the IOBalancer is not started.
+     * <p/>
+     * The default is false.
+     */
+    IO_WORK_STEALING_ENABLED("hazelcast.io.workstealing.enabled", false),
+
+    /**
+     * Replaces the HashSet based selected-keys set of the Selectors of the non blocking I/O threads by an array
+     * based set, so that a select doesn't create any litter. If the JVM doesn't allow the replacement, the
+     * plain Selector is used.
+     * <p/>
+     * The default is true.
+     */
+    IO_SELECTOR_OPTIMIZATION_ENABLED("hazelcast.io.selector.optimization.enabled", true),
+
     PREFER_IPv4_STACK("hazelcast.prefer.ipv4.stack", true),
 
     VERSION_CHECK_ENABLED("hazelcast.version.check.enabled", true),
@@ -199,6 +298,17 @@ public enum GroupProperty implements HazelcastProperty {
      */
     OPERATION_BACKUP_TIMEOUT_MILLIS("hazelcast.operation.backup.timeout.millis", 5000, MILLISECONDS),
 
+    /**
+     * The number of slots of the invocation registry; the registry keeps the pending invocations in an array indexed by
+     * call id. The value is rounded up to the next power of two. An invocation that finds its slot occupied by a long
+     * running invocation, is kept in a map instead.
+     * <p/>
+     * If backpressure is enabled, the maximum number of concurrent invocations is used if that is larger.
+     * <p/>
+     * The default is 16384.
+     */
+    OPERATION_INVOCATION_REGISTRY_SLOTS("hazelcast.operation.invocation.registry.slots", 16384),
+
     SOCKET_BIND_ANY("hazelcast.socket.bind.any", true),
     SOCKET_SERVER_BIND_ANY("hazelcast.socket.server.bind.any", SOCKET_BIND_ANY),
     SOCKET_CLIENT_BIND_ANY("hazelcast.socket.client.bind.any", SOCKET_BIND_ANY),
@@ -241,6 +351,72 @@ public enum GroupProperty implements HazelcastProperty {
     SOCKET_KEEP_ALIVE("hazelcast.socket.keep.alive", true),
     SOCKET_NO_DELAY("hazelcast.socket.no.delay", true),
 
+    /**
+     * Enables batched writes for member to member connections. Instead of copying every packet into the output buffer
+     * of the connection, the headers and payloads of many packets are written with a single gathering write. A batch
+     * is written when it reaches the socket send buffer size or {@link #SOCKET_WRITE_BATCH_MAX_PACKETS}, or when there
+     * are no more pending packets.
+     * <p/>
+     * This reduces the number of system calls for connections sending many small packets, e.g. backups.
+     * <p/>
+     * The default is false.
+     */
+    SOCKET_WRITE_BATCHING_ENABLED("hazelcast.socket.write.batching.enabled", false),
+
+    /**
+     * The maximum number of packets in a single batched write if {@link #SOCKET_WRITE_BATCHING_ENABLED} is set.
+     * <p/>
+     * The default is 64.
+     */
+    SOCKET_WRITE_BATCH_MAX_PACKETS("hazelcast.socket.write.batch.max.packets", 64),
+
+    /**
+     * The number of connections a member opens to every other member. Packets for a partition are always sent over
+     * the same connection, selected by partition id, so their order is preserved. Packets not bound to a partition,
+     * e.g. responses, are sent over the first connection.
+     * <p/>
+     * Using more than one connection spreads the member to member traffic over multiple sockets and I/O threads.
+     * <p/>
+     * The default is 1.
+     */
+    SOCKET_MEMBER_CONNECTION_COUNT("hazelcast.socket.member.connection.count", 1),
+
+    /**
+     * Enables compression of large packets send over member to member connections, e.g. the packets used to migrate
+     * partitions. A packet is only compressed if its payload is at least {@link #SOCKET_COMPRESSION_THRESHOLD} bytes
+     * and if both members of the connection have compression enabled. Compression uses a fast LZ4 codec.
+     * <p/>
+     * The default is false.
+     */
+    SOCKET_COMPRESSION_ENABLED("hazelcast.socket.compression.enabled", false),
+
+    /**
+     * The minimum size of a packet payload in bytes to be compressed if {@link #SOCKET_COMPRESSION_ENABLED} is set.
+     * <p/>
+     * The default is 8192.
+     */
+    SOCKET_COMPRESSION_THRESHOLD("hazelcast.socket.compression.threshold", 8192),
+
+    /**
+     * Makes member to member connections use direct ByteBuffers for the socket input and output buffers. This saves
+     * the JDK from copying the data into a temporary direct buffer on every read from and write to the socket.
+     * <p/>
+     * Client and text connections always use heap buffers.
+     * <p/>
+     * The default is false.
+     */
+    SOCKET_BUFFER_DIRECT("hazelcast.socket.buffer.direct", false),
+
+    /**
+     * Makes member to member connections read the payload of operation packets into byte arrays taken from a pool
+     * owned by the connection. Once the operation or response is deserialized, the array is returned to the pool.
+     * <p/>
+     * This reduces the litter created by the reading side of a connection that receives many operations.
+     * <p/>
+     * The default is false.
+     */
+    SOCKET_RECEIVE_PAYLOAD_POOLING_ENABLED("hazelcast.socket.receive.payload.pooling.enabled", false),
+
     SHUTDOWNHOOK_ENABLED("hazelcast.shutdownhook.enabled", true),
 
     WAIT_SECONDS_BEFORE_JOIN("hazelcast.wait.seconds.before.join", 5, SECONDS),
@@ -280,6 +456,48 @@ public enum GroupProperty implements HazelcastProperty {
      */
     MAP_EXPIRY_DELAY_SECONDS("hazelcast.map.expiry.delay.seconds", 10, SECONDS),
 
+    /**
+     * Enables batching of the near cache invalidations a member sends to the other members and to the clients.
+     * <p/>
+     * By default every mutation of a map with a near cache sends an invalidation operation to every other member,
+     * and an invalidation event to every client near cache of the map. When batching is enabled, the invalidated keys
+     * are buffered per map, duplicate keys are coalesced, and the keys are sent as a single operation and a single
+     * batch event when MAP_INVALIDATION_BATCH_SIZE keys are buffered or when MAP_INVALIDATION_BATCH_FREQUENCY_SECONDS
+     * has passed. The price is that the near caches of the other members and of the clients can return a stale value
+     * for a longer time.
+     * <p/>
+     * The default is false.
+     */
+    MAP_INVALIDATION_BATCH_ENABLED("hazelcast.map.invalidation.batch.enabled", false),
+
+    /**
+     * The number of buffered near cache invalidations of a map that triggers sending them.
+     * <p/>
+     * The default is 100.
+     */
+    MAP_INVALIDATION_BATCH_SIZE("hazelcast.map.invalidation.batch.size", 100),
+
+    /**
+     * The maximum time the near cache invalidations are buffered before they are sent.
+     * <p/>
+     * The default is 10 seconds.
+     */
+    MAP_INVALIDATION_BATCH_FREQUENCY_SECONDS("hazelcast.map.invalidation.batchfrequency.seconds", 10, SECONDS),
+
+    /**
+     * The interval of the task that compares the near cache invalidations a member has received with the
+     * invalidation sequences of the partition owners. Partitions for which an invalidation was lost, or whose owner
+     * has changed, are dropped from the near cache, so a lost invalidation leaves a stale value for at most about
+     * two intervals instead of until the time to live of the entry. A value of 0 or less disables the task.
+     * <p/>
+     * The near caches of clients are repaired by a task of the client itself, see
+     * {@code hazelcast.client.map.invalidation.reconciliation.interval.seconds}.
+     * <p/>
+     * The default is 60 seconds.
+     */
+    MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS("hazelcast.map.invalidation.reconciliation.interval.seconds",
+            60, SECONDS),
+
     LOGGING_TYPE("hazelcast.logging.type", "jdk"),
 
     ENABLE_JMX("hazelcast.jmx", false),
@@ -371,6 +589,25 @@ public enum GroupProperty implements HazelcastProperty {
      */
     MAP_WRITE_BEHIND_QUEUE_CAPACITY("hazelcast.map.write.behind.queue.capacity", 50000),
 
+    /**
+     * The maximum number of threads that store the write-behind entries of a single map in parallel. The owned
+     * partitions are split into this many groups, and each group is stored by its own thread, so the entries of a
+     * key are still stored in order. With a value higher than 1, the MapStore must be thread safe.
+     * <p/>
+     * The default is 1.
+     */
+    MAP_WRITE_BEHIND_CONCURRENCY("hazelcast.map.write.behind.concurrency", 1),
+
+    /**
+     * The target latency of storing a batch of write-behind entries. When set, the batch size is halved when a batch
+     * takes longer than this and grown again, up to the configured write-batch-size, when batches are fast. A value
+     * of 0 disables the adaptive batch size.
+     * <p/>
+     * The default is 0.
+     */
+    MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS("hazelcast.map.write.behind.target.batch.latency.millis", 0,
+            MILLISECONDS),
+
     /**
      * Defines the event queue capacity for WAN replication.
      * <p/>
@@ -501,6 +738,20 @@ public enum GroupProperty implements HazelcastProperty {
      */
     QUERY_PREDICATE_PARALLEL_EVALUATION("hazelcast.query.predicate.parallel.evaluation", false),
 
+    /**
+     * Keep map indexes per partition instead of per map.
+     * <p/>
+     * By default all partition threads of a member update the same index of a map, so every update of an indexed
+     * attribute takes a lock which is shared by all partition threads. When this property is enabled, every partition
+     * owns its own index segments which are updated by the partition thread without locking, and an indexed query is
+     * evaluated on the partition threads and the per partition results are merged.
+     * <p/>
+     * Enable it for maps with indexes and a high write load, the price is a query operation per partition.
+     * <p/>
+     * The default is false.
+     */
+    QUERY_PARTITIONED_INDEXES("hazelcast.query.partitioned.indexes", false),
+
     /**
      * Result size limit for query operations on maps.
      * <p/>
@@ -34,6 +34,11 @@ final class ByteArrayInputOutputFactory implements InputOutputFactory {
 
     @Override
     public BufferObjectDataInput createInput(Data data, SerializationService service) {
+        if (data instanceof HeapData) {
+            // reads the payload in place, it could be longer than the data
+            HeapData heapData = (HeapData) data;
+            return new ByteArrayObjectDataInput(heapData.payload, HeapData.DATA_OFFSET, heapData.totalSize(), service, byteOrder);
+        }
         return new ByteArrayObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, service, byteOrder);
     }
 
@@ -53,8 +53,15 @@ class ByteArrayObjectDataInput extends InputStream implements BufferObjectDataIn
     }
 
     ByteArrayObjectDataInput(byte[] data, int offset, SerializationService service, ByteOrder byteOrder) {
+        this(data, offset, data != null ? data.length : 0, service, byteOrder);
+    }
+
+    /**
+     * @param size the number of bytes of the data which can be read, e.g. if the array is taken from a pool
+     */
+    ByteArrayObjectDataInput(byte[] data, int offset, int size, SerializationService service, ByteOrder byteOrder) {
         this.data = data;
-        this.size = data != null ? data.length : 0;
+        this.size = size;
         this.service = service;
         this.pos = offset;
         this.bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
@@ -63,7 +63,7 @@ public class HeapData implements Data {
     @Override
     public int getPartitionHash() {
         if (hasPartitionHash()) {
-            return Bits.readIntB(payload, payload.length - Bits.INT_SIZE_IN_BYTES);
+            return Bits.readIntB(payload, totalSize() - Bits.INT_SIZE_IN_BYTES);
         }
         return hashCode();
     }
@@ -90,7 +90,7 @@ public class HeapData implements Data {
     public int getHeapCost() {
         // reference (assuming compressed oops)
         int objectRef = Bits.INT_SIZE_IN_BYTES;
-        return objectRef + (payload != null ? ARRAY_HEADER_SIZE_IN_BYTES + payload.length : 0);
+        return objectRef + (payload != null ? ARRAY_HEADER_SIZE_IN_BYTES + totalSize() : 0);
     }
 
     @Override
@@ -115,18 +115,17 @@ public class HeapData implements Data {
             return false;
         }
 
-        return dataSize == 0 || equals(this.payload, data.toByteArray());
+        return dataSize == 0 || equals(this.payload, data.toByteArray(), totalSize());
     }
 
-    // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed.
-    private static boolean equals(byte[] data1, byte[] data2) {
+    // Same as Arrays.equals(byte[] a, byte[] a2) but loop order is reversed and data1 could be longer than the content.
+    private static boolean equals(byte[] data1, byte[] data2, int length) {
         if (data1 == data2) {
             return true;
         }
         if (data1 == null || data2 == null) {
             return false;
         }
-        final int length = data1.length;
         if (data2.length != length) {
             return false;
         }
@@ -28,6 +28,11 @@ final class UnsafeInputOutputFactory implements InputOutputFactory {
 
     @Override
     public BufferObjectDataInput createInput(Data data, SerializationService service) {
+        if (data instanceof HeapData) {
+            // reads the payload in place, it could be longer than the data
+            HeapData heapData = (HeapData) data;
+            return new UnsafeObjectDataInput(heapData.payload, HeapData.DATA_OFFSET, heapData.totalSize(), service);
+        }
         return new UnsafeObjectDataInput(data.toByteArray(), HeapData.DATA_OFFSET, service);
     }
 
@@ -39,6 +39,10 @@ class UnsafeObjectDataInput extends ByteArrayObjectDataInput {
         super(buffer, offset, service, ByteOrder.nativeOrder());
     }
 
+    UnsafeObjectDataInput(byte[] buffer, int offset, int size, SerializationService service) {
+        super(buffer, offset, size, service, ByteOrder.nativeOrder());
+    }
+
     @Override
     public int read() throws IOException {
         return (pos < size) ? UnsafeHelper.UNSAFE.getByte(data, UnsafeHelper.BYTE_ARRAY_BASE_OFFSET + pos++) : -1;
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.storage.impl;
+
+import com.hazelcast.internal.storage.DataRef;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reference to a block of off-heap memory that contains the bytes of a {@link com.hazelcast.nio.serialization.Data}.
+ *
+ * A ref is owned by the {@link SlabSegment} that allocated it and is only accessed while holding the lock of that segment.
+ */
+final class OffHeapDataRef implements DataRef {
+
+    /**
+     * Index of the page, or {@link #DEDICATED} when the block has its own buffer.
+     */
+    static final int DEDICATED = -1;
+
+    // object header + 3 ints + 1 reference, aligned to 8 bytes
+    private static final int HEAP_COST = 32;
+
+    final ByteBuffer buffer;
+    final int pageIndex;
+    final int offset;
+    final int size;
+
+    OffHeapDataRef(ByteBuffer buffer, int pageIndex, int offset, int size) {
+        this.buffer = buffer;
+        this.pageIndex = pageIndex;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    boolean isDedicated() {
+        return pageIndex == DEDICATED;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int heapCost() {
+        return HEAP_COST;
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapDataRef{"
+                + "pageIndex=" + pageIndex
+                + ", offset=" + offset
+                + ", size=" + size
+                + '}';
+    }
+}
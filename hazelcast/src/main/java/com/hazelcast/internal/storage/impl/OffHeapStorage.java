@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.storage.impl;
+
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.storage.DataRef;
+import com.hazelcast.internal.storage.Storage;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.config.NativeMemoryConfig.MemoryAllocatorType.POOLED;
+import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
+import static com.hazelcast.memory.MemorySize.toPrettyString;
+import static com.hazelcast.util.Preconditions.checkTrue;
+import static com.hazelcast.util.QuickMath.isPowerOfTwo;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * {@link Storage} that keeps the bytes of the stored {@link Data} in direct (off-heap) memory, so the values don't add
+ * to the GC pressure.
+ *
+ * The storage is split in segments to reduce contention between the partition threads; the segment is selected
+ * using the hash that is passed to every call. So the same hash needs to be passed for a ref as was passed when it was
+ * created. See {@link SlabSegment} for the allocation strategy.
+ *
+ * The memory is configured through the {@link NativeMemoryConfig}:
+ * <ul>
+ * <li>size: the maximum amount of memory the storage is allowed to allocate</li>
+ * <li>allocator type: {@link NativeMemoryConfig.MemoryAllocatorType#POOLED POOLED} carves blocks out of pages,
+ * {@link NativeMemoryConfig.MemoryAllocatorType#STANDARD STANDARD} allocates a buffer per value</li>
+ * <li>page size and minimum block size: the largest and the smallest pooled block</li>
+ * </ul>
+ * The metadata space percentage is not used since all metadata is stored on the heap.
+ *
+ * Allocated pages are never released until the storage is destroyed. Direct memory of the JVM is bounded by
+ * {@code -XX:MaxDirectMemorySize}, so that needs to be at least the configured native memory size.
+ */
+public class OffHeapStorage implements Storage<DataRef> {
+
+    private static final int SEGMENTS_PER_CORE = 2;
+    private static final int PERCENTAGE = 100;
+    private static final int HASH_SPREAD_SHIFT = 16;
+
+    @Probe(level = MANDATORY)
+    private final long maxMemory;
+    @Probe(level = MANDATORY)
+    private final AtomicLong committedMemory = new AtomicLong();
+
+    private final SlabSegment[] segments;
+    private final int segmentMask;
+
+    public OffHeapStorage(NativeMemoryConfig config) {
+        this(config, nextPowerOfTwo(Runtime.getRuntime().availableProcessors() * SEGMENTS_PER_CORE));
+    }
+
+    public OffHeapStorage(NativeMemoryConfig config, int segmentCount) {
+        int pageSize = config.getPageSize();
+        int minBlockSize = config.getMinBlockSize();
+        checkTrue(isPowerOfTwo(pageSize), "Page size should be a power of two, but was: " + pageSize);
+        checkTrue(isPowerOfTwo(minBlockSize), "Minimum block size should be a power of two, but was: " + minBlockSize);
+        checkTrue(minBlockSize <= pageSize, "Minimum block size should not be larger than the page size");
+        checkTrue(isPowerOfTwo(segmentCount), "Segment count should be a power of two, but was: " + segmentCount);
+
+        this.maxMemory = config.getSize().bytes();
+        this.segmentMask = segmentCount - 1;
+        this.segments = new SlabSegment[segmentCount];
+        boolean pooled = config.getAllocatorType() == POOLED;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new SlabSegment(this, pooled, pageSize, minBlockSize);
+        }
+    }
+
+    @Override
+    public DataRef put(int hash, Data data) {
+        byte[] bytes = data.toByteArray();
+        if (bytes == null) {
+            bytes = new byte[0];
+        }
+        return segmentFor(hash).allocate(bytes);
+    }
+
+    @Override
+    public Data get(int hash, DataRef ref) {
+        return segmentFor(hash).read((OffHeapDataRef) ref);
+    }
+
+    @Override
+    public void remove(int hash, DataRef ref) {
+        segmentFor(hash).free((OffHeapDataRef) ref);
+    }
+
+    @Override
+    public void destroy() {
+        for (SlabSegment segment : segments) {
+            segment.destroy();
+        }
+        committedMemory.set(0);
+    }
+
+    /**
+     * Allocates a direct buffer of the given size, provided the max memory is not exceeded.
+     *
+     * @throws NativeOutOfMemoryError if the buffer can't be allocated
+     */
+    ByteBuffer allocateBuffer(int size) {
+        for (;;) {
+            long committed = committedMemory.get();
+            long newCommitted = committed + size;
+            if (newCommitted > maxMemory) {
+                throw new NativeOutOfMemoryError("Not enough native memory to allocate " + toPrettyString(size)
+                        + ", committed: " + toPrettyString(committed) + ", max: " + toPrettyString(maxMemory));
+            }
+            if (committedMemory.compareAndSet(committed, newCommitted)) {
+                break;
+            }
+        }
+
+        try {
+            return ByteBuffer.allocateDirect(size);
+        } catch (OutOfMemoryError e) {
+            committedMemory.addAndGet(-size);
+            throw new NativeOutOfMemoryError("Failed to allocate " + toPrettyString(size)
+                    + " of direct memory, check -XX:MaxDirectMemorySize", e);
+        }
+    }
+
+    void releaseBuffer(int size) {
+        committedMemory.addAndGet(-size);
+    }
+
+    private SlabSegment segmentFor(int hash) {
+        return segments[(hash ^ (hash >>> HASH_SPREAD_SHIFT)) & segmentMask];
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    public long getCommittedMemory() {
+        return committedMemory.get();
+    }
+
+    /**
+     * Returns the memory taken by the allocated blocks.
+     */
+    @Probe(name = "usedMemory", level = MANDATORY)
+    public long getUsedMemory() {
+        long used = 0;
+        for (SlabSegment segment : segments) {
+            used += segment.getUsedMemory();
+        }
+        return used;
+    }
+
+    /**
+     * Returns the memory taken by the stored data itself; the difference with the used memory is lost due to the
+     * rounding of the block sizes.
+     */
+    @Probe(name = "dataMemory")
+    public long getDataMemory() {
+        long data = 0;
+        for (SlabSegment segment : segments) {
+            data += segment.getDataMemory();
+        }
+        return data;
+    }
+
+    @Probe(name = "freeMemory", level = MANDATORY)
+    public long getFreeMemory() {
+        return maxMemory - getUsedMemory();
+    }
+
+    @Probe(name = "allocationCount", level = MANDATORY)
+    public long getAllocationCount() {
+        long count = 0;
+        for (SlabSegment segment : segments) {
+            count += segment.getAllocationCount();
+        }
+        return count;
+    }
+
+    @Probe(name = "freeCount", level = MANDATORY)
+    public long getFreeCount() {
+        long count = 0;
+        for (SlabSegment segment : segments) {
+            count += segment.getFreeCount();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the percentage of the committed memory that doesn't contain data; so both the memory lost by rounding up
+     * to the block size and the memory of the free blocks.
+     */
+    @Probe(name = "fragmentationPercentage", level = MANDATORY)
+    public double getFragmentationPercentage() {
+        long committed = committedMemory.get();
+        if (committed == 0) {
+            return 0;
+        }
+        return (committed - getDataMemory()) * (double) PERCENTAGE / committed;
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapStorage{"
+                + "max=" + toPrettyString(maxMemory)
+                + ", committed=" + toPrettyString(committedMemory.get())
+                + ", used=" + toPrettyString(getUsedMemory())
+                + ", segments=" + segments.length
+                + '}';
+    }
+}
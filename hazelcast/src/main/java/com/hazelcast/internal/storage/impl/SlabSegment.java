@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.storage.impl;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hazelcast.internal.storage.impl.OffHeapDataRef.DEDICATED;
+import static com.hazelcast.util.QuickMath.log2;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A segment of the {@link OffHeapStorage}.
+ *
+ * The segment owns a set of pages which are carved into power of two sized blocks, starting from the minimum block size up to
+ * the page size. Freed blocks are put on a free list per size class and are reused by the next allocation of the same size
+ * class; pages are never given back until the segment is destroyed. Blocks that don't fit in a page are allocated as dedicated
+ * buffers (and so are all blocks when pooling is disabled).
+ *
+ * All methods are guarded by the segment lock. The pages are only touched while holding the lock, so their position can be
+ * used for the copy without creating a duplicate buffer.
+ */
+final class SlabSegment {
+
+    private static final int INITIAL_FREE_LIST_CAPACITY = 16;
+    private static final int INT_BITS = 32;
+    private static final long OFFSET_MASK = 0xFFFFFFFFL;
+
+    private final OffHeapStorage storage;
+    private final boolean pooled;
+    private final int pageSize;
+    private final int minBlockShift;
+    private final List<ByteBuffer> pages = new ArrayList<ByteBuffer>();
+
+    // per size class a stack of free blocks; a block is encoded as pageIndex << 32 | offset
+    private final long[][] freeBlocks;
+    private final int[] freeBlockCounts;
+
+    // offset of the first unused byte in the last page
+    private int pageOffset;
+
+    private long usedMemory;
+    private long dataMemory;
+    private long allocationCount;
+    private long freeCount;
+
+    SlabSegment(OffHeapStorage storage, boolean pooled, int pageSize, int minBlockSize) {
+        this.storage = storage;
+        this.pooled = pooled;
+        this.pageSize = pageSize;
+        this.minBlockShift = log2(minBlockSize);
+        int sizeClassCount = log2(pageSize) - minBlockShift + 1;
+        this.freeBlocks = new long[sizeClassCount][];
+        this.freeBlockCounts = new int[sizeClassCount];
+        this.pageOffset = pageSize;
+    }
+
+    synchronized OffHeapDataRef allocate(byte[] bytes) {
+        int size = bytes.length;
+        OffHeapDataRef ref;
+        if (pooled && size <= pageSize) {
+            int sizeClass = sizeClass(size);
+            long block = takeBlock(sizeClass);
+            int pageIndex = (int) (block >>> INT_BITS);
+            int offset = (int) (block & OFFSET_MASK);
+            ByteBuffer page = pages.get(pageIndex);
+            page.position(offset);
+            page.put(bytes);
+            ref = new OffHeapDataRef(page, pageIndex, offset, size);
+            usedMemory += blockSize(sizeClass);
+        } else {
+            ByteBuffer buffer = storage.allocateBuffer(size);
+            buffer.put(bytes);
+            ref = new OffHeapDataRef(buffer, DEDICATED, 0, size);
+            usedMemory += size;
+        }
+        dataMemory += size;
+        allocationCount++;
+        return ref;
+    }
+
+    synchronized Data read(OffHeapDataRef ref) {
+        byte[] bytes = new byte[ref.size];
+        ByteBuffer buffer = ref.buffer;
+        buffer.position(ref.offset);
+        buffer.get(bytes);
+        return new HeapData(bytes);
+    }
+
+    synchronized void free(OffHeapDataRef ref) {
+        if (ref.isDedicated()) {
+            storage.releaseBuffer(ref.size);
+            usedMemory -= ref.size;
+        } else {
+            int sizeClass = sizeClass(ref.size);
+            pushBlock(sizeClass, ref.pageIndex, ref.offset);
+            usedMemory -= blockSize(sizeClass);
+        }
+        dataMemory -= ref.size;
+        freeCount++;
+    }
+
+    synchronized void destroy() {
+        pages.clear();
+        Arrays.fill(freeBlocks, null);
+        Arrays.fill(freeBlockCounts, 0);
+        pageOffset = pageSize;
+        usedMemory = 0;
+        dataMemory = 0;
+    }
+
+    synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    synchronized long getDataMemory() {
+        return dataMemory;
+    }
+
+    synchronized long getAllocationCount() {
+        return allocationCount;
+    }
+
+    synchronized long getFreeCount() {
+        return freeCount;
+    }
+
+    private long takeBlock(int sizeClass) {
+        int count = freeBlockCounts[sizeClass];
+        if (count > 0) {
+            freeBlockCounts[sizeClass] = count - 1;
+            return freeBlocks[sizeClass][count - 1];
+        }
+
+        int blockSize = blockSize(sizeClass);
+        if (pageOffset + blockSize > pageSize) {
+            retirePageTail();
+            pages.add(storage.allocateBuffer(pageSize));
+            pageOffset = 0;
+        }
+        int offset = pageOffset;
+        pageOffset += blockSize;
+        return encode(pages.size() - 1, offset);
+    }
+
+    /**
+     * Puts the unused tail of the last page on the free lists, so it isn't lost when a new page is started.
+     */
+    private void retirePageTail() {
+        int pageIndex = pages.size() - 1;
+        int remaining = pageSize - pageOffset;
+        while (remaining >= blockSize(0)) {
+            int sizeClass = log2(remaining) - minBlockShift;
+            int blockSize = blockSize(sizeClass);
+            pushBlock(sizeClass, pageIndex, pageOffset);
+            pageOffset += blockSize;
+            remaining -= blockSize;
+        }
+    }
+
+    private void pushBlock(int sizeClass, int pageIndex, int offset) {
+        long[] blocks = freeBlocks[sizeClass];
+        int count = freeBlockCounts[sizeClass];
+        if (blocks == null) {
+            blocks = new long[INITIAL_FREE_LIST_CAPACITY];
+            freeBlocks[sizeClass] = blocks;
+        } else if (count == blocks.length) {
+            blocks = Arrays.copyOf(blocks, count * 2);
+            freeBlocks[sizeClass] = blocks;
+        }
+        blocks[count] = encode(pageIndex, offset);
+        freeBlockCounts[sizeClass] = count + 1;
+    }
+
+    private int sizeClass(int size) {
+        int blockShift = log2(nextPowerOfTwo(size));
+        return blockShift <= minBlockShift ? 0 : blockShift - minBlockShift;
+    }
+
+    private int blockSize(int sizeClass) {
+        return 1 << (sizeClass + minBlockShift);
+    }
+
+    private static long encode(int pageIndex, int offset) {
+        return ((long) pageIndex << INT_BITS) | offset;
+    }
+}
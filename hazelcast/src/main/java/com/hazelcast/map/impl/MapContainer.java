@@ -21,6 +21,7 @@ import com.hazelcast.config.PartitioningStrategyConfig;
 import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.core.IFunction;
 import com.hazelcast.core.PartitioningStrategy;
+import com.hazelcast.instance.GroupProperty;
 import com.hazelcast.map.MapInterceptor;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.record.DataRecordFactory;
@@ -65,6 +66,8 @@ public class MapContainer {
 
     private final Indexes indexes = new Indexes();
 
+    private final boolean partitionedIndexes;
+
     private final SizeEstimator nearCacheSizeEstimator;
 
     private final PartitioningStrategy partitioningStrategy;
@@ -101,6 +104,7 @@ public class MapContainer {
         this.partitioningStrategy = createPartitioningStrategy();
         this.quorumName = mapConfig.getQuorumName();
         final NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
+        this.partitionedIndexes = nodeEngine.getGroupProperties().getBoolean(GroupProperty.QUERY_PARTITIONED_INDEXES);
         recordFactory = createRecordFactory(nodeEngine);
         initWanReplication(nodeEngine);
         interceptors = new CopyOnWriteArrayList<MapInterceptor>();
@@ -157,10 +161,25 @@ public class MapContainer {
         return strategy;
     }
 
+    /**
+     * Returns the indexes of this map. If indexes are partitioned these only hold the index definitions,
+     * the indexed entries are held by {@link com.hazelcast.map.impl.recordstore.RecordStore#getIndexes()}.
+     *
+     * @return the indexes of this map.
+     */
     public Indexes getIndexes() {
         return indexes;
     }
 
+    /**
+     * @return {@code true} if every record store keeps its own indexes, {@code false} if the indexes of
+     * {@link #getIndexes()} are shared by all partitions.
+     * @see GroupProperty#QUERY_PARTITIONED_INDEXES
+     */
+    public boolean isPartitionedIndexes() {
+        return partitionedIndexes;
+    }
+
     public WanReplicationPublisher getWanReplicationPublisher() {
         return wanReplicationPublisher;
     }
@@ -63,6 +63,9 @@ class MapMigrationAwareService implements MigrationAwareService {
     @Override
     public void commitMigration(PartitionMigrationEvent event) {
         migrateIndex(event);
+        // the sequences of the new owner can't be compared with the ones of the old owner
+        mapServiceContext.getNearCacheProvider().getInvalidationMetaDataGenerator()
+                .regenerateUuid(event.getPartitionId());
         if (event.getMigrationEndpoint() == MigrationEndpoint.SOURCE) {
             mapServiceContext.clearPartitionData(event.getPartitionId());
         }
@@ -87,8 +90,7 @@ class MapMigrationAwareService implements MigrationAwareService {
 
         final PartitionContainer container = mapServiceContext.getPartitionContainer(event.getPartitionId());
         for (RecordStore recordStore : container.getMaps().values()) {
-            final MapContainer mapContainer = mapServiceContext.getMapContainer(recordStore.getName());
-            final Indexes indexes = mapContainer.getIndexes();
+            final Indexes indexes = recordStore.getIndexes();
             if (indexes.hasIndex()) {
                 final Iterator<Record> iterator = recordStore.iterator(now, false);
                 while (iterator.hasNext()) {
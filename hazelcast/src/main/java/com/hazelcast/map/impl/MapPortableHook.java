@@ -21,7 +21,9 @@ import com.hazelcast.map.impl.client.MapAddEntryListenerSqlRequest;
 import com.hazelcast.map.impl.client.MapAddIndexRequest;
 import com.hazelcast.map.impl.client.MapAddInterceptorRequest;
 import com.hazelcast.map.impl.client.MapAddNearCacheEntryListenerRequest;
+import com.hazelcast.map.impl.client.MapAddNearCacheInvalidationListenerRequest;
 import com.hazelcast.map.impl.client.MapAddPartitionLostListenerRequest;
+import com.hazelcast.map.impl.client.MapAggregateRequest;
 import com.hazelcast.map.impl.client.MapClearRequest;
 import com.hazelcast.map.impl.client.MapContainsKeyRequest;
 import com.hazelcast.map.impl.client.MapContainsValueRequest;
@@ -33,6 +35,7 @@ import com.hazelcast.map.impl.client.MapExecuteOnAllKeysRequest;
 import com.hazelcast.map.impl.client.MapExecuteOnKeyRequest;
 import com.hazelcast.map.impl.client.MapExecuteOnKeysRequest;
 import com.hazelcast.map.impl.client.MapExecuteWithPredicateRequest;
+import com.hazelcast.map.impl.client.MapFetchWithQueryRequest;
 import com.hazelcast.map.impl.client.MapFlushRequest;
 import com.hazelcast.map.impl.client.MapGetAllRequest;
 import com.hazelcast.map.impl.client.MapGetEntryViewRequest;
@@ -43,6 +46,7 @@ import com.hazelcast.map.impl.client.MapKeySetRequest;
 import com.hazelcast.map.impl.client.MapLoadAllKeysRequest;
 import com.hazelcast.map.impl.client.MapLoadGivenKeysRequest;
 import com.hazelcast.map.impl.client.MapLockRequest;
+import com.hazelcast.map.impl.client.MapProjectRequest;
 import com.hazelcast.map.impl.client.MapPutAllRequest;
 import com.hazelcast.map.impl.client.MapPutIfAbsentRequest;
 import com.hazelcast.map.impl.client.MapPutRequest;
@@ -128,6 +132,10 @@ public class MapPortableHook implements PortableHook {
     public static final int ADD_NEAR_CACHE_ENTRY_LISTENER = 50;
     public static final int ADD_MAP_PARTITION_LOST_LISTENER = 51;
     public static final int REMOVE_MAP_PARTITION_LOST_LISTENER = 52;
+    public static final int AGGREGATE = 53;
+    public static final int PROJECT = 54;
+    public static final int FETCH_WITH_QUERY = 55;
+    public static final int ADD_NEAR_CACHE_INVALIDATION_LISTENER = 56;
 
     @Override
     public int getFactoryId() {
@@ -138,7 +146,7 @@ public class MapPortableHook implements PortableHook {
     public PortableFactory createFactory() {
         return new PortableFactory() {
             final ConstructorFunction<Integer, Portable>[] constructors
-                    = new ConstructorFunction[REMOVE_MAP_PARTITION_LOST_LISTENER + 1];
+                    = new ConstructorFunction[ADD_NEAR_CACHE_INVALIDATION_LISTENER + 1];
 
             {
                 constructors[GET] = new ConstructorFunction<Integer, Portable>() {
@@ -427,6 +435,30 @@ public class MapPortableHook implements PortableHook {
                         return new MapRemovePartitionLostListenerRequest();
                     }
                 };
+
+                constructors[AGGREGATE] = new ConstructorFunction<Integer, Portable>() {
+                    public Portable createNew(Integer arg) {
+                        return new MapAggregateRequest();
+                    }
+                };
+
+                constructors[PROJECT] = new ConstructorFunction<Integer, Portable>() {
+                    public Portable createNew(Integer arg) {
+                        return new MapProjectRequest();
+                    }
+                };
+
+                constructors[FETCH_WITH_QUERY] = new ConstructorFunction<Integer, Portable>() {
+                    public Portable createNew(Integer arg) {
+                        return new MapFetchWithQueryRequest();
+                    }
+                };
+
+                constructors[ADD_NEAR_CACHE_INVALIDATION_LISTENER] = new ConstructorFunction<Integer, Portable>() {
+                    public Portable createNew(Integer arg) {
+                        return new MapAddNearCacheInvalidationListenerRequest();
+                    }
+                };
             }
 
             public Portable create(int classId) {
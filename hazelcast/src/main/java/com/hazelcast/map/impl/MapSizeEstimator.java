@@ -51,8 +51,8 @@ class MapSizeEstimator<T extends Record> implements SizeEstimator<T> {
         if (cost == 0L) {
             return cost;
         }
-        final int numberOfIntegers = 4;
-        // entry size in CHM
+        final int numberOfIntegers = 3;
+        // slot size in the record map: hash, key and value
         long refSize = numberOfIntegers * ((Integer.SIZE / Byte.SIZE));
         return refSize + cost;
     }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.client;
+
+import com.hazelcast.client.ClientEndpoint;
+import com.hazelcast.client.impl.client.CallableClientRequest;
+import com.hazelcast.client.impl.client.RetryableRequest;
+import com.hazelcast.map.impl.MapPortableHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.event.BatchInvalidationEventData;
+import com.hazelcast.map.impl.event.InvalidationEventData;
+import com.hazelcast.map.impl.nearcache.InvalidationListener;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+
+import java.io.IOException;
+import java.security.Permission;
+
+/**
+ * Adds a listener for the invalidations of a client near cache. The {@link InvalidationEventData} and
+ * {@link BatchInvalidationEventData} are sent to the client as they are.
+ */
+public class MapAddNearCacheInvalidationListenerRequest extends CallableClientRequest
+        implements RetryableRequest {
+
+    private String name;
+
+    public MapAddNearCacheInvalidationListenerRequest() {
+    }
+
+    public MapAddNearCacheInvalidationListenerRequest(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Object call() {
+        final ClientEndpoint endpoint = getEndpoint();
+        final MapService mapService = getService();
+
+        final InvalidationListener listener = new InvalidationListener() {
+            @Override
+            public void onInvalidation(InvalidationEventData event) {
+                if (endpoint.isAlive()) {
+                    endpoint.sendEvent(event.getKey(), event, getCallId());
+                }
+            }
+
+            @Override
+            public void onBatchInvalidation(BatchInvalidationEventData event) {
+                if (endpoint.isAlive()) {
+                    endpoint.sendEvent(event.getMapName(), event, getCallId());
+                }
+            }
+        };
+
+        final String registrationId = mapService.getMapServiceContext().getNearCacheProvider()
+                .addInvalidationListener(name, listener);
+        endpoint.addListenerDestroyAction(MapService.SERVICE_NAME, name, registrationId);
+        return registrationId;
+    }
+
+    @Override
+    public void write(PortableWriter writer) throws IOException {
+        writer.writeUTF("name", name);
+    }
+
+    @Override
+    public void read(PortableReader reader) throws IOException {
+        name = reader.readUTF("name");
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "addNearCacheInvalidationListener";
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapPortableHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapPortableHook.ADD_NEAR_CACHE_INVALIDATION_LISTENER;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new MapPermission(name, ActionConstants.ACTION_LISTEN);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return name;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return null;
+    }
+}
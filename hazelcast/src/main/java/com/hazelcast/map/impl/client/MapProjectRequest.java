@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.client;
+
+import com.hazelcast.client.impl.client.CallableClientRequest;
+import com.hazelcast.client.impl.client.RetryableRequest;
+import com.hazelcast.client.impl.client.SecureRequest;
+import com.hazelcast.map.impl.MapPortableHook;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.query.MapQueryEngine;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.PortableReader;
+import com.hazelcast.nio.serialization.PortableWriter;
+import com.hazelcast.projection.Projection;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.MapPermission;
+import com.hazelcast.spi.impl.SerializableList;
+
+import java.io.IOException;
+import java.security.Permission;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Projects the entries of a map matching a predicate. The projected objects are returned as a
+ * {@link SerializableList} of their serialized forms, so null projected objects are kept.
+ */
+public class MapProjectRequest extends CallableClientRequest implements SecureRequest, RetryableRequest {
+
+    private String name;
+    private Projection projection;
+    private Predicate predicate;
+
+    public MapProjectRequest() {
+    }
+
+    public MapProjectRequest(String name, Projection projection, Predicate predicate) {
+        this.name = name;
+        this.projection = projection;
+        this.predicate = predicate;
+    }
+
+    @Override
+    public Object call() throws Exception {
+        MapService mapService = getService();
+        MapQueryEngine queryEngine = mapService.getMapServiceContext().getMapQueryEngine();
+        Collection results = queryEngine.project(name, projection, predicate);
+        List<Data> dataList = new ArrayList<Data>(results.size());
+        for (Object result : results) {
+            dataList.add(serializationService.toData(result));
+        }
+        return new SerializableList(dataList);
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public int getFactoryId() {
+        return MapPortableHook.F_ID;
+    }
+
+    @Override
+    public int getClassId() {
+        return MapPortableHook.PROJECT;
+    }
+
+    @Override
+    public void write(PortableWriter writer) throws IOException {
+        writer.writeUTF("n", name);
+        ObjectDataOutput out = writer.getRawDataOutput();
+        out.writeObject(projection);
+        out.writeObject(predicate);
+    }
+
+    @Override
+    public void read(PortableReader reader) throws IOException {
+        name = reader.readUTF("n");
+        ObjectDataInput in = reader.getRawDataInput();
+        projection = in.readObject();
+        predicate = in.readObject();
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new MapPermission(name, ActionConstants.ACTION_READ);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "project";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[]{projection, predicate};
+    }
+}
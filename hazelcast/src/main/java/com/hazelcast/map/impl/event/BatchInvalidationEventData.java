@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.event;
+
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Contains the batched invalidations of the keys of a map, sent to the listeners of client near caches.
+ * <p/>
+ * Every key comes with the UUID of its partition at the owner and the sequence of the invalidation; the keys of a
+ * partition share a single sequence.
+ *
+ * @see com.hazelcast.map.impl.nearcache.NearCacheInvalidationBatcher
+ * @see com.hazelcast.map.impl.nearcache.RepairingHandler
+ */
+public class BatchInvalidationEventData extends AbstractEventData {
+
+    private List<Data> keys;
+    private List<UUID> partitionUuids;
+    private long[] sequences;
+
+    public BatchInvalidationEventData() {
+    }
+
+    public BatchInvalidationEventData(String source, String mapName, Address caller, List<Data> keys,
+                                      List<UUID> partitionUuids, long[] sequences) {
+        super(source, mapName, caller, -1);
+        this.keys = keys;
+        this.partitionUuids = partitionUuids;
+        this.sequences = sequences;
+    }
+
+    public List<Data> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the UUIDs of the partitions of the keys at their owners, in the order of {@link #getKeys()}.
+     */
+    public List<UUID> getPartitionUuids() {
+        return partitionUuids;
+    }
+
+    /**
+     * Returns the sequences of the invalidations, in the order of {@link #getKeys()}.
+     */
+    public long[] getSequences() {
+        return sequences;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeInt(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            out.writeData(keys.get(i));
+            UUID partitionUuid = partitionUuids.get(i);
+            out.writeLong(partitionUuid.getMostSignificantBits());
+            out.writeLong(partitionUuid.getLeastSignificantBits());
+            out.writeLong(sequences[i]);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        int size = in.readInt();
+        keys = new ArrayList<Data>(size);
+        partitionUuids = new ArrayList<UUID>(size);
+        sequences = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys.add(in.readData());
+            partitionUuids.add(new UUID(in.readLong(), in.readLong()));
+            sequences[i] = in.readLong();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchInvalidationEventData{"
+                + super.toString()
+                + ", keys=" + keys.size()
+                + '}';
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.event;
+
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Contains the invalidation of a key of a map, sent to the listeners of client near caches.
+ * A {@code null} key invalidates all keys of the map, e.g. after a clear; such an invalidation has no partition UUID
+ * and sequence.
+ *
+ * @see com.hazelcast.map.impl.nearcache.RepairingHandler
+ */
+public class InvalidationEventData extends AbstractEventData {
+
+    private Data key;
+    private UUID partitionUuid;
+    private long sequence;
+
+    public InvalidationEventData() {
+    }
+
+    public InvalidationEventData(String source, String mapName, Address caller, Data key, UUID partitionUuid,
+                                 long sequence) {
+        super(source, mapName, caller, -1);
+        this.key = key;
+        this.partitionUuid = partitionUuid;
+        this.sequence = sequence;
+    }
+
+    public Data getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the UUID of the partition of the key at its owner, or {@code null} if all keys are invalidated.
+     */
+    public UUID getPartitionUuid() {
+        return partitionUuid;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        super.writeData(out);
+        out.writeData(key);
+        boolean hasPartitionUuid = partitionUuid != null;
+        out.writeBoolean(hasPartitionUuid);
+        if (hasPartitionUuid) {
+            out.writeLong(partitionUuid.getMostSignificantBits());
+            out.writeLong(partitionUuid.getLeastSignificantBits());
+        }
+        out.writeLong(sequence);
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        super.readData(in);
+        key = in.readData();
+        if (in.readBoolean()) {
+            partitionUuid = new UUID(in.readLong(), in.readLong());
+        }
+        sequence = in.readLong();
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationEventData{"
+                + super.toString()
+                + ", key=" + key
+                + ", partitionUuid=" + partitionUuid
+                + ", sequence=" + sequence
+                + '}';
+    }
+}
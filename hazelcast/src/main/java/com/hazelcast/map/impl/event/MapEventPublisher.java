@@ -21,6 +21,9 @@ import com.hazelcast.core.EntryView;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
 
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Helper methods for publishing events.
  *
@@ -45,6 +48,36 @@ public interface MapEventPublisher {
 
     void publishMapPartitionLostEvent(Address caller, String mapName, int partitionId);
 
+    /**
+     * Publishes the invalidation of a key to the {@link com.hazelcast.map.impl.nearcache.InvalidationListener}s of
+     * the map, i.e. to the near caches of clients.
+     *
+     * @param mapName       the name of the map.
+     * @param key           the invalidated key, or {@code null} if all keys are invalidated.
+     * @param partitionUuid the UUID of the partition of the key, or {@code null} if all keys are invalidated.
+     * @param sequence      the sequence of the invalidation in the partition of the key.
+     */
+    void publishInvalidation(String mapName, Data key, UUID partitionUuid, long sequence);
+
+    /**
+     * Publishes the batched invalidations of keys to the
+     * {@link com.hazelcast.map.impl.nearcache.InvalidationListener}s of the map.
+     *
+     * @param mapName        the name of the map.
+     * @param keys           the invalidated keys.
+     * @param partitionUuids the UUIDs of the partitions of the keys, in the order of the keys.
+     * @param sequences      the sequences of the invalidations, in the order of the keys.
+     */
+    void publishBatchInvalidation(String mapName, List<Data> keys, List<UUID> partitionUuids, long[] sequences);
+
+    /**
+     * Checks if an {@link com.hazelcast.map.impl.nearcache.InvalidationListener} is registered for the map.
+     *
+     * @param mapName the name of the map.
+     * @return {@code true} if the invalidations of the map need to be published, {@code false} otherwise.
+     */
+    boolean hasInvalidationListener(String mapName);
+
     /**
      * Only gives a hint which indicates that a map-wide operation has just been executed on this partition.
      * This method should not publish an event.
@@ -23,6 +23,7 @@ import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapPartitionLostEventFilter;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.SyntheticEventFilter;
+import com.hazelcast.map.impl.nearcache.InvalidationEventFilter;
 import com.hazelcast.map.impl.query.QueryEventFilter;
 import com.hazelcast.map.impl.wan.MapReplicationRemove;
 import com.hazelcast.map.impl.wan.MapReplicationUpdate;
@@ -42,6 +43,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.UUID;
 
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 
@@ -71,9 +73,13 @@ public class MapEventPublisherImpl implements MapEventPublisher {
     @Override
     public void publishMapEvent(Address caller, String mapName, EntryEventType eventType,
                                 int numberOfEntriesAffected) {
+        // map-wide events, i.e. clear and evict all, invalidate all keys of the client near caches
+        publishInvalidation(mapName, null, null, 0);
+
         final Collection<EventRegistration> registrations = new LinkedList<EventRegistration>();
         for (EventRegistration registration : getRegistrations(mapName)) {
-            if (!(registration.getFilter() instanceof MapPartitionLostEventFilter)) {
+            final EventFilter filter = registration.getFilter();
+            if (!(filter instanceof MapPartitionLostEventFilter || filter instanceof InvalidationEventFilter)) {
                 registrations.add(registration);
             }
         }
@@ -159,6 +165,50 @@ public class MapEventPublisherImpl implements MapEventPublisher {
         publishEventInternal(registrations, eventData, partitionId);
     }
 
+    @Override
+    public void publishInvalidation(String mapName, Data key, UUID partitionUuid, long sequence) {
+        final Collection<EventRegistration> registrations = getInvalidationRegistrations(mapName);
+        if (registrations.isEmpty()) {
+            return;
+        }
+
+        final InvalidationEventData eventData = new InvalidationEventData(getThisNodesAddress(), mapName,
+                mapServiceContext.getNodeEngine().getThisAddress(), key, partitionUuid, sequence);
+        publishEventInternal(registrations, eventData, pickOrderKey(key));
+    }
+
+    @Override
+    public void publishBatchInvalidation(String mapName, List<Data> keys, List<UUID> partitionUuids, long[] sequences) {
+        final Collection<EventRegistration> registrations = getInvalidationRegistrations(mapName);
+        if (registrations.isEmpty()) {
+            return;
+        }
+
+        final BatchInvalidationEventData eventData = new BatchInvalidationEventData(getThisNodesAddress(), mapName,
+                mapServiceContext.getNodeEngine().getThisAddress(), keys, partitionUuids, sequences);
+        publishEventInternal(registrations, eventData, mapName.hashCode());
+    }
+
+    @Override
+    public boolean hasInvalidationListener(String mapName) {
+        return !getInvalidationRegistrations(mapName).isEmpty();
+    }
+
+    private Collection<EventRegistration> getInvalidationRegistrations(String mapName) {
+        final Collection<EventRegistration> registrations = getRegistrations(mapName);
+        if (registrations.isEmpty()) {
+            return registrations;
+        }
+
+        final Collection<EventRegistration> invalidationRegistrations = new LinkedList<EventRegistration>();
+        for (EventRegistration registration : registrations) {
+            if (registration.getFilter() instanceof InvalidationEventFilter) {
+                invalidationRegistrations.add(registration);
+            }
+        }
+        return invalidationRegistrations;
+    }
+
     @Override
     public void hintMapEvent(Address caller, String mapName, EntryEventType eventType,
                              int numberOfEntriesAffected, int partitionId) {
@@ -197,7 +247,7 @@ public class MapEventPublisherImpl implements MapEventPublisher {
     protected Result applyEventFilter(EventFilter filter, boolean syntheticEvent, Data dataKey,
                                       Data dataOldValue, Data dataValue, EntryEventType eventType) {
 
-        if (filter instanceof MapPartitionLostEventFilter) {
+        if (filter instanceof MapPartitionLostEventFilter || filter instanceof InvalidationEventFilter) {
             return Result.NONE;
         }
 
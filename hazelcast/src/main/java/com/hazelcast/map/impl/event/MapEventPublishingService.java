@@ -26,6 +26,7 @@ import com.hazelcast.map.impl.DataAwareEntryEvent;
 import com.hazelcast.map.impl.ListenerAdapter;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.nearcache.InvalidationListener;
 import com.hazelcast.spi.EventPublishingService;
 import com.hazelcast.spi.NodeEngine;
 
@@ -60,6 +61,16 @@ public class MapEventPublishingService implements EventPublishingService<EventDa
             return;
         }
 
+        if (eventData instanceof InvalidationEventData) {
+            ((InvalidationListener) listener).onInvalidation((InvalidationEventData) eventData);
+            return;
+        }
+
+        if (eventData instanceof BatchInvalidationEventData) {
+            ((InvalidationListener) listener).onBatchInvalidation((BatchInvalidationEventData) eventData);
+            return;
+        }
+
         throw new IllegalArgumentException("Unknown map event data");
     }
 
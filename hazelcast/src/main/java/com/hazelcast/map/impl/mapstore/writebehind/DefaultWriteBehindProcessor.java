@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.mapstore.writebehind;
 
+import com.hazelcast.instance.GroupProperty;
 import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.nio.serialization.Data;
@@ -34,6 +35,10 @@ import static com.hazelcast.util.CollectionUtil.isNotEmpty;
 
 /**
  * Processes store operations.
+ * <p/>
+ * When a target batch latency is configured, the size of the batches adapts to the latency of the map store:
+ * it is halved when a batch takes longer than the target, and grows by an eighth, up to the configured
+ * write-batch-size, when a batch takes less than half of the target.
  */
 class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEntry> {
 
@@ -50,12 +55,26 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
 
     private static final int RETRY_STORE_AFTER_WAIT_SECONDS = 1;
 
+    private static final int BATCH_SIZE_GROWTH_DIVISOR = 8;
+
 
     private final List<StoreListener> storeListeners;
 
-    DefaultWriteBehindProcessor(MapStoreContext mapStoreContext) {
+    private final WriteBehindStats stats;
+
+    private final long targetBatchLatencyNanos;
+
+    // updated by all threads storing the entries of the map; a lost update only delays the adaptation
+    private volatile int batchSize;
+
+    DefaultWriteBehindProcessor(MapStoreContext mapStoreContext, WriteBehindStats stats) {
         super(mapStoreContext);
         this.storeListeners = new ArrayList<StoreListener>(2);
+        this.stats = stats;
+        this.targetBatchLatencyNanos = mapStoreContext.getMapServiceContext().getNodeEngine().getGroupProperties()
+                .getNanos(GroupProperty.MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS);
+        this.batchSize = writeBatchSize;
+        stats.setBatchSize(writeBatchSize);
     }
 
     @Override
@@ -201,7 +220,9 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
                 callBeforeStoreListeners(entry);
                 final Object key = toObject(entry.getKey());
                 final Object value = toObject(entry.getValue());
+                long startNanos = System.nanoTime();
                 boolean result = operationType.processSingle(key, value, mapStore);
+                stats.recordStore(System.nanoTime() - startNanos);
                 callAfterStoreListeners(entry);
                 return result;
             }
@@ -242,7 +263,9 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
             public boolean run() throws Exception {
                 callBeforeStoreListeners(batchMap.values());
                 final Map map = convertToObject(batchMap);
+                long startNanos = System.nanoTime();
                 final boolean result = operationType.processBatch(map, mapStore);
+                stats.recordStore(System.nanoTime() - startNanos);
                 callAfterStoreListeners(batchMap.values());
                 return result;
             }
@@ -338,17 +361,22 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
     }
 
     /**
-     * Store chunk by chunk using write batch size {@link #writeBatchSize}
+     * Store chunk by chunk using the current batch size, which is at most {@link #writeBatchSize}
      *
      * @param sortedDelayedEntries entries to be stored.
      * @return not-stored entries per partition.
      */
     private Map<Integer, List<DelayedEntry>> doStoreUsingBatchSize(List<DelayedEntry> sortedDelayedEntries) {
         final Map<Integer, List<DelayedEntry>> failsPerPartition = new HashMap<Integer, List<DelayedEntry>>();
-        int page = 0;
-        List<DelayedEntry> delayedEntryList;
-        while ((delayedEntryList = getBatchChunk(sortedDelayedEntries, writeBatchSize, page++)) != null) {
+        final int size = sortedDelayedEntries.size();
+        int from = 0;
+        while (from < size) {
+            final int to = Math.min(from + batchSize, size);
+            final List<DelayedEntry> delayedEntryList = sortedDelayedEntries.subList(from, to);
+            from = to;
+            final long startNanos = System.nanoTime();
             final Map<Integer, List<DelayedEntry>> fails = processInternal(delayedEntryList);
+            adaptBatchSize(System.nanoTime() - startNanos);
             final Set<Map.Entry<Integer, List<DelayedEntry>>> entries = fails.entrySet();
             for (Map.Entry<Integer, List<DelayedEntry>> entry : entries) {
                 final Integer partitionId = entry.getKey();
@@ -364,6 +392,20 @@ class DefaultWriteBehindProcessor extends AbstractWriteBehindProcessor<DelayedEn
         return failsPerPartition;
     }
 
+    private void adaptBatchSize(long latencyNanos) {
+        if (targetBatchLatencyNanos <= 0) {
+            return;
+        }
+        int size = batchSize;
+        if (latencyNanos > targetBatchLatencyNanos) {
+            size = Math.max(1, size / 2);
+        } else if (latencyNanos < targetBatchLatencyNanos / 2) {
+            size = Math.min(writeBatchSize, size + Math.max(1, size / BATCH_SIZE_GROWTH_DIVISOR));
+        }
+        batchSize = size;
+        stats.setBatchSize(size);
+    }
+
     private List<DelayedEntry> retryCall(RetryTask task) {
         boolean result = false;
         Exception exception = null;
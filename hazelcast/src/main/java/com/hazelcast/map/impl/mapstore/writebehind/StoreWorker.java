@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.mapstore.writebehind;
 import com.hazelcast.cluster.ClusterService;
 import com.hazelcast.instance.GroupProperties;
 import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -27,6 +28,7 @@ import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.nio.Address;
 import com.hazelcast.partition.InternalPartition;
 import com.hazelcast.partition.InternalPartitionService;
+import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.CollectionUtil;
@@ -35,6 +37,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.util.CollectionUtil.isEmpty;
@@ -43,6 +47,13 @@ import static com.hazelcast.util.CollectionUtil.isEmpty;
  * Used to process store operations in another thread.
  * Collects entries from write behind queues and passes them to {@link #writeBehindProcessor}.
  * Created per map.
+ * <p/>
+ * The owned partitions are split into {@link #concurrency} groups by partition id. The worker stores the first group
+ * itself and the other groups on the executor of the map, so a slow map store call delays only its own group. All
+ * entries of a partition are in the same group, so the entries of a key are stored in order.
+ * <p/>
+ * The worker is scheduled at a fixed rate; a run that starts while the previous one is still storing returns
+ * immediately, so an entry is never stored by two runs.
  */
 public class StoreWorker implements Runnable {
 
@@ -52,6 +63,16 @@ public class StoreWorker implements Runnable {
 
     private final WriteBehindProcessor writeBehindProcessor;
 
+    private final WriteBehindStats stats;
+
+    private final String groupExecutorName;
+
+    private final int concurrency;
+
+    private final ILogger logger;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
     /**
      * Run on backup nodes after this interval.
      */
@@ -63,10 +84,15 @@ public class StoreWorker implements Runnable {
     private long lastRunTime;
 
 
-    public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor) {
+    public StoreWorker(MapStoreContext mapStoreContext, WriteBehindProcessor writeBehindProcessor,
+                       WriteBehindStats stats, String groupExecutorName, int concurrency) {
         this.mapName = mapStoreContext.getMapName();
         this.mapServiceContext = mapStoreContext.getMapServiceContext();
         this.writeBehindProcessor = writeBehindProcessor;
+        this.stats = stats;
+        this.groupExecutorName = groupExecutorName;
+        this.concurrency = concurrency;
+        this.logger = mapStoreContext.getLogger(StoreWorker.class);
         this.backupRunIntervalTime = getReplicaWaitTime();
         this.lastRunTime = Clock.currentTimeMillis();
     }
@@ -74,11 +100,24 @@ public class StoreWorker implements Runnable {
 
     @Override
     public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runInternal();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runInternal() {
         long now = Clock.currentTimeMillis();
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
         InternalPartitionService partitionService = nodeEngine.getPartitionService();
         int partitionCount = partitionService.getPartitionCount();
-        List<DelayedEntry> entries = new ArrayList<DelayedEntry>();
+        List<List<DelayedEntry>> entriesPerGroup = newEntriesPerGroup();
+        long queueSize = 0;
+        long oldestStoreTime = now;
 
         for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
             InternalPartition partition = partitionService.getPartition(partitionId, false);
@@ -98,18 +137,74 @@ public class StoreWorker implements Runnable {
                     doInBackup(entriesToStore, partitionId);
                 }
             } else {
-                entries.addAll(entriesToStore);
+                queueSize += getWriteBehindQueue(recordStore).size();
+                oldestStoreTime = getOldestStoreTime(entriesToStore, oldestStoreTime);
+                entriesPerGroup.get(partitionId % concurrency).addAll(entriesToStore);
             }
         }
+        stats.setQueueSize(queueSize);
+        stats.setFlushLagMillis(now - oldestStoreTime);
 
-        if (entries.isEmpty()) {
-            return;
+        if (storeGroups(entriesPerGroup)) {
+            lastRunTime = now;
         }
+    }
+
+    private List<List<DelayedEntry>> newEntriesPerGroup() {
+        List<List<DelayedEntry>> entriesPerGroup = new ArrayList<List<DelayedEntry>>(concurrency);
+        for (int group = 0; group < concurrency; group++) {
+            entriesPerGroup.add(new ArrayList<DelayedEntry>());
+        }
+        return entriesPerGroup;
+    }
+
+    private static long getOldestStoreTime(List<DelayedEntry> entries, long oldestStoreTime) {
+        long result = oldestStoreTime;
+        for (DelayedEntry entry : entries) {
+            result = Math.min(result, entry.getStoreTime());
+        }
+        return result;
+    }
+
+    /**
+     * Stores the groups in parallel.
+     *
+     * @return true if any entries were stored.
+     */
+    private boolean storeGroups(List<List<DelayedEntry>> entriesPerGroup) {
+        ExecutionService executionService = mapServiceContext.getNodeEngine().getExecutionService();
+        List<Future> futures = new ArrayList<Future>(concurrency - 1);
+        for (int group = 1; group < concurrency; group++) {
+            final List<DelayedEntry> entries = entriesPerGroup.get(group);
+            if (!entries.isEmpty()) {
+                futures.add(executionService.submit(groupExecutorName, new Runnable() {
+                    @Override
+                    public void run() {
+                        store(entries);
+                    }
+                }));
+            }
+        }
+
+        List<DelayedEntry> entries = entriesPerGroup.get(0);
+        boolean stored = !futures.isEmpty() || !entries.isEmpty();
+        if (!entries.isEmpty()) {
+            store(entries);
+        }
+        for (Future future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                logger.warning("Failed to store the write-behind entries of map " + mapName, e);
+            }
+        }
+        return stored;
+    }
 
+    private void store(List<DelayedEntry> entries) {
         Map<Integer, List<DelayedEntry>> failuresPerPartition = writeBehindProcessor.process(entries);
         removeFinishedStoreOperationsFromQueues(mapName, entries);
         readdFailedStoreOperationsToQueues(mapName, failuresPerPartition);
-        lastRunTime = now;
     }
 
     private List<DelayedEntry> getEntriesToStore(long now, RecordStore recordStore) {
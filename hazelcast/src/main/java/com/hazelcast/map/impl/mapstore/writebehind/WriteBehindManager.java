@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.mapstore.writebehind;
 
+import com.hazelcast.instance.GroupProperty;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -26,6 +27,7 @@ import com.hazelcast.map.impl.mapstore.MapStoreManager;
 import com.hazelcast.map.impl.mapstore.writebehind.entry.DelayedEntry;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.util.executor.ExecutorType;
 
 import java.util.concurrent.ScheduledExecutorService;
@@ -35,11 +37,16 @@ import static com.hazelcast.map.impl.mapstore.writebehind.WriteBehindProcessors.
 
 /**
  * Write behind map store manager.
+ * <p/>
+ * The metrics of the write-behind processing of the map are registered with the prefix
+ * {@code map[<map name>].writeBehind}.
  */
 public class WriteBehindManager implements MapStoreManager {
 
     private static final String EXECUTOR_NAME_PREFIX = "hz:scheduled:mapstore:";
 
+    private static final String GROUP_EXECUTOR_NAME_PREFIX = "hz:mapstore:group:";
+
     private static final int EXECUTOR_DEFAULT_QUEUE_CAPACITY = 10000;
 
     private final ScheduledExecutorService scheduledExecutor;
@@ -50,27 +57,48 @@ public class WriteBehindManager implements MapStoreManager {
 
     private final String executorName;
 
+    private final String groupExecutorName;
+
     private final MapStoreContext mapStoreContext;
 
+    private final WriteBehindStats stats;
+
+    private final int concurrency;
+
     public WriteBehindManager(MapStoreContext mapStoreContext) {
         this.mapStoreContext = mapStoreContext;
-        this.writeBehindProcessor = newWriteBehindProcessor(mapStoreContext);
-        this.storeWorker = new StoreWorker(mapStoreContext, writeBehindProcessor);
+        this.stats = new WriteBehindStats();
+        this.writeBehindProcessor = newWriteBehindProcessor(mapStoreContext, stats);
         this.executorName = EXECUTOR_NAME_PREFIX + mapStoreContext.getMapName();
+        this.groupExecutorName = GROUP_EXECUTOR_NAME_PREFIX + mapStoreContext.getMapName();
         final MapServiceContext mapServiceContext = mapStoreContext.getMapServiceContext();
+        this.concurrency = Math.max(1, mapServiceContext.getNodeEngine().getGroupProperties()
+                .getInteger(GroupProperty.MAP_WRITE_BEHIND_CONCURRENCY));
+        this.storeWorker = new StoreWorker(mapStoreContext, writeBehindProcessor, stats, groupExecutorName,
+                concurrency);
         this.scheduledExecutor = getScheduledExecutorService(mapServiceContext);
     }
 
     @Override
     public void start() {
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) mapStoreContext.getMapServiceContext().getNodeEngine();
+        stats.register(nodeEngine.getMetricsRegistry(), "map[" + mapStoreContext.getMapName() + "].writeBehind");
         scheduledExecutor.scheduleAtFixedRate(storeWorker, 1, 1, TimeUnit.SECONDS);
     }
 
     @Override
     public void stop() {
         final MapServiceContext mapServiceContext = mapStoreContext.getMapServiceContext();
-        NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
+        NodeEngineImpl nodeEngine = (NodeEngineImpl) mapServiceContext.getNodeEngine();
+        nodeEngine.getMetricsRegistry().deregister(stats);
         nodeEngine.getExecutionService().shutdownExecutor(executorName);
+        if (concurrency > 1) {
+            nodeEngine.getExecutionService().shutdownExecutor(groupExecutorName);
+        }
+    }
+
+    public WriteBehindStats getStats() {
+        return stats;
     }
 
     //todo get this via constructor function.
@@ -79,8 +107,8 @@ public class WriteBehindManager implements MapStoreManager {
         return MapDataStores.createWriteBehindStore(mapStoreContext, partitionId, writeBehindProcessor);
     }
 
-    private WriteBehindProcessor newWriteBehindProcessor(final MapStoreContext mapStoreContext) {
-        WriteBehindProcessor writeBehindProcessor = createWriteBehindProcessor(mapStoreContext);
+    private WriteBehindProcessor newWriteBehindProcessor(final MapStoreContext mapStoreContext, WriteBehindStats stats) {
+        WriteBehindProcessor writeBehindProcessor = createWriteBehindProcessor(mapStoreContext, stats);
         StoreListener<DelayedEntry> storeListener = new InternalStoreListener(mapStoreContext);
         writeBehindProcessor.addStoreListener(storeListener);
         return writeBehindProcessor;
@@ -90,6 +118,12 @@ public class WriteBehindManager implements MapStoreManager {
         final NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
         final ExecutionService executionService = nodeEngine.getExecutionService();
         executionService.register(executorName, 1, EXECUTOR_DEFAULT_QUEUE_CAPACITY, ExecutorType.CACHED);
+        if (concurrency > 1) {
+            // the store worker stores one partition group itself and hands the others to a separate executor;
+            // it waits for them, so they must not queue up behind the store worker in the same executor
+            executionService.register(groupExecutorName, concurrency - 1, EXECUTOR_DEFAULT_QUEUE_CAPACITY,
+                    ExecutorType.CACHED);
+        }
         return executionService.getScheduledExecutor(executorName);
     }
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.mapstore.writebehind;
+
+import com.hazelcast.internal.metrics.LongProbeFunction;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.util.counters.MwCounter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Metrics of the write-behind processing of a map.
+ * <p/>
+ * Besides the totals, the latencies of the calls to the map store are counted in a histogram with the buckets
+ * {@code storeLatency.le1ms}, {@code storeLatency.le10ms}, ..., {@code storeLatency.le10000ms} and
+ * {@code storeLatency.gt10000ms}.
+ */
+public class WriteBehindStats {
+
+    // the upper bounds of the store latency buckets; the last bucket has no upper bound
+    private static final long[] LATENCY_BUCKET_BOUNDS_MILLIS = {1, 10, 100, 1000, 10000};
+
+    @Probe
+    private volatile long queueSize;
+    @Probe
+    private volatile long flushLagMillis;
+    @Probe
+    private volatile long batchSize;
+    @Probe
+    private final MwCounter storeCount = newMwCounter();
+    @Probe
+    private final MwCounter storeLatencyTotalNanos = newMwCounter();
+    @Probe
+    private final AtomicLong storeLatencyMaxNanos = new AtomicLong();
+
+    private final AtomicLongArray storeLatencyBuckets = new AtomicLongArray(LATENCY_BUCKET_BOUNDS_MILLIS.length + 1);
+
+    /**
+     * Registers the probes of the stats.
+     *
+     * @param metricsRegistry the registry.
+     * @param namePrefix      the name prefix of the probes.
+     */
+    public void register(MetricsRegistry metricsRegistry, String namePrefix) {
+        metricsRegistry.scanAndRegister(this, namePrefix);
+        for (int i = 0; i <= LATENCY_BUCKET_BOUNDS_MILLIS.length; i++) {
+            final int bucket = i;
+            String bucketName = bucket < LATENCY_BUCKET_BOUNDS_MILLIS.length
+                    ? "le" + LATENCY_BUCKET_BOUNDS_MILLIS[bucket] + "ms"
+                    : "gt" + LATENCY_BUCKET_BOUNDS_MILLIS[bucket - 1] + "ms";
+            metricsRegistry.register(this, namePrefix + ".storeLatency." + bucketName, INFO,
+                    new LongProbeFunction<WriteBehindStats>() {
+                        @Override
+                        public long get(WriteBehindStats stats) {
+                            return stats.storeLatencyBuckets.get(bucket);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Records a call to the map store.
+     *
+     * @param latencyNanos the duration of the call.
+     */
+    public void recordStore(long latencyNanos) {
+        storeCount.inc();
+        storeLatencyTotalNanos.inc(latencyNanos);
+        for (; ; ) {
+            long max = storeLatencyMaxNanos.get();
+            if (latencyNanos <= max || storeLatencyMaxNanos.compareAndSet(max, latencyNanos)) {
+                break;
+            }
+        }
+        storeLatencyBuckets.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMillis(latencyNanos)));
+    }
+
+    private static int bucketOf(long latencyMillis) {
+        for (int i = 0; i < LATENCY_BUCKET_BOUNDS_MILLIS.length; i++) {
+            if (latencyMillis <= LATENCY_BUCKET_BOUNDS_MILLIS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKET_BOUNDS_MILLIS.length;
+    }
+
+    public long getStoreCount() {
+        return storeCount.get();
+    }
+
+    public long getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Sets the number of entries in the write-behind queues of the partitions owned by this member.
+     */
+    public void setQueueSize(long queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public long getFlushLagMillis() {
+        return flushLagMillis;
+    }
+
+    /**
+     * Sets how late the oldest entry of the last flush was stored, compared to the time it was due to be stored.
+     */
+    public void setFlushLagMillis(long flushLagMillis) {
+        this.flushLagMillis = flushLagMillis;
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(long batchSize) {
+        this.batchSize = batchSize;
+    }
+}
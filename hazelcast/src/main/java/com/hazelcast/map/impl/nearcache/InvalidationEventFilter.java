@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.nearcache;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.spi.EventFilter;
+
+import java.io.IOException;
+
+/**
+ * Marks the registrations of {@link InvalidationListener}s, so they only receive the invalidations of keys and not
+ * the entry and map events.
+ */
+public class InvalidationEventFilter implements EventFilter, DataSerializable {
+
+    @Override
+    public boolean eval(Object arg) {
+        return false;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof InvalidationEventFilter;
+    }
+
+    @Override
+    public int hashCode() {
+        return 0;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.nearcache;
+
+import com.hazelcast.core.IMapEvent;
+import com.hazelcast.map.impl.ListenerAdapter;
+import com.hazelcast.map.impl.event.BatchInvalidationEventData;
+import com.hazelcast.map.impl.event.InvalidationEventData;
+
+/**
+ * Listens to the invalidations of the keys of a map, e.g. to forward them to the near cache of a client.
+ * <p/>
+ * The invalidations are dispatched to {@link #onInvalidation(InvalidationEventData)} and
+ * {@link #onBatchInvalidation(BatchInvalidationEventData)}; no entry or map events are dispatched to this listener.
+ */
+public abstract class InvalidationListener implements ListenerAdapter {
+
+    /**
+     * Called when a single key, or all keys of the map, are invalidated.
+     *
+     * @param event the invalidation.
+     */
+    public abstract void onInvalidation(InvalidationEventData event);
+
+    /**
+     * Called when the batched invalidations of a map are sent.
+     *
+     * @param event the batch of invalidations.
+     */
+    public abstract void onBatchInvalidation(BatchInvalidationEventData event);
+
+    @Override
+    public final void onEvent(IMapEvent event) {
+        throw new UnsupportedOperationException("Only invalidations are dispatched to an InvalidationListener");
+    }
+}
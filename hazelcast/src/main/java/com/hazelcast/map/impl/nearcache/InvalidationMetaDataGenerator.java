@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.nearcache;
+
+import com.hazelcast.util.ConcurrencyUtil;
+import com.hazelcast.util.ConstructorFunction;
+import com.hazelcast.util.UuidUtil;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Generates the meta data that is sent along with the near cache invalidations of the partitions owned by this
+ * member.
+ * <p/>
+ * Every invalidation message of a map gets the next sequence number of its partition, so a receiver can detect
+ * a lost invalidation as a gap in the sequence. The sequences are only meaningful in combination with the UUID of
+ * the partition: the UUID is regenerated when the ownership of the partition changes, which tells the receivers
+ * that the sequence has been restarted by another member.
+ */
+public class InvalidationMetaDataGenerator {
+
+    private final ConcurrentMap<String, AtomicLongArray> sequences = new ConcurrentHashMap<String, AtomicLongArray>();
+
+    private final ConstructorFunction<String, AtomicLongArray> sequencesConstructor
+            = new ConstructorFunction<String, AtomicLongArray>() {
+        @Override
+        public AtomicLongArray createNew(String mapName) {
+            return new AtomicLongArray(partitionCount);
+        }
+    };
+
+    private final int partitionCount;
+    private final AtomicReferenceArray<UUID> uuids;
+
+    public InvalidationMetaDataGenerator(int partitionCount) {
+        this.partitionCount = partitionCount;
+        this.uuids = new AtomicReferenceArray<UUID>(partitionCount);
+    }
+
+    /**
+     * Returns the sequence number for the next invalidation message of a partition of a map.
+     */
+    public long nextSequence(String mapName, int partitionId) {
+        return getSequences(mapName).incrementAndGet(partitionId);
+    }
+
+    /**
+     * Returns the sequence number of the last invalidation message of a partition of a map.
+     */
+    public long currentSequence(String mapName, int partitionId) {
+        return getSequences(mapName).get(partitionId);
+    }
+
+    /**
+     * Returns the UUID of a partition; the UUID is created on first use.
+     */
+    public UUID getOrCreateUuid(int partitionId) {
+        for (; ; ) {
+            UUID uuid = uuids.get(partitionId);
+            if (uuid != null) {
+                return uuid;
+            }
+            uuid = UuidUtil.newUnsecureUUID();
+            if (uuids.compareAndSet(partitionId, null, uuid)) {
+                return uuid;
+            }
+        }
+    }
+
+    /**
+     * Drops the UUID of a partition, so a new one is created on next use. Called when the ownership of the
+     * partition changes.
+     */
+    public void regenerateUuid(int partitionId) {
+        uuids.set(partitionId, null);
+    }
+
+    public void removeMap(String mapName) {
+        sequences.remove(mapName);
+    }
+
+    public void clear() {
+        sequences.clear();
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            uuids.set(partitionId, null);
+        }
+    }
+
+    private AtomicLongArray getSequences(String mapName) {
+        return ConcurrencyUtil.getOrPutIfAbsent(sequences, mapName, sequencesConstructor);
+    }
+}
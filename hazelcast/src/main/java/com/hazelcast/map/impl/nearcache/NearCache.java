@@ -20,28 +20,40 @@ import com.hazelcast.config.Config;
 import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.eviction.EvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.EvictionStrategy;
+import com.hazelcast.internal.eviction.EvictionStrategyProvider;
+import com.hazelcast.internal.eviction.impl.evaluator.LFUEvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.evaluator.LRUEvictionPolicyEvaluator;
+import com.hazelcast.internal.eviction.impl.evaluator.RandomEvictionPolicyEvaluator;
 import com.hazelcast.map.impl.SizeEstimator;
 import com.hazelcast.monitor.impl.NearCacheStatsImpl;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.InternalPartitionService;
 import com.hazelcast.internal.serialization.SerializationService;
-import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.ExceptionUtil;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Map;
-import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.UUID;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * NearCache.
+ * <p/>
+ * When the near cache is full, a put evicts a record before it adds its own. The record to evict is selected by the
+ * eviction policy out of a small random sample of the records, so the eviction costs the same no matter how big the
+ * near cache is.
+ * <p/>
+ * The invalidations received from the partition owners carry a sequence number per partition. Partitions for which
+ * an invalidation was lost are detected by {@link #reconcile(int[], UUID[], long[])} and dropped from the near
+ * cache, instead of serving stale values until they expire.
  */
 public class NearCache {
     /**
@@ -49,8 +61,8 @@ public class NearCache {
      */
     public static final Object NULL_OBJECT = new Object();
     public static final String NEAR_CACHE_EXECUTOR_NAME = "hz:near-cache";
-    private static final double EVICTION_FACTOR = 0.2;
     private static final int CLEANUP_INTERVAL = 5000;
+    private static final int INITIAL_CAPACITY = 1000;
     private final int maxSize;
     private volatile long lastCleanup;
     private final long maxIdleMillis;
@@ -59,11 +71,14 @@ public class NearCache {
     private final InMemoryFormat inMemoryFormat;
     private final NodeEngine nodeEngine;
     private final AtomicBoolean canCleanUp;
-    private final AtomicBoolean canEvict;
-    private final ConcurrentMap<Data, NearCacheRecord> cache;
+    private final NearCacheRecordMap cache;
     private final NearCacheStatsImpl nearCacheStats;
     private final SerializationService serializationService;
-    private final Comparator<NearCacheRecord> selectedComparator;
+    private final EvictionPolicyEvaluator<Data, NearCacheRecord> evictionPolicyEvaluator;
+    private final EvictionStrategy<Data, NearCacheRecord, NearCacheRecordMap> evictionStrategy;
+    private final EvictionListener<Data, NearCacheRecord> evictionListener;
+    private final InternalPartitionService partitionService;
+    private final RepairingHandler repairingHandler;
 
     private SizeEstimator nearCacheSizeEstimator;
 
@@ -80,13 +95,30 @@ public class NearCache {
         inMemoryFormat = nearCacheConfig.getInMemoryFormat();
         timeToLiveMillis = TimeUnit.SECONDS.toMillis(nearCacheConfig.getTimeToLiveSeconds());
         evictionPolicy = EvictionPolicy.valueOf(nearCacheConfig.getEvictionPolicy());
-        selectedComparator = NearCacheRecord.getComparator(evictionPolicy);
-        cache = new ConcurrentHashMap<Data, NearCacheRecord>();
+        evictionPolicyEvaluator = createEvictionPolicyEvaluator(evictionPolicy);
+        evictionStrategy = EvictionStrategyProvider.getDefaultEvictionStrategy();
+        evictionListener = new SizeEstimatorUpdatingEvictionListener();
+        cache = new NearCacheRecordMap(INITIAL_CAPACITY);
         canCleanUp = new AtomicBoolean(true);
-        canEvict = new AtomicBoolean(true);
         nearCacheStats = new NearCacheStatsImpl();
         lastCleanup = Clock.currentTimeMillis();
         serializationService = nodeEngine.getSerializationService();
+        partitionService = nodeEngine.getPartitionService();
+        repairingHandler = new RepairingHandler(partitionService.getPartitionCount());
+    }
+
+    private static EvictionPolicyEvaluator<Data, NearCacheRecord> createEvictionPolicyEvaluator(
+            EvictionPolicy evictionPolicy) {
+        switch (evictionPolicy) {
+            case LRU:
+                return new LRUEvictionPolicyEvaluator<Data, NearCacheRecord>();
+            case LFU:
+                return new LFUEvictionPolicyEvaluator<Data, NearCacheRecord>();
+            case RANDOM:
+                return new RandomEvictionPolicyEvaluator<Data, NearCacheRecord>();
+            default:
+                return null;
+        }
     }
 
     // this operation returns the given value in near-cache memory format (data or object)
@@ -101,7 +133,7 @@ public class NearCache {
             }
         }
         if (evictionPolicy != EvictionPolicy.NONE && cache.size() >= maxSize) {
-            fireEvictCache();
+            evict();
         }
         final Object value;
         if (data == null) {
@@ -135,43 +167,10 @@ public class NearCache {
         return nearCacheStats;
     }
 
-    private void fireEvictCache() {
-        if (canEvict.compareAndSet(true, false)) {
-            try {
-                final ExecutionService executionService = nodeEngine.getExecutionService();
-                executionService.execute(NEAR_CACHE_EXECUTOR_NAME, new Runnable() {
-                    public void run() {
-                        try {
-                            TreeSet<NearCacheRecord> records = new TreeSet<NearCacheRecord>(selectedComparator);
-                            records.addAll(cache.values());
-                            int evictSize = (int) (cache.size() * EVICTION_FACTOR);
-                            int i = 0;
-                            for (NearCacheRecord record : records) {
-                                cache.remove(record.getKey());
-                                updateSizeEstimator(-calculateCost(record));
-                                if (++i > evictSize) {
-                                    break;
-                                }
-                            }
-                        } finally {
-                            canEvict.set(true);
-                        }
-
-                        if (cache.size() >= maxSize && canEvict.compareAndSet(true, false)) {
-                            try {
-                                executionService.execute(NEAR_CACHE_EXECUTOR_NAME, this);
-                            } catch (RejectedExecutionException e) {
-                                canEvict.set(true);
-                            }
-                        }
-                    }
-                });
-            } catch (RejectedExecutionException e) {
-                canEvict.set(true);
-            } catch (Exception e) {
-                throw ExceptionUtil.rethrow(e);
-            }
-        }
+    private void evict() {
+        long startNanos = System.nanoTime();
+        int evictedCount = evictionStrategy.evict(cache, evictionPolicyEvaluator, null, evictionListener);
+        nearCacheStats.addEviction(evictedCount, System.nanoTime() - startNanos);
     }
 
     private void fireTtlCleanup() {
@@ -244,6 +243,55 @@ public class NearCache {
         }
     }
 
+    /**
+     * Invalidates keys of a partition on receipt of an invalidation from the partition owner.
+     *
+     * @param keys          the invalidated keys.
+     * @param partitionId   the partition of the keys.
+     * @param partitionUuid the UUID of the partition at the owner.
+     * @param sequence      the sequence number of the invalidation.
+     */
+    public void invalidate(Collection<Data> keys, int partitionId, UUID partitionUuid, long sequence) {
+        invalidate(keys);
+        if (repairingHandler.onInvalidation(partitionId, partitionUuid, sequence)) {
+            boolean[] partitions = new boolean[partitionService.getPartitionCount()];
+            partitions[partitionId] = true;
+            invalidatePartitions(partitions);
+        }
+    }
+
+    /**
+     * Compares the received invalidations with the invalidation meta data of the partition owners and drops the
+     * partitions for which invalidations have been lost.
+     *
+     * @param partitionIds   the partitions.
+     * @param partitionUuids the UUIDs of the partitions at their owners.
+     * @param sequences      the sequence numbers of the last invalidations sent by the owners.
+     * @return the number of dropped partitions.
+     */
+    public int reconcile(int[] partitionIds, UUID[] partitionUuids, long[] sequences) {
+        boolean[] partitions = new boolean[partitionService.getPartitionCount()];
+        int repairCount = 0;
+        for (int i = 0; i < partitionIds.length; i++) {
+            if (repairingHandler.reconcile(partitionIds[i], partitionUuids[i], sequences[i])) {
+                partitions[partitionIds[i]] = true;
+                repairCount++;
+            }
+        }
+        if (repairCount > 0) {
+            invalidatePartitions(partitions);
+        }
+        return repairCount;
+    }
+
+    private void invalidatePartitions(boolean[] partitions) {
+        for (Data key : cache.keySet()) {
+            if (partitions[partitionService.getPartitionId(key)]) {
+                invalidate(key);
+            }
+        }
+    }
+
     public int size() {
         return cache.size();
     }
@@ -276,4 +324,11 @@ public class NearCache {
     public void setNearCacheSizeEstimator(SizeEstimator nearCacheSizeEstimator) {
         this.nearCacheSizeEstimator = nearCacheSizeEstimator;
     }
+
+    private class SizeEstimatorUpdatingEvictionListener implements EvictionListener<Data, NearCacheRecord> {
+        @Override
+        public void onEvict(Data key, NearCacheRecord record) {
+            updateSizeEstimator(-calculateCost(record));
+        }
+    }
 }
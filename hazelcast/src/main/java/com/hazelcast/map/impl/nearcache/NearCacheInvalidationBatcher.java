@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.nearcache;
+
+import com.hazelcast.instance.GroupProperties;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.util.ConcurrencyUtil;
+import com.hazelcast.util.ConstructorFunction;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Buffers the near cache invalidations that need to be sent to the other members and to the near caches of clients.
+ * <p/>
+ * Without batching, every mutation of a map with a near cache sends an {@link
+ * com.hazelcast.map.impl.operation.InvalidateNearCacheOperation} to every other member, and publishes an
+ * invalidation event to every client near cache. The batcher buffers the invalidated keys per map instead, and
+ * sends them as a single {@link com.hazelcast.map.impl.operation.NearCacheKeySetInvalidationOperation} and a single
+ * {@link com.hazelcast.map.impl.event.BatchInvalidationEventData} when the batch size is reached or when the batch
+ * frequency has passed. Because the keys are collected in a set before sending, a key that is invalidated multiple
+ * times within a batch is sent only once.
+ * <p/>
+ * All other members and clients receive the same invalidations, so the buffers are kept per map and not per target.
+ */
+public class NearCacheInvalidationBatcher {
+
+    private final ConcurrentMap<String, InvalidationQueue> invalidationQueues
+            = new ConcurrentHashMap<String, InvalidationQueue>();
+
+    private final ConstructorFunction<String, InvalidationQueue> invalidationQueueConstructor
+            = new ConstructorFunction<String, InvalidationQueue>() {
+        @Override
+        public InvalidationQueue createNew(String mapName) {
+            return new InvalidationQueue();
+        }
+    };
+
+    private final NodeEngine nodeEngine;
+    private final NearCacheProvider nearCacheProvider;
+    private final ILogger logger;
+    private final int batchSize;
+    private final int batchFrequencySeconds;
+
+    public NearCacheInvalidationBatcher(NodeEngine nodeEngine, NearCacheProvider nearCacheProvider) {
+        this.nodeEngine = nodeEngine;
+        this.nearCacheProvider = nearCacheProvider;
+        this.logger = nodeEngine.getLogger(NearCacheInvalidationBatcher.class);
+        GroupProperties groupProperties = nodeEngine.getGroupProperties();
+        this.batchSize = groupProperties.getInteger(GroupProperty.MAP_INVALIDATION_BATCH_SIZE);
+        this.batchFrequencySeconds = groupProperties.getSeconds(GroupProperty.MAP_INVALIDATION_BATCH_FREQUENCY_SECONDS);
+    }
+
+    /**
+     * Starts the task that sends the buffered invalidations when the batch frequency has passed.
+     */
+    public void start() {
+        nodeEngine.getExecutionService().scheduleWithFixedDelay(new FlushTask(),
+                batchFrequencySeconds, batchFrequencySeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Buffers the invalidation of a key. If the batch size of the map is reached, the buffered invalidations of the
+     * map are sent by the calling thread.
+     *
+     * @param mapName the name of the map.
+     * @param key     the invalidated key.
+     */
+    public void invalidate(String mapName, Data key) {
+        InvalidationQueue queue = ConcurrencyUtil.getOrPutIfAbsent(invalidationQueues, mapName,
+                invalidationQueueConstructor);
+        if (queue.offer(key) >= batchSize) {
+            flush(mapName, queue);
+        }
+    }
+
+    /**
+     * Sends the buffered invalidations of all maps.
+     */
+    public void flush() {
+        for (Map.Entry<String, InvalidationQueue> entry : invalidationQueues.entrySet()) {
+            flush(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Drops the buffered invalidations of a map, e.g. when the map is destroyed.
+     *
+     * @param mapName the name of the map.
+     */
+    public void remove(String mapName) {
+        invalidationQueues.remove(mapName);
+    }
+
+    /**
+     * Drops the buffered invalidations of all maps.
+     */
+    public void clear() {
+        invalidationQueues.clear();
+    }
+
+    private void flush(String mapName, InvalidationQueue queue) {
+        Set<Data> keys = queue.drain();
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        nearCacheProvider.sendInvalidations(mapName, keys);
+    }
+
+    /**
+     * The invalidated keys of a map that have not been sent yet.
+     */
+    private static final class InvalidationQueue {
+        private final Queue<Data> keys = new ConcurrentLinkedQueue<Data>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * Adds a key.
+         *
+         * @return the number of buffered keys, including the added one.
+         */
+        int offer(Data key) {
+            keys.offer(key);
+            return size.incrementAndGet();
+        }
+
+        /**
+         * Takes all buffered keys; duplicate keys are coalesced.
+         */
+        Set<Data> drain() {
+            Set<Data> result = new HashSet<Data>();
+            for (; ; ) {
+                Data key = keys.poll();
+                if (key == null) {
+                    return result;
+                }
+                size.decrementAndGet();
+                result.add(key);
+            }
+        }
+    }
+
+    private class FlushTask implements Runnable {
+        @Override
+        public void run() {
+            try {
+                flush();
+            } catch (Throwable t) {
+                logger.warning("Failed to send the near cache invalidations", t);
+            }
+        }
+    }
+}
@@ -18,25 +18,50 @@ package com.hazelcast.map.impl.nearcache;
 
 import com.hazelcast.core.HazelcastException;
 import com.hazelcast.core.Member;
+import com.hazelcast.instance.GroupProperty;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.SizeEstimator;
 import com.hazelcast.map.impl.operation.InvalidateNearCacheOperation;
+import com.hazelcast.map.impl.operation.MapGetInvalidationMetaDataOperation;
+import com.hazelcast.map.impl.operation.MapGetInvalidationMetaDataOperation.MetaDataResponse;
 import com.hazelcast.map.impl.operation.NearCacheKeySetInvalidationOperation;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.InternalPartitionService;
+import com.hazelcast.spi.EventRegistration;
+import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationService;
 import com.hazelcast.util.ConcurrencyUtil;
 import com.hazelcast.util.ConstructorFunction;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Provides near cache specific functionality.
+ * <p/>
+ * The invalidations sent to the other members carry a sequence number per partition, generated by the
+ * {@link InvalidationMetaDataGenerator}. A periodic reconciliation task fetches the current sequences from the
+ * partition owners, so the near caches can drop the partitions for which an invalidation was lost. A new near cache
+ * is reconciled right away, so it knows the sequences to compare against before the first periodic run.
+ * <p/>
+ * The invalidations are also published to the {@link InvalidationListener}s of the map, which forward them to the
+ * near caches of clients. If batching is enabled, these are published in batches as well. They carry the same
+ * partition UUIDs and sequences as the invalidations of the members, so the clients reconcile their near caches
+ * against the meta data of {@link MapGetInvalidationMetaDataOperation} too.
  */
 public class NearCacheProvider {
 
@@ -49,16 +74,45 @@ public class NearCacheProvider {
             SizeEstimator nearCacheSizeEstimator = mapContainer.getNearCacheSizeEstimator();
             NearCache nearCache = new NearCache(mapName, nodeEngine);
             nearCache.setNearCacheSizeEstimator(nearCacheSizeEstimator);
+            if (reconciliationIntervalSeconds > 0 && isNearCacheAndInvalidationEnabled(mapName)) {
+                // the meta data is fetched on another thread, since the near cache can be created on a partition thread
+                nodeEngine.getExecutionService().execute(ExecutionService.ASYNC_EXECUTOR,
+                        new ReconciliationTask(Collections.singletonList(mapName)));
+            }
             return nearCache;
         }
     };
 
     private final MapServiceContext mapServiceContext;
     private final NodeEngine nodeEngine;
+    private final InvalidationMetaDataGenerator invalidationMetaDataGenerator;
+    // null if invalidations are not batched
+    private final NearCacheInvalidationBatcher invalidationBatcher;
+    private final int reconciliationIntervalSeconds;
 
     public NearCacheProvider(MapServiceContext mapServiceContext, NodeEngine nodeEngine) {
         this.mapServiceContext = mapServiceContext;
         this.nodeEngine = nodeEngine;
+        this.invalidationMetaDataGenerator = new InvalidationMetaDataGenerator(
+                nodeEngine.getPartitionService().getPartitionCount());
+        this.invalidationBatcher = nodeEngine.getGroupProperties().getBoolean(GroupProperty.MAP_INVALIDATION_BATCH_ENABLED)
+                ? new NearCacheInvalidationBatcher(nodeEngine, this) : null;
+        this.reconciliationIntervalSeconds = nodeEngine.getGroupProperties()
+                .getSeconds(GroupProperty.MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS);
+    }
+
+    public void start() {
+        if (invalidationBatcher != null) {
+            invalidationBatcher.start();
+        }
+        if (reconciliationIntervalSeconds > 0) {
+            nodeEngine.getExecutionService().scheduleWithFixedDelay(new ReconciliationTask(null),
+                    reconciliationIntervalSeconds, reconciliationIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public InvalidationMetaDataGenerator getInvalidationMetaDataGenerator() {
+        return invalidationMetaDataGenerator;
     }
 
     public NearCache getNearCache(String mapName) {
@@ -70,6 +124,10 @@ public class NearCacheProvider {
             nearCache.clear();
         }
         nearCacheMap.clear();
+        invalidationMetaDataGenerator.clear();
+        if (invalidationBatcher != null) {
+            invalidationBatcher.clear();
+        }
     }
 
     public void remove(String mapName) {
@@ -77,6 +135,10 @@ public class NearCacheProvider {
         if (nearCache != null) {
             nearCache.clear();
         }
+        invalidationMetaDataGenerator.removeMap(mapName);
+        if (invalidationBatcher != null) {
+            invalidationBatcher.remove(mapName);
+        }
     }
 
     public void invalidateNearCache(String mapName, Data key) {
@@ -95,6 +157,18 @@ public class NearCacheProvider {
         nearCache.invalidate(keys);
     }
 
+    /**
+     * Invalidates keys of a partition on receipt of an invalidation from the partition owner.
+     */
+    public void invalidateNearCache(String mapName, Collection<Data> keys, int partitionId, UUID partitionUuid,
+                                    long sequence) {
+        if (!isNearCacheEnabled(mapName)) {
+            return;
+        }
+        NearCache nearCache = getNearCache(mapName);
+        nearCache.invalidate(keys, partitionId, partitionUuid, sequence);
+    }
+
     public void clearNearCache(String mapName) {
         if (!isNearCacheEnabled(mapName)) {
             return;
@@ -106,23 +180,40 @@ public class NearCacheProvider {
     }
 
     public void invalidateAllNearCaches(String mapName, Data key) {
-        if (!isNearCacheEnabled(mapName)) {
+        if (!isInvalidated(mapName)) {
             return;
         }
+        if (invalidationBatcher != null) {
+            invalidationBatcher.invalidate(mapName, key);
+        } else {
+            sendInvalidation(mapName, key);
+        }
+        // below local invalidation is for the case the data is cached before partition is owned/migrated
+        invalidateNearCache(mapName, key);
+    }
+
+    private void sendInvalidation(String mapName, Data key) {
+        int partitionId = nodeEngine.getPartitionService().getPartitionId(key);
+        UUID partitionUuid = invalidationMetaDataGenerator.getOrCreateUuid(partitionId);
+        long sequence = invalidationMetaDataGenerator.nextSequence(mapName, partitionId);
+        mapServiceContext.getMapEventPublisher().publishInvalidation(mapName, key, partitionUuid, sequence);
+        if (!isNearCacheAndInvalidationEnabled(mapName)) {
+            return;
+        }
+
+        Operation operation = new InvalidateNearCacheOperation(mapName, key, partitionId, partitionUuid, sequence)
+                .setServiceName(MapService.SERVICE_NAME);
         Collection<Member> members = nodeEngine.getClusterService().getMembers();
         for (Member member : members) {
             try {
                 if (member.localMember()) {
                     continue;
                 }
-                Operation operation = new InvalidateNearCacheOperation(mapName, key).setServiceName(MapService.SERVICE_NAME);
                 nodeEngine.getOperationService().send(operation, member.getAddress());
             } catch (Throwable throwable) {
                 throw new HazelcastException(throwable);
             }
         }
-        // below local invalidation is for the case the data is cached before partition is owned/migrated
-        invalidateNearCache(mapName, key);
     }
 
     public boolean isNearCacheAndInvalidationEnabled(String mapName) {
@@ -135,16 +226,61 @@ public class NearCacheProvider {
         return mapContainer.isNearCacheEnabled();
     }
 
+    /**
+     * Checks if the mutations of a map need to invalidate near caches, either the near caches of the members or,
+     * when an {@link InvalidationListener} is registered, the near caches of clients.
+     */
+    private boolean isInvalidated(String mapName) {
+        return isNearCacheAndInvalidationEnabled(mapName)
+                || mapServiceContext.getMapEventPublisher().hasInvalidationListener(mapName);
+    }
+
     public void invalidateAllNearCaches(String mapName, Set<Data> keys) {
-        if (!isNearCacheEnabled(mapName)) {
+        if (!isInvalidated(mapName)) {
             return;
         }
         if (keys == null || keys.isEmpty()) {
             return;
         }
-        //send operation.
-        Operation operation = new NearCacheKeySetInvalidationOperation(mapName, keys)
-                .setServiceName(MapService.SERVICE_NAME);
+        if (invalidationBatcher != null) {
+            for (Data key : keys) {
+                invalidationBatcher.invalidate(mapName, key);
+            }
+        } else {
+            sendInvalidations(mapName, keys);
+        }
+        // below local invalidation is for the case the data is cached before partition is owned/migrated
+        for (final Data key : keys) {
+            invalidateNearCache(mapName, key);
+        }
+    }
+
+    /**
+     * Sends the invalidations of keys to the near caches of the other members, and publishes them as a batch to the
+     * {@link InvalidationListener}s of the map. Every partition of the keys gets a single new sequence number.
+     */
+    void sendInvalidations(String mapName, Collection<Data> keys) {
+        NearCacheKeySetInvalidationOperation operation = new NearCacheKeySetInvalidationOperation(mapName);
+        operation.setServiceName(MapService.SERVICE_NAME);
+        List<Data> publishedKeys = new ArrayList<Data>(keys.size());
+        List<UUID> partitionUuids = new ArrayList<UUID>(keys.size());
+        long[] sequences = new long[keys.size()];
+        for (Map.Entry<Integer, List<Data>> entry : groupByPartition(keys).entrySet()) {
+            int partitionId = entry.getKey();
+            UUID partitionUuid = invalidationMetaDataGenerator.getOrCreateUuid(partitionId);
+            long sequence = invalidationMetaDataGenerator.nextSequence(mapName, partitionId);
+            operation.addPartition(partitionId, partitionUuid, sequence, entry.getValue());
+            for (Data key : entry.getValue()) {
+                sequences[publishedKeys.size()] = sequence;
+                publishedKeys.add(key);
+                partitionUuids.add(partitionUuid);
+            }
+        }
+        mapServiceContext.getMapEventPublisher().publishBatchInvalidation(mapName, publishedKeys, partitionUuids, sequences);
+        if (!isNearCacheAndInvalidationEnabled(mapName)) {
+            return;
+        }
+
         Collection<Member> members = nodeEngine.getClusterService().getMembers();
         for (Member member : members) {
             try {
@@ -156,10 +292,34 @@ public class NearCacheProvider {
                 nodeEngine.getLogger(getClass()).warning(throwable);
             }
         }
-        // below local invalidation is for the case the data is cached before partition is owned/migrated
-        for (final Data key : keys) {
-            invalidateNearCache(mapName, key);
+    }
+
+    private Map<Integer, List<Data>> groupByPartition(Collection<Data> keys) {
+        InternalPartitionService partitionService = nodeEngine.getPartitionService();
+        Map<Integer, List<Data>> keysByPartition = new HashMap<Integer, List<Data>>();
+        for (Data key : keys) {
+            int partitionId = partitionService.getPartitionId(key);
+            List<Data> partitionKeys = keysByPartition.get(partitionId);
+            if (partitionKeys == null) {
+                partitionKeys = new ArrayList<Data>();
+                keysByPartition.put(partitionId, partitionKeys);
+            }
+            partitionKeys.add(key);
         }
+        return keysByPartition;
+    }
+
+    /**
+     * Registers a listener for the invalidations of a map, e.g. for the near cache of a client.
+     *
+     * @param mapName  the name of the map.
+     * @param listener the listener.
+     * @return the registration id of the listener.
+     */
+    public String addInvalidationListener(String mapName, InvalidationListener listener) {
+        EventRegistration registration = nodeEngine.getEventService().registerListener(MapService.SERVICE_NAME, mapName,
+                new InvalidationEventFilter(), listener);
+        return registration.getId();
     }
 
     public Object getFromNearCache(String mapName, Data key) {
@@ -169,5 +329,68 @@ public class NearCacheProvider {
         NearCache nearCache = getNearCache(mapName);
         return nearCache.get(key);
     }
-}
 
+    /**
+     * Fetches the invalidation meta data of the partitions owned by the other members and repairs the near caches.
+     */
+    private class ReconciliationTask implements Runnable {
+        // null if all near caches are reconciled
+        private final List<String> mapNames;
+
+        ReconciliationTask(List<String> mapNames) {
+            this.mapNames = mapNames;
+        }
+
+        @Override
+        public void run() {
+            try {
+                reconcile();
+            } catch (Throwable t) {
+                nodeEngine.getLogger(NearCacheProvider.class).warning("Failed to reconcile the near caches", t);
+            }
+        }
+
+        private void reconcile() throws Exception {
+            List<String> mapNames = this.mapNames != null ? this.mapNames : getReconciledMapNames();
+            if (mapNames.isEmpty()) {
+                return;
+            }
+
+            for (Future<MetaDataResponse> future : fetchMetaData(mapNames)) {
+                MetaDataResponse response = future.get();
+                for (String mapName : mapNames) {
+                    NearCache nearCache = nearCacheMap.get(mapName);
+                    long[] sequences = response.getSequences(mapName);
+                    if (nearCache != null && sequences != null) {
+                        nearCache.reconcile(response.getPartitionIds(), response.getPartitionUuids(), sequences);
+                    }
+                }
+            }
+        }
+
+        private List<String> getReconciledMapNames() {
+            List<String> mapNames = new ArrayList<String>();
+            for (String mapName : nearCacheMap.keySet()) {
+                if (isNearCacheAndInvalidationEnabled(mapName)) {
+                    mapNames.add(mapName);
+                }
+            }
+            return mapNames;
+        }
+
+        private List<Future<MetaDataResponse>> fetchMetaData(List<String> mapNames) {
+            OperationService operationService = nodeEngine.getOperationService();
+            List<Future<MetaDataResponse>> futures = new ArrayList<Future<MetaDataResponse>>();
+            for (Member member : nodeEngine.getClusterService().getMembers()) {
+                if (member.localMember()) {
+                    continue;
+                }
+                Operation operation = new MapGetInvalidationMetaDataOperation(mapNames);
+                Future<MetaDataResponse> future = operationService.invokeOnTarget(MapService.SERVICE_NAME, operation,
+                        member.getAddress());
+                futures.add(future);
+            }
+            return futures;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.nearcache;
 
 import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.internal.eviction.Evictable;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.util.Clock;
 import com.hazelcast.util.QuickMath;
@@ -27,7 +28,7 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * Entry holder to be used in Client and Node side Near cache
  */
-public class NearCacheRecord {
+public class NearCacheRecord implements Evictable {
     private static final Comparator<NearCacheRecord> LRU_COMPARATOR = new Comparator<NearCacheRecord>() {
         public int compare(NearCacheRecord o1, NearCacheRecord o2) {
             final int result = QuickMath.compareLongs(o1.lastAccessTime, o2.lastAccessTime);
@@ -77,6 +78,21 @@ public class NearCacheRecord {
         return value;
     }
 
+    @Override
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public long getAccessTime() {
+        return lastAccessTime;
+    }
+
+    @Override
+    public int getAccessHit() {
+        return (int) hit.get();
+    }
+
     public void access() {
         hit.incrementAndGet();
         lastAccessTime = Clock.currentTimeMillis();
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.nearcache;
+
+import com.hazelcast.internal.eviction.Evictable;
+import com.hazelcast.internal.eviction.EvictionCandidate;
+import com.hazelcast.internal.eviction.EvictionListener;
+import com.hazelcast.internal.eviction.impl.strategy.sampling.SampleableEvictableStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.SampleableConcurrentHashMap;
+
+/**
+ * The map that holds the records of a member side {@link NearCache}. It supports taking random samples of its
+ * records, so the {@link com.hazelcast.internal.eviction.impl.strategy.sampling.SamplingBasedEvictionStrategy}
+ * can evict from it.
+ */
+class NearCacheRecordMap extends SampleableConcurrentHashMap<Data, NearCacheRecord>
+        implements SampleableEvictableStore<Data, NearCacheRecord> {
+
+    NearCacheRecordMap(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * A sampled record that can be evicted.
+     */
+    public class EvictableSamplingEntry extends SamplingEntry implements EvictionCandidate {
+
+        public EvictableSamplingEntry(Data key, NearCacheRecord value) {
+            super(key, value);
+        }
+
+        @Override
+        public Object getAccessor() {
+            return getKey();
+        }
+
+        @Override
+        public Evictable getEvictable() {
+            return getValue();
+        }
+    }
+
+    @Override
+    protected <E extends SamplingEntry> E createSamplingEntry(Data key, NearCacheRecord value) {
+        return (E) new EvictableSamplingEntry(key, value);
+    }
+
+    @Override
+    public <C extends EvictionCandidate<Data, NearCacheRecord>> int evict(Iterable<C> evictionCandidates,
+            EvictionListener<Data, NearCacheRecord> evictionListener) {
+        if (evictionCandidates == null) {
+            return 0;
+        }
+        int actualEvictedCount = 0;
+        for (EvictionCandidate<Data, NearCacheRecord> evictionCandidate : evictionCandidates) {
+            // only the sampled record is removed; a record that has been replaced in the meantime is kept
+            if (remove(evictionCandidate.getAccessor(), evictionCandidate.getEvictable())) {
+                actualEvictedCount++;
+                if (evictionListener != null) {
+                    evictionListener.onEvict(evictionCandidate.getAccessor(), evictionCandidate.getEvictable());
+                }
+            }
+        }
+        return actualEvictedCount;
+    }
+
+    @Override
+    public Iterable<EvictableSamplingEntry> sample(int sampleCount) {
+        return super.getRandomSamples(sampleCount);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.nearcache;
+
+import java.util.UUID;
+
+/**
+ * Keeps track of the invalidations a near cache has received per partition and decides which partitions have to
+ * be dropped from the near cache because they could contain stale values.
+ * <p/>
+ * A partition needs to be repaired when:
+ * <ul>
+ * <li>its UUID has changed, so the owner has changed and the sequence numbers can't be compared anymore.</li>
+ * <li>a gap in the received sequence numbers is not filled by a late invalidation before the next
+ * reconciliation.</li>
+ * <li>the owner already had sent invalidations at the previous reconciliation that still have not arrived.</li>
+ * </ul>
+ * The UUID and sequence of a partition are adopted from the first invalidation or reconciliation of the partition,
+ * whichever comes first, without repairing it. The near cache fetches the meta data of the partition owners right
+ * after it is created, so an invalidation lost before that is the only one that goes unnoticed.
+ * <p/>
+ * Both the member {@link NearCache} and the client near caches use this class.
+ */
+public class RepairingHandler {
+
+    private final MetaDataContainer[] containers;
+
+    public RepairingHandler(int partitionCount) {
+        this.containers = new MetaDataContainer[partitionCount];
+        for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+            containers[partitionId] = new MetaDataContainer();
+        }
+    }
+
+    /**
+     * Records a received invalidation.
+     *
+     * @return true if the partition needs to be repaired.
+     */
+    public boolean onInvalidation(int partitionId, UUID uuid, long sequence) {
+        MetaDataContainer container = containers[partitionId];
+        synchronized (container) {
+            if (container.uuid == null) {
+                container.reset(uuid, sequence);
+                return false;
+            }
+            if (!container.uuid.equals(uuid)) {
+                container.reset(uuid, sequence);
+                return true;
+            }
+            if (sequence > container.sequence) {
+                container.missed += sequence - container.sequence - 1;
+                container.sequence = sequence;
+            } else if (sequence < container.sequence && container.missed > 0) {
+                // a late invalidation fills a gap
+                container.missed--;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Compares the received invalidations with the meta data of the partition owner.
+     *
+     * @return true if the partition needs to be repaired.
+     */
+    public boolean reconcile(int partitionId, UUID ownerUuid, long ownerSequence) {
+        MetaDataContainer container = containers[partitionId];
+        synchronized (container) {
+            boolean repair;
+            if (container.uuid == null) {
+                container.reset(ownerUuid, ownerSequence);
+                repair = false;
+            } else if (!ownerUuid.equals(container.uuid)) {
+                container.reset(ownerUuid, ownerSequence);
+                repair = true;
+            } else if (container.missed > 0 || container.sequence < container.observedOwnerSequence) {
+                container.sequence = Math.max(container.sequence, ownerSequence);
+                container.missed = 0;
+                repair = true;
+            } else {
+                repair = false;
+            }
+            container.observedOwnerSequence = ownerSequence;
+            return repair;
+        }
+    }
+
+    private static final class MetaDataContainer {
+        private UUID uuid;
+        // the highest received sequence
+        private long sequence;
+        // the number of sequences below the highest received one that have not been received
+        private long missed;
+        // the sequence of the owner at the last reconciliation
+        private long observedOwnerSequence;
+
+        void reset(UUID newUuid, long newSequence) {
+            uuid = newUuid;
+            sequence = newSequence;
+            missed = 0;
+            observedOwnerSequence = newSequence;
+        }
+    }
+}
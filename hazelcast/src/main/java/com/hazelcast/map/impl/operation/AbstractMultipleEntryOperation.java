@@ -212,9 +212,7 @@ abstract class AbstractMultipleEntryOperation extends AbstractMapOperation imple
         final String mapName = name;
         final MapServiceContext mapServiceContext = getMapServiceContext();
         final NearCacheProvider nearCacheProvider = mapServiceContext.getNearCacheProvider();
-        if (nearCacheProvider.isNearCacheAndInvalidationEnabled(mapName)) {
-            nearCacheProvider.invalidateAllNearCaches(mapName, key);
-        }
+        nearCacheProvider.invalidateAllNearCaches(mapName, key);
     }
 
     protected Object publishEntryEvent(Data key, Object value, Object oldValue, EntryEventType eventType) {
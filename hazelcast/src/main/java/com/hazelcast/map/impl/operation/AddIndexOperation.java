@@ -38,14 +38,20 @@ public class AddIndexOperation extends AbstractNamedOperation implements Partiti
 
     private String attributeName;
     private boolean ordered;
+    private boolean bitmap;
 
     public AddIndexOperation() {
     }
 
     public AddIndexOperation(String name, String attributeName, boolean ordered) {
+        this(name, attributeName, ordered, false);
+    }
+
+    public AddIndexOperation(String name, String attributeName, boolean ordered, boolean bitmap) {
         super(name);
         this.attributeName = attributeName;
         this.ordered = ordered;
+        this.bitmap = bitmap;
     }
 
     @Override
@@ -61,7 +67,12 @@ public class AddIndexOperation extends AbstractNamedOperation implements Partiti
                 .getPartitionContainer(getPartitionId()).getRecordStore(name);
         Indexes indexes = mapContainer.getIndexes();
         SerializationService ss = getNodeEngine().getSerializationService();
-        Index index = indexes.addOrGetIndex(attributeName, ordered);
+        Index index = indexes.addOrGetIndex(attributeName, ordered, bitmap);
+        if (mapContainer.isPartitionedIndexes()) {
+            // the record store indexes its records when it picks up the new index definition
+            recordStore.getIndexes();
+            return;
+        }
         final long now = getNow();
         final Iterator<Record> iterator = recordStore.iterator(now, false);
         while (iterator.hasNext()) {
@@ -86,6 +97,7 @@ public class AddIndexOperation extends AbstractNamedOperation implements Partiti
         super.writeInternal(out);
         out.writeUTF(attributeName);
         out.writeBoolean(ordered);
+        out.writeBoolean(bitmap);
     }
 
     @Override
@@ -93,5 +105,6 @@ public class AddIndexOperation extends AbstractNamedOperation implements Partiti
         super.readInternal(in);
         attributeName = in.readUTF();
         ordered = in.readBoolean();
+        bitmap = in.readBoolean();
     }
 }
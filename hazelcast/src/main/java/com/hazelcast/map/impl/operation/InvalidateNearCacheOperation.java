@@ -24,15 +24,23 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.AbstractOperation;
 import com.hazelcast.spi.impl.MutatingOperation;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.UUID;
 
 public class InvalidateNearCacheOperation extends AbstractOperation implements MutatingOperation {
 
     private Data key;
     private String mapName;
+    private int keyPartitionId;
+    private UUID partitionUuid;
+    private long sequence;
 
-    public InvalidateNearCacheOperation(String mapName, Data key) {
+    public InvalidateNearCacheOperation(String mapName, Data key, int keyPartitionId, UUID partitionUuid, long sequence) {
         this.key = key;
         this.mapName = mapName;
+        this.keyPartitionId = keyPartitionId;
+        this.partitionUuid = partitionUuid;
+        this.sequence = sequence;
     }
 
     public InvalidateNearCacheOperation() {
@@ -47,7 +55,8 @@ public class InvalidateNearCacheOperation extends AbstractOperation implements M
         MapService mapService = getService();
         MapServiceContext mapServiceContext = mapService.getMapServiceContext();
         if (mapServiceContext.getMapContainer(mapName).isNearCacheEnabled()) {
-            mapServiceContext.getNearCacheProvider().invalidateNearCache(mapName, key);
+            mapServiceContext.getNearCacheProvider().invalidateNearCache(mapName, Collections.singleton(key),
+                    keyPartitionId, partitionUuid, sequence);
         } else {
             getLogger().warning("Cache clear operation has been accepted while near cache is not enabled for "
                     + mapName + " map. Possible configuration conflict among nodes.");
@@ -64,6 +73,9 @@ public class InvalidateNearCacheOperation extends AbstractOperation implements M
         super.readInternal(in);
         mapName = in.readUTF();
         key = in.readData();
+        keyPartitionId = in.readInt();
+        partitionUuid = new UUID(in.readLong(), in.readLong());
+        sequence = in.readLong();
     }
 
     @Override
@@ -71,6 +83,10 @@ public class InvalidateNearCacheOperation extends AbstractOperation implements M
         super.writeInternal(out);
         out.writeUTF(mapName);
         out.writeData(key);
+        out.writeInt(keyPartitionId);
+        out.writeLong(partitionUuid.getMostSignificantBits());
+        out.writeLong(partitionUuid.getLeastSignificantBits());
+        out.writeLong(sequence);
     }
 
     @Override
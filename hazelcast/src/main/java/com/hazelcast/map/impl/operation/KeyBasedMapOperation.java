@@ -119,14 +119,8 @@ public abstract class KeyBasedMapOperation extends Operation implements Partitio
     }
 
     protected final void invalidateNearCaches() {
-        if (!mapContainer.isNearCacheEnabled()) {
-            return;
-        }
-
-        if (mapContainer.getMapConfig().getNearCacheConfig().isInvalidateOnChange()) {
-            NearCacheProvider nearCacheProvider = mapService.getMapServiceContext().getNearCacheProvider();
-            nearCacheProvider.invalidateAllNearCaches(name, dataKey);
-        }
+        NearCacheProvider nearCacheProvider = mapService.getMapServiceContext().getNearCacheProvider();
+        nearCacheProvider.invalidateAllNearCaches(name, dataKey);
     }
 
     protected void evict(boolean backup) {
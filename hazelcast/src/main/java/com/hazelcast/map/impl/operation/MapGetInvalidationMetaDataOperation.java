@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.nearcache.InvalidationMetaDataGenerator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.spi.AbstractOperation;
+import com.hazelcast.spi.NodeEngine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Returns the near cache invalidation meta data of the partitions owned by the target member, so a near cache
+ * owner can detect lost invalidations.
+ */
+public class MapGetInvalidationMetaDataOperation extends AbstractOperation {
+
+    private List<String> mapNames;
+    private MetaDataResponse response;
+
+    public MapGetInvalidationMetaDataOperation() {
+    }
+
+    public MapGetInvalidationMetaDataOperation(List<String> mapNames) {
+        this.mapNames = mapNames;
+    }
+
+    @Override
+    public String getServiceName() {
+        return MapService.SERVICE_NAME;
+    }
+
+    @Override
+    public void run() {
+        MapService mapService = getService();
+        InvalidationMetaDataGenerator generator = mapService.getMapServiceContext().getNearCacheProvider()
+                .getInvalidationMetaDataGenerator();
+        NodeEngine nodeEngine = getNodeEngine();
+        List<Integer> ownedPartitions = nodeEngine.getPartitionService().getMemberPartitions(nodeEngine.getThisAddress());
+
+        int partitionCount = ownedPartitions.size();
+        int[] partitionIds = new int[partitionCount];
+        UUID[] partitionUuids = new UUID[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitionIds[i] = ownedPartitions.get(i);
+            partitionUuids[i] = generator.getOrCreateUuid(partitionIds[i]);
+        }
+        Map<String, long[]> sequences = new HashMap<String, long[]>();
+        for (String mapName : mapNames) {
+            long[] mapSequences = new long[partitionCount];
+            for (int i = 0; i < partitionCount; i++) {
+                mapSequences[i] = generator.currentSequence(mapName, partitionIds[i]);
+            }
+            sequences.put(mapName, mapSequences);
+        }
+        response = new MetaDataResponse(partitionIds, partitionUuids, sequences);
+    }
+
+    @Override
+    public Object getResponse() {
+        return response;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeInt(mapNames.size());
+        for (String mapName : mapNames) {
+            out.writeUTF(mapName);
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        int size = in.readInt();
+        mapNames = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            mapNames.add(in.readUTF());
+        }
+    }
+
+    /**
+     * The invalidation meta data of the partitions owned by a member.
+     */
+    public static class MetaDataResponse implements DataSerializable {
+
+        private int[] partitionIds;
+        private UUID[] partitionUuids;
+        private Map<String, long[]> sequences;
+
+        public MetaDataResponse() {
+        }
+
+        public MetaDataResponse(int[] partitionIds, UUID[] partitionUuids, Map<String, long[]> sequences) {
+            this.partitionIds = partitionIds;
+            this.partitionUuids = partitionUuids;
+            this.sequences = sequences;
+        }
+
+        public int[] getPartitionIds() {
+            return partitionIds;
+        }
+
+        public UUID[] getPartitionUuids() {
+            return partitionUuids;
+        }
+
+        /**
+         * Returns the sequences of a map, in the order of {@link #getPartitionIds()}.
+         */
+        public long[] getSequences(String mapName) {
+            return sequences.get(mapName);
+        }
+
+        @Override
+        public void writeData(ObjectDataOutput out) throws IOException {
+            out.writeIntArray(partitionIds);
+            for (UUID partitionUuid : partitionUuids) {
+                out.writeLong(partitionUuid.getMostSignificantBits());
+                out.writeLong(partitionUuid.getLeastSignificantBits());
+            }
+            out.writeInt(sequences.size());
+            for (Map.Entry<String, long[]> entry : sequences.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLongArray(entry.getValue());
+            }
+        }
+
+        @Override
+        public void readData(ObjectDataInput in) throws IOException {
+            partitionIds = in.readIntArray();
+            partitionUuids = new UUID[partitionIds.length];
+            for (int i = 0; i < partitionUuids.length; i++) {
+                partitionUuids[i] = new UUID(in.readLong(), in.readLong());
+            }
+            int size = in.readInt();
+            sequences = new HashMap<String, long[]>(size);
+            for (int i = 0; i < size; i++) {
+                sequences.put(in.readUTF(), in.readLongArray());
+            }
+        }
+    }
+}
@@ -16,7 +16,6 @@
 
 package com.hazelcast.map.impl.operation;
 
-import com.hazelcast.map.impl.MapKeySet;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
 import com.hazelcast.map.impl.nearcache.NearCacheProvider;
@@ -26,21 +25,39 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.AbstractOperation;
 import com.hazelcast.spi.impl.MutatingOperation;
 import java.io.IOException;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
+/**
+ * Invalidates keys in the near caches of a map. The keys are grouped per partition; every group carries the
+ * invalidation sequence number of its partition.
+ */
 public class NearCacheKeySetInvalidationOperation extends AbstractOperation implements MutatingOperation {
-    private MapService mapService;
-    private MapKeySet mapKeySet;
     private String mapName;
+    private List<Integer> partitionIds = new ArrayList<Integer>();
+    private List<UUID> partitionUuids = new ArrayList<UUID>();
+    private List<Long> sequences = new ArrayList<Long>();
+    private List<Collection<Data>> keys = new ArrayList<Collection<Data>>();
 
     public NearCacheKeySetInvalidationOperation() {
     }
 
-    public NearCacheKeySetInvalidationOperation(String mapName, Set<Data> keys) {
-        this.mapKeySet = new MapKeySet(keys);
+    public NearCacheKeySetInvalidationOperation(String mapName) {
         this.mapName = mapName;
     }
 
+    /**
+     * Adds the invalidated keys of a partition.
+     */
+    public void addPartition(int partitionId, UUID partitionUuid, long sequence, Collection<Data> partitionKeys) {
+        partitionIds.add(partitionId);
+        partitionUuids.add(partitionUuid);
+        sequences.add(sequence);
+        keys.add(partitionKeys);
+    }
+
     @Override
     public String getServiceName() {
         return MapService.SERVICE_NAME;
@@ -48,11 +65,14 @@ public class NearCacheKeySetInvalidationOperation extends AbstractOperation impl
 
     @Override
     public void run() {
-        mapService = getService();
+        MapService mapService = getService();
         MapServiceContext mapServiceContext = mapService.getMapServiceContext();
         if (mapServiceContext.getMapContainer(mapName).isNearCacheEnabled()) {
             NearCacheProvider nearCacheProvider = mapServiceContext.getNearCacheProvider();
-            nearCacheProvider.invalidateNearCache(mapName, mapKeySet.getKeySet());
+            for (int i = 0; i < partitionIds.size(); i++) {
+                nearCacheProvider.invalidateNearCache(mapName, keys.get(i), partitionIds.get(i),
+                        partitionUuids.get(i), sequences.get(i));
+            }
         } else {
             getLogger().warning("Cache clear operation has been accepted while near cache is not enabled for "
                     + mapName + " map. Possible configuration conflict among nodes.");
@@ -68,15 +88,37 @@ public class NearCacheKeySetInvalidationOperation extends AbstractOperation impl
     public void writeInternal(ObjectDataOutput out) throws IOException {
         super.writeInternal(out);
         out.writeUTF(mapName);
-        mapKeySet.writeData(out);
+        out.writeInt(partitionIds.size());
+        for (int i = 0; i < partitionIds.size(); i++) {
+            UUID partitionUuid = partitionUuids.get(i);
+            out.writeInt(partitionIds.get(i));
+            out.writeLong(partitionUuid.getMostSignificantBits());
+            out.writeLong(partitionUuid.getLeastSignificantBits());
+            out.writeLong(sequences.get(i));
+            Collection<Data> partitionKeys = keys.get(i);
+            out.writeInt(partitionKeys.size());
+            for (Data key : partitionKeys) {
+                out.writeData(key);
+            }
+        }
     }
 
     @Override
     public void readInternal(ObjectDataInput in) throws IOException {
         super.readInternal(in);
         mapName = in.readUTF();
-        mapKeySet = new MapKeySet();
-        mapKeySet.readData(in);
+        int partitionCount = in.readInt();
+        for (int i = 0; i < partitionCount; i++) {
+            int partitionId = in.readInt();
+            UUID partitionUuid = new UUID(in.readLong(), in.readLong());
+            long sequence = in.readLong();
+            int keyCount = in.readInt();
+            List<Data> partitionKeys = new ArrayList<Data>(keyCount);
+            for (int k = 0; k < keyCount; k++) {
+                partitionKeys.add(in.readData());
+            }
+            addPartition(partitionId, partitionUuid, sequence, partitionKeys);
+        }
     }
 
     @Override
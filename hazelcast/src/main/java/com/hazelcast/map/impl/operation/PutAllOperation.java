@@ -121,9 +121,7 @@ public class PutAllOperation extends AbstractMapOperation implements PartitionAw
 
     protected final void invalidateNearCaches(Set<Data> keys) {
         final NearCacheProvider nearCacheProvider = mapService.getMapServiceContext().getNearCacheProvider();
-        if (nearCacheProvider.isNearCacheAndInvalidationEnabled(name)) {
-            nearCacheProvider.invalidateAllNearCaches(name, keys);
-        }
+        nearCacheProvider.invalidateAllNearCaches(name, keys);
     }
 
     protected void evict(boolean backup) {
@@ -17,6 +17,7 @@
 
 package com.hazelcast.map.impl.proxy;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.core.EntryListener;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.core.ExecutionCallback;
@@ -42,6 +43,7 @@ import com.hazelcast.mapreduce.ReducingSubmittableJob;
 import com.hazelcast.mapreduce.aggregation.Aggregation;
 import com.hazelcast.mapreduce.aggregation.Supplier;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.TruePredicate;
 import com.hazelcast.spi.InitializingObject;
@@ -52,6 +54,7 @@ import com.hazelcast.util.executor.DelegatingFuture;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
@@ -588,6 +591,15 @@ public class MapProxyImpl<K, V> extends MapProxySupport implements IMap<K, V>, I
         return query(predicate, IterationType.VALUE, false);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<Map.Entry<K, V>> iterator(Predicate predicate, int fetchSize) {
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+        checkPositive(fetchSize, "fetchSize should be positive!");
+
+        return iteratorInternal(predicate, fetchSize);
+    }
+
     @Override
     public Set<K> localKeySet() {
         return localKeySet(TruePredicate.INSTANCE);
@@ -601,6 +613,34 @@ public class MapProxyImpl<K, V> extends MapProxySupport implements IMap<K, V>, I
         return queryLocal(predicate, IterationType.KEY, false);
     }
 
+    @Override
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator) {
+        return aggregate(aggregator, TruePredicate.INSTANCE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> R aggregate(Aggregator<? super Map.Entry<K, V>, R> aggregator, Predicate predicate) {
+        checkNotNull(aggregator, "Aggregator should not be null!");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+
+        return (R) aggregateInternal(aggregator, predicate);
+    }
+
+    @Override
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection) {
+        return project(projection, TruePredicate.INSTANCE);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> Collection<R> project(Projection<? super Map.Entry<K, V>, R> projection, Predicate predicate) {
+        checkNotNull(projection, "Projection should not be null!");
+        checkNotNull(predicate, NULL_PREDICATE_IS_NOT_ALLOWED);
+
+        return projectInternal(projection, predicate);
+    }
+
     @Override
     public Object executeOnKey(K key, EntryProcessor entryProcessor) {
         checkNotNull(key, NULL_KEY_IS_NOT_ALLOWED);
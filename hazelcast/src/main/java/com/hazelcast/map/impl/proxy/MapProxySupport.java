@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.proxy;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.concurrent.lock.LockProxySupport;
 import com.hazelcast.concurrent.lock.LockServiceImpl;
 import com.hazelcast.config.EntryListenerConfig;
@@ -41,6 +42,7 @@ import com.hazelcast.map.impl.EntryEventFilter;
 import com.hazelcast.map.impl.LocalMapStatsProvider;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.query.MapQueryEngine;
+import com.hazelcast.map.impl.query.MapQueryIterator;
 import com.hazelcast.map.impl.MapEntrySet;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.MapService;
@@ -94,6 +96,7 @@ import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.partition.InternalPartition;
 import com.hazelcast.partition.InternalPartitionService;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.TruePredicate;
@@ -199,7 +202,7 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
     private void initializeIndexes() {
         for (MapIndexConfig index : getMapConfig().getMapIndexConfigs()) {
             if (index.getAttribute() != null) {
-                addIndex(index.getAttribute(), index.isOrdered());
+                addIndexInternal(index.getAttribute(), index.isOrdered(), index.isBitmap());
             }
         }
     }
@@ -1079,12 +1082,31 @@ abstract class MapProxySupport extends AbstractDistributedObject<MapService> imp
         return getMapQueryEngine().query(name, predicate, iterationType, dataResult);
     }
 
+    protected Object aggregateInternal(Aggregator aggregator, Predicate predicate) {
+        return getMapQueryEngine().aggregate(name, aggregator, predicate);
+    }
+
+    protected Collection projectInternal(Projection projection, Predicate predicate) {
+        return getMapQueryEngine().project(name, projection, predicate);
+    }
+
+    protected Iterator iteratorInternal(Predicate predicate, int fetchSize) {
+        if (predicate instanceof PagingPredicate) {
+            throw new IllegalArgumentException("Predicate should not be a type of paging predicate");
+        }
+        return new MapQueryIterator(getNodeEngine(), name, predicate, fetchSize);
+    }
+
     public void addIndex(String attribute, boolean ordered) {
+        addIndexInternal(attribute, ordered, false);
+    }
+
+    protected void addIndexInternal(String attribute, boolean ordered, boolean bitmap) {
         if (attribute == null) {
             throw new IllegalArgumentException("Attribute name cannot be null");
         }
         try {
-            AddIndexOperation addIndexOperation = new AddIndexOperation(name, attribute, ordered);
+            AddIndexOperation addIndexOperation = new AddIndexOperation(name, attribute, ordered, bitmap);
             operationService.invokeOnAllPartitions(SERVICE_NAME, new BinaryOperationFactory(addIndexOperation, getNodeEngine()));
         } catch (Throwable t) {
             throw ExceptionUtil.rethrow(t);
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the entries of a map matching a predicate by fetching them partition by partition in batches,
+ * so only a single batch is held by the caller and the whole result is never materialized.
+ * <p/>
+ * Every batch is queried on the partition thread with a {@link QueryPartitionBatchOperation}, which continues
+ * the scan of the partition from the table index returned by the previous batch. The iteration is weakly
+ * consistent: entries updated during the iteration may or may not be returned, and entries moved by a resize
+ * or a migration of their partition may be skipped or returned twice.
+ * <p/>
+ * Subclasses only define how a batch is fetched, so the same iteration is used by the members and the clients.
+ *
+ * @param <K> the type of key.
+ * @param <V> the type of value.
+ */
+public abstract class AbstractMapQueryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+
+    protected final String mapName;
+    protected final Predicate predicate;
+    protected final int fetchSize;
+
+    private final int partitionCount;
+
+    private int partitionId = -1;
+    private int nextTableIndex = -1;
+    private QueryBatchResult batch;
+    private int index;
+
+    protected AbstractMapQueryIterator(String mapName, Predicate predicate, int fetchSize, int partitionCount) {
+        this.mapName = mapName;
+        this.predicate = predicate;
+        this.fetchSize = fetchSize;
+        this.partitionCount = partitionCount;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return (batch != null && index < batch.size()) || advance();
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        K key = toObject(batch.getKey(index));
+        V value = toObject(batch.getValue(index));
+        index++;
+        return new AbstractMap.SimpleImmutableEntry<K, V>(key, value);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Removing through a query iterator is not supported!");
+    }
+
+    private boolean advance() {
+        while (partitionId < partitionCount) {
+            if (nextTableIndex < 0) {
+                partitionId++;
+                nextTableIndex = Integer.MAX_VALUE;
+                if (partitionId == partitionCount) {
+                    batch = null;
+                    return false;
+                }
+            }
+            batch = fetch(partitionId, nextTableIndex);
+            index = 0;
+            nextTableIndex = batch.getNextTableIndex();
+            if (batch.size() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fetches the next batch of the matching entries of a partition.
+     *
+     * @param partitionId the partition to query
+     * @param tableIndex  the table index to continue the scan of the partition from
+     * @return the batch and the table index to continue from
+     */
+    protected abstract QueryBatchResult fetch(int partitionId, int tableIndex);
+
+    protected abstract <T> T toObject(Data data);
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.core.MemberLeftException;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.operation.AbstractMapOperation;
+import com.hazelcast.monitor.impl.LocalMapStatsImpl;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.partition.InternalPartitionService;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.impl.Indexes;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.spi.ExceptionAction;
+import com.hazelcast.spi.ReadonlyOperation;
+import com.hazelcast.spi.exception.TargetNotMemberException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Aggregates the entries of the partitions owned by the member. When the predicate can be answered by the
+ * global indexes the matching entries are accumulated directly, otherwise the partitions are aggregated on
+ * their partition threads and the partial results are combined before being sent back to the caller.
+ */
+public class AggregationOperation extends AbstractMapOperation implements ReadonlyOperation {
+
+    private Aggregator aggregator;
+    private Predicate predicate;
+
+    private AggregationResult result;
+
+    public AggregationOperation() {
+    }
+
+    public AggregationOperation(String mapName, Aggregator aggregator, Predicate predicate) {
+        super(mapName);
+        this.aggregator = aggregator;
+        this.predicate = predicate;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() throws Exception {
+        InternalPartitionService partitionService = getNodeEngine().getPartitionService();
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        MapQueryEngine queryEngine = mapServiceContext.getMapQueryEngine();
+
+        Indexes indexes = mapContainer.getIndexes();
+        predicate = queryEngine.optimize(predicate, indexes);
+
+        int initialPartitionStateVersion = partitionService.getPartitionStateVersion();
+        Collection<Integer> initialPartitions = mapServiceContext.getOwnedPartitions();
+
+        Set<QueryableEntry> entries = null;
+        if (!mapContainer.isPartitionedIndexes() && !partitionService.hasOnGoingMigrationLocal()) {
+            entries = indexes.query(predicate);
+        }
+
+        Aggregator partialResult;
+        if (entries != null) {
+            partialResult = queryEngine.newAggregator(aggregator);
+            for (QueryableEntry entry : entries) {
+                partialResult.accumulate(entry);
+            }
+        } else {
+            partialResult = queryEngine.aggregateOnPartitionThreads(name, aggregator, predicate, initialPartitions);
+        }
+
+        result = new AggregationResult(partialResult);
+        if (initialPartitionStateVersion == partitionService.getPartitionStateVersion()) {
+            result.setPartitionIds(initialPartitions);
+        } else {
+            getLogger().info("Partition assignments changed while executing aggregation: " + predicate);
+        }
+        updateStatisticsIfEnabled(mapServiceContext);
+    }
+
+    private void updateStatisticsIfEnabled(MapServiceContext mapServiceContext) {
+        if (mapContainer.getMapConfig().isStatisticsEnabled()) {
+            LocalMapStatsImpl localStats = mapServiceContext.getLocalMapStatsProvider().getLocalMapStatsImpl(name);
+            localStats.incrementOtherOperations();
+        }
+    }
+
+    @Override
+    public ExceptionAction onInvocationException(Throwable throwable) {
+        if (throwable instanceof MemberLeftException) {
+            return ExceptionAction.THROW_EXCEPTION;
+        }
+        if (throwable instanceof TargetNotMemberException) {
+            return ExceptionAction.THROW_EXCEPTION;
+        }
+        return super.onInvocationException(throwable);
+    }
+
+    @Override
+    public Object getResponse() {
+        return result;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeUTF(name);
+        out.writeObject(aggregator);
+        out.writeObject(predicate);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        name = in.readUTF();
+        aggregator = in.readObject();
+        predicate = in.readObject();
+    }
+}
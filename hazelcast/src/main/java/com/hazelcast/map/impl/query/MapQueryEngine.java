@@ -16,6 +16,8 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.impl.Indexes;
@@ -40,6 +42,31 @@ public interface MapQueryEngine {
      */
     Collection<QueryableEntry> queryOnPartition(String mapName, Predicate predicate, int partitionId);
 
+    /**
+     * Queries the next batch of the matching entries of a partition, must be called on the partition thread.
+     *
+     * @param mapName     map name.
+     * @param predicate   any predicate except paging predicate.
+     * @param partitionId partition id.
+     * @param tableIndex  the table index to continue from, {@link Integer#MAX_VALUE} for the first batch.
+     * @param fetchSize   maximum number of entries in the batch.
+     * @return the batch of the matching entries.
+     */
+    QueryBatchResult queryBatchOnPartition(String mapName, Predicate predicate, int partitionId, int tableIndex,
+                                           int fetchSize);
+
+    /**
+     * Queries the given partitions on their partition threads and merges the results. Used for maps with
+     * partitioned indexes, which can only be accessed by the partition threads.
+     *
+     * @param mapName      map name.
+     * @param predicate    any predicate.
+     * @param partitionIds ids of the partitions to query.
+     * @return merged results of the partitions, sorted and limited to the current page for a paging predicate.
+     * @see com.hazelcast.map.impl.MapContainer#isPartitionedIndexes()
+     */
+    Collection<QueryableEntry> queryOnPartitionThreads(String mapName, Predicate predicate, Collection<Integer> partitionIds);
+
     /**
      * Used for predicates which queries on node local entries, except paging predicate.
      *
@@ -105,4 +132,55 @@ public interface MapQueryEngine {
      * @return optimized version of input predicate or the predicate itself if no optimization was performed
      */
     Predicate optimize(Predicate predicate, Indexes indexes);
+
+    /**
+     * Accumulates the entries of a specific partition matching the predicate, must be called on the partition thread.
+     *
+     * @param mapName     map name.
+     * @param aggregator  aggregator to copy for the partition, it is not modified.
+     * @param predicate   any predicate except paging predicate.
+     * @param partitionId partition id.
+     * @return a copy of the aggregator which accumulated the matching entries.
+     */
+    Aggregator aggregateOnPartition(String mapName, Aggregator aggregator, Predicate predicate, int partitionId);
+
+    /**
+     * Aggregates the given partitions on their partition threads and combines the partial results.
+     *
+     * @param mapName      map name.
+     * @param aggregator   aggregator to copy for the partitions, it is not modified.
+     * @param predicate    any predicate except paging predicate.
+     * @param partitionIds ids of the partitions to aggregate.
+     * @return a copy of the aggregator which combined the partial results.
+     */
+    Aggregator aggregateOnPartitionThreads(String mapName, Aggregator aggregator, Predicate predicate,
+                                          Collection<Integer> partitionIds);
+
+    /**
+     * Creates an empty copy of the aggregator, so the aggregator can be shared by the local operations.
+     *
+     * @param aggregator the aggregator to copy.
+     * @return the copy.
+     */
+    Aggregator newAggregator(Aggregator aggregator);
+
+    /**
+     * Aggregates the entries matching the predicate on all members.
+     *
+     * @param mapName    map name.
+     * @param aggregator aggregator to copy for the partitions, it is not modified.
+     * @param predicate  any predicate except paging predicate.
+     * @return the aggregated value.
+     */
+    Object aggregate(String mapName, Aggregator aggregator, Predicate predicate);
+
+    /**
+     * Projects the entries matching the predicate on all members.
+     *
+     * @param mapName    map name.
+     * @param projection projection to transform the entries with.
+     * @param predicate  any predicate except paging predicate.
+     * @return the projected objects.
+     */
+    Collection project(String mapName, Projection projection, Predicate predicate);
 }
@@ -16,16 +16,18 @@
 
 package com.hazelcast.map.impl.query;
 
+import com.hazelcast.aggregation.Aggregator;
 import com.hazelcast.core.Member;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.map.QueryResultSizeExceededException;
 import com.hazelcast.map.impl.MapService;
 import com.hazelcast.map.impl.MapServiceContext;
-import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.partition.InternalPartitionService;
+import com.hazelcast.projection.Projection;
 import com.hazelcast.query.PagingPredicate;
 import com.hazelcast.query.PagingPredicateAccessor;
 import com.hazelcast.query.Predicate;
@@ -41,6 +43,7 @@ import com.hazelcast.util.Clock;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.IterationType;
 import com.hazelcast.util.QueryResultSet;
+import com.hazelcast.util.SortedSubListCollector;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -71,6 +74,7 @@ public class MapQueryEngineImpl implements MapQueryEngine {
     private final SerializationService serializationService;
     private final InternalPartitionService partitionService;
     private final QueryOptimizer queryOptimizer;
+    private final PagingCursorQuery pagingCursorQuery;
 
     public MapQueryEngineImpl(MapServiceContext mapServiceContext, QueryOptimizer optimizer) {
         this.mapServiceContext = mapServiceContext;
@@ -80,17 +84,43 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         this.logger = nodeEngine.getLogger(getClass());
         this.queryResultSizeLimiter = new QueryResultSizeLimiter(mapServiceContext, logger);
         this.queryOptimizer = optimizer;
+        this.pagingCursorQuery = new PagingCursorQuery(nodeEngine);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public Collection<QueryableEntry> queryOnPartition(String mapName, Predicate predicate, int partitionId) {
-        PagingPredicate pagingPredicate = predicate instanceof PagingPredicate ? (PagingPredicate) predicate : null;
+        if (predicate instanceof PagingPredicate) {
+            // paging queries only retain the entries of the requested pages instead of sorting all matching entries
+            PagingPredicate pagingPredicate = (PagingPredicate) predicate;
+            Map.Entry<Integer, Map.Entry> nearestAnchorEntry = PagingPredicateAccessor.getNearestAnchorEntry(pagingPredicate);
+            SortedSubListCollector pagingCollector = new SortedSubListCollector(pagingPredicate, nearestAnchorEntry);
+            queryOnPartition(mapName, pagingPredicate, partitionId, nearestAnchorEntry, pagingCollector);
+            return pagingCollector.getSortedSubList();
+        }
         List<QueryableEntry> resultList = new LinkedList<QueryableEntry>();
+        queryOnPartition(mapName, predicate, partitionId, null, resultList);
+        return resultList;
+    }
 
-        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
-        Iterator<Record> iterator = container.getRecordStore(mapName).loadAwareIterator(getNow(), false);
-        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = PagingPredicateAccessor.getNearestAnchorEntry(pagingPredicate);
+    /**
+     * Adds the matching entries of the partition to the result, the paging predicate entries before the anchor are skipped.
+     */
+    private void queryOnPartition(String mapName, Predicate predicate, int partitionId,
+                                  Map.Entry<Integer, Map.Entry> nearestAnchorEntry, Collection<QueryableEntry> result) {
+        PagingPredicate pagingPredicate = nearestAnchorEntry == null ? null : (PagingPredicate) predicate;
+        RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getRecordStore(mapName);
+        Collection<QueryableEntry> indexedEntries = queryPartitionIndexes(recordStore, predicate);
+        if (indexedEntries != null) {
+            for (QueryableEntry queryEntry : indexedEntries) {
+                if (compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
+                    result.add(queryEntry);
+                }
+            }
+            return;
+        }
+
+        Iterator<Record> iterator = recordStore.loadAwareIterator(getNow(), false);
         while (iterator.hasNext()) {
             Record record = iterator.next();
             Data key = record.getKey();
@@ -100,9 +130,77 @@ public class MapQueryEngineImpl implements MapQueryEngine {
             }
             QueryEntry queryEntry = new QueryEntry(serializationService, key, key, value);
             if (predicate.apply(queryEntry) && compareAnchor(pagingPredicate, queryEntry, nearestAnchorEntry)) {
-                resultList.add(queryEntry);
+                result.add(queryEntry);
+            }
+        }
+    }
+
+    @Override
+    public QueryBatchResult queryBatchOnPartition(String mapName, Predicate predicate, int partitionId, int tableIndex,
+                                                  int fetchSize) {
+        RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getRecordStore(mapName);
+        QueryBatchResult result = new QueryBatchResult(fetchSize);
+        List<Record> records = new ArrayList<Record>(fetchSize);
+        long now = getNow();
+        int nextTableIndex = tableIndex;
+        while (nextTableIndex >= 0 && result.size() < fetchSize) {
+            records.clear();
+            nextTableIndex = recordStore.fetchRecords(nextTableIndex, fetchSize - result.size(), now, records);
+            for (Record record : records) {
+                Data key = record.getKey();
+                Object value = getValueOrCachedValue(record);
+                if (value == null) {
+                    continue;
+                }
+                QueryEntry queryEntry = new QueryEntry(serializationService, key, key, value);
+                if (predicate.apply(queryEntry)) {
+                    result.add(key, queryEntry.getValueData());
+                }
             }
         }
+        result.setNextTableIndex(nextTableIndex);
+        return result;
+    }
+
+    /**
+     * Queries the indexes owned by the record store, must be called on the partition thread.
+     *
+     * @return the matching entries or {@code null} if the indexes are not partitioned or the predicate cannot be
+     * evaluated by the indexes.
+     */
+    private Collection<QueryableEntry> queryPartitionIndexes(RecordStore recordStore, Predicate predicate) {
+        if (!recordStore.getMapContainer().isPartitionedIndexes()) {
+            return null;
+        }
+        Indexes indexes = recordStore.getIndexes();
+        if (!indexes.hasIndex()) {
+            return null;
+        }
+        recordStore.checkIfLoaded();
+        return indexes.query(optimize(predicate, indexes));
+    }
+
+    @Override
+    public Collection<QueryableEntry> queryOnPartitionThreads(String mapName, Predicate predicate,
+                                                              Collection<Integer> partitionIds) {
+        PagingPredicate pagingPredicate = predicate instanceof PagingPredicate ? (PagingPredicate) predicate : null;
+        List<QueryableEntry> resultList = new LinkedList<QueryableEntry>();
+        try {
+            List<Future<QueryResult>> futures = queryOnPartitions(mapName, predicate, partitionIds);
+            for (Future<QueryResult> future : futures) {
+                QueryResult queryResult = future.get();
+                for (QueryResultEntry entry : queryResult.getResult()) {
+                    resultList.add(new QueryEntry(serializationService, entry.getIndexKey(),
+                            entry.getKeyData(), entry.getValueData()));
+                }
+            }
+        } catch (Throwable t) {
+            throw ExceptionUtil.rethrow(t);
+        }
+        if (pagingPredicate == null) {
+            return resultList;
+        }
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = PagingPredicateAccessor.getNearestAnchorEntry(pagingPredicate);
         return getSortedSubList(resultList, pagingPredicate, nearestAnchorEntry);
     }
 
@@ -206,6 +304,12 @@ public class MapQueryEngineImpl implements MapQueryEngine {
     @Override
     public Set queryWithPagingPredicate(String mapName, PagingPredicate pagingPredicate, IterationType iterationType) {
         pagingPredicate.setIterationType(iterationType);
+        if (pagingPredicate.isCursorEnabled()) {
+            Set cursorResult = pagingCursorQuery.query(mapName, pagingPredicate, iterationType, getAllPartitionIds());
+            if (cursorResult != null) {
+                return cursorResult;
+            }
+        }
         ArrayList<Map.Entry> resultList = new ArrayList<Map.Entry>();
         Set<Integer> partitionIds = getAllPartitionIds();
 
@@ -284,6 +388,133 @@ public class MapQueryEngineImpl implements MapQueryEngine {
         return queryOptimizer.optimize(predicate, indexes);
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public Aggregator aggregateOnPartition(String mapName, Aggregator aggregator, Predicate predicate, int partitionId) {
+        Aggregator result = newAggregator(aggregator);
+        RecordStore recordStore = mapServiceContext.getPartitionContainer(partitionId).getRecordStore(mapName);
+        Collection<QueryableEntry> indexedEntries = queryPartitionIndexes(recordStore, predicate);
+        if (indexedEntries != null) {
+            for (QueryableEntry queryEntry : indexedEntries) {
+                result.accumulate(queryEntry);
+            }
+            return result;
+        }
+
+        Iterator<Record> iterator = recordStore.loadAwareIterator(getNow(), false);
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            Data key = record.getKey();
+            Object value = getValueOrCachedValue(record);
+            if (value == null) {
+                continue;
+            }
+            QueryEntry queryEntry = new QueryEntry(serializationService, key, key, value);
+            if (predicate.apply(queryEntry)) {
+                result.accumulate(queryEntry);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Aggregator aggregateOnPartitionThreads(String mapName, Aggregator aggregator, Predicate predicate,
+                                                 Collection<Integer> partitionIds) {
+        Aggregator result = newAggregator(aggregator);
+        try {
+            List<Future<AggregationResult>> futures = aggregateOnPartitions(mapName, aggregator, predicate, partitionIds);
+            for (Future<AggregationResult> future : futures) {
+                result.combine(future.get().getAggregator());
+            }
+        } catch (Throwable t) {
+            throw ExceptionUtil.rethrow(t);
+        }
+        return result;
+    }
+
+    @Override
+    public Aggregator newAggregator(Aggregator aggregator) {
+        return serializationService.toObject(serializationService.toData(aggregator));
+    }
+
+    @Override
+    public Object aggregate(String mapName, Aggregator aggregator, Predicate predicate) {
+        checkIfNotPagingPredicate(predicate);
+
+        Aggregator result = newAggregator(aggregator);
+        Set<Integer> partitionIds = getAllPartitionIds();
+
+        try {
+            List<Future<AggregationResult>> futures = aggregateOnMembers(mapName, aggregator, predicate);
+            combineAggregationResults(futures, result, partitionIds);
+            if (partitionIds.isEmpty()) {
+                return result.aggregate();
+            }
+        } catch (Throwable t) {
+            logger.warning("Could not get results", t);
+        }
+
+        try {
+            List<Future<AggregationResult>> futures = aggregateOnPartitions(mapName, aggregator, predicate, partitionIds);
+            combineAggregationResults(futures, result, partitionIds);
+        } catch (Throwable t) {
+            throw ExceptionUtil.rethrow(t);
+        }
+        return result.aggregate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection project(String mapName, Projection projection, Predicate predicate) {
+        return (Collection) aggregate(mapName, new ProjectionAggregator(projection), predicate);
+    }
+
+    private List<Future<AggregationResult>> aggregateOnMembers(String mapName, Aggregator aggregator, Predicate predicate) {
+        OperationService operationService = nodeEngine.getOperationService();
+        Collection<Member> members = nodeEngine.getClusterService().getMembers();
+        List<Future<AggregationResult>> futures = new ArrayList<Future<AggregationResult>>(members.size());
+        for (Member member : members) {
+            AggregationOperation operation = new AggregationOperation(mapName, aggregator, predicate);
+            Future<AggregationResult> future = operationService.invokeOnTarget(MapService.SERVICE_NAME, operation,
+                    member.getAddress());
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    private List<Future<AggregationResult>> aggregateOnPartitions(String mapName, Aggregator aggregator, Predicate predicate,
+                                                                  Collection<Integer> partitionIds) {
+        OperationService operationService = nodeEngine.getOperationService();
+        List<Future<AggregationResult>> futures = new ArrayList<Future<AggregationResult>>(partitionIds.size());
+        for (Integer partitionId : partitionIds) {
+            AggregationPartitionOperation operation = new AggregationPartitionOperation(mapName, aggregator, predicate);
+            operation.setPartitionId(partitionId);
+            Future<AggregationResult> future = operationService.invokeOnPartition(MapService.SERVICE_NAME, operation,
+                    partitionId);
+            futures.add(future);
+        }
+        return futures;
+    }
+
+    /**
+     * Combines the results of the aggregations and removes the aggregated partition ids.
+     */
+    private void combineAggregationResults(List<Future<AggregationResult>> futures, Aggregator result,
+                                           Collection<Integer> partitionIds)
+            throws ExecutionException, InterruptedException {
+        for (Future<AggregationResult> future : futures) {
+            AggregationResult aggregationResult = future.get();
+            if (aggregationResult == null) {
+                continue;
+            }
+            Collection<Integer> aggregatedPartitionIds = aggregationResult.getPartitionIds();
+            if (aggregatedPartitionIds != null) {
+                partitionIds.removeAll(aggregatedPartitionIds);
+                result.combine(aggregationResult.getAggregator());
+            }
+        }
+    }
+
     private void checkIfNotPagingPredicate(Predicate predicate) {
         if (predicate instanceof PagingPredicate) {
             throw new IllegalArgumentException("Predicate should not be a type of paging predicate");
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.InternalCompletableFuture;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.OperationService;
+
+/**
+ * Member side {@link AbstractMapQueryIterator}, which invokes the {@link QueryPartitionBatchOperation}s
+ * directly on the partitions.
+ *
+ * @param <K> the type of key.
+ * @param <V> the type of value.
+ */
+public class MapQueryIterator<K, V> extends AbstractMapQueryIterator<K, V> {
+
+    private final NodeEngine nodeEngine;
+    private final SerializationService serializationService;
+
+    public MapQueryIterator(NodeEngine nodeEngine, String mapName, Predicate predicate, int fetchSize) {
+        super(mapName, predicate, fetchSize, nodeEngine.getPartitionService().getPartitionCount());
+        this.nodeEngine = nodeEngine;
+        this.serializationService = nodeEngine.getSerializationService();
+    }
+
+    @Override
+    protected QueryBatchResult fetch(int partitionId, int tableIndex) {
+        OperationService operationService = nodeEngine.getOperationService();
+        QueryPartitionBatchOperation operation = new QueryPartitionBatchOperation(mapName, predicate, tableIndex,
+                fetchSize);
+        InternalCompletableFuture<QueryBatchResult> future = operationService
+                .invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId);
+        return future.getSafely();
+    }
+
+    @Override
+    protected <T> T toObject(Data data) {
+        return serializationService.toObject(data);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.PagingPredicateAccessor;
+import com.hazelcast.query.impl.QueryResultEntry;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.util.ExceptionUtil;
+import com.hazelcast.util.IterationType;
+import com.hazelcast.util.PagingCursor;
+import com.hazelcast.util.SortedQueryResultSet;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+/**
+ * Serves the pages of a {@link PagingPredicate} in cursor mode from its {@link PagingCursor}. Only the partitions
+ * which don't have enough buffered entries are queried, each one with its own anchor. Such a query is a full
+ * {@link QueryPartitionOperation} of the partition; the anchor only bounds the entries it returns.
+ */
+class PagingCursorQuery {
+
+    private final NodeEngine nodeEngine;
+    private final SerializationService serializationService;
+
+    PagingCursorQuery(NodeEngine nodeEngine) {
+        this.nodeEngine = nodeEngine;
+        this.serializationService = nodeEngine.getSerializationService();
+    }
+
+    /**
+     * @return the page or {@code null} if the cursor cannot serve the requested page
+     */
+    Set query(String mapName, PagingPredicate pagingPredicate, IterationType iterationType,
+              Collection<Integer> allPartitionIds) {
+        PagingCursor cursor = PagingPredicateAccessor.getCursor(pagingPredicate);
+        if (cursor == null || !cursor.canServe(pagingPredicate)) {
+            if (pagingPredicate.getPage() != 0) {
+                PagingPredicateAccessor.setCursor(pagingPredicate, null);
+                return null;
+            }
+            cursor = new PagingCursor(pagingPredicate, allPartitionIds);
+            PagingPredicateAccessor.setCursor(pagingPredicate, cursor);
+        }
+
+        try {
+            fetch(mapName, cursor);
+        } catch (Throwable t) {
+            PagingPredicateAccessor.setCursor(pagingPredicate, null);
+            throw ExceptionUtil.rethrow(t);
+        }
+
+        List<Map.Entry> page = cursor.nextPage();
+        if (page.size() == pagingPredicate.getPageSize()) {
+            PagingPredicateAccessor.setAnchor(pagingPredicate, pagingPredicate.getPage(), page.get(page.size() - 1));
+        }
+        return new SortedQueryResultSet(page, iterationType);
+    }
+
+    private void fetch(String mapName, PagingCursor cursor) throws Exception {
+        List<Integer> partitionIds = cursor.getPartitionsToFetch();
+        OperationService operationService = nodeEngine.getOperationService();
+        List<Future<QueryResult>> futures = new ArrayList<Future<QueryResult>>(partitionIds.size());
+        for (Integer partitionId : partitionIds) {
+            QueryPartitionOperation operation = new QueryPartitionOperation(mapName, cursor.newPartitionPredicate(partitionId));
+            operation.setPartitionId(partitionId);
+            futures.add(operationService.<QueryResult>invokeOnPartition(MapService.SERVICE_NAME, operation, partitionId));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            Collection<QueryResultEntry> result = futures.get(i).get().getResult();
+            List<Map.Entry> entries = new ArrayList<Map.Entry>(result.size());
+            for (QueryResultEntry queryResultEntry : result) {
+                Object key = serializationService.toObject(queryResultEntry.getKeyData());
+                Object value = serializationService.toObject(queryResultEntry.getValueData());
+                entries.add(new AbstractMap.SimpleImmutableEntry<Object, Object>(key, value));
+            }
+            cursor.addEntries(partitionIds.get(i), entries);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregator;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.DataSerializable;
+import com.hazelcast.projection.Projection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the projected objects of the accumulated entries, so the projections run through the same
+ * partition thread execution as the aggregations. Only the projection and the projected objects are
+ * serialized, the entries never leave the owning member.
+ *
+ * @param <I> the type of the transformed entries
+ * @param <O> the type of the projected objects
+ */
+public class ProjectionAggregator<I, O> extends Aggregator<I, List<O>> implements DataSerializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Projection<I, O> projection;
+    private List<O> results = new ArrayList<O>();
+
+    public ProjectionAggregator() {
+    }
+
+    public ProjectionAggregator(Projection<I, O> projection) {
+        this.projection = projection;
+    }
+
+    @Override
+    public void accumulate(I input) {
+        results.add(projection.transform(input));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void combine(Aggregator aggregator) {
+        results.addAll(((ProjectionAggregator<I, O>) aggregator).results);
+    }
+
+    @Override
+    public List<O> aggregate() {
+        return results;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeObject(projection);
+        out.writeInt(results.size());
+        for (O result : results) {
+            out.writeObject(result);
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        projection = in.readObject();
+        int size = in.readInt();
+        results = new ArrayList<O>(size);
+        for (int i = 0; i < size; i++) {
+            O result = in.readObject();
+            results.add(result);
+        }
+    }
+}
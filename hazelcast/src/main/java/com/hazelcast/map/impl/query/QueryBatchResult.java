@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.DataSerializable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a {@link QueryPartitionBatchOperation}: a batch of the matching entries of a partition and the
+ * table index to continue the iteration of the partition from.
+ */
+public class QueryBatchResult implements DataSerializable {
+
+    private List<Data> keys;
+    private List<Data> values;
+    private int nextTableIndex;
+
+    public QueryBatchResult() {
+    }
+
+    public QueryBatchResult(int capacity) {
+        keys = new ArrayList<Data>(capacity);
+        values = new ArrayList<Data>(capacity);
+    }
+
+    public QueryBatchResult(List<Data> keys, List<Data> values, int nextTableIndex) {
+        this.keys = keys;
+        this.values = values;
+        this.nextTableIndex = nextTableIndex;
+    }
+
+    public void add(Data key, Data value) {
+        keys.add(key);
+        values.add(value);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public Data getKey(int index) {
+        return keys.get(index);
+    }
+
+    public Data getValue(int index) {
+        return values.get(index);
+    }
+
+    public List<Data> getKeys() {
+        return keys;
+    }
+
+    public List<Data> getValues() {
+        return values;
+    }
+
+    /**
+     * @return the table index to continue from or a negative value if the partition is exhausted
+     */
+    public int getNextTableIndex() {
+        return nextTableIndex;
+    }
+
+    public void setNextTableIndex(int nextTableIndex) {
+        this.nextTableIndex = nextTableIndex;
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(nextTableIndex);
+        int size = keys.size();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeData(keys.get(i));
+            out.writeData(values.get(i));
+        }
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        nextTableIndex = in.readInt();
+        int size = in.readInt();
+        keys = new ArrayList<Data>(size);
+        values = new ArrayList<Data>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(in.readData());
+            values.add(in.readData());
+        }
+    }
+}
@@ -91,14 +91,17 @@ public class QueryOperation extends AbstractMapOperation implements ReadonlyOper
         int initialPartitionStateVersion = partitionService.getPartitionStateVersion();
         Collection<Integer> initialPartitions = mapServiceContext.getOwnedPartitions();
 
+        boolean partitionedIndexes = mapContainer.isPartitionedIndexes();
         Set<QueryableEntry> entries = null;
-        if (!partitionService.hasOnGoingMigrationLocal()) {
+        if (!partitionedIndexes && !partitionService.hasOnGoingMigrationLocal()) {
             entries = indexes.query(predicate);
         }
 
         result = queryEngine.newQueryResult(initialPartitions.size());
         if (entries != null) {
             result.addAll(entries);
+        } else if (partitionedIndexes && indexes.hasIndex()) {
+            result.addAll(queryEngine.queryOnPartitionThreads(name, predicate, initialPartitions));
         } else {
             fullTableScan(initialPartitions, nodeEngine.getGroupProperties());
         }
@@ -27,20 +27,21 @@ import com.hazelcast.map.impl.mapstore.MapStoreContext;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.partition.InternalPartition;
 import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.query.impl.Index;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryEntry;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.DefaultObjectNamespace;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.util.Clock;
+import com.hazelcast.util.collection.Data2ObjectHashMap;
 
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.map.impl.SizeEstimators.createMapSizeEstimator;
 
@@ -51,8 +52,8 @@ abstract class AbstractRecordStore implements RecordStore {
 
     protected static final long DEFAULT_TTL = -1L;
 
-    // Concurrency level is 1 since at most one thread can write at a time.
-    protected final ConcurrentMap<Data, Record> records = new ConcurrentHashMap<Data, Record>(1000, 0.75f, 1);
+    // Only the partition thread writes, other threads may only read and iterate.
+    protected final Data2ObjectHashMap<Record> records = new Data2ObjectHashMap<Record>();
 
     protected final RecordFactory recordFactory;
 
@@ -66,6 +67,9 @@ abstract class AbstractRecordStore implements RecordStore {
 
     protected final int partitionId;
 
+    // null if the map-wide indexes of the map container are used
+    private final Indexes partitionIndexes;
+
     private SizeEstimator sizeEstimator;
 
     protected AbstractRecordStore(MapContainer mapContainer, int partitionId) {
@@ -76,6 +80,7 @@ abstract class AbstractRecordStore implements RecordStore {
         this.name = mapContainer.getName();
         this.recordFactory = mapContainer.getRecordFactory();
         this.sizeEstimator = createMapSizeEstimator();
+        this.partitionIndexes = mapContainer.isPartitionedIndexes() ? new Indexes(true) : null;
     }
 
     @Override
@@ -88,6 +93,43 @@ abstract class AbstractRecordStore implements RecordStore {
         return mapContainer;
     }
 
+    @Override
+    public Indexes getIndexes() {
+        Indexes mapIndexes = mapContainer.getIndexes();
+        if (partitionIndexes == null) {
+            return mapIndexes;
+        }
+        Index[] definitions = mapIndexes.getIndexes();
+        if (definitions.length != partitionIndexes.getIndexes().length) {
+            rebuildPartitionIndexes(definitions);
+        }
+        return partitionIndexes;
+    }
+
+    /**
+     * Recreates the partition indexes from the index definitions of the map and indexes all records.
+     * Indexes are rarely added, so the partition indexes are simply rebuilt from scratch.
+     * <p/>
+     * Like the map-wide indexes, only owned entries are indexed; backup entries are indexed on promotion.
+     */
+    private void rebuildPartitionIndexes(Index[] definitions) {
+        partitionIndexes.clearIndexes();
+        for (Index definition : definitions) {
+            partitionIndexes.addOrGetIndex(definition.getAttributeName(), definition.isOrdered(), definition.isBitmap());
+        }
+        InternalPartition partition = mapServiceContext.getNodeEngine().getPartitionService().getPartition(partitionId);
+        if (!partitionIndexes.hasIndex() || !partition.isLocal()) {
+            return;
+        }
+        for (Record record : records.values()) {
+            Object value = record.getValue();
+            if (value != null) {
+                Data key = record.getKey();
+                partitionIndexes.saveEntryIndex(new QueryEntry(serializationService, key, key, value));
+            }
+        }
+    }
+
     @Override
     public long getHeapCost() {
         return sizeEstimator.getSize();
@@ -156,7 +198,7 @@ abstract class AbstractRecordStore implements RecordStore {
 
     protected void saveIndex(Record record) {
         Data dataKey = record.getKey();
-        final Indexes indexes = mapContainer.getIndexes();
+        final Indexes indexes = getIndexes();
         if (indexes.hasIndex()) {
             SerializationService ss = mapServiceContext.getNodeEngine().getSerializationService();
             QueryableEntry queryableEntry = new QueryEntry(ss, dataKey, dataKey, record.getValue());
@@ -166,14 +208,14 @@ abstract class AbstractRecordStore implements RecordStore {
 
 
     protected void removeIndex(Data key) {
-        final Indexes indexes = mapContainer.getIndexes();
+        final Indexes indexes = getIndexes();
         if (indexes.hasIndex()) {
             indexes.removeEntryIndex(key);
         }
     }
 
     protected void removeIndex(Set<Data> keys) {
-        final Indexes indexes = mapContainer.getIndexes();
+        final Indexes indexes = getIndexes();
         if (indexes.hasIndex()) {
             for (Data key : keys) {
                 indexes.removeEntryIndex(key);
@@ -188,7 +230,7 @@ abstract class AbstractRecordStore implements RecordStore {
      * @param keysToPreserve do not remove these keys.
      */
     protected void removeIndexByPreservingKeys(Set<Data> keysToRemove, Set<Data> keysToPreserve) {
-        final Indexes indexes = mapContainer.getIndexes();
+        final Indexes indexes = getIndexes();
         if (indexes.hasIndex()) {
             for (Data key : keysToRemove) {
                 if (!keysToPreserve.contains(key)) {
@@ -50,9 +50,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Future;
 
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.updateExpiryTime;
 
 /**
@@ -166,6 +166,10 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore implements
         markRecordStoreExpirable(record.getTtl());
 
         final Record existingRecord = records.put(key, record);
+        if (existingRecord != null && existingRecord != record && recordFactory.getStorageFormat() == NATIVE) {
+            // the replaced record owns off-heap memory
+            existingRecord.invalidate();
+        }
         updateSizeEstimator(-calculateRecordHeapCost(existingRecord));
         updateSizeEstimator(calculateRecordHeapCost(record));
     }
@@ -215,6 +219,19 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore implements
         return iterator(now, backup);
     }
 
+    @Override
+    public int fetchRecords(int tableIndex, int size, long now, List<Record> fetchedRecords) {
+        checkIfLoaded();
+        List<Record> candidates = new ArrayList<Record>(size);
+        int nextTableIndex = records.fetch(tableIndex, size, candidates);
+        for (Record record : candidates) {
+            if (!isExpired(record, now, false)) {
+                fetchedRecords.add(record);
+            }
+        }
+        return nextTableIndex;
+    }
+
     @Override
     public Map<Data, Record> getRecordMap() {
         return records;
@@ -228,7 +245,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore implements
             final DefaultObjectNamespace namespace = new DefaultObjectNamespace(MapService.SERVICE_NAME, name);
             lockService.clearLockStore(partitionId, namespace);
         }
-        final Indexes indexes = mapContainer.getIndexes();
+        final Indexes indexes = getIndexes();
         if (indexes.hasIndex()) {
             for (Data key : records.keySet()) {
                 indexes.removeEntryIndex(key);
@@ -322,7 +339,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore implements
         checkIfLoaded();
         final long now = getNow();
 
-        final ConcurrentMap<Data, Record> records = this.records;
+        final Map<Data, Record> records = this.records;
         final Collection<Record> values = records.values();
         Map<Data, Data> tempMap = null;
         for (Record record : values) {
@@ -376,7 +393,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore implements
         checkIfLoaded();
         final long now = getNow();
 
-        final ConcurrentMap<Data, Record> records = this.records;
+        final Map<Data, Record> records = this.records;
         final Collection<Record> values = records.values();
         Set<Data> keySet = null;
         for (Record record : values) {
@@ -401,7 +418,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore implements
         checkIfLoaded();
         final long now = getNow();
 
-        final ConcurrentMap<Data, Record> records = this.records;
+        final Map<Data, Record> records = this.records;
         final Collection<Record> values = records.values();
         List<Data> dataValueList = null;
         for (Record record : values) {
@@ -23,6 +23,7 @@ import com.hazelcast.map.impl.mapstore.MapDataStore;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.merge.MapMergePolicy;
 import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.spi.exception.RetryableHazelcastException;
 
 import java.util.Collection;
@@ -180,6 +181,18 @@ public interface RecordStore {
      */
     Iterator<Record> loadAwareIterator(long now, boolean backup);
 
+    /**
+     * Fetches a batch of records by respecting expiration, so the record store can be iterated over several
+     * operations without keeping an iterator between them. Waits map store to load like {@link #loadAwareIterator}.
+     *
+     * @param tableIndex the table index to start from, {@link Integer#MAX_VALUE} for the first batch.
+     * @param size       maximum number of records to fetch.
+     * @param now        current time in millis
+     * @param records    list to add the fetched records to.
+     * @return the table index to continue from with the next batch, negative if all records are fetched.
+     */
+    int fetchRecords(int tableIndex, int size, long now, List<Record> records);
+
     /**
      * Returns records map.
      *
@@ -187,6 +200,18 @@ public interface RecordStore {
      */
     Map<Data, Record> getRecordMap();
 
+    /**
+     * Returns the indexes which hold the entries of this record store: the map-wide indexes of
+     * {@link MapContainer#getIndexes()}, or the indexes owned by this record store if indexes are partitioned.
+     * <p/>
+     * Partitioned indexes are not thread-safe, so this method and the returned indexes must only be used by the
+     * partition thread. The indexes are brought up to date with the index definitions of the map on each call.
+     *
+     * @return the indexes of this record store.
+     * @see MapContainer#isPartitionedIndexes()
+     */
+    Indexes getIndexes();
+
     Set<Data> keySet();
 
     int size();
@@ -36,12 +36,21 @@ public class NearCacheStatsImpl implements NearCacheStats {
             AtomicLongFieldUpdater.newUpdater(NearCacheStatsImpl.class, "hits");
     private static final AtomicLongFieldUpdater<NearCacheStatsImpl> MISSES_UPDATER =
             AtomicLongFieldUpdater.newUpdater(NearCacheStatsImpl.class, "misses");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> EVICTIONS_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(NearCacheStatsImpl.class, "evictions");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> TOTAL_EVICTION_LATENCY_NANOS_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(NearCacheStatsImpl.class, "totalEvictionLatencyNanos");
+    private static final AtomicLongFieldUpdater<NearCacheStatsImpl> MAX_EVICTION_LATENCY_NANOS_UPDATER =
+            AtomicLongFieldUpdater.newUpdater(NearCacheStatsImpl.class, "maxEvictionLatencyNanos");
 
     private volatile long creationTime;
     private volatile long ownedEntryCount;
     private volatile long ownedEntryMemoryCost;
     private volatile long hits;
     private volatile long misses;
+    private volatile long evictions;
+    private volatile long totalEvictionLatencyNanos;
+    private volatile long maxEvictionLatencyNanos;
 
     public NearCacheStatsImpl() {
         this.creationTime = Clock.currentTimeMillis();
@@ -112,6 +121,50 @@ public class NearCacheStatsImpl implements NearCacheStats {
         MISSES_UPDATER.incrementAndGet(this);
     }
 
+    /**
+     * Returns the number of entries evicted because the near cache reached its maximum size.
+     *
+     * @return the number of evicted entries.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the total time spent on evicting entries, in nanoseconds.
+     *
+     * @return the total eviction latency.
+     */
+    public long getTotalEvictionLatencyNanos() {
+        return totalEvictionLatencyNanos;
+    }
+
+    /**
+     * Returns the longest time a single eviction took, in nanoseconds.
+     *
+     * @return the maximum eviction latency.
+     */
+    public long getMaxEvictionLatencyNanos() {
+        return maxEvictionLatencyNanos;
+    }
+
+    /**
+     * Records an eviction.
+     *
+     * @param evictedCount the number of evicted entries.
+     * @param latencyNanos the time the eviction took, in nanoseconds.
+     */
+    public void addEviction(int evictedCount, long latencyNanos) {
+        EVICTIONS_UPDATER.addAndGet(this, evictedCount);
+        TOTAL_EVICTION_LATENCY_NANOS_UPDATER.addAndGet(this, latencyNanos);
+        for (; ; ) {
+            long max = maxEvictionLatencyNanos;
+            if (latencyNanos <= max || MAX_EVICTION_LATENCY_NANOS_UPDATER.compareAndSet(this, max, latencyNanos)) {
+                return;
+            }
+        }
+    }
+
     @Override
     public double getRatio() {
         if (misses == 0) {
@@ -133,6 +186,9 @@ public class NearCacheStatsImpl implements NearCacheStats {
         root.add("creationTime", creationTime);
         root.add("hits", hits);
         root.add("misses", misses);
+        root.add("evictions", evictions);
+        root.add("totalEvictionLatencyNanos", totalEvictionLatencyNanos);
+        root.add("maxEvictionLatencyNanos", maxEvictionLatencyNanos);
         return root;
     }
 
@@ -143,6 +199,9 @@ public class NearCacheStatsImpl implements NearCacheStats {
         creationTime = getLong(json, "creationTime", -1L);
         hits = getLong(json, "hits", -1L);
         misses = getLong(json, "misses", -1L);
+        evictions = getLong(json, "evictions", -1L);
+        totalEvictionLatencyNanos = getLong(json, "totalEvictionLatencyNanos", -1L);
+        maxEvictionLatencyNanos = getLong(json, "maxEvictionLatencyNanos", -1L);
     }
 
     @Override
@@ -153,6 +212,9 @@ public class NearCacheStatsImpl implements NearCacheStats {
                 + ", creationTime=" + creationTime
                 + ", hits=" + hits
                 + ", misses=" + misses
+                + ", evictions=" + evictions
+                + ", totalEvictionLatencyNanos=" + totalEvictionLatencyNanos
+                + ", maxEvictionLatencyNanos=" + maxEvictionLatencyNanos
                 + ", ratio=" + String.format("%.1f%%", getRatio())
                 + '}';
     }
@@ -96,6 +96,55 @@ public interface IOService {
      */
     int getSocketClientSendBufferSize();
 
+    /**
+     * Checks if packets of member to member connections are written using batched gathering writes.
+     *
+     * @return true if batching is enabled, false otherwise
+     */
+    boolean isSocketWriteBatchingEnabled();
+
+    /**
+     * The maximum number of packets in a batched gathering write.
+     *
+     * @return the maximum number of packets
+     */
+    int getSocketWriteBatchMaxPackets();
+
+    /**
+     * Checks if member to member connections use direct ByteBuffers for their socket input and output buffers.
+     *
+     * @return true if direct buffers are used, false otherwise
+     */
+    boolean isSocketBufferDirect();
+
+    /**
+     * Checks if large packets send over member to member connections are compressed.
+     *
+     * @return true if compression is enabled, false otherwise
+     */
+    boolean isSocketCompressionEnabled();
+
+    /**
+     * Returns the minimum size of a packet payload in bytes to be compressed.
+     *
+     * @return the compression threshold
+     */
+    int getSocketCompressionThreshold();
+
+    /**
+     * Returns the number of connections this member opens to every other member.
+     *
+     * @return the number of connections per member
+     */
+    int getMemberConnectionCount();
+
+    /**
+     * Checks if the payload of received operation packets is read into pooled byte arrays.
+     *
+     * @return true if pooling is enabled, false otherwise
+     */
+    boolean isSocketReceivePayloadPoolingEnabled();
+
     int getSocketLingerSeconds();
 
     int getSocketConnectTimeoutSeconds();
@@ -117,6 +166,16 @@ public interface IOService {
      */
     int getBalancerIntervalSeconds();
 
+    /**
+     * @return true if idle input threads should process the ready connections of busy input threads.
+     */
+    boolean isIoWorkStealingEnabled();
+
+    /**
+     * @return true if the selected-keys set of the Selectors should be replaced by a litter free one.
+     */
+    boolean isSelectorOptimizationEnabled();
+
     void onDisconnect(Address endpoint);
 
     boolean isClient();
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio;
+
+/**
+ * A pure Java implementation of the LZ4 block format.
+ * <p/>
+ * LZ4 trades compression ratio for speed: it only looks for repeated sequences of at least 4 bytes within a 64 KB
+ * window using a single hash probe, which makes it fast enough to be used on the send path of a connection.
+ * <p/>
+ * The compressed block doesn't contain the length of the uncompressed data; the caller needs to store it.
+ */
+public final class Lz4Codec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_DISTANCE = 0xFFFF;
+
+    private static final int HASH_LOG = 12;
+    private static final int HASH_TABLE_SIZE = 1 << HASH_LOG;
+    private static final int HASH_MULTIPLIER = -1640531535;
+    private static final int ML_BITS = 4;
+    private static final int ML_MASK = (1 << ML_BITS) - 1;
+    private static final int RUN_MASK = ML_MASK;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int MAX_LENGTH_BYTE = 255;
+    private static final int COMPRESSED_LENGTH_OVERHEAD = 16;
+    private static final int BITS_PER_BYTE = 8;
+
+    private Lz4Codec() {
+    }
+
+    /**
+     * Returns the maximum length of the compressed form of data with the given length.
+     *
+     * @param length the length of the uncompressed data
+     * @return the maximum compressed length
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / MAX_LENGTH_BYTE + COMPRESSED_LENGTH_OVERHEAD;
+    }
+
+    /**
+     * Returns the maximum length of the data the compressed form with the given length can decompress to. Every byte
+     * of a compressed sequence adds at most 255 bytes to the length of a match.
+     *
+     * @param compressedLength the length of the compressed data
+     * @return the maximum decompressed length
+     */
+    public static long maxDecompressedLength(int compressedLength) {
+        return (long) compressedLength * MAX_LENGTH_BYTE;
+    }
+
+    /**
+     * Compresses the source into the destination.
+     *
+     * @param src    the data to compress
+     * @param srcOff the offset of the data in src
+     * @param srcLen the length of the data
+     * @param dst    the array to write the compressed data to
+     * @param dstOff the offset in dst to start writing
+     * @param dstLen the number of bytes that can be written to dst
+     * @return the length of the compressed data, or -1 if it doesn't fit in dstLen bytes
+     */
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    public static int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+        int srcEnd = srcOff + srcLen;
+        int dstEnd = dstOff + dstLen;
+        int mfLimit = srcEnd - MF_LIMIT;
+        int matchLimit = srcEnd - LAST_LITERALS;
+
+        // stores the position + 1 of the last sequence with a given hash, 0 means no sequence
+        int[] hashTable = new int[HASH_TABLE_SIZE];
+        int ip = srcOff;
+        int anchor = srcOff;
+        int op = dstOff;
+
+        while (ip < mfLimit) {
+            int sequence = Bits.readIntL(src, ip);
+            int hash = hash(sequence);
+            int candidate = hashTable[hash] - 1;
+            hashTable[hash] = ip + 1;
+            if (candidate < 0 || ip - candidate > MAX_DISTANCE || Bits.readIntL(src, candidate) != sequence) {
+                ip++;
+                continue;
+            }
+
+            int ref = candidate;
+            while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+                ip--;
+                ref--;
+            }
+
+            int matchLength = MIN_MATCH;
+            while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                matchLength++;
+            }
+
+            op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op, dstEnd);
+            if (op < 0) {
+                return -1;
+            }
+            ip += matchLength;
+            anchor = ip;
+        }
+
+        op = writeLastLiterals(src, anchor, srcEnd - anchor, dst, op, dstEnd);
+        return op < 0 ? -1 : op - dstOff;
+    }
+
+    /**
+     * Decompresses the source into the destination.
+     *
+     * @param src    the compressed data
+     * @param srcOff the offset of the compressed data in src
+     * @param srcLen the length of the compressed data
+     * @param dst    the array to write the decompressed data to
+     * @param dstOff the offset in dst to start writing
+     * @param dstLen the length of the decompressed data
+     * @throws IllegalArgumentException if the compressed data is malformed or doesn't decompress to dstLen bytes
+     */
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    public static void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+        int srcEnd = srcOff + srcLen;
+        int dstEnd = dstOff + dstLen;
+        int ip = srcOff;
+        int op = dstOff;
+
+        for (; ; ) {
+            checkBounds(ip < srcEnd);
+            int token = src[ip++] & BYTE_MASK;
+
+            int literalLength = token >>> ML_BITS;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    checkBounds(ip < srcEnd);
+                    b = src[ip++] & BYTE_MASK;
+                    literalLength += b;
+                } while (b == MAX_LENGTH_BYTE);
+            }
+            checkBounds(literalLength <= srcEnd - ip && literalLength <= dstEnd - op);
+            System.arraycopy(src, ip, dst, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+
+            if (ip == srcEnd) {
+                break;
+            }
+
+            checkBounds(ip + 1 < srcEnd);
+            int offset = (src[ip] & BYTE_MASK) | ((src[ip + 1] & BYTE_MASK) << BITS_PER_BYTE);
+            ip += 2;
+            int ref = op - offset;
+            checkBounds(offset > 0 && ref >= dstOff);
+
+            int matchLength = token & ML_MASK;
+            if (matchLength == ML_MASK) {
+                int b;
+                do {
+                    checkBounds(ip < srcEnd);
+                    b = src[ip++] & BYTE_MASK;
+                    matchLength += b;
+                } while (b == MAX_LENGTH_BYTE);
+            }
+            matchLength += MIN_MATCH;
+            checkBounds(matchLength <= dstEnd - op);
+
+            // the match can overlap with the bytes being written, so it is copied byte by byte
+            for (int k = 0; k < matchLength; k++) {
+                dst[op++] = dst[ref++];
+            }
+        }
+
+        checkBounds(op == dstEnd);
+    }
+
+    private static int writeSequence(byte[] src, int literalOff, int literalLength, int offset, int matchLength,
+                                     byte[] dst, int op, int dstEnd) {
+        int matchCode = matchLength - MIN_MATCH;
+        int required = 1 + lengthBytes(literalLength) + literalLength + 2 + lengthBytes(matchCode);
+        if (required > dstEnd - op) {
+            return -1;
+        }
+
+        int tokenPos = op++;
+        int token = 0;
+        if (literalLength >= RUN_MASK) {
+            token = RUN_MASK << ML_BITS;
+            op = writeLength(literalLength - RUN_MASK, dst, op);
+        } else {
+            token = literalLength << ML_BITS;
+        }
+        System.arraycopy(src, literalOff, dst, op, literalLength);
+        op += literalLength;
+
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> BITS_PER_BYTE);
+
+        if (matchCode >= ML_MASK) {
+            token |= ML_MASK;
+            op = writeLength(matchCode - ML_MASK, dst, op);
+        } else {
+            token |= matchCode;
+        }
+        dst[tokenPos] = (byte) token;
+        return op;
+    }
+
+    private static int writeLastLiterals(byte[] src, int literalOff, int literalLength, byte[] dst, int op, int dstEnd) {
+        if (1 + lengthBytes(literalLength) + literalLength > dstEnd - op) {
+            return -1;
+        }
+
+        if (literalLength >= RUN_MASK) {
+            dst[op++] = (byte) (RUN_MASK << ML_BITS);
+            op = writeLength(literalLength - RUN_MASK, dst, op);
+        } else {
+            dst[op++] = (byte) (literalLength << ML_BITS);
+        }
+        System.arraycopy(src, literalOff, dst, op, literalLength);
+        return op + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] dst, int op) {
+        while (length >= MAX_LENGTH_BYTE) {
+            dst[op++] = (byte) MAX_LENGTH_BYTE;
+            length -= MAX_LENGTH_BYTE;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    // the number of additional bytes needed to encode a literal or match length
+    private static int lengthBytes(int length) {
+        return length < RUN_MASK ? 0 : (length - RUN_MASK) / MAX_LENGTH_BYTE + 1;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * HASH_MULTIPLIER) >>> (Integer.SIZE - HASH_LOG);
+    }
+
+    private static void checkBounds(boolean valid) {
+        if (!valid) {
+            throw new IllegalArgumentException("Malformed LZ4 compressed data");
+        }
+    }
+}
@@ -201,6 +201,41 @@ public class NodeIOService implements IOService {
         return clientReceiveBuffer != -1 ? clientReceiveBuffer : getSocketReceiveBufferSize();
     }
 
+    @Override
+    public boolean isSocketWriteBatchingEnabled() {
+        return node.getGroupProperties().getBoolean(GroupProperty.SOCKET_WRITE_BATCHING_ENABLED);
+    }
+
+    @Override
+    public int getSocketWriteBatchMaxPackets() {
+        return node.getGroupProperties().getInteger(GroupProperty.SOCKET_WRITE_BATCH_MAX_PACKETS);
+    }
+
+    @Override
+    public boolean isSocketBufferDirect() {
+        return node.getGroupProperties().getBoolean(GroupProperty.SOCKET_BUFFER_DIRECT);
+    }
+
+    @Override
+    public boolean isSocketCompressionEnabled() {
+        return node.getGroupProperties().getBoolean(GroupProperty.SOCKET_COMPRESSION_ENABLED);
+    }
+
+    @Override
+    public int getSocketCompressionThreshold() {
+        return node.getGroupProperties().getInteger(GroupProperty.SOCKET_COMPRESSION_THRESHOLD);
+    }
+
+    @Override
+    public int getMemberConnectionCount() {
+        return node.getGroupProperties().getInteger(GroupProperty.SOCKET_MEMBER_CONNECTION_COUNT);
+    }
+
+    @Override
+    public boolean isSocketReceivePayloadPoolingEnabled() {
+        return node.getGroupProperties().getBoolean(GroupProperty.SOCKET_RECEIVE_PAYLOAD_POOLING_ENABLED);
+    }
+
     @Override
     public int getSocketLingerSeconds() {
         return node.getGroupProperties().getSeconds(GroupProperty.SOCKET_LINGER_SECONDS);
@@ -255,6 +290,16 @@ public class NodeIOService implements IOService {
         return node.groupProperties.getSeconds(GroupProperty.IO_BALANCER_INTERVAL_SECONDS);
     }
 
+    @Override
+    public boolean isIoWorkStealingEnabled() {
+        return node.groupProperties.getBoolean(GroupProperty.IO_WORK_STEALING_ENABLED);
+    }
+
+    @Override
+    public boolean isSelectorOptimizationEnabled() {
+        return node.groupProperties.getBoolean(GroupProperty.IO_SELECTOR_OPTIMIZATION_ENABLED);
+    }
+
     @Override
     public void executeAsync(final Runnable runnable) {
         nodeEngine.getExecutionService().execute(ExecutionService.IO_EXECUTOR, runnable);
@@ -19,6 +19,7 @@ package com.hazelcast.nio;
 import com.hazelcast.internal.serialization.impl.HeapData;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
 
@@ -35,12 +36,19 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     public static final byte VERSION = 4;
 
+    /**
+     * The size of the version, header, partition id and payload size of a Packet in bytes.
+     */
+    public static final int HEADER_SIZE = 11;
+
     public static final int HEADER_OP = 0;
     public static final int HEADER_RESPONSE = 1;
     public static final int HEADER_EVENT = 2;
     public static final int HEADER_WAN_REPLICATION = 3;
     public static final int HEADER_URGENT = 4;
     public static final int HEADER_BIND = 5;
+    public static final int HEADER_COMPRESSED = 6;
+    public static final int HEADER_BATCH = 7;
 
     // The value of these constants is important. The order needs to match the order in the read/write process
     private static final short PERSIST_VERSION = 1;
@@ -61,6 +69,11 @@ public final class Packet extends HeapData implements OutboundFrame {
     // Stores the current 'phase' of read/write. This is needed so that repeated calls can be made to read/write.
     private short persistStatus;
 
+    // the pool the payload of an operation packet is taken from when it is read; null if pooling is disabled
+    private transient PacketPayloadPool payloadPool;
+    // true if the current payload is taken from the payloadPool and could be larger than the size of the packet
+    private transient boolean pooledPayload;
+
     public Packet() {
     }
 
@@ -73,6 +86,11 @@ public final class Packet extends HeapData implements OutboundFrame {
         this.partitionId = partitionId;
     }
 
+    Packet(byte[] payload, int partitionId, short header) {
+        this(payload, partitionId);
+        this.header = header;
+    }
+
     /**
      * Gets the Connection this Packet was send with.
      *
@@ -94,6 +112,58 @@ public final class Packet extends HeapData implements OutboundFrame {
         this.conn = conn;
     }
 
+    /**
+     * Sets the pool the payload of this Packet is taken from when it is read. Only the payload of an operation
+     * packet is pooled and it is returned to the pool using {@link #releasePayload()}.
+     *
+     * @param payloadPool the pool. Could be null.
+     */
+    public void setPayloadPool(PacketPayloadPool payloadPool) {
+        this.payloadPool = payloadPool;
+    }
+
+    /**
+     * Returns the payload of this Packet to the pool it was taken from, if any. After this method is called, the
+     * content of the Packet can't be used anymore.
+     * <p/>
+     * This method should only be called by the thread that processed the Packet, once the payload has been
+     * deserialized.
+     */
+    public void releasePayload() {
+        if (!pooledPayload) {
+            return;
+        }
+
+        byte[] pooled = payload;
+        payload = null;
+        pooledPayload = false;
+        payloadPool.release(pooled);
+    }
+
+    @Override
+    public int totalSize() {
+        return pooledPayload ? size : super.totalSize();
+    }
+
+    /**
+     * Returns the content of this Packet. A pooled payload could be larger than the Packet and is returned to the pool
+     * once the Packet has been processed, so it is copied instead of exposed.
+     */
+    @Override
+    public byte[] toByteArray() {
+        return pooledPayload ? Arrays.copyOf(payload, size) : payload;
+    }
+
+    /**
+     * Returns the payload of this Packet without copying it. Only the first {@link #totalSize()} bytes of a pooled payload
+     * are the content of this Packet and the array can't be used anymore after {@link #releasePayload()} is called.
+     *
+     * @return the payload
+     */
+    public byte[] payloadArray() {
+        return payload;
+    }
+
     public void setHeader(int bit) {
         header |= 1 << bit;
     }
@@ -283,7 +353,7 @@ public final class Packet extends HeapData implements OutboundFrame {
     private boolean readValue(ByteBuffer src) {
         if (!isPersistStatusSet(PERSIST_VALUE)) {
             if (payload == null) {
-                payload = new byte[size];
+                payload = allocatePayload();
             }
 
             if (size > 0) {
@@ -315,6 +385,17 @@ public final class Packet extends HeapData implements OutboundFrame {
         return true;
     }
 
+    private byte[] allocatePayload() {
+        if (payloadPool != null && size > 0 && isHeaderSet(HEADER_OP)) {
+            byte[] pooled = payloadPool.acquire(size);
+            if (pooled != null) {
+                pooledPayload = true;
+                return pooled;
+            }
+        }
+        return new byte[size];
+    }
+
     private boolean writeValue(ByteBuffer dst) {
         if (!isPersistStatusSet(PERSIST_VALUE)) {
             if (size > 0) {
@@ -355,8 +436,24 @@ public final class Packet extends HeapData implements OutboundFrame {
      * @return the size of the packet.
      */
     public int packetSize() {
-        // 11 = byte(version) + short(header) + int(partitionId) + int(data size)
-        return (payload != null ? totalSize() : 0) + 11;
+        // HEADER_SIZE = byte(version) + short(header) + int(partitionId) + int(data size)
+        return (payload != null ? totalSize() : 0) + HEADER_SIZE;
+    }
+
+    /**
+     * Writes the version, header, partition id and payload size of this Packet to the given buffer, but not the
+     * payload itself. This makes it possible to write the payload straight from {@link #toByteArray()}, e.g. with
+     * a gathering write.
+     * <p/>
+     * This method doesn't change the read/write state of this Packet.
+     *
+     * @param dst the buffer to write to; it needs to have at least {@link #HEADER_SIZE} bytes remaining.
+     */
+    public void writeHeaderTo(ByteBuffer dst) {
+        dst.put(VERSION);
+        dst.putShort(header);
+        dst.putInt(partitionId);
+        dst.putInt(totalSize());
     }
 
     public boolean done() {
@@ -365,6 +462,7 @@ public final class Packet extends HeapData implements OutboundFrame {
 
     public void reset() {
         payload = null;
+        pooledPayload = false;
         persistStatus = 0;
     }
 
@@ -412,6 +510,8 @@ public final class Packet extends HeapData implements OutboundFrame {
         sb.append(", isResponse=").append(isHeaderSet(Packet.HEADER_RESPONSE));
         sb.append(", isOperation=").append(isHeaderSet(Packet.HEADER_OP));
         sb.append(", isEvent=").append(isHeaderSet(Packet.HEADER_EVENT));
+        sb.append(", isCompressed=").append(isHeaderSet(Packet.HEADER_COMPRESSED));
+        sb.append(", isBatch=").append(isHeaderSet(Packet.HEADER_BATCH));
         sb.append(", partitionId=").append(partitionId);
         sb.append(", conn=").append(conn);
         sb.append('}');
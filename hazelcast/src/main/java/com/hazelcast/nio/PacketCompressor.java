@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.util.counters.MwCounter;
+
+import java.util.Arrays;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Compresses and decompresses the payload of {@link Packet} instances send over member to member connections.
+ * <p/>
+ * A Packet is only compressed if its payload is at least as large as the threshold and if compression actually makes
+ * it smaller. A compressed Packet has the {@link Packet#HEADER_COMPRESSED} header set and its payload contains the
+ * length of the original payload followed by the {@link Lz4Codec LZ4} compressed original payload.
+ * <p/>
+ * Compression never modifies the Packet passed in, since the same Packet can be written to multiple connections.
+ */
+public final class PacketCompressor {
+
+    @Probe
+    private final MwCounter compressedPacketCount = newMwCounter();
+    @Probe
+    private final MwCounter incompressiblePacketCount = newMwCounter();
+    @Probe
+    private final MwCounter decompressedPacketCount = newMwCounter();
+    @Probe
+    private final MwCounter bytesSaved = newMwCounter();
+    @Probe
+    private final MwCounter compressionTimeNanos = newMwCounter();
+    @Probe
+    private final MwCounter decompressionTimeNanos = newMwCounter();
+
+    private final int threshold;
+
+    /**
+     * Creates a PacketCompressor.
+     *
+     * @param threshold the minimum size of a payload in bytes to be compressed
+     */
+    public PacketCompressor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Compresses the given Packet.
+     *
+     * @param packet the Packet to compress
+     * @return the compressed Packet, or the given Packet if it is too small or can't be compressed
+     */
+    public Packet compress(Packet packet) {
+        int size = packet.totalSize();
+        if (size < threshold || packet.isHeaderSet(Packet.HEADER_COMPRESSED)) {
+            return packet;
+        }
+
+        long startNanos = System.nanoTime();
+        byte[] compressed = new byte[size];
+        Bits.writeIntB(compressed, 0, size);
+        // only accept the compressed form if it saves at least a byte
+        int compressedLength = Lz4Codec.compress(packet.toByteArray(), 0, size,
+                compressed, INT_SIZE_IN_BYTES, size - INT_SIZE_IN_BYTES - 1);
+        if (compressedLength < 0) {
+            compressionTimeNanos.inc(System.nanoTime() - startNanos);
+            incompressiblePacketCount.inc();
+            return packet;
+        }
+
+        int totalLength = INT_SIZE_IN_BYTES + compressedLength;
+        byte[] payload = Arrays.copyOf(compressed, totalLength);
+        short header = (short) (packet.getHeader() | 1 << Packet.HEADER_COMPRESSED);
+        Packet result = new Packet(payload, packet.getPartitionId(), header);
+
+        compressionTimeNanos.inc(System.nanoTime() - startNanos);
+        compressedPacketCount.inc();
+        bytesSaved.inc(size - totalLength);
+        return result;
+    }
+
+    /**
+     * Decompresses the given Packet. The returned Packet has the same connection as the given Packet.
+     *
+     * @param packet the Packet to decompress
+     * @return the decompressed Packet, or the given Packet if it isn't compressed
+     * @throws IllegalArgumentException if the payload of the Packet is malformed, e.g. if its original length can't be
+     *                                  the result of compressing with LZ4
+     */
+    public Packet decompress(Packet packet) {
+        if (!packet.isHeaderSet(Packet.HEADER_COMPRESSED)) {
+            return packet;
+        }
+
+        long startNanos = System.nanoTime();
+        byte[] compressed = packet.payloadArray();
+        int size = packet.totalSize();
+        int length = size < INT_SIZE_IN_BYTES ? -1 : Bits.readIntB(compressed, 0);
+        // the length is read from the wire; so it is checked before allocating the payload
+        if (length < 0 || length > Lz4Codec.maxDecompressedLength(size - INT_SIZE_IN_BYTES)) {
+            throw new IllegalArgumentException("Malformed compressed packet: " + packet);
+        }
+        byte[] payload = new byte[length];
+        Lz4Codec.decompress(compressed, INT_SIZE_IN_BYTES, size - INT_SIZE_IN_BYTES, payload, 0, length);
+        packet.releasePayload();
+
+        short header = (short) (packet.getHeader() & ~(1 << Packet.HEADER_COMPRESSED));
+        Packet result = new Packet(payload, packet.getPartitionId(), header);
+        result.setConn(packet.getConn());
+
+        decompressionTimeNanos.inc(System.nanoTime() - startNanos);
+        decompressedPacketCount.inc();
+        return result;
+    }
+}
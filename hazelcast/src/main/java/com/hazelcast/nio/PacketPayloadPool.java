@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio;
+
+import com.hazelcast.util.concurrent.MpscArrayQueue;
+
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static com.hazelcast.util.QuickMath.log2;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A pool of byte arrays that are used as payload of received {@link Packet} instances.
+ * <p/>
+ * The arrays are grouped in size classes that are a power of two, so an array taken from the pool can be larger
+ * than the payload it contains. Arrays larger than the maximum payload size are not pooled.
+ * <p/>
+ * Acquiring an array should only be done by the thread currently reading from the connection owning the pool.
+ * Releasing an array can be done by any thread, e.g. the operation thread that deserialized the packet.
+ */
+public final class PacketPayloadPool {
+
+    /**
+     * The default maximum payload size that is pooled.
+     */
+    public static final int DEFAULT_MAX_PAYLOAD_SIZE = 16 * 1024;
+
+    /**
+     * The default number of arrays pooled per size class.
+     */
+    public static final int DEFAULT_ARRAYS_PER_SIZE_CLASS = 16;
+
+    static final int MIN_SIZE_CLASS_SHIFT = 6;
+
+    private final MpscArrayQueue<byte[]>[] sizeClasses;
+    private final int maxPayloadSize;
+
+    public PacketPayloadPool() {
+        this(DEFAULT_MAX_PAYLOAD_SIZE, DEFAULT_ARRAYS_PER_SIZE_CLASS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public PacketPayloadPool(int maxPayloadSize, int arraysPerSizeClass) {
+        checkPositive(maxPayloadSize, "maxPayloadSize should be positive");
+        checkPositive(arraysPerSizeClass, "arraysPerSizeClass should be positive");
+
+        this.maxPayloadSize = nextPowerOfTwo(Math.max(maxPayloadSize, 1 << MIN_SIZE_CLASS_SHIFT));
+        this.sizeClasses = new MpscArrayQueue[sizeClassIndex(this.maxPayloadSize) + 1];
+        for (int k = 0; k < sizeClasses.length; k++) {
+            sizeClasses[k] = new MpscArrayQueue<byte[]>(arraysPerSizeClass);
+        }
+    }
+
+    /**
+     * Acquires an array that is at least as large as the given payload size.
+     *
+     * @param payloadSize the size of the payload
+     * @return the array, or null if arrays of this size are not pooled
+     */
+    public byte[] acquire(int payloadSize) {
+        if (payloadSize <= 0 || payloadSize > maxPayloadSize) {
+            return null;
+        }
+
+        int sizeClassLength = nextPowerOfTwo(Math.max(payloadSize, 1 << MIN_SIZE_CLASS_SHIFT));
+        byte[] array = sizeClasses[sizeClassIndex(sizeClassLength)].poll();
+        return array == null ? new byte[sizeClassLength] : array;
+    }
+
+    /**
+     * Returns an array acquired from this pool. If the pool for its size class is full, the array is left to the
+     * garbage collector.
+     *
+     * @param array the array to release
+     */
+    public void release(byte[] array) {
+        if (array.length > maxPayloadSize || Integer.bitCount(array.length) != 1) {
+            return;
+        }
+        sizeClasses[sizeClassIndex(array.length)].offer(array);
+    }
+
+    private static int sizeClassIndex(int sizeClassLength) {
+        return log2(sizeClassLength) - MIN_SIZE_CLASS_SHIFT;
+    }
+}
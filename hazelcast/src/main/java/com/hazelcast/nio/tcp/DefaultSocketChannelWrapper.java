@@ -26,7 +26,7 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
 
-public class DefaultSocketChannelWrapper implements SocketChannelWrapper {
+public class DefaultSocketChannelWrapper implements GatheringSocketChannelWrapper {
 
     protected final SocketChannel socketChannel;
 
@@ -64,6 +64,23 @@ public class DefaultSocketChannelWrapper implements SocketChannelWrapper {
         return socketChannel.write(src);
     }
 
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+        if (getClass() == DefaultSocketChannelWrapper.class) {
+            return socketChannel.write(srcs, offset, length);
+        }
+
+        // a subclass may transform the bytes in write(ByteBuffer), so it must not bypass that method
+        long written = 0;
+        for (int k = offset; k < offset + length; k++) {
+            written += write(srcs[k]);
+            if (srcs[k].hasRemaining()) {
+                break;
+            }
+        }
+        return written;
+    }
+
     @Override
     public SelectableChannel configureBlocking(boolean block) throws IOException {
         return socketChannel.configureBlocking(block);
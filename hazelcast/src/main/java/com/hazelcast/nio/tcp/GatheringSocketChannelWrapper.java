@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link SocketChannelWrapper} which can write a sequence of buffers with a single gathering write.
+ *
+ * Wrappers which don't implement this interface are written buffer by buffer using
+ * {@link SocketChannelWrapper#write(ByteBuffer)}.
+ */
+public interface GatheringSocketChannelWrapper extends SocketChannelWrapper {
+
+    /**
+     * Writes a sequence of bytes from a subsequence of the given buffers. A wrapper which transforms the bytes
+     * written by {@link #write(ByteBuffer)} should apply the same transformation.
+     *
+     * @see java.nio.channels.SocketChannel#write(ByteBuffer[], int, int)
+     */
+    long write(ByteBuffer[] srcs, int offset, int length) throws IOException;
+}
@@ -48,9 +48,24 @@ public class InitConnectionTask implements Runnable {
     private final ILogger logger;
     private final boolean silent;
     private final IOService ioService;
+    private final int lane;
 
     public InitConnectionTask(TcpIpConnectionManager connectionManager, Address address, boolean silent) {
+        this(connectionManager, address, silent, 0);
+    }
+
+    /**
+     * Creates a task that opens a connection to the given address.
+     *
+     * @param connectionManager the connection manager
+     * @param address           the address to connect to
+     * @param silent            if connection failures should be logged at finest level only
+     * @param lane              the lane of the connection, see {@link TcpIpConnectionLanes}. If 0, the connection
+     *                          will be registered as the connection to the member once bound.
+     */
+    InitConnectionTask(TcpIpConnectionManager connectionManager, Address address, boolean silent, int lane) {
         this.connectionManager = connectionManager;
+        this.lane = lane;
         this.ioService = connectionManager.getIoService();
         this.address = address;
         this.logger = ioService.getLogger(this.getClass().getName());
@@ -63,6 +78,9 @@ public class InitConnectionTask implements Runnable {
             if (logger.isFinestEnabled()) {
                 logger.finest("ConnectionManager is not live, connection attempt to " + address + " is cancelled!");
             }
+            if (lane > 0) {
+                connectionManager.failedLaneConnection(address, lane);
+            }
             return;
         }
 
@@ -91,7 +109,11 @@ public class InitConnectionTask implements Runnable {
             }
         } catch (Throwable e) {
             logger.finest(e);
-            connectionManager.failedConnection(address, e, silent);
+            if (lane > 0) {
+                connectionManager.failedLaneConnection(address, lane);
+            } else {
+                connectionManager.failedConnection(address, e, silent);
+            }
         }
     }
 
@@ -149,6 +171,9 @@ public class InitConnectionTask implements Runnable {
             TcpIpConnection connection = connectionManager.newConnection(socketChannelWrapper, address);
             connection.getSocketWriter().setProtocol(Protocols.CLUSTER);
             connectionManager.sendBindRequest(connection, address, true);
+            if (lane > 0) {
+                connectionManager.registerLaneConnection(address, lane, connection);
+            }
         } catch (Exception e) {
             closeSocket(socketChannel);
             logger.log(level, "Could not connect to: " + socketAddress + ". Reason: " + e.getClass().getSimpleName()
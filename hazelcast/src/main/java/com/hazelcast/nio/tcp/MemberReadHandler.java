@@ -17,6 +17,7 @@
 package com.hazelcast.nio.tcp;
 
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.spi.impl.packetdispatcher.PacketDispatcher;
 import com.hazelcast.util.counters.Counter;
 
@@ -36,12 +37,26 @@ public class MemberReadHandler implements ReadHandler {
     protected Packet packet;
 
     private final PacketDispatcher packetDispatcher;
+    private final PacketPayloadPool payloadPool;
     private final Counter normalPacketsRead;
     private final Counter priorityPacketsRead;
 
     public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher) {
+        this(connection, packetDispatcher, null);
+    }
+
+    /**
+     * Creates a MemberReadHandler that reads the payload of operation packets into arrays taken from the given pool.
+     * The processing side of such a packet is responsible for calling {@link Packet#releasePayload()}.
+     *
+     * @param connection       the connection to read from
+     * @param packetDispatcher the dispatcher the read packets are send to
+     * @param payloadPool      the pool for the payload of operation packets. Could be null if pooling is disabled.
+     */
+    public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher, PacketPayloadPool payloadPool) {
         this.connection = connection;
         this.packetDispatcher = packetDispatcher;
+        this.payloadPool = payloadPool;
         SocketReader socketReader = connection.getSocketReader();
         this.normalPacketsRead = socketReader.getNormalFramesReadCounter();
         this.priorityPacketsRead = socketReader.getPriorityFramesReadCounter();
@@ -52,6 +67,7 @@ public class MemberReadHandler implements ReadHandler {
         while (src.hasRemaining()) {
             if (packet == null) {
                 packet = new Packet();
+                packet.setPayloadPool(payloadPool);
             }
             boolean complete = packet.readFrom(src);
             if (complete) {
@@ -72,6 +88,10 @@ public class MemberReadHandler implements ReadHandler {
 
         packet.setConn(connection);
 
-        packetDispatcher.dispatch(packet);
+        if (packet.isHeaderSet(Packet.HEADER_COMPRESSED)) {
+            packetDispatcher.dispatch(connection.getConnectionManager().getPacketCompressor().decompress(packet));
+        } else {
+            packetDispatcher.dispatch(packet);
+        }
     }
 }
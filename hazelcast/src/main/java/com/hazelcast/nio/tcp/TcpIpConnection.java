@@ -21,6 +21,7 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.ConnectionType;
 import com.hazelcast.nio.OutboundFrame;
+import com.hazelcast.nio.Packet;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
@@ -62,6 +63,8 @@ public final class TcpIpConnection implements Connection {
 
     private volatile ConnectionType type = ConnectionType.NONE;
 
+    private volatile boolean compressionEnabled;
+
     public TcpIpConnection(TcpIpConnectionManager connectionManager,
                            int connectionId,
                            SocketChannelWrapper socketChannel,
@@ -94,6 +97,16 @@ public final class TcpIpConnection implements Connection {
         }
     }
 
+    /**
+     * Sets if large packets written to this connection are compressed. This is negotiated when the connection is
+     * bound.
+     *
+     * @param compressionEnabled true if compression is enabled, false otherwise
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
     public TcpIpConnectionManager getConnectionManager() {
         return connectionManager;
     }
@@ -196,7 +209,11 @@ public final class TcpIpConnection implements Connection {
             }
             return false;
         }
-        socketWriter.offer(frame);
+        OutboundFrame outboundFrame = frame;
+        if (compressionEnabled && frame instanceof Packet) {
+            outboundFrame = connectionManager.getPacketCompressor().compress((Packet) frame);
+        }
+        socketWriter.offer(outboundFrame);
         return true;
     }
 
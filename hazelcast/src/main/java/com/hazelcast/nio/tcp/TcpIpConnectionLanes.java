@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The set of connections used to send packets to a single member when more than one connection per member is
+ * configured.
+ * <p/>
+ * Lane 0 is the connection registered in the {@link TcpIpConnectionManager} for the member; the other lanes are
+ * additional connections opened by this member. A packet for a partition is always sent over the lane
+ * {@code partitionId % laneCount}, so the packets for a single partition are not reordered. Packets that are not
+ * bound to a partition are sent over lane 0.
+ * <p/>
+ * A partition never switches between sockets while its packets may still be in flight:
+ * <ul>
+ * <li>While the connection of a lane is being opened or reopened, the packets of the lane are held back and written
+ * to the new connection before any later packet.</li>
+ * <li>If the connection of a lane can't be opened, the held back packets are written to lane 0 and the lane stays
+ * on lane 0 for the life of lane 0.</li>
+ * <li>The packets in the write queue of a lane connection that breaks are lost, like the packets of any broken
+ * connection. The only reordering window left is a packet the member received over the broken connection, but
+ * didn't dispatch before the first packet received over the reopened connection.</li>
+ * </ul>
+ */
+final class TcpIpConnectionLanes {
+
+    private final Connection primary;
+    private final Lane[] lanes;
+
+    TcpIpConnectionLanes(Connection primary, int laneCount) {
+        this.primary = primary;
+        this.lanes = new Lane[laneCount];
+        for (int lane = 1; lane < laneCount; lane++) {
+            lanes[lane] = new Lane();
+        }
+    }
+
+    Connection getPrimary() {
+        return primary;
+    }
+
+    int laneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Writes the packet to the lane of its partition.
+     *
+     * @param packet the packet to write
+     * @return true if the packet was written or held back until the connection of its lane is opened, false otherwise
+     */
+    boolean write(Packet packet) {
+        int partitionId = packet.getPartitionId();
+        if (partitionId < 0) {
+            return primary.write(packet);
+        }
+
+        int laneIndex = partitionId % lanes.length;
+        if (laneIndex == 0) {
+            return primary.write(packet);
+        }
+        return lanes[laneIndex].write(packet);
+    }
+
+    /**
+     * Marks the lane as connecting, so only a single connection attempt is made for the lane at any time. From now on
+     * the packets of the lane are held back until {@link #onConnected(int, TcpIpConnection)} or
+     * {@link #onConnectFailed(int)} is called.
+     *
+     * @param lane the lane
+     * @return true if the caller should open the connection for the lane, false otherwise
+     */
+    boolean tryStartConnecting(int lane) {
+        return lanes[lane].tryStartConnecting();
+    }
+
+    void onConnected(int lane, TcpIpConnection connection) {
+        lanes[lane].onConnected(connection);
+    }
+
+    void onConnectFailed(int lane) {
+        lanes[lane].onConnectFailed();
+    }
+
+    /**
+     * Removes the connection from its lane.
+     *
+     * @param connection the connection to remove
+     * @return the lane the connection was removed from, or -1 if the connection isn't part of these lanes
+     */
+    int remove(Connection connection) {
+        for (int lane = 1; lane < lanes.length; lane++) {
+            if (lanes[lane].remove(connection)) {
+                return lane;
+            }
+        }
+        return -1;
+    }
+
+    TcpIpConnection get(int lane) {
+        return lanes[lane].connection;
+    }
+
+    /**
+     * A single lane. The connection is volatile, so packets are written to an established lane without locking; all
+     * state changes are made under the lock of the lane.
+     */
+    private final class Lane {
+        private volatile TcpIpConnection connection;
+        // the packets held back while the connection is opened; null if not connecting
+        private List<Packet> pending;
+        // set if the connection couldn't be opened; the packets of the lane are then written to lane 0
+        private boolean onPrimary;
+
+        boolean write(Packet packet) {
+            TcpIpConnection current = connection;
+            if (current != null) {
+                return current.write(packet);
+            }
+
+            synchronized (this) {
+                current = connection;
+                if (current != null) {
+                    return current.write(packet);
+                }
+                if (pending != null) {
+                    pending.add(packet);
+                    return true;
+                }
+            }
+            return primary.write(packet);
+        }
+
+        synchronized boolean tryStartConnecting() {
+            if (connection != null || pending != null || onPrimary) {
+                return false;
+            }
+            pending = new ArrayList<Packet>();
+            return true;
+        }
+
+        synchronized void onConnected(TcpIpConnection newConnection) {
+            List<Packet> packets = pending;
+            pending = null;
+            if (packets != null) {
+                for (Packet packet : packets) {
+                    newConnection.write(packet);
+                }
+            }
+            connection = newConnection;
+        }
+
+        synchronized void onConnectFailed() {
+            List<Packet> packets = pending;
+            pending = null;
+            onPrimary = true;
+            if (packets != null) {
+                for (Packet packet : packets) {
+                    primary.write(packet);
+                }
+            }
+        }
+
+        synchronized boolean remove(Connection removed) {
+            if (connection != removed) {
+                return false;
+            }
+            connection = null;
+            // hold back the packets until the lane is reopened, or moved to lane 0 if it can't be
+            pending = new ArrayList<Packet>();
+            return true;
+        }
+    }
+}
@@ -30,6 +30,7 @@ import com.hazelcast.nio.ConnectionManager;
 import com.hazelcast.nio.IOService;
 import com.hazelcast.nio.MemberSocketInterceptor;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketCompressor;
 import com.hazelcast.nio.tcp.nonblocking.NonBlockingIOThreadingModel;
 import com.hazelcast.spi.impl.PacketHandler;
 import com.hazelcast.util.ConcurrencyUtil;
@@ -87,6 +88,9 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     private final ConcurrentHashMap<Address, TcpIpConnectionMonitor> monitors =
             new ConcurrentHashMap<Address, TcpIpConnectionMonitor>(100);
 
+    private final ConcurrentHashMap<Address, TcpIpConnectionLanes> connectionLanes =
+            new ConcurrentHashMap<Address, TcpIpConnectionLanes>();
+
     @Probe(name = "inProgressCount")
     private final Set<Address> connectionsInProgress =
             Collections.newSetFromMap(new ConcurrentHashMap<Address, Boolean>());
@@ -114,6 +118,10 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
 
     private final int outboundPortCount;
 
+    private final int memberConnectionCount;
+
+    private final PacketCompressor packetCompressor;
+
     // accessed only in synchronized block
     private final LinkedList<Integer> outboundPorts = new LinkedList<Integer>();
 
@@ -150,14 +158,21 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         this.outboundPortCount = ports.size();
         this.outboundPorts.addAll(ports);
         this.socketChannelWrapperFactory = ioService.getSocketChannelWrapperFactory();
+        this.memberConnectionCount = Math.max(1, ioService.getMemberConnectionCount());
+        this.packetCompressor = new PacketCompressor(ioService.getSocketCompressionThreshold());
 
         metricsRegistry.scanAndRegister(this, "tcp.connection");
+        metricsRegistry.scanAndRegister(packetCompressor, "tcp.compression");
     }
 
     public IOService getIoService() {
         return ioService;
     }
 
+    public PacketCompressor getPacketCompressor() {
+        return packetCompressor;
+    }
+
     public IOThreadingModel getIoThreadingModel() {
         return ioThreadingModel;
     }
@@ -223,7 +238,9 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         assert packet.isHeaderSet(Packet.HEADER_BIND);
 
         BindMessage bind = ioService.getSerializationService().toObject(packet);
-        bind((TcpIpConnection) packet.getConn(), bind.getLocalAddress(), bind.getTargetAddress(), bind.shouldReply());
+        TcpIpConnection connection = (TcpIpConnection) packet.getConn();
+        connection.setCompressionEnabled(ioService.isSocketCompressionEnabled() && bind.isCompressionEnabled());
+        bind(connection, bind.getLocalAddress(), bind.getTargetAddress(), bind.shouldReply());
     }
 
     /**
@@ -273,6 +290,9 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         }
         connectionsMap.put(remoteEndPoint, connection);
         connectionsInProgress.remove(remoteEndPoint);
+        if (memberConnectionCount > 1 && connection instanceof TcpIpConnection && !connection.isClient()) {
+            openConnectionLanes(remoteEndPoint, connection);
+        }
         ioService.getEventService().executeEventCallback(new StripedRunnable() {
             @Override
             public void run() {
@@ -289,6 +309,73 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         return true;
     }
 
+    private void openConnectionLanes(Address remoteEndPoint, Connection primary) {
+        TcpIpConnectionLanes lanes = new TcpIpConnectionLanes(primary, memberConnectionCount);
+        connectionLanes.put(remoteEndPoint, lanes);
+        for (int lane = 1; lane < lanes.laneCount(); lane++) {
+            openConnectionLane(remoteEndPoint, lanes, lane);
+        }
+    }
+
+    private void openConnectionLane(Address remoteEndPoint, TcpIpConnectionLanes lanes, int lane) {
+        if (live && lanes.tryStartConnecting(lane)) {
+            ioService.executeAsync(new InitConnectionTask(this, remoteEndPoint, true, lane));
+        }
+    }
+
+    void registerLaneConnection(Address remoteEndPoint, int lane, TcpIpConnection connection) {
+        TcpIpConnectionLanes lanes = connectionLanes.get(remoteEndPoint);
+        if (lanes == null) {
+            // the primary connection to the member was destroyed while the lane was connecting
+            destroyConnection(connection);
+            return;
+        }
+        lanes.onConnected(lane, connection);
+        if (!connection.isAlive()) {
+            // the connection was closed before it was part of the lanes
+            destroyConnectionLanes(connection, remoteEndPoint);
+        }
+    }
+
+    // just for testing
+    TcpIpConnectionLanes getConnectionLanes(Address remoteEndPoint) {
+        return connectionLanes.get(remoteEndPoint);
+    }
+
+    void failedLaneConnection(Address remoteEndPoint, int lane) {
+        TcpIpConnectionLanes lanes = connectionLanes.get(remoteEndPoint);
+        if (lanes != null) {
+            lanes.onConnectFailed(lane);
+        }
+    }
+
+    private void destroyConnectionLanes(Connection connection, Address endPoint) {
+        TcpIpConnectionLanes lanes = connectionLanes.get(endPoint);
+        if (lanes == null) {
+            return;
+        }
+
+        if (lanes.getPrimary() == connection) {
+            if (connectionLanes.remove(endPoint, lanes)) {
+                for (int lane = 1; lane < lanes.laneCount(); lane++) {
+                    destroyConnection(lanes.get(lane));
+                }
+            }
+            return;
+        }
+
+        int lane = lanes.remove(connection);
+        if (lane <= 0) {
+            return;
+        }
+        // the lane holds back its packets until it is reopened, so they don't overtake the packets in flight
+        if (live && lanes.getPrimary().isAlive()) {
+            ioService.executeAsync(new InitConnectionTask(this, endPoint, true, lane));
+        } else {
+            lanes.onConnectFailed(lane);
+        }
+    }
+
     private boolean checkAlreadyConnected(TcpIpConnection connection, Address remoteEndPoint) {
         final Connection existingConnection = connectionsMap.get(remoteEndPoint);
         if (existingConnection != null && existingConnection.isAlive()) {
@@ -311,7 +398,8 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         if (logger.isFinestEnabled()) {
             logger.finest("Sending bind packet to " + remoteEndPoint);
         }
-        BindMessage bind = new BindMessage(ioService.getThisAddress(), remoteEndPoint, replyBack);
+        BindMessage bind = new BindMessage(ioService.getThisAddress(), remoteEndPoint, replyBack,
+                ioService.isSocketCompressionEnabled());
         byte[] bytes = ioService.getSerializationService().toBytes(bind);
         Packet packet = new Packet(bytes);
         packet.setHeader(Packet.HEADER_BIND);
@@ -403,6 +491,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         if (endPoint != null) {
             connectionsInProgress.remove(endPoint);
             connectionsMap.remove(endPoint, connection);
+            destroyConnectionLanes(connection, endPoint);
             fireConnectionRemovedEvent(connection, endPoint);
         }
         if (connection.isAlive()) {
@@ -495,6 +584,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         acceptedSockets.clear();
         connectionsInProgress.clear();
         connectionsMap.clear();
+        connectionLanes.clear();
         monitors.clear();
         activeConnections.clear();
     }
@@ -572,7 +662,24 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
             return false;
         }
 
-        return connection.write(packet);
+        return write(packet, connection);
+    }
+
+    /**
+     * Writes the packet to its connection lane if more than one connection per member is configured and the
+     * given connection is the connection registered for the member.
+     */
+    private boolean write(Packet packet, Connection connection) {
+        if (memberConnectionCount == 1) {
+            return connection.write(packet);
+        }
+
+        Address endPoint = connection.getEndPoint();
+        TcpIpConnectionLanes lanes = endPoint == null ? null : connectionLanes.get(endPoint);
+        if (lanes == null || lanes.getPrimary() != connection) {
+            return connection.write(packet);
+        }
+        return lanes.write(packet);
     }
 
     /**
@@ -589,7 +696,7 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     private boolean send(Packet packet, Address target, SendTask sendTask) {
         Connection connection = getConnection(target);
         if (connection != null) {
-            return connection.write(packet);
+            return write(packet, connection);
         }
 
         if (sendTask == null) {
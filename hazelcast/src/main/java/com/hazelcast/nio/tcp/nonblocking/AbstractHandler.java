@@ -40,6 +40,9 @@ public abstract class AbstractHandler implements MigratableHandler {
     protected NonBlockingIOThread ioThread;
     protected SelectionKey selectionKey;
     private final int initialOps;
+    // set by the owning NonBlockingIOThread when this handler is offered to be stolen and cleared by the thread that
+    // processed it. The volatile write/read also takes care of the happens-before between the two threads.
+    private volatile boolean offeredForStealing;
 
     public AbstractHandler(TcpIpConnection connection, NonBlockingIOThread ioThread, int initialOps) {
         this.connection = connection;
@@ -113,6 +116,34 @@ public abstract class AbstractHandler implements MigratableHandler {
         }
     }
 
+    final boolean isOfferedForStealing() {
+        return offeredForStealing;
+    }
+
+    // This method runs on the owning NonBlockingIOThread. The handler is removed from the selection set of the
+    // owner so that it won't be selected again while another NonBlockingIOThread is processing it.
+    final void suspendForStealing() {
+        offeredForStealing = true;
+        unregisterOp(initialOps);
+    }
+
+    // This method runs on the NonBlockingIOThread that has processed the handler; this can be the owner or a thief.
+    final void resumeAfterStealing() {
+        offeredForStealing = false;
+
+        SelectionKey selectionKey = this.selectionKey;
+        if (selectionKey == null || !selectionKey.isValid()) {
+            return;
+        }
+
+        registerOp(initialOps);
+        NonBlockingIOThread owner = ioThread;
+        if (owner != Thread.currentThread()) {
+            // the interest set of a blocked selector is only updated on its next select.
+            owner.getSelector().wakeup();
+        }
+    }
+
     // This method run on the oldOwner NonBlockingIOThread
     void startMigration(final NonBlockingIOThread newOwner) {
         assert ioThread == Thread.currentThread() : "startMigration can only run on the owning NonBlockingIOThread";
@@ -28,6 +28,7 @@ import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.util.Iterator;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static com.hazelcast.util.counters.SwCounter.newSwCounter;
@@ -46,6 +47,15 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
     private final SwCounter eventCount = newSwCounter();
     @Probe
     private final SwCounter selectorIOExceptionCount = newSwCounter();
+    // contains the ready handlers of this thread that can be processed by any thread of the steal group
+    @Probe(name = "stealQueueSize")
+    private final Queue<NonBlockingSocketReader> stealQueue = new ConcurrentLinkedQueue<NonBlockingSocketReader>();
+    // the number of ready handlers this thread has offered to idle threads of its steal group
+    @Probe
+    private final SwCounter offeredForStealingCount = newSwCounter();
+    // the number of ready handlers owned by other threads that have been processed by this thread
+    @Probe
+    private final SwCounter stolenCount = newSwCounter();
 
     private final ILogger logger;
 
@@ -57,6 +67,12 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
 
     private volatile long lastSelectTimeMs;
 
+    // the threads this thread steals work from and offers work to; null if work stealing is disabled
+    private volatile NonBlockingIOThread[] stealGroup;
+    // true while this thread has nothing to do and is about to block or is blocked on select
+    private volatile boolean idle;
+    private int idleScanIndex;
+
     public NonBlockingIOThread(ThreadGroup threadGroup,
                                String threadName,
                                ILogger logger,
@@ -111,6 +127,29 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
         return eventCount.get();
     }
 
+    /**
+     * Enables work stealing between this NonBlockingIOThread and the other threads of the group.
+     * <p/>
+     * When enabled, a thread that has multiple ready handlers after a select, hands out all but the first one to idle
+     * threads of the group. And a thread that runs out of work, processes the ready handlers other threads have
+     * handed out before it blocks on its own selector. This way a single hot connection doesn't delay the other
+     * connections of the same thread. The ownership of the handlers doesn't change; a stolen handler is only processed
+     * once by the thief and then returned to the selector of its owner.
+     * <p/>
+     * A handler is processed by a single thread at a time and the handoff through the steal queue orders its
+     * processing by the thief after the earlier processing by the owner, so the packets of a connection are still
+     * dispatched in the order they were received. This only holds as long as the dispatch itself doesn't depend on the
+     * dispatching thread; e.g. per producer queues in front of a partition thread would reorder them.
+     * <p/>
+     * Only {@link NonBlockingSocketReader} instances are handed out and work stealing is not supported in combination
+     * with selectNow. This method should be called before the thread is started.
+     *
+     * @param group the threads to steal from and to offer work to. This thread should be part of the group.
+     */
+    public void enableWorkStealing(NonBlockingIOThread[] group) {
+        this.stealGroup = group;
+    }
+
     /**
      * A probe that measure how long this NonBlockingIOThread has not received any events.
      *
@@ -140,7 +179,9 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
      */
     public void addTaskAndWakeup(Runnable task) {
         taskQueue.add(task);
-        if (!selectNow) {
+        // a busy thread will pick up the task before it blocks on the selector; so there is no need for the
+        // relatively expensive wakeup.
+        if (!selectNow && idle) {
             selector.wakeup();
         }
     }
@@ -200,7 +241,19 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
         while (!isInterrupted()) {
             processTaskQueue();
 
+            if (stealGroup != null) {
+                stealWork();
+            }
+
+            idle = true;
+            // a task or handler that was added before this thread was marked as idle, doesn't wake up the selector
+            if (hasPendingWork()) {
+                idle = false;
+                continue;
+            }
+
             int selectedKeys = selector.select(SELECT_WAIT_TIME_MILLIS);
+            idle = false;
             if (selectedKeys > 0) {
                 lastSelectTimeMs = currentTimeMillis();
                 handleSelectionKeys();
@@ -208,6 +261,47 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
         }
     }
 
+    private boolean hasPendingWork() {
+        if (!taskQueue.isEmpty()) {
+            return true;
+        }
+
+        NonBlockingIOThread[] group = stealGroup;
+        if (group != null) {
+            for (NonBlockingIOThread thread : group) {
+                if (!thread.stealQueue.isEmpty()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // processes the handlers the other threads of the steal group have handed out
+    private void stealWork() {
+        NonBlockingIOThread[] group = stealGroup;
+        boolean stolen;
+        do {
+            stolen = stealFrom(group);
+        } while (stolen && !isInterrupted());
+    }
+
+    private boolean stealFrom(NonBlockingIOThread[] group) {
+        for (NonBlockingIOThread victim : group) {
+            if (victim == this) {
+                continue;
+            }
+
+            NonBlockingSocketReader handler = victim.stealQueue.poll();
+            if (handler != null) {
+                stolenCount.inc();
+                processOfferedHandler(handler);
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void runSelectNowLoop() throws IOException {
         while (!isInterrupted()) {
             processTaskQueue();
@@ -248,13 +342,101 @@ public class NonBlockingIOThread extends Thread implements OperationHostileThrea
     }
 
     private void handleSelectionKeys() {
-        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
-        while (it.hasNext()) {
-            SelectionKey sk = it.next();
-            it.remove();
+        NonBlockingIOThread[] group = stealGroup;
+        boolean keyHandled = false;
+        Set<SelectionKey> selectedKeys = selector.selectedKeys();
+        if (selectedKeys instanceof SelectionKeysSet) {
+            // the selector has been optimized, so we can iterate over the keys without creating litter
+            SelectionKeysSet selectionKeysSet = (SelectionKeysSet) selectedKeys;
+            SelectionKey[] keys = selectionKeysSet.keys();
+            int size = selectionKeysSet.size();
+            for (int k = 0; k < size; k++) {
+                keyHandled |= handleSelectedKey(keys[k], group, keyHandled);
+            }
+            selectionKeysSet.reset();
+        } else {
+            Iterator<SelectionKey> it = selectedKeys.iterator();
+            while (it.hasNext()) {
+                SelectionKey sk = it.next();
+                it.remove();
+                keyHandled |= handleSelectedKey(sk, group, keyHandled);
+            }
+        }
 
-            handleSelectionKey(sk);
+        if (group != null) {
+            processStealQueue();
+        }
+    }
+
+    /**
+     * Handles a selected key or hands it out to an idle thread of the steal group.
+     *
+     * @return true if the key has been handled by this thread.
+     */
+    private boolean handleSelectedKey(SelectionKey sk, NonBlockingIOThread[] group, boolean keyHandled) {
+        Object attachment = sk.attachment();
+        if (group != null && attachment instanceof NonBlockingSocketReader) {
+            NonBlockingSocketReader reader = (NonBlockingSocketReader) attachment;
+            if (reader.isOfferedForStealing()) {
+                return false;
+            }
+
+            // the first ready handler is always processed by this thread, the others are handed out if possible
+            if (keyHandled && sk.isValid() && offerForStealing(group, reader)) {
+                return false;
+            }
+        }
+
+        handleSelectionKey(sk);
+        return true;
+    }
+
+    private boolean offerForStealing(NonBlockingIOThread[] group, NonBlockingSocketReader handler) {
+        NonBlockingIOThread idleThread = findIdleThread(group);
+        if (idleThread == null) {
+            return false;
+        }
+
+        handler.suspendForStealing();
+        stealQueue.offer(handler);
+        offeredForStealingCount.inc();
+        idleThread.selector.wakeup();
+        return true;
+    }
+
+    private NonBlockingIOThread findIdleThread(NonBlockingIOThread[] group) {
+        int length = group.length;
+        for (int k = 0; k < length; k++) {
+            int index = (idleScanIndex + k) % length;
+            NonBlockingIOThread thread = group[index];
+            if (thread != this && thread.idle) {
+                // spread the work over the idle threads
+                idleScanIndex = index + 1;
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    // processes the handed out handlers that have not been stolen by the other threads
+    private void processStealQueue() {
+        for (; ; ) {
+            NonBlockingSocketReader handler = stealQueue.poll();
+            if (handler == null) {
+                return;
+            }
+            processOfferedHandler(handler);
+        }
+    }
+
+    private void processOfferedHandler(NonBlockingSocketReader handler) {
+        eventCount.inc();
+        try {
+            handler.handle();
+        } catch (Throwable t) {
+            handler.onFailure(t);
         }
+        handler.resumeAfterStealing();
     }
 
     protected void handleSelectionKey(SelectionKey sk) {
@@ -28,6 +28,7 @@ import com.hazelcast.nio.tcp.SocketWriter;
 import com.hazelcast.nio.tcp.nonblocking.iobalancer.IOBalancer;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.nio.channels.Selector;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.util.HashUtil.hashToIndex;
@@ -42,6 +43,9 @@ import static java.util.logging.Level.INFO;
  * By default the {@link NonBlockingIOThread} blocks on the Selector, but it can be put in a 'selectNow' mode that makes it
  * spinning on the selector. This is an experimental feature and will cause the io threads to run hot. For this reason, when
  * this feature is enabled, the number of io threads should be reduced (preferably 1).
+ *
+ * Unless disabled, the selected-keys set of the Selectors is replaced by an array based one; so neither the select nor
+ * the processing of the selected keys creates litter. See {@link SelectorOptimizer}.
  */
 public class NonBlockingIOThreadingModel implements IOThreadingModel {
 
@@ -116,31 +120,52 @@ public class NonBlockingIOThreadingModel implements IOThreadingModel {
             }
         };
 
+        ILogger threadLogger = ioService.getLogger(NonBlockingIOThread.class.getName());
         for (int i = 0; i < inputThreads.length; i++) {
             NonBlockingIOThread thread = new NonBlockingIOThread(
                     ioService.getThreadGroup(),
                     ioService.getThreadPrefix() + "in-" + i,
-                    ioService.getLogger(NonBlockingIOThread.class.getName()),
+                    threadLogger,
                     oomeHandler,
-                    inputSelectNow
-            );
+                    inputSelectNow,
+                    newSelector(threadLogger));
             inputThreads[i] = thread;
             metricsRegistry.scanAndRegister(thread, "tcp." + thread.getName());
-            thread.start();
         }
 
+        boolean workStealing = startInputThreads();
+
         for (int i = 0; i < outputThreads.length; i++) {
             NonBlockingIOThread thread = new NonBlockingIOThread(
                     ioService.getThreadGroup(),
                     ioService.getThreadPrefix() + "out-" + i,
-                    ioService.getLogger(NonBlockingIOThread.class.getName()),
+                    threadLogger,
                     oomeHandler,
-                    outputSelectNow);
+                    outputSelectNow,
+                    newSelector(threadLogger));
             outputThreads[i] = thread;
             metricsRegistry.scanAndRegister(thread, "tcp." + thread.getName());
             thread.start();
         }
-        startIOBalancer();
+        startIOBalancer(workStealing);
+    }
+
+    private Selector newSelector(ILogger threadLogger) {
+        return SelectorOptimizer.newSelector(threadLogger, ioService.isSelectorOptimizationEnabled());
+    }
+
+    private boolean startInputThreads() {
+        // work stealing relies on idle threads blocking on their selector
+        boolean workStealing = ioService.isIoWorkStealingEnabled() && !inputSelectNow;
+        logger.log(workStealing ? INFO : FINE, "InputThreads work stealing enabled=" + workStealing);
+
+        for (NonBlockingIOThread thread : inputThreads) {
+            if (workStealing) {
+                thread.enableWorkStealing(inputThreads);
+            }
+            thread.start();
+        }
+        return workStealing;
     }
 
     @Override
@@ -153,10 +178,13 @@ public class NonBlockingIOThreadingModel implements IOThreadingModel {
         ioBalancer.connectionRemoved(connection);
     }
 
-    private void startIOBalancer() {
+    private void startIOBalancer(boolean workStealing) {
         ioBalancer = new IOBalancer(inputThreads, outputThreads,
                 hazelcastThreadGroup, ioService.getBalancerIntervalSeconds(), loggingService);
-        ioBalancer.start();
+        // migrating handlers while they are being processed by a thief isn't supported
+        if (!workStealing) {
+            ioBalancer.start();
+        }
         metricsRegistry.scanAndRegister(ioBalancer, "tcp.balancer");
     }
 
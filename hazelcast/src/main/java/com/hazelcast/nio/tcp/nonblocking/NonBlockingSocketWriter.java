@@ -21,6 +21,7 @@ import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.nio.OutboundFrame;
 import com.hazelcast.nio.ascii.TextWriteHandler;
+import com.hazelcast.nio.tcp.MemberWriteHandler;
 import com.hazelcast.nio.tcp.NewClientWriteHandler;
 import com.hazelcast.nio.tcp.OldClientWriteHandler;
 import com.hazelcast.nio.tcp.SocketWriter;
@@ -71,10 +72,14 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
     private final SwCounter normalFramesWritten = newSwCounter();
     @Probe(name = "out.priorityFramesWritten")
     private final SwCounter priorityFramesWritten = newSwCounter();
+    @Probe(name = "out.batchedWriteCount")
+    private final SwCounter batchedWriteCount = newSwCounter();
     private final MetricsRegistry metricsRegistry;
 
     private volatile OutboundFrame currentFrame;
     private WriteHandler writeHandler;
+    // only set if batched writes are enabled for a member to member connection
+    private PacketWriteBatch writeBatch;
     private volatile long lastWriteTime;
 
     private boolean shutdown;
@@ -169,25 +174,30 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
     private void createWriterHandler(String protocol) {
         if (writeHandler == null) {
             if (CLUSTER.equals(protocol)) {
-                configureBuffers(ioService.getSocketSendBufferSize() * KILO_BYTE);
+                int sendBufferSize = ioService.getSocketSendBufferSize() * KILO_BYTE;
+                configureBuffers(sendBufferSize, ioService.isSocketBufferDirect());
                 writeHandler = ioService.createWriteHandler(connection);
+                // batching bypasses the WriteHandler, so it can only be used if that just writes the packet
+                if (ioService.isSocketWriteBatchingEnabled() && writeHandler.getClass() == MemberWriteHandler.class) {
+                    writeBatch = new PacketWriteBatch(ioService.getSocketWriteBatchMaxPackets(), sendBufferSize);
+                }
                 outputBuffer.put(stringToBytes(CLUSTER));
                 registerOp(SelectionKey.OP_WRITE);
             } else if (CLIENT_BINARY.equals(protocol)) {
-                configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE);
+                configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE, false);
                 writeHandler = new OldClientWriteHandler();
             } else if (CLIENT_BINARY_NEW.equals(protocol)) {
-                configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE);
+                configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE, false);
                 writeHandler = new NewClientWriteHandler();
             } else {
-                configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE);
+                configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE, false);
                 writeHandler = new TextWriteHandler(connection);
             }
         }
     }
 
-    private void configureBuffers(int size) {
-        outputBuffer = ByteBuffer.allocate(size);
+    private void configureBuffers(int size, boolean direct) {
+        outputBuffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
         try {
             connection.setSendBufferSize(size);
         } catch (SocketException e) {
@@ -209,11 +219,9 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
 
     private OutboundFrame poll() {
         for (; ; ) {
-            boolean urgent = true;
             OutboundFrame frame = urgentWriteQueue.poll();
 
             if (frame == null) {
-                urgent = false;
                 frame = writeQueue.poll();
             }
 
@@ -226,12 +234,6 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
                 continue;
             }
 
-            if (urgent) {
-                priorityFramesWritten.inc();
-            } else {
-                normalFramesWritten.inc();
-            }
-
             return frame;
         }
     }
@@ -276,7 +278,7 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
      * This call is only made by the IO thread.
      */
     private void unschedule() {
-        if (dirtyOutputBuffer() || currentFrame != null) {
+        if (dirtyOutputBuffer() || currentFrame != null || (writeBatch != null && !writeBatch.isEmpty())) {
             // Because not all data was written to the socket, we need to register for OP_WRITE so we get
             // notified when the socketChannel is ready for more data.
             registerOp(SelectionKey.OP_WRITE);
@@ -329,10 +331,12 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
             createWriterHandler(CLUSTER);
         }
 
-        fillOutputBuffer();
+        if (writeBatch == null || !writeBatchToSocket()) {
+            fillOutputBuffer();
 
-        if (dirtyOutputBuffer()) {
-            writeOutputBufferToSocket();
+            if (dirtyOutputBuffer()) {
+                writeOutputBufferToSocket();
+            }
         }
 
         if (newOwner == null) {
@@ -357,6 +361,53 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
         return outputBuffer.position() > 0;
     }
 
+    /**
+     * Writes the pending batch to the socket. If there is no pending batch, a new batch is filled with packets until it
+     * is full or there are no more frames. A new batch can only be started when everything that has been put in the
+     * outputBuffer has been written.
+     *
+     * @return true if the batch has been used, false if the outputBuffer should be used instead.
+     * @throws Exception
+     */
+    private boolean writeBatchToSocket() throws Exception {
+        if (writeBatch.isEmpty()) {
+            if (dirtyOutputBuffer() || currentFrame != null) {
+                return false;
+            }
+
+            while (!writeBatch.isFull()) {
+                OutboundFrame frame = poll();
+                if (frame == null) {
+                    break;
+                }
+
+                if (!(frame instanceof Packet)) {
+                    // this frame will be written using the outputBuffer once the batch has been written
+                    currentFrame = frame;
+                    break;
+                }
+
+                writeBatch.add((Packet) frame);
+            }
+
+            if (writeBatch.isEmpty()) {
+                return true;
+            }
+        }
+
+        int packetCount = writeBatch.packetCount();
+        int urgentPacketCount = writeBatch.urgentPacketCount();
+        long written = writeBatch.writeTo(socketChannel);
+        bytesWritten.inc(written);
+        batchedWriteCount.inc();
+        if (writeBatch.isEmpty()) {
+            // the batch has been written completely
+            priorityFramesWritten.inc(urgentPacketCount);
+            normalFramesWritten.inc(packetCount - urgentPacketCount);
+        }
+        return true;
+    }
+
     /**
      * Writes to content of the outputBuffer to the socket.
      *
@@ -408,6 +459,11 @@ public final class NonBlockingSocketWriter extends AbstractHandler implements Ru
             }
 
             // The current frame has been written completely. So lets null it and lets try to write another frame.
+            if (currentFrame.isUrgent()) {
+                priorityFramesWritten.inc();
+            } else {
+                normalFramesWritten.inc();
+            }
             currentFrame = null;
         }
     }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.GatheringSocketChannelWrapper;
+import com.hazelcast.nio.tcp.SocketChannelWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * A batch of {@link Packet} instances that is written to a socket using a single gathering write. If the socket
+ * channel wrapper isn't a {@link GatheringSocketChannelWrapper}, the buffers are written one by one.
+ * <p/>
+ * The header of every packet is written to a reusable header buffer and the payload is wrapped instead of copied. If
+ * the socket doesn't accept all bytes, the remainder of the batch is written on the next call of
+ * {@link #writeTo(SocketChannelWrapper)}. A new packet can only be added when the batch is completely written.
+ * <p/>
+ * This class is not thread-safe; it should only be used by the {@link NonBlockingSocketWriter} owning it.
+ */
+final class PacketWriteBatch {
+
+    private static final int BUFFERS_PER_PACKET = 2;
+
+    private final ByteBuffer[] headers;
+    private final ByteBuffer[] buffers;
+    private final int maxPackets;
+    private final int maxBytes;
+
+    private int packetCount;
+    private int urgentPacketCount;
+    private int bufferCount;
+    private int bytes;
+    // the index of the first buffer that has not been completely written
+    private int offset;
+
+    PacketWriteBatch(int maxPackets, int maxBytes) {
+        this.maxPackets = checkPositive(maxPackets, "maxPackets should be positive");
+        this.maxBytes = checkPositive(maxBytes, "maxBytes should be positive");
+        this.buffers = new ByteBuffer[maxPackets * BUFFERS_PER_PACKET];
+        this.headers = new ByteBuffer[maxPackets];
+        for (int k = 0; k < maxPackets; k++) {
+            headers[k] = ByteBuffer.allocate(Packet.HEADER_SIZE);
+        }
+    }
+
+    /**
+     * Adds a packet to this batch.
+     *
+     * @param packet the packet to add
+     * @throws IllegalStateException if the batch is full or not completely written
+     */
+    void add(Packet packet) {
+        if (isFull() || offset > 0) {
+            throw new IllegalStateException("Can't add a packet to a full or partially written batch");
+        }
+
+        ByteBuffer header = headers[packetCount];
+        header.clear();
+        packet.writeHeaderTo(header);
+        header.flip();
+        buffers[bufferCount++] = header;
+
+        int payloadSize = packet.totalSize();
+        if (payloadSize > 0) {
+            buffers[bufferCount++] = ByteBuffer.wrap(packet.toByteArray());
+        }
+
+        packetCount++;
+        if (packet.isUrgent()) {
+            urgentPacketCount++;
+        }
+        bytes += Packet.HEADER_SIZE + payloadSize;
+    }
+
+    /**
+     * Checks if the batch should be written before a next packet is added.
+     *
+     * @return true if full, false otherwise
+     */
+    boolean isFull() {
+        return packetCount == maxPackets || bytes >= maxBytes;
+    }
+
+    boolean isEmpty() {
+        return packetCount == 0;
+    }
+
+    int packetCount() {
+        return packetCount;
+    }
+
+    int urgentPacketCount() {
+        return urgentPacketCount;
+    }
+
+    /**
+     * Writes as much of the remaining content of this batch to the socket as the socket accepts. If everything is
+     * written, the batch is cleared.
+     *
+     * @param socketChannel the socket to write to
+     * @return the number of bytes written
+     * @throws IOException if writing fails
+     */
+    long writeTo(SocketChannelWrapper socketChannel) throws IOException {
+        long written = socketChannel instanceof GatheringSocketChannelWrapper
+                ? ((GatheringSocketChannelWrapper) socketChannel).write(buffers, offset, bufferCount - offset)
+                : writeOneByOne(socketChannel);
+
+        while (offset < bufferCount && !buffers[offset].hasRemaining()) {
+            offset++;
+        }
+
+        if (offset == bufferCount) {
+            clear();
+        }
+        return written;
+    }
+
+    private long writeOneByOne(SocketChannelWrapper socketChannel) throws IOException {
+        long written = 0;
+        for (int k = offset; k < bufferCount; k++) {
+            written += socketChannel.write(buffers[k]);
+            if (buffers[k].hasRemaining()) {
+                break;
+            }
+        }
+        return written;
+    }
+
+    private void clear() {
+        for (int k = 0; k < bufferCount; k++) {
+            // we don't want to retain the payloads of written packets
+            buffers[k] = null;
+        }
+        packetCount = 0;
+        urgentPacketCount = 0;
+        bufferCount = 0;
+        bytes = 0;
+        offset = 0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import java.nio.channels.SelectionKey;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An array backed set of selected keys that is installed in a Selector by the {@link SelectorOptimizer} to replace
+ * the HashSet the JDK uses.
+ * <p/>
+ * The HashSet creates a map-entry for every added key and an iterator for every select; the
+ * {@link NonBlockingIOThread} iterates over this set using the array without creating any litter.
+ * <p/>
+ * The set relies on the owning NonBlockingIOThread to {@link #reset()} it after every select; a selector never adds
+ * the same key twice within a single select and therefore {@link #contains(Object)} can always return false.
+ * This set is not thread-safe; it is only accessed by the thread owning the selector.
+ */
+final class SelectionKeysSet extends AbstractSet<SelectionKey> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private SelectionKey[] keys = new SelectionKey[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public boolean add(SelectionKey key) {
+        if (key == null) {
+            return false;
+        }
+
+        if (size == keys.length) {
+            SelectionKey[] newKeys = new SelectionKey[keys.length * 2];
+            System.arraycopy(keys, 0, newKeys, 0, size);
+            keys = newKeys;
+        }
+        keys[size++] = key;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the array containing the keys. Only the first {@link #size()} elements are set.
+     *
+     * @return the keys.
+     */
+    SelectionKey[] keys() {
+        return keys;
+    }
+
+    /**
+     * Removes all keys from this set.
+     */
+    void reset() {
+        for (int k = 0; k < size; k++) {
+            keys[k] = null;
+        }
+        size = 0;
+    }
+
+    @Override
+    public Iterator<SelectionKey> iterator() {
+        return new Iterator<SelectionKey>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public SelectionKey next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys[index++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
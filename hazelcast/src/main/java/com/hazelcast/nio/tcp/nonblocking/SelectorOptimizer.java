@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.logging.ILogger;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.channels.Selector;
+
+/**
+ * Creates Selectors that make use of a {@link SelectionKeysSet} instead of the HashSet based selected-keys set of
+ * the JDK, so that a select doesn't create any litter.
+ * <p/>
+ * The set is installed using reflection on the 'sun.nio.ch.SelectorImpl'. If that isn't possible, e.g. because a
+ * different JVM is used or a security manager prevents it, a plain Selector is returned and the
+ * {@link NonBlockingIOThread} falls back on iterating the selected keys.
+ */
+final class SelectorOptimizer {
+
+    static final String SELECTOR_IMPL = "sun.nio.ch.SelectorImpl";
+
+    private SelectorOptimizer() {
+    }
+
+    /**
+     * Creates a new Selector and tries to optimize it if requested.
+     *
+     * @param logger   the logger used to log why the optimization failed.
+     * @param optimize true if the selected keys should be optimized.
+     * @return the created Selector.
+     * @throws HazelcastException if the Selector could not be opened.
+     */
+    static Selector newSelector(ILogger logger, boolean optimize) {
+        Selector selector;
+        try {
+            selector = Selector.open();
+        } catch (IOException e) {
+            throw new HazelcastException("Failed to open a Selector", e);
+        }
+
+        if (!optimize) {
+            return selector;
+        }
+
+        try {
+            optimize(selector);
+        } catch (Throwable t) {
+            logger.finest("Failed to optimize the selected keys of Selector " + selector, t);
+        }
+        return selector;
+    }
+
+    static SelectionKeysSet optimize(Selector selector) throws Exception {
+        Class<?> selectorImplClass = Class.forName(SELECTOR_IMPL, false, SelectorOptimizer.class.getClassLoader());
+        if (!selectorImplClass.isInstance(selector)) {
+            throw new IllegalArgumentException("Selector " + selector + " is not a " + SELECTOR_IMPL);
+        }
+
+        Field selectedKeysField = selectorImplClass.getDeclaredField("selectedKeys");
+        Field publicSelectedKeysField = selectorImplClass.getDeclaredField("publicSelectedKeys");
+        selectedKeysField.setAccessible(true);
+        publicSelectedKeysField.setAccessible(true);
+
+        SelectionKeysSet selectionKeys = new SelectionKeysSet();
+        selectedKeysField.set(selector, selectionKeys);
+        publicSelectedKeysField.set(selector, selectionKeys);
+        return selectionKeys;
+    }
+}
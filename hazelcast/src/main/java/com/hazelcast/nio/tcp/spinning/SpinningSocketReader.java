@@ -154,20 +154,20 @@ public class SpinningSocketReader extends AbstractHandler implements SocketReade
         String protocol = bytesToString(protocolBuffer.array());
         SocketWriter socketWriter = connection.getSocketWriter();
         if (CLUSTER.equals(protocol)) {
-            configureBuffers(ioService.getSocketReceiveBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketReceiveBufferSize() * KILO_BYTE, ioService.isSocketBufferDirect());
             connection.setType(MEMBER);
             socketWriter.setProtocol(CLUSTER);
             readHandler = ioService.createReadHandler(connection);
         } else if (CLIENT_BINARY.equals(protocol)) {
-            configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE, false);
             socketWriter.setProtocol(CLIENT_BINARY);
             readHandler = new OldClientReadHandler(connection, ioService);
         } else if (CLIENT_BINARY_NEW.equals(protocol)) {
-            configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE, false);
             socketWriter.setProtocol(CLIENT_BINARY_NEW);
             readHandler = new NewClientReadHandler(connection, ioService);
         } else {
-            configureBuffers(ioService.getSocketReceiveBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketReceiveBufferSize() * KILO_BYTE, false);
             socketWriter.setProtocol(Protocols.TEXT);
             inputBuffer.put(protocolBuffer.array());
             readHandler = new TextReadHandler(connection);
@@ -175,8 +175,8 @@ public class SpinningSocketReader extends AbstractHandler implements SocketReade
         }
     }
 
-    private void configureBuffers(int size) {
-        inputBuffer = ByteBuffer.allocate(size);
+    private void configureBuffers(int size, boolean direct) {
+        inputBuffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
         try {
             connection.setReceiveBufferSize(size);
         } catch (SocketException e) {
@@ -156,23 +156,23 @@ public class SpinningSocketWriter extends AbstractHandler implements SocketWrite
         }
 
         if (CLUSTER.equals(protocol)) {
-            configureBuffers(ioService.getSocketSendBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketSendBufferSize() * KILO_BYTE, ioService.isSocketBufferDirect());
             writeHandler = ioService.createWriteHandler(connection);
             outputBuffer.put(stringToBytes(CLUSTER));
         } else if (CLIENT_BINARY.equals(protocol)) {
-            configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE, false);
             writeHandler = new OldClientWriteHandler();
         } else if (CLIENT_BINARY_NEW.equals(protocol)) {
-            configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketClientReceiveBufferSize() * KILO_BYTE, false);
             writeHandler = new NewClientWriteHandler();
         } else {
-            configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE);
+            configureBuffers(ioService.getSocketClientSendBufferSize() * KILO_BYTE, false);
             writeHandler = new TextWriteHandler(connection);
         }
     }
 
-    private void configureBuffers(int size) {
-        outputBuffer = ByteBuffer.allocate(size);
+    private void configureBuffers(int size, boolean direct) {
+        outputBuffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
         try {
             connection.setSendBufferSize(size);
         } catch (SocketException e) {
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.projection;
+
+import java.io.Serializable;
+
+/**
+ * Transforms the entries of a map into smaller objects, see
+ * {@link com.hazelcast.core.IMap#project(Projection, com.hazelcast.query.Predicate)}.
+ * <p/>
+ * The transformation is executed on the member owning the entry, so only the projected objects are sent
+ * back to the caller. A predefined set of projections can be found in {@link Projections}.
+ *
+ * @param <I> the type of the transformed entries
+ * @param <O> the type of the projected objects
+ * @since 3.6
+ */
+public abstract class Projection<I, O> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Transforms an entry.
+     *
+     * @param input the entry
+     * @return the projected object
+     */
+    public abstract O transform(I input);
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.projection;
+
+import com.hazelcast.projection.impl.MultiAttributeProjection;
+import com.hazelcast.projection.impl.SingleAttributeProjection;
+
+import static com.hazelcast.util.Preconditions.checkHasText;
+
+/**
+ * Provides the predefined {@link Projection}s.
+ * <p/>
+ * The attributes are extracted from the map values the same way as by a {@link com.hazelcast.query.Predicate}.
+ * <p/>
+ * The type of the transformed entries is inferred, so the projections can be passed to
+ * {@link com.hazelcast.core.IMap#project(Projection)} directly.
+ *
+ * @since 3.6
+ */
+public final class Projections {
+
+    private Projections() {
+    }
+
+    /**
+     * @param attributePath the path of the extracted attribute
+     * @return a projection extracting the value of the attribute
+     */
+    public static <I, O> Projection<I, O> singleAttribute(String attributePath) {
+        checkHasText(attributePath, "attributePath must not be null or empty");
+        return new SingleAttributeProjection<I, O>(attributePath);
+    }
+
+    /**
+     * @param attributePaths the paths of the extracted attributes
+     * @return a projection extracting the values of the attributes into an array, in the order of the paths
+     */
+    public static <I> Projection<I, Object[]> multiAttribute(String... attributePaths) {
+        if (attributePaths == null || attributePaths.length == 0) {
+            throw new IllegalArgumentException("You need to specify at least one attribute path");
+        }
+        for (String attributePath : attributePaths) {
+            checkHasText(attributePath, "attributePath must not be null or empty");
+        }
+        return new MultiAttributeProjection<I>(attributePaths);
+    }
+}
@@ -22,6 +22,8 @@ import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.util.IterationType;
+import com.hazelcast.util.PagingCursor;
+import com.hazelcast.util.SortedSubListCollector;
 import com.hazelcast.util.SortingUtil;
 
 import java.io.IOException;
@@ -78,6 +80,10 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
     private int page;
     private IterationType iterationType;
 
+    // caller side only, the cursor mode is not sent to the members
+    private boolean cursorEnabled;
+    private PagingCursor cursor;
+
     /**
      * Used for serialization internally
      */
@@ -176,16 +182,14 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         if (set == null || set.isEmpty()) {
             return null;
         }
-        List<QueryableEntry> resultList = new ArrayList<QueryableEntry>();
         Map.Entry<Integer, Map.Entry> nearestAnchorEntry = getNearestAnchorEntry();
+        SortedSubListCollector collector = new SortedSubListCollector(this, nearestAnchorEntry);
         for (QueryableEntry queryableEntry : set) {
             if (SortingUtil.compareAnchor(this, queryableEntry, nearestAnchorEntry)) {
-                resultList.add(queryableEntry);
+                collector.add(queryableEntry);
             }
         }
-
-        List<QueryableEntry> sortedSubList = SortingUtil.getSortedSubList(resultList, this, nearestAnchorEntry);
-        return new LinkedHashSet<QueryableEntry>(sortedSubList);
+        return new LinkedHashSet<QueryableEntry>(collector.getSortedSubList());
     }
 
 
@@ -224,6 +228,7 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         iterationType = null;
         anchorList.clear();
         page = 0;
+        cursor = null;
     }
 
     /**
@@ -270,6 +275,38 @@ public class PagingPredicate implements IndexAwarePredicate, DataSerializable {
         return comparator;
     }
 
+    /**
+     * Enables the cursor mode for the queries of {@link com.hazelcast.core.IMap} proxies on members.
+     * <p/>
+     * In cursor mode the predicate keeps the last fetched entry of every partition and the fetched entries which are
+     * not returned yet between the queries. When the pages are requested in order, a partition is only queried again
+     * after most of its fetched entries are returned, so it is scanned once per one or two pages of its own entries
+     * instead of once per page. Each of these scans still evaluates the predicate against the whole partition; only
+     * the number of scans is reduced. The client proxies ignore the cursor mode. Since the buffered entries are
+     * returned as they were fetched, concurrent updates may show up later than without the cursor. Requesting any
+     * other page, or a different iteration type, falls back to the regular paging.
+     *
+     * @param cursorEnabled {@code true} to enable the cursor mode
+     */
+    public void setCursorEnabled(boolean cursorEnabled) {
+        this.cursorEnabled = cursorEnabled;
+        if (!cursorEnabled) {
+            cursor = null;
+        }
+    }
+
+    public boolean isCursorEnabled() {
+        return cursorEnabled;
+    }
+
+    PagingCursor getCursor() {
+        return cursor;
+    }
+
+    void setCursor(PagingCursor cursor) {
+        this.cursor = cursor;
+    }
+
     /**
      * Retrieve the anchor object which is the last value object on the previous page.
      * <p/>
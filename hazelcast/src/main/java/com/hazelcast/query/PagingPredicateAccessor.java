@@ -16,6 +16,8 @@
 
 package com.hazelcast.query;
 
+import com.hazelcast.util.PagingCursor;
+
 import java.util.Map;
 
 /**
@@ -36,4 +38,12 @@ public final class PagingPredicateAccessor {
         }
         return predicate.getNearestAnchorEntry();
     }
+
+    public static PagingCursor getCursor(PagingPredicate predicate) {
+        return predicate.getCursor();
+    }
+
+    public static void setCursor(PagingPredicate predicate, PagingCursor cursor) {
+        predicate.setCursor(cursor);
+    }
 }
@@ -20,28 +20,54 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Base class for concrete index store implementations
+ * <p/>
+ * A store which is shared by all partitions of a map serializes updates with a read-write lock. A store which is
+ * owned by a single partition is only accessed by the partition thread, so it skips the locking altogether.
  */
 public abstract class BaseIndexStore implements IndexStore {
 
     protected static final float LOAD_FACTOR = 0.75F;
 
-    protected ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-    protected ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
-    protected ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+    protected ReentrantReadWriteLock lock;
+    protected ReentrantReadWriteLock.ReadLock readLock;
+    protected ReentrantReadWriteLock.WriteLock writeLock;
+
+    protected BaseIndexStore() {
+        this(false);
+    }
+
+    /**
+     * @param partitioned {@code true} if the store is owned by a single partition thread, {@code false} otherwise
+     */
+    protected BaseIndexStore(boolean partitioned) {
+        if (!partitioned) {
+            lock = new ReentrantReadWriteLock();
+            readLock = lock.readLock();
+            writeLock = lock.writeLock();
+        }
+    }
 
     protected void takeWriteLock() {
-        writeLock.lock();
+        if (writeLock != null) {
+            writeLock.lock();
+        }
     }
 
     protected void releaseWriteLock() {
-        writeLock.unlock();
+        if (writeLock != null) {
+            writeLock.unlock();
+        }
     }
 
     protected void takeReadLock() {
-        readLock.lock();
+        if (readLock != null) {
+            readLock.lock();
+        }
     }
 
     protected void releaseReadLock() {
-        readLock.unlock();
+        if (readLock != null) {
+            readLock.unlock();
+        }
     }
 }
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Store indexes as bitmaps. Intended for attributes with a few distinct values.
+ *
+ * For every distinct value the store keeps a bitmap of the ordinals of the entries with that value.
+ * The ordinals are assigned by the {@link EntryOrdinals} shared by all bitmap indexes of an {@link Indexes},
+ * so the lookups return {@link BitmapResultSet}s which can be combined with bitwise operations.
+ */
+public class BitmapIndexStore extends BaseIndexStore {
+
+    private final Map<Comparable, BitSet> bitmaps = new HashMap<Comparable, BitSet>();
+    private final EntryOrdinals ordinals;
+
+    /**
+     * @param ordinals    the ordinals shared by the bitmap indexes of the same {@link Indexes}
+     * @param partitioned {@code true} if the store is only accessed by a single partition thread
+     */
+    public BitmapIndexStore(EntryOrdinals ordinals, boolean partitioned) {
+        super(partitioned);
+        this.ordinals = ordinals;
+    }
+
+    @Override
+    public void newIndex(Comparable newValue, QueryableEntry entry) {
+        takeWriteLock();
+        try {
+            int ordinal = ordinals.assign(entry);
+            BitSet bitmap = bitmaps.get(newValue);
+            if (bitmap == null) {
+                bitmap = new BitSet();
+                bitmaps.put(newValue, bitmap);
+            }
+            bitmap.set(ordinal);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void updateIndex(Comparable oldValue, Comparable newValue, QueryableEntry entry) {
+        takeWriteLock();
+        try {
+            removeIndex(oldValue, entry.getIndexKey());
+            newIndex(newValue, entry);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void removeIndex(Comparable oldValue, Data indexKey) {
+        takeWriteLock();
+        try {
+            int ordinal = ordinals.getOrdinal(indexKey);
+            BitSet bitmap = bitmaps.get(oldValue);
+            if (ordinal >= 0 && bitmap != null) {
+                bitmap.clear(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(oldValue);
+                }
+            }
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            bitmaps.clear();
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    /**
+     * @param value the searched value
+     * @return the entries with the given value
+     */
+    public BitmapResultSet getBitmap(Comparable value) {
+        takeReadLock();
+        try {
+            BitSet bitmap = bitmaps.get(value);
+            return new BitmapResultSet(bitmap == null ? new BitSet() : (BitSet) bitmap.clone(), ordinals);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @param values the searched values
+     * @return the entries with any of the given values
+     */
+    public BitmapResultSet getBitmap(Set<Comparable> values) {
+        takeReadLock();
+        try {
+            BitSet result = new BitSet();
+            for (Comparable value : values) {
+                BitSet bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    result.or(bitmap);
+                }
+            }
+            return new BitmapResultSet(result, ordinals);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @param from the lower or upper bound, inclusive
+     * @param to   the other bound, inclusive
+     * @return the entries with values between the given bounds
+     */
+    public BitmapResultSet getBitmapBetween(Comparable from, Comparable to) {
+        takeReadLock();
+        try {
+            Comparable lower = from;
+            Comparable upper = to;
+            if (lower.compareTo(upper) > 0) {
+                lower = to;
+                upper = from;
+            }
+            BitSet result = new BitSet();
+            for (Map.Entry<Comparable, BitSet> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (!(value instanceof IndexImpl.NullObject)
+                        && value.compareTo(lower) >= 0 && value.compareTo(upper) <= 0) {
+                    result.or(entry.getValue());
+                }
+            }
+            return new BitmapResultSet(result, ordinals);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @param comparisonType the comparison to the searched value
+     * @param searchedValue  the searched value
+     * @return the entries with values matching the comparison
+     */
+    public BitmapResultSet getBitmap(ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            BitSet result = new BitSet();
+            for (Map.Entry<Comparable, BitSet> entry : bitmaps.entrySet()) {
+                Comparable value = entry.getKey();
+                if (!(value instanceof IndexImpl.NullObject) && matches(comparisonType, searchedValue.compareTo(value))) {
+                    result.or(entry.getValue());
+                }
+            }
+            return new BitmapResultSet(result, ordinals);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    private static boolean matches(ComparisonType comparisonType, int result) {
+        switch (comparisonType) {
+            case LESSER:
+                return result > 0;
+            case LESSER_EQUAL:
+                return result >= 0;
+            case GREATER:
+                return result < 0;
+            case GREATER_EQUAL:
+                return result <= 0;
+            case NOT_EQUAL:
+                return result != 0;
+            default:
+                throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
+        }
+    }
+
+    @Override
+    public void getSubRecordsBetween(MultiResultSet results, Comparable from, Comparable to) {
+        addResultSet(results, getBitmapBetween(from, to));
+    }
+
+    @Override
+    public void getSubRecords(MultiResultSet results, ComparisonType comparisonType, Comparable searchedValue) {
+        addResultSet(results, getBitmap(comparisonType, searchedValue));
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        return getBitmap(value);
+    }
+
+    @Override
+    public void getRecords(MultiResultSet results, Set<Comparable> values) {
+        addResultSet(results, getBitmap(values));
+    }
+
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getRecordMap(Comparable value) {
+        BitmapResultSet records = getBitmap(value);
+        return records.isEmpty() ? null : toRecordMap(records);
+    }
+
+    private static void addResultSet(MultiResultSet results, BitmapResultSet records) {
+        if (!records.isEmpty()) {
+            results.addResultSet(toRecordMap(records));
+        }
+    }
+
+    private static ConcurrentMap<Data, QueryableEntry> toRecordMap(BitmapResultSet records) {
+        ConcurrentMap<Data, QueryableEntry> recordMap = new ConcurrentHashMap<Data, QueryableEntry>();
+        for (QueryableEntry entry : records) {
+            recordMap.put(entry.getIndexKey(), entry);
+        }
+        return recordMap;
+    }
+
+    @Override
+    public String toString() {
+        return "BitmapIndexStore{"
+                + "bitmaps=" + bitmaps.size()
+                + '}';
+    }
+}
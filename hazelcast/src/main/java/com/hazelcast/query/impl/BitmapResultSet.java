@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Result set of a bitmap index lookup: the set bits of the bitmap are the ordinals of the matching entries.
+ *
+ * Result sets over the same {@link EntryOrdinals} are intersected and united with bitwise operations by
+ * {@link #and(BitmapResultSet)} and {@link #or(BitmapResultSet)}, so an {@code AndPredicate} or an
+ * {@code OrPredicate} over bitmap indexed attributes doesn't probe the result sets entry by entry.
+ *
+ * The ordinals are resolved to their entries when the result set is created, while the index holds its
+ * lock, since the ordinal of a removed entry is reused by the next indexed entry. Combining result sets
+ * of different indexes compares the resolved entries, so an ordinal reused between the lookups never
+ * matches an entry which wasn't found by both lookups.
+ */
+public class BitmapResultSet extends AbstractSet<QueryableEntry> {
+
+    private final BitSet bits;
+    private final int[] resolvedOrdinals;
+    private final QueryableEntry[] entries;
+    private final EntryOrdinals ordinals;
+
+    /**
+     * Resolves the entries of the ordinals, so it must be called while the bitmap can't change.
+     *
+     * @param bits     the ordinals of the matching entries; owned by the created result set
+     * @param ordinals the ordinals the bits refer to
+     */
+    public BitmapResultSet(BitSet bits, EntryOrdinals ordinals) {
+        int[] resolved = new int[bits.cardinality()];
+        QueryableEntry[] resolvedEntries = new QueryableEntry[resolved.length];
+        int count = 0;
+        for (int ordinal = bits.nextSetBit(0); ordinal >= 0; ordinal = bits.nextSetBit(ordinal + 1)) {
+            QueryableEntry entry = ordinals.getEntry(ordinal);
+            if (entry == null) {
+                bits.clear(ordinal);
+            } else {
+                resolved[count] = ordinal;
+                resolvedEntries[count++] = entry;
+            }
+        }
+        this.bits = bits;
+        this.resolvedOrdinals = count == resolved.length ? resolved : Arrays.copyOf(resolved, count);
+        this.entries = count == resolvedEntries.length ? resolvedEntries : Arrays.copyOf(resolvedEntries, count);
+        this.ordinals = ordinals;
+    }
+
+    private BitmapResultSet(BitSet bits, int[] resolvedOrdinals, QueryableEntry[] entries, EntryOrdinals ordinals) {
+        this.bits = bits;
+        this.resolvedOrdinals = resolvedOrdinals;
+        this.entries = entries;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * @param other the result set to check
+     * @return {@code true} if the bits of both result sets refer to the same ordinals
+     */
+    public boolean isCompatible(Set other) {
+        return other instanceof BitmapResultSet && ((BitmapResultSet) other).ordinals == ordinals;
+    }
+
+    /**
+     * @param other a compatible result set
+     * @return the intersection of this and the other result set
+     */
+    public BitmapResultSet and(BitmapResultSet other) {
+        BitSet result = (BitSet) bits.clone();
+        result.and(other.bits);
+        for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+            if (!sameEntry(entryOf(ordinal), other.entryOf(ordinal))) {
+                // the ordinal was reused between the lookups
+                result.clear(ordinal);
+            }
+        }
+        return combine(result, other);
+    }
+
+    /**
+     * @param other a compatible result set
+     * @return the union of this and the other result set or {@code null} if an ordinal was reused between
+     * the lookups, so the union can't be represented by a bitmap
+     */
+    public BitmapResultSet or(BitmapResultSet other) {
+        BitSet common = (BitSet) bits.clone();
+        common.and(other.bits);
+        for (int ordinal = common.nextSetBit(0); ordinal >= 0; ordinal = common.nextSetBit(ordinal + 1)) {
+            if (!sameEntry(entryOf(ordinal), other.entryOf(ordinal))) {
+                return null;
+            }
+        }
+        BitSet result = (BitSet) bits.clone();
+        result.or(other.bits);
+        return combine(result, other);
+    }
+
+    private BitmapResultSet combine(BitSet result, BitmapResultSet other) {
+        int[] combinedOrdinals = new int[result.cardinality()];
+        QueryableEntry[] combinedEntries = new QueryableEntry[combinedOrdinals.length];
+        int count = 0;
+        for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+            QueryableEntry entry = entryOf(ordinal);
+            combinedOrdinals[count] = ordinal;
+            combinedEntries[count++] = entry == null ? other.entryOf(ordinal) : entry;
+        }
+        return new BitmapResultSet(result, combinedOrdinals, combinedEntries, ordinals);
+    }
+
+    private QueryableEntry entryOf(int ordinal) {
+        int index = Arrays.binarySearch(resolvedOrdinals, ordinal);
+        return index < 0 ? null : entries[index];
+    }
+
+    private static boolean sameEntry(QueryableEntry entry, QueryableEntry other) {
+        return entry.getIndexKey().equals(other.getIndexKey());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        QueryableEntry entry = (QueryableEntry) o;
+        int ordinal = ordinals.getOrdinal(entry.getIndexKey());
+        if (ordinal < 0 || !bits.get(ordinal)) {
+            return false;
+        }
+        QueryableEntry resolved = entryOf(ordinal);
+        return resolved != null && sameEntry(resolved, entry);
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return new It();
+    }
+
+    @Override
+    public int size() {
+        return entries.length;
+    }
+
+    private class It implements Iterator<QueryableEntry> {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < entries.length;
+        }
+
+        @Override
+        public QueryableEntry next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return entries[index++];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
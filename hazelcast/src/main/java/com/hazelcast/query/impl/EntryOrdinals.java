@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Assigns dense int ordinals to the indexed entries, so the bitmap indexes of an {@link Indexes} instance
+ * can represent a set of entries as the set bits of a {@link java.util.BitSet}. All bitmap indexes of
+ * the same {@code Indexes} share the ordinals, so their bitmaps can be combined with bitwise operations.
+ *
+ * The ordinal of a removed entry is reused by the next assigned entry, so a bitmap is only meaningful while
+ * the index owning it holds its lock: {@link BitmapResultSet} resolves the ordinals to entries at lookup time.
+ */
+public class EntryOrdinals {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Data, Integer> ordinals = new HashMap<Data, Integer>();
+
+    private volatile AtomicReferenceArray<QueryableEntry> entries
+            = new AtomicReferenceArray<QueryableEntry>(INITIAL_CAPACITY);
+    private int[] freeOrdinals = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int nextOrdinal;
+
+    /**
+     * Returns the ordinal of the entry and assigns one if the entry has none yet. The entry replaces
+     * the previously stored entry with the same index key.
+     *
+     * @param entry the indexed entry
+     * @return the ordinal of the entry
+     */
+    public synchronized int assign(QueryableEntry entry) {
+        Data indexKey = entry.getIndexKey();
+        Integer ordinal = ordinals.get(indexKey);
+        int value;
+        if (ordinal != null) {
+            value = ordinal;
+        } else {
+            value = freeCount > 0 ? freeOrdinals[--freeCount] : nextOrdinal++;
+            ordinals.put(indexKey, value);
+        }
+        ensureCapacity(value + 1);
+        entries.set(value, entry);
+        return value;
+    }
+
+    /**
+     * @param indexKey the index key of the entry
+     * @return the ordinal of the entry or -1 if the entry has no ordinal
+     */
+    public synchronized int getOrdinal(Data indexKey) {
+        Integer ordinal = ordinals.get(indexKey);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @param ordinal the ordinal of the entry
+     * @return the entry with the given ordinal or {@code null} if the ordinal is not assigned
+     */
+    public QueryableEntry getEntry(int ordinal) {
+        AtomicReferenceArray<QueryableEntry> entries = this.entries;
+        return ordinal < entries.length() ? entries.get(ordinal) : null;
+    }
+
+    /**
+     * Releases the ordinal of the entry. Must be called after the entry was removed from all bitmap indexes.
+     *
+     * @param indexKey the index key of the entry
+     */
+    public synchronized void release(Data indexKey) {
+        Integer ordinal = ordinals.remove(indexKey);
+        if (ordinal == null) {
+            return;
+        }
+        entries.set(ordinal, null);
+        if (freeCount == freeOrdinals.length) {
+            int[] newFreeOrdinals = new int[freeOrdinals.length << 1];
+            System.arraycopy(freeOrdinals, 0, newFreeOrdinals, 0, freeCount);
+            freeOrdinals = newFreeOrdinals;
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    public synchronized void clear() {
+        ordinals.clear();
+        entries = new AtomicReferenceArray<QueryableEntry>(INITIAL_CAPACITY);
+        freeCount = 0;
+        nextOrdinal = 0;
+    }
+
+    public synchronized int size() {
+        return ordinals.size();
+    }
+
+    private void ensureCapacity(int capacity) {
+        AtomicReferenceArray<QueryableEntry> entries = this.entries;
+        if (capacity <= entries.length()) {
+            return;
+        }
+        int newLength = entries.length();
+        while (newLength < capacity) {
+            newLength <<= 1;
+        }
+        AtomicReferenceArray<QueryableEntry> newEntries = new AtomicReferenceArray<QueryableEntry>(newLength);
+        for (int i = 0; i < entries.length(); i++) {
+            newEntries.set(i, entries.get(i));
+        }
+        this.entries = newEntries;
+    }
+}
@@ -50,4 +50,9 @@ public interface Index {
     String getAttributeName();
 
     boolean isOrdered();
+
+    /**
+     * @return {@code true} if the index keeps a bitmap per distinct value, see {@link BitmapIndexStore}
+     */
+    boolean isBitmap();
 }
@@ -39,18 +39,65 @@ public class IndexImpl implements Index {
      */
     public static final NullObject NULL = new NullObject();
 
+    private static final int INITIAL_CAPACITY = 1000;
+    private static final int PARTITION_INITIAL_CAPACITY = 16;
+
     // indexKey -- indexValue
-    private final ConcurrentMap<Data, Comparable> recordValues = new ConcurrentHashMap<Data, Comparable>(1000);
-    private final IndexStore indexStore;
+    private final ConcurrentMap<Data, Comparable> recordValues;
     private final String attribute;
     private final boolean ordered;
+    private final boolean partitioned;
+    private final EntryOrdinals bitmapOrdinals;
 
+    private volatile IndexStore indexStore;
     private volatile TypeConverter converter;
 
     public IndexImpl(String attribute, boolean ordered) {
+        this(attribute, ordered, false);
+    }
+
+    /**
+     * @param attribute   the indexed attribute
+     * @param ordered     {@code true} for a sorted index, {@code false} otherwise
+     * @param partitioned {@code true} if the index covers a single partition and is only accessed
+     *                    by its partition thread, {@code false} if it is shared by all partitions
+     */
+    public IndexImpl(String attribute, boolean ordered, boolean partitioned) {
+        this(attribute, ordered, partitioned, null);
+    }
+
+    /**
+     * @param attribute      the indexed attribute
+     * @param ordered        {@code true} for a sorted index, {@code false} otherwise; ignored for a bitmap index
+     * @param partitioned    {@code true} if the index covers a single partition and is only accessed
+     *                       by its partition thread, {@code false} if it is shared by all partitions
+     * @param bitmapOrdinals the entry ordinals shared by the bitmap indexes of the same {@link Indexes},
+     *                       or {@code null} if the index is not a bitmap index
+     */
+    public IndexImpl(String attribute, boolean ordered, boolean partitioned, EntryOrdinals bitmapOrdinals) {
         this.attribute = attribute;
-        this.ordered = ordered;
-        indexStore = (ordered) ? new SortedIndexStore() : new UnsortedIndexStore();
+        this.ordered = ordered && bitmapOrdinals == null;
+        this.partitioned = partitioned;
+        this.bitmapOrdinals = bitmapOrdinals;
+        this.recordValues = new ConcurrentHashMap<Data, Comparable>(partitioned ? PARTITION_INITIAL_CAPACITY : INITIAL_CAPACITY);
+        this.indexStore = createIndexStore(null);
+    }
+
+    /**
+     * Creates the store for the values of the given type. Ordered indexes of primitive numeric
+     * attributes are kept in a {@link NumericSortedIndexStore}, which doesn't box the values.
+     */
+    private IndexStore createIndexStore(AttributeType attributeType) {
+        if (bitmapOrdinals != null) {
+            return new BitmapIndexStore(bitmapOrdinals, partitioned);
+        }
+        if (!ordered) {
+            return new UnsortedIndexStore(partitioned);
+        }
+        if (NumericSortedIndexStore.isSupported(attributeType)) {
+            return new NumericSortedIndexStore(NumericSortedIndexStore.isFloatingPoint(attributeType), partitioned);
+        }
+        return new SortedIndexStore(partitioned);
     }
 
     @Override
@@ -88,9 +135,7 @@ public class IndexImpl implements Index {
          * this causes to class cast exceptions.
          */
         if (converter == null) {
-            // Initialize attribute type by using entry index
-            AttributeType attributeType = e.getAttributeType(attribute);
-            converter = attributeType == null ? TypeConverters.IDENTITY_CONVERTER : attributeType.getConverter();
+            initConverter(e);
         }
 
         Data key = e.getIndexKey();
@@ -111,6 +156,19 @@ public class IndexImpl implements Index {
         }
     }
 
+    private synchronized void initConverter(QueryableEntry e) {
+        if (converter != null) {
+            return;
+        }
+        // Initialize attribute type by using entry index. The store depends on the attribute type,
+        // so it is replaced before any entry is saved into it.
+        AttributeType attributeType = e.getAttributeType(attribute);
+        if (ordered) {
+            indexStore = createIndexStore(attributeType);
+        }
+        converter = attributeType == null ? TypeConverters.IDENTITY_CONVERTER : attributeType.getConverter();
+    }
+
     @Override
     public Set<QueryableEntry> getRecords(Comparable[] values) {
         if (values.length == 1) {
@@ -126,6 +184,10 @@ public class IndexImpl implements Index {
                 for (Comparable value : values) {
                     convertedValues.add(convert(value));
                 }
+                IndexStore indexStore = this.indexStore;
+                if (indexStore instanceof BitmapIndexStore) {
+                    return ((BitmapIndexStore) indexStore).getBitmap(convertedValues);
+                }
                 indexStore.getRecords(results, convertedValues);
             }
             return results;
@@ -145,6 +207,10 @@ public class IndexImpl implements Index {
     public Set<QueryableEntry> getSubRecordsBetween(Comparable from, Comparable to) {
         MultiResultSet results = new MultiResultSet();
         if (converter != null) {
+            IndexStore indexStore = this.indexStore;
+            if (indexStore instanceof BitmapIndexStore) {
+                return ((BitmapIndexStore) indexStore).getBitmapBetween(convert(from), convert(to));
+            }
             indexStore.getSubRecordsBetween(results, convert(from), convert(to));
         }
         return results;
@@ -154,6 +220,10 @@ public class IndexImpl implements Index {
     public Set<QueryableEntry> getSubRecords(ComparisonType comparisonType, Comparable searchedValue) {
         MultiResultSet results = new MultiResultSet();
         if (converter != null) {
+            IndexStore indexStore = this.indexStore;
+            if (indexStore instanceof BitmapIndexStore) {
+                return ((BitmapIndexStore) indexStore).getBitmap(comparisonType, convert(searchedValue));
+            }
             indexStore.getSubRecords(results, comparisonType, convert(searchedValue));
         }
         return results;
@@ -177,6 +247,11 @@ public class IndexImpl implements Index {
         return ordered;
     }
 
+    @Override
+    public boolean isBitmap() {
+        return bitmapOrdinals != null;
+    }
+
     /**
      * Provides comparable null object.
      */
@@ -28,23 +28,50 @@ import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Contains all indexes for a data-structure, e.g. an IMap.
+ * <p/>
+ * The indexes either cover the whole data-structure and are shared by all partition threads, or they are
+ * partitioned: then every partition owns its own {@code Indexes}, which is only accessed by the partition thread.
  */
 public class Indexes {
     private static final Index[] EMPTY_INDEX = {};
     private final ConcurrentMap<String, Index> mapIndexes = new ConcurrentHashMap<String, Index>(3);
     private final AtomicReference<Index[]> indexes = new AtomicReference<Index[]>(EMPTY_INDEX);
+    private final boolean partitioned;
+    private final EntryOrdinals bitmapOrdinals = new EntryOrdinals();
     private volatile boolean hasIndex;
+    private volatile boolean hasBitmapIndex;
+
+    public Indexes() {
+        this(false);
+    }
+
+    public Indexes(boolean partitioned) {
+        this.partitioned = partitioned;
+    }
 
     public synchronized Index destroyIndex(String attribute) {
         return mapIndexes.remove(attribute);
     }
 
-    public synchronized Index addOrGetIndex(String attribute, boolean ordered) {
+    public Index addOrGetIndex(String attribute, boolean ordered) {
+        return addOrGetIndex(attribute, ordered, false);
+    }
+
+    /**
+     * Adds an index for the given attribute if there is none yet.
+     *
+     * @param attribute the indexed attribute
+     * @param ordered   {@code true} for a sorted index, {@code false} otherwise; ignored for a bitmap index
+     * @param bitmap    {@code true} for a bitmap index, see {@link BitmapIndexStore}
+     * @return the existing or the added index
+     */
+    public synchronized Index addOrGetIndex(String attribute, boolean ordered, boolean bitmap) {
         Index index = mapIndexes.get(attribute);
         if (index != null) {
             return index;
         }
-        index = new IndexImpl(attribute, ordered);
+        index = new IndexImpl(attribute, ordered, partitioned, bitmap ? bitmapOrdinals : null);
+        hasBitmapIndex |= bitmap;
         mapIndexes.put(attribute, index);
         Object[] indexObjects = mapIndexes.values().toArray();
         Index[] newIndexes = new Index[indexObjects.length];
@@ -64,6 +91,8 @@ public class Indexes {
         indexes.set(EMPTY_INDEX);
         mapIndexes.clear();
         hasIndex = false;
+        hasBitmapIndex = false;
+        bitmapOrdinals.clear();
     }
 
     public void removeEntryIndex(Data indexKey) throws QueryException {
@@ -71,12 +100,23 @@ public class Indexes {
         for (Index index : indexes) {
             index.removeEntryIndex(indexKey);
         }
+        if (hasBitmapIndex) {
+            // released only after the entry is removed from all bitmap indexes
+            bitmapOrdinals.release(indexKey);
+        }
     }
 
     public boolean hasIndex() {
         return hasIndex;
     }
 
+    /**
+     * @return {@code true} if these indexes cover a single partition, {@code false} if they are shared by all partitions
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
     public void saveEntryIndex(QueryableEntry queryableEntry) throws QueryException {
         Index[] indexes = getIndexes();
         for (Index index : indexes) {
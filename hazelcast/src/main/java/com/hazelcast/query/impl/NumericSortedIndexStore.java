@@ -0,0 +1,706 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Store indexes rankly for numeric and date attributes without boxing the indexed values.
+ *
+ * The indexed values are encoded as order preserving primitive longs and kept, together with the
+ * entries, in fixed size sorted blocks. The blocks are kept in a sorted directory, so together they
+ * form a two level B+-tree: an update binary searches the directory and shifts at most one block,
+ * a range lookup walks the blocks from the lower bound. There is a single slot per entry instead of a
+ * skip list node, a boxed value and a map per distinct value.
+ *
+ * The store is not thread-safe by itself; concurrent access is guarded by the lock of the
+ * {@link BaseIndexStore}. Lookups don't copy the matching entries: they return a view over the
+ * matching blocks. Once a view has been handed out, the blocks are copied on their next update
+ * instead of being changed in place, so the view stays valid after the lock is released.
+ */
+public class NumericSortedIndexStore extends BaseIndexStore {
+
+    static final int BLOCK_CAPACITY = 128;
+
+    private static final int INITIAL_BLOCK_COUNT = 4;
+
+    private final ConcurrentMap<Data, QueryableEntry> recordsWithNullValue
+            = new ConcurrentHashMap<Data, QueryableEntry>();
+
+    private final boolean floatingPoint;
+
+    private Block[] blocks = new Block[INITIAL_BLOCK_COUNT];
+    private int blockCount;
+
+    /**
+     * Blocks created in an older generation may be referenced by a view and must not be changed in place.
+     */
+    private int generation;
+
+    /**
+     * Set when a view is handed out; the next update then starts a new generation.
+     */
+    private volatile boolean viewsShared;
+
+    /**
+     * @param floatingPoint {@code true} if the indexed values are doubles or floats,
+     *                      {@code false} if they are integral numbers or dates
+     * @param partitioned   {@code true} if the store is only accessed by a single partition thread
+     */
+    public NumericSortedIndexStore(boolean floatingPoint, boolean partitioned) {
+        super(partitioned);
+        this.floatingPoint = floatingPoint;
+    }
+
+    /**
+     * Checks if the values of the given attribute type can be kept in a {@link NumericSortedIndexStore}.
+     * Dates are ordered by their milliseconds since the epoch. Timestamps are not supported, since their
+     * order also depends on the nanoseconds, which don't fit into the same long.
+     *
+     * @param attributeType the type of the indexed attribute
+     * @return {@code true} if the type is a primitive numeric type or a date
+     */
+    public static boolean isSupported(AttributeType attributeType) {
+        if (attributeType == null) {
+            return false;
+        }
+        switch (attributeType) {
+            case LONG:
+            case INTEGER:
+            case SHORT:
+            case BYTE:
+            case DOUBLE:
+            case FLOAT:
+            case DATE:
+            case SQL_DATE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @param attributeType the type of the indexed attribute
+     * @return {@code true} if the values of the given type are encoded as doubles
+     */
+    public static boolean isFloatingPoint(AttributeType attributeType) {
+        return attributeType == AttributeType.DOUBLE || attributeType == AttributeType.FLOAT;
+    }
+
+    @Override
+    public void newIndex(Comparable newValue, QueryableEntry record) {
+        takeWriteLock();
+        try {
+            if (newValue instanceof IndexImpl.NullObject) {
+                recordsWithNullValue.put(record.getIndexKey(), record);
+            } else {
+                insert(encode(newValue), record);
+            }
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void updateIndex(Comparable oldValue, Comparable newValue, QueryableEntry entry) {
+        takeWriteLock();
+        try {
+            removeIndex(oldValue, entry.getIndexKey());
+            newIndex(newValue, entry);
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void removeIndex(Comparable oldValue, Data indexKey) {
+        takeWriteLock();
+        try {
+            if (oldValue instanceof IndexImpl.NullObject) {
+                recordsWithNullValue.remove(indexKey);
+            } else {
+                remove(encode(oldValue), indexKey);
+            }
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        takeWriteLock();
+        try {
+            recordsWithNullValue.clear();
+            blocks = new Block[INITIAL_BLOCK_COUNT];
+            blockCount = 0;
+        } finally {
+            releaseWriteLock();
+        }
+    }
+
+    @Override
+    public void getSubRecordsBetween(MultiResultSet results, Comparable from, Comparable to) {
+        takeReadLock();
+        try {
+            long fromKey = encode(from);
+            long toKey = encode(to);
+            if (fromKey > toKey) {
+                long tmp = fromKey;
+                fromKey = toKey;
+                toKey = tmp;
+            }
+            addResultSet(results, view(fromKey, true, toKey, true));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public void getSubRecords(MultiResultSet results, ComparisonType comparisonType, Comparable searchedValue) {
+        takeReadLock();
+        try {
+            long key = encode(searchedValue);
+            switch (comparisonType) {
+                case LESSER:
+                    addResultSet(results, view(Long.MIN_VALUE, true, key, false));
+                    break;
+                case LESSER_EQUAL:
+                    addResultSet(results, view(Long.MIN_VALUE, true, key, true));
+                    break;
+                case GREATER:
+                    addResultSet(results, view(key, false, Long.MAX_VALUE, true));
+                    break;
+                case GREATER_EQUAL:
+                    addResultSet(results, view(key, true, Long.MAX_VALUE, true));
+                    break;
+                case NOT_EQUAL:
+                    addResultSet(results, view(Long.MIN_VALUE, true, key, false));
+                    addResultSet(results, view(key, false, Long.MAX_VALUE, true));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unrecognized comparisonType: " + comparisonType);
+            }
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public ConcurrentMap<Data, QueryableEntry> getRecordMap(Comparable value) {
+        takeReadLock();
+        try {
+            if (value instanceof IndexImpl.NullObject) {
+                return recordsWithNullValue;
+            }
+            long key = encode(value);
+            return view(key, true, key, true);
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public Set<QueryableEntry> getRecords(Comparable value) {
+        takeReadLock();
+        try {
+            if (value instanceof IndexImpl.NullObject) {
+                return new SingleResultSet(recordsWithNullValue);
+            }
+            long key = encode(value);
+            return new SingleResultSet(view(key, true, key, true));
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    @Override
+    public void getRecords(MultiResultSet results, Set<Comparable> values) {
+        takeReadLock();
+        try {
+            for (Comparable value : values) {
+                if (value instanceof IndexImpl.NullObject) {
+                    results.addResultSet(recordsWithNullValue);
+                } else {
+                    long key = encode(value);
+                    addResultSet(results, view(key, true, key, true));
+                }
+            }
+        } finally {
+            releaseReadLock();
+        }
+    }
+
+    /**
+     * @return the number of non-null values in this store
+     */
+    int size() {
+        int size = 0;
+        for (int i = 0; i < blockCount; i++) {
+            size += blocks[i].size;
+        }
+        return size;
+    }
+
+    private static void addResultSet(MultiResultSet results, Map<Data, QueryableEntry> records) {
+        if (records != null) {
+            results.addResultSet(records);
+        }
+    }
+
+    /**
+     * Encodes a numeric value into a long, so that comparing the encoded longs gives the same order
+     * as comparing the values. Doubles are mapped to their IEEE 754 bits with the magnitude bits of
+     * negative values flipped, which matches the order of {@link Double#compareTo(Double)}. Dates are
+     * mapped to their milliseconds since the epoch.
+     */
+    private long encode(Comparable value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        Number number = (Number) value;
+        if (!floatingPoint) {
+            return number.longValue();
+        }
+        long bits = Double.doubleToLongBits(number.doubleValue());
+        return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+    }
+
+    private void insert(long key, QueryableEntry entry) {
+        startNewGenerationIfShared();
+        if (blockCount == 0) {
+            insertBlock(0, new Block(generation));
+        }
+        int blockIndex = lastBlockStartingAtOrBefore(key);
+        Block block = writableBlock(blockIndex);
+        int position = block.upperBound(key);
+        if (block.size == BLOCK_CAPACITY) {
+            Block upper = block.split(generation);
+            insertBlock(blockIndex + 1, upper);
+            if (position > block.size) {
+                position -= block.size;
+                block = upper;
+            }
+        }
+        block.insert(position, key, entry);
+    }
+
+    private void remove(long key, Data indexKey) {
+        startNewGenerationIfShared();
+        for (int blockIndex = lastBlockStartingBefore(key); blockIndex < blockCount; blockIndex++) {
+            Block block = blocks[blockIndex];
+            for (int i = block.lowerBound(key); i < block.size; i++) {
+                if (block.keys[i] != key) {
+                    return;
+                }
+                if (indexKey.equals(block.entries[i].getIndexKey())) {
+                    block = writableBlock(blockIndex);
+                    block.remove(i);
+                    if (block.size == 0) {
+                        removeBlock(blockIndex);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts a new generation if a view has been handed out since the last update, so the blocks the
+     * view may reference are copied before they are changed.
+     */
+    private void startNewGenerationIfShared() {
+        if (viewsShared) {
+            viewsShared = false;
+            generation++;
+        }
+    }
+
+    /**
+     * Returns the block at the given index, replacing it with a copy first if it belongs to an older
+     * generation.
+     */
+    private Block writableBlock(int blockIndex) {
+        Block block = blocks[blockIndex];
+        if (block.generation != generation) {
+            block = block.copy(generation);
+            blocks[blockIndex] = block;
+        }
+        return block;
+    }
+
+    /**
+     * Returns a view over the entries with keys in the given range. The view references the matching
+     * blocks instead of copying their entries.
+     *
+     * @return the matching entries by their index keys or {@code null} if there is none
+     */
+    private RangeView view(long from, boolean fromInclusive, long to, boolean toInclusive) {
+        int first = firstBlockInRange(from, fromInclusive);
+        if (first == blockCount) {
+            return null;
+        }
+        int start = blocks[first].bound(from, !fromInclusive);
+        int size = 0;
+        int last = first;
+        int end = start;
+        for (; last < blockCount; last++) {
+            Block block = blocks[last];
+            int blockStart = last == first ? start : 0;
+            int blockEnd = block.bound(to, toInclusive);
+            if (blockEnd <= blockStart) {
+                break;
+            }
+            size += blockEnd - blockStart;
+            end = blockEnd;
+            if (blockEnd < block.size) {
+                last++;
+                break;
+            }
+        }
+        if (size == 0) {
+            return null;
+        }
+
+        Block[] viewBlocks = new Block[last - first];
+        System.arraycopy(blocks, first, viewBlocks, 0, viewBlocks.length);
+        viewsShared = true;
+        return new RangeView(viewBlocks, start, end, size);
+    }
+
+    /**
+     * Returns the first block with a key from the given lower bound or the block count if there is none.
+     */
+    private int firstBlockInRange(long from, boolean fromInclusive) {
+        int blockIndex = blockCount == 0 ? 0 : lastBlockStartingBefore(from);
+        while (blockIndex < blockCount && blocks[blockIndex].bound(from, !fromInclusive) == blocks[blockIndex].size) {
+            blockIndex++;
+        }
+        return blockIndex;
+    }
+
+    /**
+     * Returns the last block whose first key is less than or equal to the given key, or the first block
+     * if there is no such block. New entries are added after the existing entries with the same key.
+     */
+    private int lastBlockStartingAtOrBefore(long key) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blocks[mid].keys[0] <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the last block whose first key is less than the given key, or the first block if there is
+     * no such block. Entries with the given key can't be stored in any block before the returned one.
+     */
+    private int lastBlockStartingBefore(long key) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blocks[mid].keys[0] < key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void insertBlock(int index, Block block) {
+        // the directory itself is never referenced by a view, so it can be changed in place
+        if (blockCount == blocks.length) {
+            Block[] newBlocks = new Block[blocks.length << 1];
+            System.arraycopy(blocks, 0, newBlocks, 0, blockCount);
+            blocks = newBlocks;
+        }
+        System.arraycopy(blocks, index, blocks, index + 1, blockCount - index);
+        blocks[index] = block;
+        blockCount++;
+    }
+
+    private void removeBlock(int index) {
+        System.arraycopy(blocks, index + 1, blocks, index, blockCount - index - 1);
+        blocks[--blockCount] = null;
+    }
+
+    @Override
+    public String toString() {
+        return "NumericSortedIndexStore{"
+                + "blockCount=" + blockCount
+                + '}';
+    }
+
+    /**
+     * A sorted run of at most {@link #BLOCK_CAPACITY} keys and their entries.
+     */
+    private static final class Block {
+
+        private final long[] keys = new long[BLOCK_CAPACITY];
+        private final QueryableEntry[] entries = new QueryableEntry[BLOCK_CAPACITY];
+        private final int generation;
+        private int size;
+
+        Block(int generation) {
+            this.generation = generation;
+        }
+
+        int lowerBound(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * @return the upper bound of the key if {@code afterKey} is set, the lower bound otherwise
+         */
+        int bound(long key, boolean afterKey) {
+            return afterKey ? upperBound(key) : lowerBound(key);
+        }
+
+        int upperBound(long key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void insert(int position, long key, QueryableEntry entry) {
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            System.arraycopy(entries, position, entries, position + 1, size - position);
+            keys[position] = key;
+            entries[position] = entry;
+            size++;
+        }
+
+        void remove(int position) {
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            System.arraycopy(entries, position + 1, entries, position, size - position - 1);
+            entries[--size] = null;
+        }
+
+        /**
+         * Moves the upper half of this block into a new block.
+         */
+        Block split(int newGeneration) {
+            Block upper = new Block(newGeneration);
+            int half = size >>> 1;
+            upper.size = size - half;
+            System.arraycopy(keys, half, upper.keys, 0, upper.size);
+            System.arraycopy(entries, half, upper.entries, 0, upper.size);
+            for (int i = half; i < size; i++) {
+                entries[i] = null;
+            }
+            size = half;
+            return upper;
+        }
+
+        Block copy(int newGeneration) {
+            Block copy = new Block(newGeneration);
+            System.arraycopy(keys, 0, copy.keys, 0, size);
+            System.arraycopy(entries, 0, copy.entries, 0, size);
+            copy.size = size;
+            return copy;
+        }
+    }
+
+    /**
+     * A read-only map over the entries from the start position of the first block to the end position
+     * of the last block. Since the blocks of a view are never changed in place, it can be iterated after
+     * the lock of the store is released. The key lookups used to intersect result sets are backed by a
+     * hash map that is built on the first lookup.
+     */
+    private static final class RangeView extends AbstractMap<Data, QueryableEntry>
+            implements ConcurrentMap<Data, QueryableEntry> {
+
+        private final Block[] blocks;
+        private final int start;
+        private final int end;
+        private final int size;
+        private Map<Data, QueryableEntry> index;
+
+        RangeView(Block[] blocks, int start, int end, int size) {
+            this.blocks = blocks;
+            this.start = start;
+            this.end = end;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index().containsKey(key);
+        }
+
+        @Override
+        public QueryableEntry get(Object key) {
+            return index().get(key);
+        }
+
+        @Override
+        public Collection<QueryableEntry> values() {
+            return new AbstractCollection<QueryableEntry>() {
+                @Override
+                public Iterator<QueryableEntry> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        public Set<Entry<Data, QueryableEntry>> entrySet() {
+            return new AbstractSet<Entry<Data, QueryableEntry>>() {
+                @Override
+                public Iterator<Entry<Data, QueryableEntry>> iterator() {
+                    final EntryIterator iterator = new EntryIterator();
+                    return new Iterator<Entry<Data, QueryableEntry>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Data, QueryableEntry> next() {
+                            QueryableEntry entry = iterator.next();
+                            return new SimpleImmutableEntry<Data, QueryableEntry>(entry.getIndexKey(), entry);
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+
+        @Override
+        public QueryableEntry putIfAbsent(Data key, QueryableEntry value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean replace(Data key, QueryableEntry oldValue, QueryableEntry newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public QueryableEntry replace(Data key, QueryableEntry value) {
+            throw new UnsupportedOperationException();
+        }
+
+        private Map<Data, QueryableEntry> index() {
+            if (index == null) {
+                Map<Data, QueryableEntry> map = new HashMap<Data, QueryableEntry>(size * 2);
+                for (QueryableEntry entry : values()) {
+                    map.put(entry.getIndexKey(), entry);
+                }
+                index = map;
+            }
+            return index;
+        }
+
+        private final class EntryIterator implements Iterator<QueryableEntry> {
+            private int blockIndex;
+            private int position = start;
+
+            @Override
+            public boolean hasNext() {
+                int limit = blockIndex == blocks.length - 1 ? end : blocks[blockIndex].size;
+                return position < limit;
+            }
+
+            @Override
+            public QueryableEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                QueryableEntry entry = blocks[blockIndex].entries[position++];
+                if (position == blocks[blockIndex].size && blockIndex < blocks.length - 1) {
+                    blockIndex++;
+                    position = 0;
+                }
+                return entry;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+}
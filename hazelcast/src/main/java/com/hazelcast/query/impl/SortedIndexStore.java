@@ -36,6 +36,14 @@ public class SortedIndexStore extends BaseIndexStore {
     private final ConcurrentSkipListMap<Comparable, ConcurrentMap<Data, QueryableEntry>> recordMap
             = new ConcurrentSkipListMap<Comparable, ConcurrentMap<Data, QueryableEntry>>();
 
+    public SortedIndexStore() {
+        this(false);
+    }
+
+    public SortedIndexStore(boolean partitioned) {
+        super(partitioned);
+    }
+
     @Override
     public void newIndex(Comparable newValue, QueryableEntry record) {
         takeWriteLock();
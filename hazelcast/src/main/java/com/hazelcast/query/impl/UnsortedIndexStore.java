@@ -27,11 +27,23 @@ import java.util.concurrent.ConcurrentMap;
  */
 public class UnsortedIndexStore extends BaseIndexStore {
 
+    private static final int INITIAL_CAPACITY = 1000;
+    private static final int PARTITION_INITIAL_CAPACITY = 16;
+
     private final ConcurrentMap<Data, QueryableEntry> recordsWithNullValue
             = new ConcurrentHashMap<Data, QueryableEntry>();
 
-    private final ConcurrentMap<Comparable, ConcurrentMap<Data, QueryableEntry>> recordMap
-            = new ConcurrentHashMap<Comparable, ConcurrentMap<Data, QueryableEntry>>(1000);
+    private final ConcurrentMap<Comparable, ConcurrentMap<Data, QueryableEntry>> recordMap;
+
+    public UnsortedIndexStore() {
+        this(false);
+    }
+
+    public UnsortedIndexStore(boolean partitioned) {
+        super(partitioned);
+        recordMap = new ConcurrentHashMap<Comparable, ConcurrentMap<Data, QueryableEntry>>(
+                partitioned ? PARTITION_INITIAL_CAPACITY : INITIAL_CAPACITY);
+    }
 
     @Override
     public void newIndex(Comparable newValue, QueryableEntry record) {
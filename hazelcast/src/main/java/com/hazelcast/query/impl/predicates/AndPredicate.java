@@ -23,11 +23,13 @@ import com.hazelcast.query.IndexAwarePredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.VisitablePredicate;
 import com.hazelcast.query.impl.AndResultSet;
+import com.hazelcast.query.impl.BitmapResultSet;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -90,7 +92,68 @@ public final class AndPredicate implements IndexAwarePredicate, DataSerializable
         if (smallestIndexedResult == null) {
             return null;
         }
-        return new AndResultSet(smallestIndexedResult, otherIndexedResults, lsNoIndexPredicates);
+        return intersect(smallestIndexedResult, otherIndexedResults, lsNoIndexPredicates);
+    }
+
+    private static Set<QueryableEntry> intersect(Set<QueryableEntry> smallestIndexedResult,
+                                                 List<Set<QueryableEntry>> otherIndexedResults,
+                                                 List<Predicate> noIndexPredicates) {
+        if (containsBitmap(smallestIndexedResult, otherIndexedResults)) {
+            otherIndexedResults.add(smallestIndexedResult);
+            return intersectBitmaps(otherIndexedResults, noIndexPredicates);
+        }
+        return new AndResultSet(smallestIndexedResult, otherIndexedResults, noIndexPredicates);
+    }
+
+    private static boolean containsBitmap(Set<QueryableEntry> smallest, List<Set<QueryableEntry>> results) {
+        if (smallest instanceof BitmapResultSet) {
+            return true;
+        }
+        for (Set<QueryableEntry> result : results) {
+            if (result instanceof BitmapResultSet) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the bitmap results of the same indexes by their bitwise intersection, then intersects
+     * the remaining results.
+     */
+    private static Set<QueryableEntry> intersectBitmaps(List<Set<QueryableEntry>> results,
+                                                        List<Predicate> noIndexPredicates) {
+        BitmapResultSet bitmap = null;
+        Iterator<Set<QueryableEntry>> iterator = results.iterator();
+        while (iterator.hasNext()) {
+            Set<QueryableEntry> result = iterator.next();
+            if (result instanceof BitmapResultSet && (bitmap == null || bitmap.isCompatible(result))) {
+                bitmap = bitmap == null ? (BitmapResultSet) result : bitmap.and((BitmapResultSet) result);
+                iterator.remove();
+            }
+        }
+        if (bitmap != null) {
+            results.add(bitmap);
+        }
+        Set<QueryableEntry> smallest = removeSmallest(results);
+        if (results.isEmpty() && noIndexPredicates == null) {
+            return smallest;
+        }
+        return new AndResultSet(smallest, results, noIndexPredicates);
+    }
+
+    private static Set<QueryableEntry> removeSmallest(List<Set<QueryableEntry>> results) {
+        Set<QueryableEntry> smallest = null;
+        int smallestSize = 0;
+        for (Set<QueryableEntry> result : results) {
+            int size = result.size();
+            if (smallest == null || size < smallestSize) {
+                smallest = result;
+                smallestSize = size;
+            }
+        }
+        results.remove(smallest);
+        return smallest;
     }
 
     @Override
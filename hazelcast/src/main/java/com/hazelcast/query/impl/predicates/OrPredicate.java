@@ -22,12 +22,14 @@ import com.hazelcast.nio.serialization.DataSerializable;
 import com.hazelcast.query.IndexAwarePredicate;
 import com.hazelcast.query.Predicate;
 import com.hazelcast.query.VisitablePredicate;
+import com.hazelcast.query.impl.BitmapResultSet;
 import com.hazelcast.query.impl.Indexes;
 import com.hazelcast.query.impl.OrResultSet;
 import com.hazelcast.query.impl.QueryContext;
 import com.hazelcast.query.impl.QueryableEntry;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -63,7 +65,33 @@ public final class OrPredicate implements IndexAwarePredicate, DataSerializable,
                 }
             }
         }
-        return indexedResults.isEmpty() ? null : new OrResultSet(indexedResults);
+        if (indexedResults.isEmpty()) {
+            return null;
+        }
+        uniteBitmaps(indexedResults);
+        return indexedResults.size() == 1 ? indexedResults.get(0) : new OrResultSet(indexedResults);
+    }
+
+    /**
+     * Replaces the bitmap results of the same indexes by their bitwise union.
+     */
+    private static void uniteBitmaps(List<Set<QueryableEntry>> results) {
+        BitmapResultSet bitmap = null;
+        Iterator<Set<QueryableEntry>> iterator = results.iterator();
+        while (iterator.hasNext()) {
+            Set<QueryableEntry> result = iterator.next();
+            if (result instanceof BitmapResultSet && (bitmap == null || bitmap.isCompatible(result))) {
+                BitmapResultSet union = bitmap == null ? (BitmapResultSet) result : bitmap.or((BitmapResultSet) result);
+                if (union != null) {
+                    // otherwise an ordinal was reused between the lookups, the result stays a separate result set
+                    bitmap = union;
+                    iterator.remove();
+                }
+            }
+        }
+        if (bitmap != null) {
+            results.add(bitmap);
+        }
     }
 
     @Override
@@ -31,6 +31,9 @@ import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
 import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
 import com.hazelcast.spi.impl.operationexecutor.OperationRunnerFactory;
+import com.hazelcast.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.util.concurrent.BusySpinIdleStrategy;
+import com.hazelcast.util.concurrent.IdleStrategy;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.concurrent.TimeUnit;
@@ -57,11 +60,15 @@ import static com.hazelcast.util.Preconditions.checkNotNull;
  * specific to a partition. E.g. a heart beat.
  * </li>
  * </ol>
+ * If {@link GroupProperty#OPERATION_PARTITION_QUEUE_MPSC_ENABLED} is set, the partition operation threads use a
+ * {@link MpscScheduleQueue} with the configured {@link IdleStrategy} instead of a {@link DefaultScheduleQueue}.
  */
 public final class ClassicOperationExecutor implements OperationExecutor {
 
     public static final int TERMINATION_TIMEOUT_SECONDS = 3;
 
+    private static final long IDLE_MIN_PARK_NANOS = 1000;
+
     private final ILogger logger;
 
     // all operations for specific partitions will be executed on these threads, e.g. map.put(key, value)
@@ -140,7 +147,7 @@ public final class ClassicOperationExecutor implements OperationExecutor {
         PartitionOperationThread[] threads = new PartitionOperationThread[threadCount];
         for (int threadId = 0; threadId < threads.length; threadId++) {
             String threadName = threadGroup.getThreadPoolNamePrefix("partition-operation") + threadId;
-            ScheduleQueue scheduleQueue = new DefaultScheduleQueue();
+            ScheduleQueue scheduleQueue = newPartitionScheduleQueue(properties);
 
             PartitionOperationThread operationThread = new PartitionOperationThread(threadName, threadId, scheduleQueue, logger,
                     threadGroup, nodeExtension, partitionOperationRunners);
@@ -149,6 +156,7 @@ public final class ClassicOperationExecutor implements OperationExecutor {
             operationThread.start();
 
             metricsRegistry.scanAndRegister(operationThread, "operation." + operationThread.getName());
+            metricsRegistry.scanAndRegister(scheduleQueue, "operation." + operationThread.getName() + ".queue");
         }
 
         // we need to assign the PartitionOperationThreads to all OperationRunners they own
@@ -162,6 +170,29 @@ public final class ClassicOperationExecutor implements OperationExecutor {
         return threads;
     }
 
+    private ScheduleQueue newPartitionScheduleQueue(GroupProperties properties) {
+        if (!properties.getBoolean(GroupProperty.OPERATION_PARTITION_QUEUE_MPSC_ENABLED)) {
+            return new DefaultScheduleQueue();
+        }
+
+        IdleStrategy idleStrategy;
+        String idleStrategyName = properties.getString(GroupProperty.OPERATION_PARTITION_QUEUE_IDLE_STRATEGY);
+        if ("busyspin".equals(idleStrategyName)) {
+            idleStrategy = new BusySpinIdleStrategy();
+        } else if ("backoff".equals(idleStrategyName)) {
+            idleStrategy = new BackoffIdleStrategy(
+                    properties.getInteger(GroupProperty.OPERATION_PARTITION_QUEUE_IDLE_MAX_SPINS),
+                    properties.getInteger(GroupProperty.OPERATION_PARTITION_QUEUE_IDLE_MAX_YIELDS),
+                    IDLE_MIN_PARK_NANOS,
+                    properties.getNanos(GroupProperty.OPERATION_PARTITION_QUEUE_IDLE_MAX_PARK_MICROS));
+        } else {
+            throw new IllegalArgumentException("Unrecognized idle strategy '" + idleStrategyName + "' for "
+                    + GroupProperty.OPERATION_PARTITION_QUEUE_IDLE_STRATEGY.getName());
+        }
+        return new MpscScheduleQueue(properties.getInteger(GroupProperty.OPERATION_PARTITION_QUEUE_MPSC_CAPACITY),
+                idleStrategy);
+    }
+
     private GenericOperationThread[] initGenericThreads() {
         // we created as many generic operation handlers, as there are generic threads
         int threadCount = genericOperationRunners.length;
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.classic;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.util.concurrent.IdleStrategy;
+import com.hazelcast.util.counters.MwCounter;
+import com.hazelcast.util.counters.SwCounter;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static com.hazelcast.util.counters.MwCounter.newMwCounter;
+import static com.hazelcast.util.counters.SwCounter.newSwCounter;
+
+/**
+ * A {@link ScheduleQueue} for a single consuming {@link PartitionOperationThread} based on a bounded, array backed,
+ * lock-free multi producer/single consumer queue.
+ * <p/>
+ * Unlike the {@link DefaultScheduleQueue}, adding a task doesn't create litter and doesn't take a lock. When the
+ * consumer runs out of work, it idles using the configured {@link IdleStrategy}; the consumer only announces that it
+ * is idling right before the strategy parks it, and producers only unpark the consumer after that announcement. So
+ * while the consumer spins or yields, adding a task doesn't cause a wakeup.
+ * <p/>
+ * If the array is full, tasks spill over into an unbounded overflow queue. As long as the overflow queue isn't empty,
+ * producers keep adding to it; so the FIFO order of the tasks of a producer is preserved and a producer never waits
+ * for the consumer.
+ * <p/>
+ * The time tasks spend in the array and the number of wakeups are exposed as probes.
+ * <p/>
+ * This queue doesn't support multiple consumers and can't be used for the {@link GenericOperationThread}s.
+ */
+public final class MpscScheduleQueue implements ScheduleQueue {
+
+    // the total time in nanoseconds that tasks taken from the array have been waiting; updated by the consumer only
+    @Probe
+    private final SwCounter queueLatencyNanos = newSwCounter();
+    // the number of tasks taken from the array; updated by the consumer only
+    @Probe
+    private final SwCounter queueLatencyCount = newSwCounter();
+    @Probe
+    private final MwCounter wakeupCount = newMwCounter();
+    @Probe
+    private final MwCounter overflowCount = newMwCounter();
+
+    private final AtomicReferenceArray<Object> buffer;
+    private final AtomicLongArray offerTimes;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final ConcurrentLinkedQueue<Object> overflowQueue = new ConcurrentLinkedQueue<Object>();
+    private final ConcurrentLinkedQueue<Object> priorityQueue = new ConcurrentLinkedQueue<Object>();
+    private final AtomicBoolean idling = new AtomicBoolean();
+    private final IdleStrategy idleStrategy;
+
+    private volatile Thread consumerThread;
+
+    public MpscScheduleQueue(int requestedCapacity, IdleStrategy idleStrategy) {
+        checkPositive(requestedCapacity, "requestedCapacity should be positive");
+        this.idleStrategy = checkNotNull(idleStrategy, "idleStrategy can't be null");
+        this.capacity = nextPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<Object>(capacity);
+        this.offerTimes = new AtomicLongArray(capacity);
+    }
+
+    @Override
+    public void add(Object task) {
+        checkNotNull(task, "task can't be null");
+
+        // as long as there is overflow, we keep using it to preserve the ordering of the tasks
+        if (!overflowQueue.isEmpty() || !offerToBuffer(task)) {
+            overflowQueue.add(task);
+            overflowCount.inc();
+        }
+        wakeupConsumer();
+    }
+
+    @Override
+    public void addUrgent(Object task) {
+        checkNotNull(task, "task can't be null");
+
+        priorityQueue.add(task);
+        wakeupConsumer();
+    }
+
+    @Override
+    public Object take() throws InterruptedException {
+        if (consumerThread == null) {
+            consumerThread = Thread.currentThread();
+        }
+
+        for (long n = 0; ; n++) {
+            Object task = poll();
+            if (task != null) {
+                return task;
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+
+            if (!idleStrategy.willPark(n)) {
+                idleStrategy.idle(n);
+                continue;
+            }
+
+            // we need to check the queues again after announcing that we are going to park; otherwise a task
+            // added in between could go unnoticed until the park period ends.
+            idling.set(true);
+            task = poll();
+            if (task != null) {
+                idling.set(false);
+                return task;
+            }
+
+            idleStrategy.idle(n);
+            idling.set(false);
+        }
+    }
+
+    long getWakeupCount() {
+        return wakeupCount.get();
+    }
+
+    @Override
+    public int normalSize() {
+        long currentHead = head.get();
+        long bufferSize = Math.max(0, Math.min(tail.get() - currentHead, capacity));
+        return (int) bufferSize + overflowQueue.size();
+    }
+
+    @Override
+    public int prioritySize() {
+        return priorityQueue.size();
+    }
+
+    @Override
+    public int size() {
+        return normalSize() + prioritySize();
+    }
+
+    private boolean offerToBuffer(Object task) {
+        for (; ; ) {
+            long currentTail = tail.get();
+            if (currentTail - head.get() >= capacity) {
+                return false;
+            }
+
+            if (tail.compareAndSet(currentTail, currentTail + 1)) {
+                int index = (int) currentTail & mask;
+                offerTimes.lazySet(index, System.nanoTime());
+                // a volatile write, so that a consumer announcing it is idling can't miss the task
+                buffer.set(index, task);
+                return true;
+            }
+        }
+    }
+
+    private Object poll() {
+        Object task = priorityQueue.poll();
+        if (task != null) {
+            return task;
+        }
+
+        task = pollBuffer();
+        return task == null ? overflowQueue.poll() : task;
+    }
+
+    private Object pollBuffer() {
+        long currentHead = head.get();
+        int index = (int) currentHead & mask;
+        // if a producer claimed the slot but didn't publish the task yet, we'll see it on a next poll
+        Object task = buffer.get(index);
+        if (task == null) {
+            return null;
+        }
+
+        long latencyNanos = System.nanoTime() - offerTimes.get(index);
+        buffer.lazySet(index, null);
+        head.lazySet(currentHead + 1);
+
+        queueLatencyNanos.inc(latencyNanos);
+        queueLatencyCount.inc();
+        return task;
+    }
+
+    private void wakeupConsumer() {
+        if (idling.get() && idling.compareAndSet(true, false)) {
+            LockSupport.unpark(consumerThread);
+            wakeupCount.inc();
+        }
+    }
+}
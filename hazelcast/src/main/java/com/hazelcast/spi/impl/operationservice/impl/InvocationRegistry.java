@@ -38,14 +38,18 @@ import com.hazelcast.util.EmptyStatement;
 import com.hazelcast.util.counters.MwCounter;
 import com.hazelcast.util.counters.SwCounter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.instance.OutOfMemoryErrorDispatcher.inspectOutputMemoryError;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.spi.Operation.CALL_ID_LOCAL_SKIPPED;
 import static com.hazelcast.spi.OperationAccessor.setCallId;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
 import static com.hazelcast.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.util.counters.SwCounter.newSwCounter;
 
@@ -56,25 +60,38 @@ import static com.hazelcast.util.counters.SwCounter.newSwCounter;
  * {@link com.hazelcast.spi.impl.operationservice.impl.responses.Response} comes in, the
  * appropriate invocation can be looked up.
  * <p/>
+ * The invocations are stored in a preallocated array of slots instead of a CHM; so registering an invocation doesn't
+ * box the call-id or create a map entry. The slot of an invocation is determined by the lower bits of the call-id,
+ * the higher bits act as the generation of the slot: a response only matches the invocation in a slot if the
+ * call-id of the invocation is equal to the call-id of the response. So a response of an invocation that already
+ * has been deregistered, can't complete an invocation that has been registered in the same slot later.
+ * <p/>
+ * Because the call-ids are increasing and invocations complete in any order, it can happen that a slot is still
+ * taken by a long running invocation when the call-ids wrap around the slots. In that case the invocation is stored
+ * in an overflow map. If backpressure is enabled, the number of slots is at least the maximum number of concurrent
+ * invocations so overflowing is rare.
+ * <p/>
  * Some idea's:
- * - use an ringbuffer to store all invocations instead of a CHM. The call-id can be used as sequence-id for this
- * ringbuffer. It can be that you run in slots that have not been released; if that happens, just keep increasing
- * the sequence (although you now get sequence-gaps).
- * - pre-allocate all invocations. Because the ringbuffer has a fixed capacity, pre-allocation should be easy. Also
+ * - pre-allocate all invocations. Because the slots have a fixed capacity, pre-allocation should be easy. Also
  * the PartitionInvocation and TargetInvocation can be folded into Invocation.
  */
 public class InvocationRegistry {
 
     private static final long SCHEDULE_DELAY = 1111;
-    private static final int INITIAL_CAPACITY = 1000;
+    private static final int OVERFLOW_INITIAL_CAPACITY = 16;
     private static final float LOAD_FACTOR = 0.75f;
     private static final int DELAY_MILLIS = 1000;
     private static final double HUNDRED_PERCENT = 100d;
 
     private final long backupTimeoutMillis;
 
-    @Probe(name = "invocations.pending", level = MANDATORY)
-    private final ConcurrentMap<Long, Invocation> invocations;
+    @Probe(name = "invocations.slotCount")
+    private final int slotCount;
+    private final int slotMask;
+    private final AtomicReferenceArray<Invocation> slots;
+    // contains the invocations that found their slot taken
+    @Probe(name = "invocations.overflow.pending")
+    private final ConcurrentMap<Long, Invocation> overflow;
     private final NodeEngineImpl nodeEngine;
     private final ILogger logger;
     private final InspectionThread inspectionThread;
@@ -93,6 +110,8 @@ public class InvocationRegistry {
     private final SwCounter backupTimeoutsCount = newSwCounter();
     @Probe(name = "invocations.normalTimeouts", level = MANDATORY)
     private final SwCounter normalTimeoutsCount = newSwCounter();
+    @Probe(name = "invocations.overflow.count")
+    private final MwCounter overflowCount = newMwCounter();
 
     public InvocationRegistry(NodeEngineImpl nodeEngine, ILogger logger, BackpressureRegulator backpressureRegulator,
                               int concurrencyLevel) {
@@ -102,7 +121,10 @@ public class InvocationRegistry {
         GroupProperties props = nodeEngine.getGroupProperties();
         this.slowInvocationThresholdMs = initSlowInvocationThresholdMs(props);
         this.backupTimeoutMillis = props.getMillis(GroupProperty.OPERATION_BACKUP_TIMEOUT_MILLIS);
-        this.invocations = new ConcurrentHashMap<Long, Invocation>(INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
+        this.slotCount = initSlotCount(props);
+        this.slotMask = slotCount - 1;
+        this.slots = new AtomicReferenceArray<Invocation>(slotCount);
+        this.overflow = new ConcurrentHashMap<Long, Invocation>(OVERFLOW_INITIAL_CAPACITY, LOAD_FACTOR, concurrencyLevel);
 
         nodeEngine.getMetricsRegistry().scanAndRegister(this, "operation");
 
@@ -117,7 +139,21 @@ public class InvocationRegistry {
             return 0;
         }
 
-        return (HUNDRED_PERCENT * invocations.size()) / maxConcurrentInvocations;
+        return (HUNDRED_PERCENT * size()) / maxConcurrentInvocations;
+    }
+
+    private int initSlotCount(GroupProperties props) {
+        int slotCount = props.getInteger(GroupProperty.OPERATION_INVOCATION_REGISTRY_SLOTS);
+        if (slotCount < 1) {
+            throw new IllegalArgumentException("Can't have '" + GroupProperty.OPERATION_INVOCATION_REGISTRY_SLOTS
+                    + "' with a value smaller than 1");
+        }
+
+        int maxConcurrentInvocations = callIdSequence.getMaxConcurrentInvocations();
+        if (maxConcurrentInvocations != Integer.MAX_VALUE && maxConcurrentInvocations > slotCount) {
+            slotCount = maxConcurrentInvocations;
+        }
+        return nextPowerOfTwo(slotCount);
     }
 
     private long initSlowInvocationThresholdMs(GroupProperties props) {
@@ -148,7 +184,15 @@ public class InvocationRegistry {
             return;
         }
 
-        invocations.put(callId, invocation);
+        if (!slots.compareAndSet(slotIndex(callId), null, invocation)) {
+            // the slot is still taken by an invocation that was registered a full round of call-ids ago.
+            overflowCount.inc();
+            overflow.put(callId, invocation);
+        }
+    }
+
+    private int slotIndex(long callId) {
+        return (int) (callId & slotMask);
     }
 
     /**
@@ -169,7 +213,7 @@ public class InvocationRegistry {
             return;
         }
 
-        boolean deleted = invocations.remove(callId) != null;
+        boolean deleted = slots.compareAndSet(slotIndex(callId), invocation, null) || overflow.remove(callId) != null;
         if (!deleted && logger.isFinestEnabled()) {
             logger.finest("failed to deregister callId: " + callId + " " + invocation);
         }
@@ -177,11 +221,20 @@ public class InvocationRegistry {
 
     /**
      * Returns the number of pending invocations.
+     * <p/>
+     * This method scans all slots, so it should not be called on a hot path.
      *
      * @return the number of pending invocations.
      */
+    @Probe(name = "invocations.pending", level = MANDATORY)
     public int size() {
-        return invocations.size();
+        int size = overflow.size();
+        for (int k = 0; k < slotCount; k++) {
+            if (slots.get(k) != null) {
+                size++;
+            }
+        }
+        return size;
     }
 
     /**
@@ -191,7 +244,32 @@ public class InvocationRegistry {
      * @return the Invocation for the given callId, or null if no invocation was found.
      */
     public Invocation get(long callId) {
-        return invocations.get(callId);
+        Invocation invocation = slots.get(slotIndex(callId));
+        if (invocation != null && invocation.op.getCallId() == callId) {
+            return invocation;
+        }
+
+        // the invocation in the slot is of another generation, or the invocation was stored in the overflow map.
+        return overflow.isEmpty() ? null : overflow.get(callId);
+    }
+
+    /**
+     * Returns a snapshot of the pending invocations.
+     * <p/>
+     * This method scans all slots, so it should not be called on a hot path.
+     *
+     * @return the pending invocations.
+     */
+    private List<Invocation> pendingInvocations() {
+        List<Invocation> result = new ArrayList<Invocation>();
+        for (int k = 0; k < slotCount; k++) {
+            Invocation invocation = slots.get(k);
+            if (invocation != null) {
+                result.add(invocation);
+            }
+        }
+        result.addAll(overflow.values());
+        return result;
     }
 
     /**
@@ -218,7 +296,7 @@ public class InvocationRegistry {
         responseBackupCounter.inc();
 
         try {
-            Invocation invocation = invocations.get(callId);
+            Invocation invocation = get(callId);
 
             // It can happen that a {@link BackupResponse} is send without the Invocation being available anymore.
             // This is because the InvocationRegistry will automatically release invocations where the backup is
@@ -238,7 +316,7 @@ public class InvocationRegistry {
 
     private void notifyErrorResponse(ErrorResponse response, Address sender) {
         responseErrorCounter.inc();
-        Invocation invocation = invocations.get(response.getCallId());
+        Invocation invocation = get(response.getCallId());
 
         if (invocation == null) {
             if (nodeEngine.isActive()) {
@@ -252,7 +330,7 @@ public class InvocationRegistry {
 
     private void notifyNormalResponse(NormalResponse response, Address sender) {
         responseNormalCounter.inc();
-        Invocation invocation = invocations.get(response.getCallId());
+        Invocation invocation = get(response.getCallId());
 
         if (invocation == null) {
             if (nodeEngine.isActive()) {
@@ -265,7 +343,7 @@ public class InvocationRegistry {
 
     private void notifyCallTimeout(CallTimeoutResponse response, Address sender) {
         responseTimeoutCounter.inc();
-        Invocation invocation = invocations.get(response.getCallId());
+        Invocation invocation = get(response.getCallId());
 
         if (invocation == null) {
             if (nodeEngine.isActive()) {
@@ -284,7 +362,7 @@ public class InvocationRegistry {
     }
 
     public void reset() {
-        for (Invocation invocation : invocations.values()) {
+        for (Invocation invocation : pendingInvocations()) {
             try {
                 invocation.notifyError(new MemberLeftException());
             } catch (Throwable e) {
@@ -296,7 +374,7 @@ public class InvocationRegistry {
     public void shutdown() {
         inspectionThread.shutdown();
 
-        for (Invocation invocation : invocations.values()) {
+        for (Invocation invocation : pendingInvocations()) {
             try {
                 invocation.notifyError(new HazelcastInstanceNotActiveException());
             } catch (Throwable e) {
@@ -357,14 +435,15 @@ public class InvocationRegistry {
         }
 
         private void scanHandleOperationTimeout() {
-            if (invocations.isEmpty()) {
+            List<Invocation> pendingInvocations = pendingInvocations();
+            if (pendingInvocations.isEmpty()) {
                 return;
             }
 
             long now = Clock.currentTimeMillis();
             int backupTimeouts = 0;
             int invocationTimeouts = 0;
-            for (Invocation invocation : invocations.values()) {
+            for (Invocation invocation : pendingInvocations) {
                 if (shutdown) {
                     return;
                 }
@@ -431,7 +510,7 @@ public class InvocationRegistry {
 
         @Override
         public void run() {
-            for (Invocation invocation : invocations.values()) {
+            for (Invocation invocation : pendingInvocations()) {
                 if (hasMemberLeft(invocation)) {
                     invocation.notifyError(new MemberLeftException(leftMember));
                 }
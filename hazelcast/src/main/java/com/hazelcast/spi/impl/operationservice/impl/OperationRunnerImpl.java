@@ -384,6 +384,7 @@ class OperationRunnerImpl extends OperationRunner {
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            packet.releasePayload();
         }
     }
 
@@ -126,6 +126,8 @@ public final class OperationServiceImpl implements InternalOperationService, Pac
     private final IsStillRunningService isStillRunningService;
     private final AsyncResponsePacketHandler responsePacketExecutor;
     private final SerializationService serializationService;
+    // null if operation batching is disabled
+    private final PacketBatcher packetBatcher;
 
     public OperationServiceImpl(NodeEngineImpl nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -170,9 +172,25 @@ public final class OperationServiceImpl implements InternalOperationService, Pac
         this.asyncExecutor = executionService.register(ExecutionService.ASYNC_EXECUTOR, coreSize,
                 ASYNC_QUEUE_CAPACITY, ExecutorType.CONCRETE);
         this.slowOperationDetector = initSlowOperationDetector();
+        this.packetBatcher = initPacketBatcher(groupProperties);
         metricsRegistry.scanAndRegister(this, "operation");
     }
 
+    private PacketBatcher initPacketBatcher(GroupProperties groupProperties) {
+        if (!groupProperties.getBoolean(GroupProperty.OPERATION_BATCHING_ENABLED)) {
+            return null;
+        }
+
+        PacketBatcher batcher = new PacketBatcher(node, logger,
+                groupProperties.getNanos(GroupProperty.OPERATION_BATCHING_WINDOW_MICROS),
+                groupProperties.getInteger(GroupProperty.OPERATION_BATCHING_MAX_BYTES),
+                Math.max(1, groupProperties.getInteger(GroupProperty.SOCKET_MEMBER_CONNECTION_COUNT)));
+        batcher.start();
+        metricsRegistry.scanAndRegister(batcher, "operation.batcher");
+        logger.info("Operation batching is enabled");
+        return batcher;
+    }
+
     private SlowOperationDetector initSlowOperationDetector() {
         return new SlowOperationDetector(node.loggingService,
                 operationExecutor.getGenericOperationRunners(),
@@ -251,7 +269,10 @@ public final class OperationServiceImpl implements InternalOperationService, Pac
         checkNotNull(packet, "packet can't be null");
         checkTrue(packet.isHeaderSet(Packet.HEADER_OP), "Packet.HEADER_OP should be set!");
 
-        if (packet.isHeaderSet(Packet.HEADER_RESPONSE)) {
+        if (packet.isHeaderSet(Packet.HEADER_BATCH)) {
+            // a batch is accepted even if batching is disabled on this member
+            PacketBatcher.unbatch(packet, this);
+        } else if (packet.isHeaderSet(Packet.HEADER_RESPONSE)) {
             responsePacketExecutor.handle(packet);
         } else {
             operationExecutor.execute(packet);
@@ -389,6 +410,8 @@ public final class OperationServiceImpl implements InternalOperationService, Pac
 
         if (op instanceof UrgentSystemOperation) {
             packet.setHeader(Packet.HEADER_URGENT);
+        } else if (packetBatcher != null && partitionId >= 0) {
+            return packetBatcher.send(packet, target);
         }
 
         ConnectionManager connectionManager = node.getConnectionManager();
@@ -413,6 +436,8 @@ public final class OperationServiceImpl implements InternalOperationService, Pac
 
         if (response.isUrgent()) {
             packet.setHeader(Packet.HEADER_URGENT);
+        } else if (packetBatcher != null) {
+            return packetBatcher.send(packet, target);
         }
 
         ConnectionManager connectionManager = node.getConnectionManager();
@@ -434,6 +459,9 @@ public final class OperationServiceImpl implements InternalOperationService, Pac
         operationExecutor.shutdown();
         responsePacketExecutor.shutdown();
         slowOperationDetector.shutdown();
+        if (packetBatcher != null) {
+            packetBatcher.shutdown();
+        }
 
         try {
             invocationsRegistry.awaitTermination(TERMINATION_TIMEOUT_MILLIS);
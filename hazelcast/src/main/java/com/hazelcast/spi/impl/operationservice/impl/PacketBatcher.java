@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.instance.HazelcastThreadGroup;
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.ConnectionManager;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.spi.impl.operationexecutor.OperationHostileThread;
+import com.hazelcast.util.counters.MwCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.instance.OutOfMemoryErrorDispatcher.inspectOutputMemoryError;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.SHORT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
+import static com.hazelcast.nio.Bits.readShortB;
+import static com.hazelcast.nio.Bits.writeIntB;
+import static com.hazelcast.nio.Bits.writeShortB;
+import static com.hazelcast.util.counters.MwCounter.newMwCounter;
+
+/**
+ * Coalesces the operation and response packets that are send to the same member into a single batch packet.
+ * <p/>
+ * When many small operations are send to the same member, e.g. when a thread fires thousands of IMap.getAsync calls,
+ * every operation and every response becomes a packet of its own and each packet has its own header, and often its
+ * own write syscall and I/O thread wakeup. The PacketBatcher collects the packets per target member for a short
+ * window and sends them as a single packet with the {@link Packet#HEADER_BATCH} set. The receiving member takes the
+ * batch apart using {@link #unbatch(Packet, PacketHandler)} and dispatches every packet like it was received on its
+ * own; so operations still end up on the partition thread of their partition.
+ * <p/>
+ * The batch of a member is send when the window expires, or immediately by the thread that makes it exceed the
+ * maximum batch size. Batches of a member are send under a lock, so the packets a thread sends to a member are
+ * received in order.
+ * <p/>
+ * If a member opens multiple connections to another member (see
+ * {@link com.hazelcast.instance.GroupProperty#SOCKET_MEMBER_CONNECTION_COUNT}), the packets of a partition are always
+ * sent over the same connection, the lane {@code partitionId % laneCount}. So the packets are batched per member and
+ * lane, and a batch packet gets the lane as its partition id; a batch and a single packet of the same partition then
+ * travel over the same connection and can't overtake each other.
+ * <p/>
+ * A packet is only added to a batch if there is a live connection to the member, so the caller still learns that a
+ * member can't be reached and can retry the invocation. If the connection breaks within the window, the packets of the
+ * batch are lost just like the packets in the write queue of a closed connection; the invocations are then notified by
+ * the member removal or their timeout.
+ * <p/>
+ * A batch packet has the following payload: the number of packets, followed by the header, partition id, payload
+ * length and payload of every packet.
+ */
+final class PacketBatcher {
+
+    static final int ENTRY_OVERHEAD = SHORT_SIZE_IN_BYTES + 2 * INT_SIZE_IN_BYTES;
+
+    @Probe
+    private final MwCounter batchCount = newMwCounter();
+    @Probe
+    private final MwCounter batchedPacketCount = newMwCounter();
+
+    // the batches of a member indexed by lane
+    private final ConcurrentMap<Address, TargetBatch[]> batches = new ConcurrentHashMap<Address, TargetBatch[]>();
+    private final Node node;
+    private final ILogger logger;
+    private final long windowNanos;
+    private final int maxBatchBytes;
+    private final int laneCount;
+    private final FlushThread flushThread;
+
+    /**
+     * @param laneCount the number of connections a member opens to another member
+     */
+    PacketBatcher(Node node, ILogger logger, long windowNanos, int maxBatchBytes, int laneCount) {
+        this.node = node;
+        this.logger = logger;
+        this.windowNanos = windowNanos;
+        this.maxBatchBytes = maxBatchBytes;
+        this.laneCount = laneCount;
+        this.flushThread = new FlushThread(node.getHazelcastThreadGroup());
+    }
+
+    void start() {
+        flushThread.start();
+    }
+
+    void shutdown() {
+        flushThread.shutdown();
+        batches.clear();
+    }
+
+    /**
+     * Adds a packet to the batch of the target member.
+     *
+     * @param packet the packet to send.
+     * @param target the member to send the packet to.
+     * @return false if there is no live connection to the target, in which case the packet is not added.
+     */
+    boolean send(Packet packet, Address target) {
+        Connection connection = node.getConnectionManager().getOrConnect(target);
+        if (connection == null || !connection.isAlive()) {
+            return false;
+        }
+
+        TargetBatch batch = getBatch(target, lane(packet.getPartitionId()));
+        batch.packets.offer(packet);
+        int entrySize = ENTRY_OVERHEAD + packet.totalSize();
+        int pendingBytes = batch.pendingBytes.addAndGet(entrySize);
+        if (pendingBytes >= maxBatchBytes) {
+            batch.flush();
+        } else if (pendingBytes == entrySize) {
+            flushThread.wakeup();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the lane the packets of the partition are sent over; the same mapping as the one of the
+     * {@code TcpIpConnectionLanes}.
+     */
+    private int lane(int partitionId) {
+        return partitionId < 0 ? 0 : partitionId % laneCount;
+    }
+
+    private TargetBatch getBatch(Address target, int lane) {
+        TargetBatch[] targetBatches = batches.get(target);
+        if (targetBatches == null) {
+            TargetBatch[] newBatches = new TargetBatch[laneCount];
+            for (int k = 0; k < laneCount; k++) {
+                newBatches[k] = new TargetBatch(target, k);
+            }
+            TargetBatch[] found = batches.putIfAbsent(target, newBatches);
+            targetBatches = found == null ? newBatches : found;
+        }
+        return targetBatches[lane];
+    }
+
+    /**
+     * Takes a batch packet apart and passes every packet it contains to the packet handler.
+     *
+     * @param batch   the batch packet.
+     * @param handler the handler to pass the packets to.
+     * @throws Exception if the handler throws an exception.
+     */
+    static void unbatch(Packet batch, PacketHandler handler) throws Exception {
+        byte[] payload = batch.payloadArray();
+        Connection connection = batch.getConn();
+        List<Packet> packets;
+        try {
+            int count = readIntB(payload, 0);
+            packets = new ArrayList<Packet>(count);
+            int pos = INT_SIZE_IN_BYTES;
+            for (int k = 0; k < count; k++) {
+                short header = readShortB(payload, pos);
+                pos += SHORT_SIZE_IN_BYTES;
+                int partitionId = readIntB(payload, pos);
+                pos += INT_SIZE_IN_BYTES;
+                int length = readIntB(payload, pos);
+                pos += INT_SIZE_IN_BYTES;
+
+                byte[] bytes = new byte[length];
+                System.arraycopy(payload, pos, bytes, 0, length);
+                pos += length;
+
+                Packet packet = new Packet(bytes, partitionId);
+                setHeader(packet, header);
+                packet.setConn(connection);
+                packets.add(packet);
+            }
+        } finally {
+            // the payload of the batch has been copied, so it can be returned to the pool.
+            batch.releasePayload();
+        }
+
+        for (Packet packet : packets) {
+            handler.handle(packet);
+        }
+    }
+
+    /**
+     * Creates a batch packet containing the given packets.
+     *
+     * @param packets the packets to put in the batch.
+     * @param lane    the lane the packets are sent over; used as partition id of the batch packet.
+     * @return the batch packet.
+     */
+    static Packet newBatchPacket(List<Packet> packets, int lane) {
+        int batchSize = INT_SIZE_IN_BYTES;
+        for (Packet packet : packets) {
+            batchSize += ENTRY_OVERHEAD + packet.totalSize();
+        }
+
+        byte[] payload = new byte[batchSize];
+        writeIntB(payload, 0, packets.size());
+        int pos = INT_SIZE_IN_BYTES;
+        for (Packet packet : packets) {
+            int length = packet.totalSize();
+            writeShortB(payload, pos, packet.getHeader());
+            pos += SHORT_SIZE_IN_BYTES;
+            writeIntB(payload, pos, packet.getPartitionId());
+            pos += INT_SIZE_IN_BYTES;
+            writeIntB(payload, pos, length);
+            pos += INT_SIZE_IN_BYTES;
+            System.arraycopy(packet.toByteArray(), 0, payload, pos, length);
+            pos += length;
+        }
+
+        Packet batchPacket = new Packet(payload, lane);
+        batchPacket.setHeader(Packet.HEADER_OP);
+        batchPacket.setHeader(Packet.HEADER_BATCH);
+        return batchPacket;
+    }
+
+    private static void setHeader(Packet packet, short header) {
+        for (int bit = 0; bit < Short.SIZE; bit++) {
+            if ((header & 1 << bit) != 0) {
+                packet.setHeader(bit);
+            }
+        }
+    }
+
+    private void flushAll() {
+        for (TargetBatch[] targetBatches : batches.values()) {
+            for (TargetBatch batch : targetBatches) {
+                if (batch.pendingBytes.get() > 0) {
+                    batch.flush();
+                }
+            }
+        }
+    }
+
+    private boolean hasPendingPackets() {
+        for (TargetBatch[] targetBatches : batches.values()) {
+            for (TargetBatch batch : targetBatches) {
+                if (batch.pendingBytes.get() > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private final class TargetBatch {
+        private final Address target;
+        private final int lane;
+        private final Queue<Packet> packets = new ConcurrentLinkedQueue<Packet>();
+        private final AtomicInteger pendingBytes = new AtomicInteger();
+
+        private TargetBatch(Address target, int lane) {
+            this.target = target;
+            this.lane = lane;
+        }
+
+        private synchronized void flush() {
+            // the pending bytes are reset before the packets are taken, so a packet that is added concurrently is
+            // either part of this batch or accounted for in the next one.
+            int bytes = pendingBytes.getAndSet(0);
+            if (bytes == 0) {
+                return;
+            }
+
+            List<Packet> batch = new ArrayList<Packet>();
+            for (; ; ) {
+                Packet packet = packets.poll();
+                if (packet == null) {
+                    break;
+                }
+                batch.add(packet);
+            }
+
+            if (batch.size() == 1) {
+                // there is no point in wrapping a single packet
+                transmit(batch.get(0), 1);
+            } else if (batch.size() > 1) {
+                transmit(newBatchPacket(batch, lane), batch.size());
+            }
+        }
+
+        private void transmit(Packet packet, int packetCount) {
+            ConnectionManager connectionManager = node.getConnectionManager();
+            Connection connection = connectionManager.getOrConnect(target);
+            if (!connectionManager.transmit(packet, connection)) {
+                if (logger.isFinestEnabled()) {
+                    logger.finest("Failed to send a batch of " + packetCount + " packets to " + target);
+                }
+                return;
+            }
+
+            if (packet.isHeaderSet(Packet.HEADER_BATCH)) {
+                batchCount.inc();
+                batchedPacketCount.inc(packetCount);
+            }
+        }
+    }
+
+    /**
+     * Sends the batches when the window expires. The thread parks until a packet is added to an empty batch, so an
+     * idle member doesn't pay for the window.
+     *
+     * The FlushThread needs to implement the OperationHostileThread interface to make sure that the OperationExecutor
+     * doesn't run operations on this thread.
+     */
+    private final class FlushThread extends Thread implements OperationHostileThread {
+
+        private volatile boolean parked;
+        private volatile boolean shutdown;
+
+        private FlushThread(HazelcastThreadGroup threadGroup) {
+            super(threadGroup.getInternalThreadGroup(), threadGroup.getThreadNamePrefix("operation-batcher"));
+            setContextClassLoader(threadGroup.getClassLoader());
+        }
+
+        private void wakeup() {
+            if (parked) {
+                LockSupport.unpark(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                doRun();
+            } catch (Throwable t) {
+                inspectOutputMemoryError(t);
+                logger.severe(t);
+            }
+        }
+
+        private void doRun() {
+            while (!shutdown) {
+                if (!hasPendingPackets()) {
+                    parked = true;
+                    // a packet that was added before this thread was marked as parked, doesn't unpark it.
+                    if (!hasPendingPackets()) {
+                        LockSupport.park();
+                    }
+                    parked = false;
+                    continue;
+                }
+
+                // give other packets the chance to join the batch
+                LockSupport.parkNanos(windowNanos);
+                try {
+                    flushAll();
+                } catch (Throwable t) {
+                    inspectOutputMemoryError(t);
+                    logger.warning("Failed to send the operation batches", t);
+                }
+            }
+        }
+
+        private void shutdown() {
+            shutdown = true;
+            LockSupport.unpark(this);
+        }
+    }
+}
@@ -41,7 +41,13 @@ final class ResponsePacketHandlerImpl implements PacketHandler {
 
     @Override
     public void handle(Packet packet) throws Exception {
-        Response response = serializationService.toObject(packet);
+        Response response;
+        try {
+            response = serializationService.toObject(packet);
+        } finally {
+            packet.releasePayload();
+        }
+
         try {
             invocationRegistry.notify(response, packet.getConn().getEndPoint());
         } catch (Throwable e) {
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util;
+
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.PagingPredicateAccessor;
+import com.hazelcast.query.Predicate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Caller side state of a {@link PagingPredicate} in cursor mode.
+ * <p/>
+ * The cursor keeps an anchor per partition, which is the last entry fetched from that partition, and the fetched
+ * entries which are not returned yet. A page is merged from the buffered entries; a partition is only queried again
+ * when fewer than a page of its entries are buffered. The merge is bounded by the page size times the number of
+ * partitions.
+ * <p/>
+ * The cursor only reduces the number of times a partition is queried: once per one to {@link #FETCHED_PAGES} pages
+ * of its own entries instead of once per page. Every query still evaluates the predicate against all entries of
+ * the partition and only keeps the ones after the anchor; there is no index to start the scan at the anchor. So
+ * walking through all pages still costs in the order of {@code Np * Np / (FETCHED_PAGES * pageSize)} evaluations
+ * for a partition with {@code Np} entries, not a small multiple of {@code Np}.
+ * <p/>
+ * A cursor only serves the pages in order. It is only used by the {@link com.hazelcast.core.IMap} proxies on
+ * members; the client proxies keep the regular paging. The cursor is not thread-safe.
+ */
+public final class PagingCursor {
+
+    /**
+     * The number of pages fetched from a partition at once.
+     */
+    static final int FETCHED_PAGES = 2;
+
+    private final Map<Integer, PartitionRun> runs;
+    private final Predicate predicate;
+    private final Comparator<Map.Entry> comparator;
+    private final Comparator<Map.Entry> entryComparator;
+    private final IterationType iterationType;
+    private final int pageSize;
+    private int nextPage;
+
+    public PagingCursor(PagingPredicate pagingPredicate, Collection<Integer> partitionIds) {
+        this.predicate = pagingPredicate.getPredicate();
+        this.comparator = pagingPredicate.getComparator();
+        this.iterationType = pagingPredicate.getIterationType();
+        this.entryComparator = SortingUtil.newComparator(comparator, iterationType);
+        this.pageSize = pagingPredicate.getPageSize();
+        this.runs = new HashMap<Integer, PartitionRun>(partitionIds.size());
+        for (Integer partitionId : partitionIds) {
+            runs.put(partitionId, new PartitionRun());
+        }
+    }
+
+    /**
+     * @return {@code true} if the requested page is the next page of this cursor
+     */
+    public boolean canServe(PagingPredicate pagingPredicate) {
+        return pagingPredicate.getPage() == nextPage && pagingPredicate.getIterationType() == iterationType;
+    }
+
+    /**
+     * @return the partitions which have to be queried before the next page can be merged
+     */
+    public List<Integer> getPartitionsToFetch() {
+        List<Integer> partitionIds = new ArrayList<Integer>();
+        for (Map.Entry<Integer, PartitionRun> entry : runs.entrySet()) {
+            PartitionRun run = entry.getValue();
+            if (!run.exhausted && run.entries.size() < pageSize) {
+                partitionIds.add(entry.getKey());
+            }
+        }
+        return partitionIds;
+    }
+
+    /**
+     * Creates the predicate which collects the next entries of the partition after its anchor. The predicate is still
+     * evaluated against every entry of the partition; the anchor only limits which matching entries are kept.
+     */
+    public PagingPredicate newPartitionPredicate(int partitionId) {
+        PartitionRun run = runs.get(partitionId);
+        PagingPredicate partitionPredicate = new PagingPredicate(predicate, comparator, pageSize * FETCHED_PAGES);
+        partitionPredicate.setIterationType(iterationType);
+        if (run.anchor != null) {
+            PagingPredicateAccessor.setAnchor(partitionPredicate, 0, run.anchor);
+            partitionPredicate.setPage(1);
+        }
+        return partitionPredicate;
+    }
+
+    /**
+     * Adds the entries collected by the predicate of {@link #newPartitionPredicate(int)}, in ascending order.
+     */
+    public void addEntries(int partitionId, List<Map.Entry> entries) {
+        PartitionRun run = runs.get(partitionId);
+        run.entries.addAll(entries);
+        if (!entries.isEmpty()) {
+            run.anchor = entries.get(entries.size() - 1);
+        }
+        run.exhausted = entries.size() < pageSize * FETCHED_PAGES;
+    }
+
+    /**
+     * Merges the next page from the buffered entries and advances the cursor.
+     */
+    public List<Map.Entry> nextPage() {
+        PriorityQueue<PartitionRun> heads = new PriorityQueue<PartitionRun>(Math.max(1, runs.size()),
+                new Comparator<PartitionRun>() {
+                    @Override
+                    public int compare(PartitionRun run1, PartitionRun run2) {
+                        return entryComparator.compare(run1.entries.peekFirst(), run2.entries.peekFirst());
+                    }
+                });
+        for (PartitionRun run : runs.values()) {
+            if (!run.entries.isEmpty()) {
+                heads.offer(run);
+            }
+        }
+        List<Map.Entry> page = new ArrayList<Map.Entry>(pageSize);
+        while (page.size() < pageSize && !heads.isEmpty()) {
+            PartitionRun run = heads.poll();
+            page.add(run.entries.pollFirst());
+            if (!run.entries.isEmpty()) {
+                heads.offer(run);
+            }
+        }
+        nextPage++;
+        return page;
+    }
+
+    /**
+     * The fetched but not yet returned entries of a partition.
+     */
+    private static final class PartitionRun {
+        private final ArrayDeque<Map.Entry> entries = new ArrayDeque<Map.Entry>();
+        private Map.Entry anchor;
+        private boolean exhausted;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util;
+
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.impl.QueryableEntry;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the entries of a paging query which are needed to build the pages after the nearest anchor.
+ * <p/>
+ * Only the smallest {@code pageSize * (page - nearestAnchorPage)} entries are retained in a bounded max-heap, so
+ * collecting {@code n} entries takes {@code O(n log k)} time and {@code O(k)} memory instead of sorting all matching
+ * entries. The collector is not thread-safe, its iterator returns the retained entries in no particular order.
+ */
+public final class SortedSubListCollector extends AbstractCollection<QueryableEntry> {
+
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final Comparator<Map.Entry> comparator;
+    private final PriorityQueue<QueryableEntry> heap;
+    private final int limit;
+
+    public SortedSubListCollector(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
+        this.comparator = SortingUtil.newComparator(pagingPredicate);
+        this.limit = SortingUtil.getSortedSubListSize(pagingPredicate, nearestAnchorEntry);
+        this.heap = new PriorityQueue<QueryableEntry>(Math.max(1, Math.min(limit, MAX_INITIAL_CAPACITY)),
+                Collections.reverseOrder(comparator));
+    }
+
+    /**
+     * Adds an entry, it is dropped if the collector already holds {@code limit} smaller entries.
+     *
+     * @return {@code true} if the entry is retained
+     */
+    @Override
+    public boolean add(QueryableEntry entry) {
+        if (heap.size() < limit) {
+            return heap.offer(entry);
+        }
+        if (limit > 0 && comparator.compare(entry, heap.peek()) < 0) {
+            heap.poll();
+            return heap.offer(entry);
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<QueryableEntry> iterator() {
+        return heap.iterator();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @return the collected entries in ascending order
+     */
+    public List<QueryableEntry> getSortedSubList() {
+        List<QueryableEntry> list = new ArrayList<QueryableEntry>(heap);
+        Collections.sort(list, comparator);
+        return list;
+    }
+}
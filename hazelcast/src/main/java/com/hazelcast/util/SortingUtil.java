@@ -169,16 +169,19 @@ public final class SortingUtil {
         if (pagingPredicate == null || list.isEmpty()) {
             return list;
         }
-        Comparator<Map.Entry> comparator = SortingUtil.newComparator(pagingPredicate);
-        Collections.sort(list, comparator);
+        SortedSubListCollector collector = new SortedSubListCollector(pagingPredicate, nearestAnchorEntry);
+        collector.addAll(list);
+        return collector.getSortedSubList();
+    }
+
+    /**
+     * @return the number of entries needed to build the pages from the nearest anchor up to the current page
+     */
+    public static int getSortedSubListSize(PagingPredicate pagingPredicate, Map.Entry<Integer, Map.Entry> nearestAnchorEntry) {
         int nearestPage = nearestAnchorEntry.getKey();
         int pageSize = pagingPredicate.getPageSize();
         int page = pagingPredicate.getPage();
-        int totalSize = pageSize * (page - nearestPage);
-        if (list.size() > totalSize) {
-            list = list.subList(0, totalSize);
-        }
-        return list;
+        return pageSize * (page - nearestPage);
     }
 
     public static SortedQueryResultSet getSortedQueryResultSet(List<Map.Entry> list,
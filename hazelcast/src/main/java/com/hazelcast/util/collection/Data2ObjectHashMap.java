@@ -0,0 +1,603 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.collection;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.util.QuickMath;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * {@link java.util.Map} implementation specialised for {@link Data} keys using open addressing and
+ * linear probing for cache efficient access.
+ * <p/>
+ * The map is designed for a single writer thread, e.g. a partition thread owning a record store.
+ * Instead of a node object per entry like {@link java.util.concurrent.ConcurrentHashMap}, the hash code,
+ * the key and the value of an entry are kept in parallel arrays. Removed entries leave a tombstone
+ * behind so that entries never move while the table is in use; the tombstones are purged on the next rehash.
+ * <p/>
+ * Other threads may read from the map and iterate over it while the writer is active. The table and the size
+ * are published through volatile fields, so a reader sees every insertion and removal which completed before
+ * it started; a value which replaces an existing mapping is stored without a fence. Iterators are weakly
+ * consistent: they never throw {@link java.util.ConcurrentModificationException} and they may or may not
+ * reflect mutations which happen while iterating. An iterator created before a rehash keeps traversing its
+ * snapshot of the table but resolves each key against the current table, so it never returns a mapping which
+ * was already removed at the time it is returned.
+ *
+ * @param <V> values stored in the {@link java.util.Map}
+ */
+public class Data2ObjectHashMap<V> extends AbstractMap<Data, V> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 8;
+    private static final double DEFAULT_LOAD_FACTOR = 0.6;
+
+    private static final Object TOMBSTONE = new Object();
+
+    // Because of JDK6 compatibility,
+    // we cannot use "java.util.concurrent.ThreadLocalRandom" (valid for JDK7+ versions).
+    private static final ThreadLocal<Random> THREAD_LOCAL_RANDOM =
+            new ThreadLocal<Random>() {
+                @Override
+                protected Random initialValue() {
+                    return new Random();
+                }
+            };
+
+    private final double loadFactor;
+    private final int initialCapacity;
+
+    private volatile Table table;
+    private volatile int size;
+    private int tombstones;
+
+    // Cached to avoid allocation.
+    private final ValueCollection valueCollection = new ValueCollection();
+    private final KeySet keySet = new KeySet();
+    private final EntrySet entrySet = new EntrySet();
+
+    public Data2ObjectHashMap() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public Data2ObjectHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Construct a new map allowing a configuration for initial capacity and load factor.
+     *
+     * @param initialCapacity for the backing arrays
+     * @param loadFactor      limit for resizing on puts
+     */
+    public Data2ObjectHashMap(int initialCapacity, double loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1 exclusive, but was " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.initialCapacity = QuickMath.nextPowerOfTwo(Math.max(initialCapacity, 2));
+        this.table = new Table(this.initialCapacity, loadFactor);
+    }
+
+    /**
+     * Get the load factor beyond which the map will increase size.
+     *
+     * @return load factor for when the map should increase size.
+     */
+    public double loadFactor() {
+        return loadFactor;
+    }
+
+    /**
+     * Get the total capacity for the map to which the load factor with be a fraction of.
+     *
+     * @return the total capacity for the map.
+     */
+    public int capacity() {
+        return table.keys.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        checkNotNull(key, "Null keys are not permitted");
+        if (size == 0) {
+            return null;
+        }
+        Table table = this.table;
+        Object[] keys = table.keys;
+        int[] hashes = table.hashes;
+        int mask = keys.length - 1;
+        int hash = key.hashCode();
+        int index = hash & mask;
+        Object candidate;
+        while ((candidate = keys[index]) != null) {
+            if (candidate != TOMBSTONE && hashes[index] == hash && (candidate == key || candidate.equals(key))) {
+                return (V) table.values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(Data key, V value) {
+        checkNotNull(key, "Null keys are not permitted");
+        checkNotNull(value, "Null values are not permitted");
+        Table table = this.table;
+        Object[] keys = table.keys;
+        int[] hashes = table.hashes;
+        int mask = keys.length - 1;
+        int hash = key.hashCode();
+        int index = hash & mask;
+        int insertionIndex = -1;
+        Object candidate;
+        while ((candidate = keys[index]) != null) {
+            if (candidate == TOMBSTONE) {
+                if (insertionIndex == -1) {
+                    insertionIndex = index;
+                }
+            } else if (hashes[index] == hash && (candidate == key || candidate.equals(key))) {
+                V oldValue = (V) table.values[index];
+                table.values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+
+        if (insertionIndex == -1) {
+            insertionIndex = index;
+        } else {
+            tombstones--;
+        }
+        // key is written last, readers skip a slot until its key shows up
+        table.values[insertionIndex] = value;
+        hashes[insertionIndex] = hash;
+        keys[insertionIndex] = key;
+
+        int newSize = size + 1;
+        if (newSize + tombstones > table.resizeThreshold) {
+            rehash(newSize);
+        }
+        size = newSize;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        checkNotNull(key, "Null keys are not permitted");
+        Table table = this.table;
+        Object[] keys = table.keys;
+        int[] hashes = table.hashes;
+        int mask = keys.length - 1;
+        int hash = key.hashCode();
+        int index = hash & mask;
+        Object candidate;
+        while ((candidate = keys[index]) != null) {
+            if (candidate != TOMBSTONE && hashes[index] == hash && (candidate == key || candidate.equals(key))) {
+                V oldValue = (V) table.values[index];
+                keys[index] = TOMBSTONE;
+                table.values[index] = null;
+                tombstones++;
+                size = size - 1;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        Table table = this.table;
+        Arrays.fill(table.keys, null);
+        Arrays.fill(table.values, null);
+        tombstones = 0;
+        size = 0;
+    }
+
+    /**
+     * Rebuilds the table purging the tombstones and shrinking it back to the initial capacity if it is
+     * oversized for the current number of entries.
+     */
+    public void compact() {
+        rehash(size);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        checkNotNull(value, "Null values are not permitted");
+        for (V v : values()) {
+            if (value.equals(v)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Set<Data> keySet() {
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return valueCollection;
+    }
+
+    @Override
+    public Set<Entry<Data, V>> entrySet() {
+        return entrySet;
+    }
+
+    /**
+     * Gets and returns samples as <code>sampleCount</code>, starting from a random slot of the table.
+     *
+     * @param sampleCount Count of samples
+     * @return the sampled values
+     */
+    public Iterable<V> getRandomSamples(int sampleCount) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size == 0) {
+            return Collections.emptyList();
+        }
+        return new SamplingIterable(sampleCount);
+    }
+
+    /**
+     * Fetches at most {@code size} values, walking the slots of the table downwards from {@code tableIndex}, so the map
+     * can be traversed in batches without holding an iterator between them. Entries moved by a rehash between two
+     * fetches may be skipped or fetched twice.
+     *
+     * @param tableIndex the slot to start from, a value not smaller than the capacity starts from the last slot
+     * @param size       maximum number of values to fetch
+     * @param values     the list to add the fetched values to
+     * @return the slot to continue from with the next fetch, negative if the whole table is fetched
+     */
+    @SuppressWarnings("unchecked")
+    public int fetch(int tableIndex, int size, List<V> values) {
+        Table current = table;
+        Object[] keys = current.keys;
+        int index = tableIndex < keys.length ? tableIndex : keys.length - 1;
+        int fetched = 0;
+        while (index >= 0 && fetched < size) {
+            Object key = keys[index];
+            if (key != null && key != TOMBSTONE) {
+                values.add((V) current.values[index]);
+                fetched++;
+            }
+            index--;
+        }
+        return index;
+    }
+
+    private void rehash(int requiredSize) {
+        int newCapacity = initialCapacity;
+        while (requiredSize > (int) (newCapacity * loadFactor)) {
+            newCapacity <<= 1;
+        }
+        Table oldTable = this.table;
+        Table newTable = new Table(newCapacity, loadFactor);
+        Object[] oldKeys = oldTable.keys;
+        Object[] newKeys = newTable.keys;
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key == null || key == TOMBSTONE) {
+                continue;
+            }
+            int hash = oldTable.hashes[i];
+            int index = hash & mask;
+            while (newKeys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            newKeys[index] = key;
+            newTable.hashes[index] = hash;
+            newTable.values[index] = oldTable.values[i];
+        }
+        // the old table is left intact for iterators which are still traversing it
+        this.table = newTable;
+        tombstones = 0;
+    }
+
+    /**
+     * The parallel arrays backing the map, replaced as a whole on rehash.
+     */
+    private static final class Table {
+        final int[] hashes;
+        final Object[] keys;
+        final Object[] values;
+        final int resizeThreshold;
+
+        Table(int capacity, double loadFactor) {
+            hashes = new int[capacity];
+            keys = new Object[capacity];
+            values = new Object[capacity];
+            // always keep at least one empty slot so that probing terminates
+            resizeThreshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+        }
+    }
+
+    private final class KeySet extends AbstractSet<Data> {
+        @Override
+        public int size() {
+            return Data2ObjectHashMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return Data2ObjectHashMap.this.remove(o) != null;
+        }
+
+        @Override
+        public void clear() {
+            Data2ObjectHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Data> iterator() {
+            return new KeyIterator();
+        }
+    }
+
+    private final class ValueCollection extends AbstractCollection<V> {
+        @Override
+        public int size() {
+            return Data2ObjectHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            Data2ObjectHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new ValueIterator();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<Data, V>> {
+        @Override
+        public int size() {
+            return Data2ObjectHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            Data2ObjectHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<Data, V>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    /**
+     * Walks the slots of the table which was current when the iterator was created.
+     */
+    private abstract class AbstractIterator<T> implements Iterator<T> {
+        private final Table snapshot;
+        private int index = -1;
+        private Data nextKey;
+        private V nextValue;
+        private Data lastKey;
+
+        AbstractIterator() {
+            this(0);
+        }
+
+        AbstractIterator(int startIndex) {
+            this.snapshot = table;
+            this.index = startIndex - 1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextKey != null || advance();
+        }
+
+        protected Entry<Data, V> nextEntry() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<Data, V> entry = new SimpleImmutableEntry<Data, V>(nextKey, nextValue);
+            lastKey = nextKey;
+            nextKey = null;
+            nextValue = null;
+            return entry;
+        }
+
+        protected Data nextKey() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Data key = nextKey;
+            lastKey = key;
+            nextKey = null;
+            nextValue = null;
+            return key;
+        }
+
+        protected V nextValue() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            V value = nextValue;
+            lastKey = nextKey;
+            nextKey = null;
+            nextValue = null;
+            return value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean advance() {
+            Object[] keys = snapshot.keys;
+            while (hasMoreSlots()) {
+                index = nextIndex(index);
+                Object key = keys[index];
+                if (key == null || key == TOMBSTONE) {
+                    continue;
+                }
+                V value;
+                if (snapshot == table) {
+                    value = (V) snapshot.values[index];
+                } else {
+                    value = get(key);
+                }
+                if (value != null) {
+                    nextKey = (Data) key;
+                    nextValue = value;
+                    onAdvance();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        protected boolean hasMoreSlots() {
+            return index + 1 < snapshot.keys.length;
+        }
+
+        protected int nextIndex(int index) {
+            return index + 1;
+        }
+
+        protected int capacity() {
+            return snapshot.keys.length;
+        }
+
+        protected void onAdvance() {
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            Data2ObjectHashMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    private final class KeyIterator extends AbstractIterator<Data> {
+        @Override
+        public Data next() {
+            return nextKey();
+        }
+    }
+
+    private final class ValueIterator extends AbstractIterator<V> {
+        @Override
+        public V next() {
+            return nextValue();
+        }
+    }
+
+    private final class EntryIterator extends AbstractIterator<Entry<Data, V>> {
+        @Override
+        public Entry<Data, V> next() {
+            return nextEntry();
+        }
+    }
+
+    /**
+     * Wraps around the table starting from a random slot and stops after the requested number of samples
+     * or after visiting every slot once. Not thread safe, a new instance is created for each sampling.
+     */
+    private final class SamplingIterable implements Iterable<V> {
+        private final int sampleCount;
+
+        private SamplingIterable(int sampleCount) {
+            this.sampleCount = sampleCount;
+        }
+
+        @Override
+        public Iterator<V> iterator() {
+            return new SamplingIterator(sampleCount);
+        }
+    }
+
+    private final class SamplingIterator extends AbstractIterator<V> {
+        private final int maxSampleCount;
+        private int visitedSlots;
+        private int returnedSampleCount;
+
+        private SamplingIterator(int maxSampleCount) {
+            super(THREAD_LOCAL_RANDOM.get().nextInt(Integer.MAX_VALUE) & (table.keys.length - 1));
+            this.maxSampleCount = maxSampleCount;
+        }
+
+        @Override
+        protected boolean hasMoreSlots() {
+            return returnedSampleCount < maxSampleCount && visitedSlots < capacity();
+        }
+
+        @Override
+        protected int nextIndex(int index) {
+            visitedSlots++;
+            return (index + 1) & (capacity() - 1);
+        }
+
+        @Override
+        protected void onAdvance() {
+            returnedSampleCount++;
+        }
+
+        @Override
+        public V next() {
+            return nextValue();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.concurrent;
+
+/**
+ * An {@link IdleStrategy} that busy spins. This gives the lowest latency, but it keeps a core busy, so it should
+ * only be used when there are enough cores available for the idling threads.
+ */
+public final class BusySpinIdleStrategy implements IdleStrategy {
+
+    @Override
+    public boolean idle(long n) {
+        return false;
+    }
+
+    @Override
+    public boolean willPark(long n) {
+        return false;
+    }
+}
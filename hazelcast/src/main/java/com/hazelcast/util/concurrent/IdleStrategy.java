@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.concurrent;
+
+/**
+ * Strategy for a thread that has no work to do, e.g. a consumer that found its queue empty.
+ */
+public interface IdleStrategy {
+
+    /**
+     * Performs idling. The strategy can spin, yield or park, depending on how long the caller has been idle.
+     *
+     * @param n the number of consecutive times the caller found no work; starts at 0.
+     * @return true if the calling thread has been parked, false otherwise.
+     */
+    boolean idle(long n);
+
+    /**
+     * Tells if {@link #idle(long)} is going to park the calling thread, so the caller can announce that it needs
+     * to be unparked; while the strategy only spins or yields, such an announcement would just cause needless wakeups.
+     *
+     * @param n the number of consecutive times the caller found no work; starts at 0.
+     * @return true if {@link #idle(long)} parks the calling thread for the given n, false otherwise.
+     */
+    boolean willPark(long n);
+}
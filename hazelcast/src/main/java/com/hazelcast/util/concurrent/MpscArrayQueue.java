@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+
+/**
+ * A bounded, array backed, lock-free queue for multiple producer threads and a single consumer thread.
+ * <p/>
+ * Producers claim a slot using a CAS on the tail. Offering and polling don't create litter and don't take locks.
+ * If a producer claimed a slot but didn't publish its item yet, a poll returns null even though the queue isn't
+ * empty; the item will be returned by a later poll.
+ * <p/>
+ * This class doesn't implement {@link java.util.Queue} on purpose; only the operations that are safe for multiple
+ * producers and a single consumer are provided.
+ *
+ * @param <E> the type of the items
+ */
+public final class MpscArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int capacity;
+    private final int mask;
+
+    // written by the consumer only
+    private final AtomicLong head = new AtomicLong();
+    // claimed by the producers using a CAS
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a queue.
+     *
+     * @param requestedCapacity the requested capacity; rounded up to the next power of two
+     * @throws IllegalArgumentException if requestedCapacity is not positive
+     */
+    public MpscArrayQueue(int requestedCapacity) {
+        checkPositive(requestedCapacity, "requestedCapacity should be positive");
+        this.capacity = nextPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<E>(capacity);
+    }
+
+    /**
+     * Offers an item to this queue. Can be called by any thread.
+     *
+     * @param item the item to offer
+     * @return true if the item was added, false if the queue is full
+     * @throws NullPointerException if item is null
+     */
+    public boolean offer(E item) {
+        checkNotNull(item, "item can't be null");
+
+        for (; ; ) {
+            long currentTail = tail.get();
+            if (currentTail - head.get() >= capacity) {
+                return false;
+            }
+
+            if (tail.compareAndSet(currentTail, currentTail + 1)) {
+                buffer.lazySet((int) currentTail & mask, item);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes the head of this queue. Should only be called by the consumer thread.
+     *
+     * @return the head of the queue or null if the queue is empty or the head has not been published yet
+     */
+    public E poll() {
+        long currentHead = head.get();
+        int index = (int) currentHead & mask;
+        E item = buffer.get(index);
+        if (item == null) {
+            return null;
+        }
+
+        buffer.lazySet(index, null);
+        head.lazySet(currentHead + 1);
+        return item;
+    }
+
+    /**
+     * Returns the number of items in this queue. The value is a best effort value.
+     *
+     * @return the number of items
+     */
+    public int size() {
+        long currentHead = head.get();
+        long size = tail.get() - currentHead;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    /**
+     * Returns the capacity of this queue.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
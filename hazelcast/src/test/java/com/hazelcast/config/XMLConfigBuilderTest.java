@@ -782,6 +782,27 @@ public class XMLConfigBuilderTest extends HazelcastTestSupport {
         return configBuilder.build();
     }
 
+    @Test
+    public void readMapIndexConfig_bitmap() {
+        String xml =
+                "<hazelcast xmlns=\"http://www.hazelcast.com/schema/config\">\n" +
+                        "    <map name=\"test\">\n" +
+                        "        <indexes>\n" +
+                        "            <index bitmap=\"true\">status</index>\n" +
+                        "            <index ordered=\"true\">age</index>\n" +
+                        "        </indexes>\n" +
+                        "    </map>\n" +
+                        "</hazelcast>";
+        Config config = buildConfig(xml);
+        List<MapIndexConfig> indexConfigs = config.getMapConfig("test").getMapIndexConfigs();
+
+        assertEquals("status", indexConfigs.get(0).getAttribute());
+        assertTrue(indexConfigs.get(0).isBitmap());
+        assertEquals("age", indexConfigs.get(1).getAttribute());
+        assertTrue(indexConfigs.get(1).isOrdered());
+        assertFalse(indexConfigs.get(1).isBitmap());
+    }
+
     @Test
     public void readMulticastConfig() {
         String xml =
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.storage.impl;
+
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.internal.storage.DataRef;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class OffHeapStorageTest {
+
+    private static final int PAGE_SIZE = 1024;
+    private static final int MIN_BLOCK_SIZE = 16;
+
+    private SerializationService serializationService;
+    private OffHeapStorage storage;
+
+    @Before
+    public void setUp() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        storage = new OffHeapStorage(newConfig(NativeMemoryConfig.MemoryAllocatorType.POOLED, 64), 4);
+    }
+
+    @After
+    public void tearDown() {
+        storage.destroy();
+    }
+
+    private static NativeMemoryConfig newConfig(NativeMemoryConfig.MemoryAllocatorType allocatorType, int sizeInKb) {
+        return new NativeMemoryConfig()
+                .setEnabled(true)
+                .setAllocatorType(allocatorType)
+                .setPageSize(PAGE_SIZE)
+                .setMinBlockSize(MIN_BLOCK_SIZE)
+                .setSize(new MemorySize(sizeInKb, MemoryUnit.KILOBYTES));
+    }
+
+    @Test
+    public void testPutAndGet() {
+        Data data = serializationService.toData("value");
+
+        DataRef ref = storage.put(data.getPartitionHash(), data);
+
+        assertEquals(data.totalSize(), ref.size());
+        assertEquals(data, storage.get(data.getPartitionHash(), ref));
+        assertEquals("value", serializationService.toObject(storage.get(data.getPartitionHash(), ref)));
+    }
+
+    @Test
+    public void testPutAndGet_largerThanPage() {
+        Data data = serializationService.toData(new byte[PAGE_SIZE * 3]);
+
+        DataRef ref = storage.put(1, data);
+
+        assertEquals(data, storage.get(1, ref));
+        assertEquals(data.totalSize(), storage.getUsedMemory());
+    }
+
+    @Test
+    public void testPutAndGet_manyValues() {
+        List<Data> values = new ArrayList<Data>();
+        List<DataRef> refs = new ArrayList<DataRef>();
+        for (int i = 0; i < 1000; i++) {
+            Data data = serializationService.toData("value-" + i);
+            values.add(data);
+            refs.add(storage.put(i, data));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(values.get(i), storage.get(i, refs.get(i)));
+        }
+        assertEquals(1000, storage.getAllocationCount());
+    }
+
+    @Test
+    public void testRemove_memoryIsReused() {
+        Data data = serializationService.toData("value");
+        DataRef ref = storage.put(1, data);
+        long committed = storage.getCommittedMemory();
+        assertTrue(storage.getUsedMemory() > 0);
+
+        storage.remove(1, ref);
+        assertEquals(0, storage.getUsedMemory());
+        assertEquals(0, storage.getDataMemory());
+        assertEquals(1, storage.getFreeCount());
+
+        for (int i = 0; i < 100; i++) {
+            storage.remove(1, storage.put(1, data));
+        }
+        assertEquals(committed, storage.getCommittedMemory());
+    }
+
+    @Test
+    public void testRemove_dedicatedBufferReleasesMemory() {
+        Data data = serializationService.toData(new byte[PAGE_SIZE * 2]);
+        DataRef ref = storage.put(1, data);
+        long committed = storage.getCommittedMemory();
+
+        storage.remove(1, ref);
+
+        assertEquals(committed - data.totalSize(), storage.getCommittedMemory());
+    }
+
+    @Test
+    public void testBlockSizeRounding() {
+        Data data = serializationService.toData(new byte[20]);
+
+        storage.put(1, data);
+
+        long blockSize = Long.highestOneBit(data.totalSize() - 1) << 1;
+        assertEquals(blockSize, storage.getUsedMemory());
+        assertEquals(data.totalSize(), storage.getDataMemory());
+        assertTrue(storage.getFragmentationPercentage() > 0);
+    }
+
+    @Test
+    public void testStandardAllocator() {
+        OffHeapStorage standard = new OffHeapStorage(newConfig(NativeMemoryConfig.MemoryAllocatorType.STANDARD, 64), 1);
+        Data data = serializationService.toData("value");
+
+        DataRef ref = standard.put(1, data);
+
+        assertEquals(data, standard.get(1, ref));
+        assertEquals(data.totalSize(), standard.getCommittedMemory());
+        standard.remove(1, ref);
+        assertEquals(0, standard.getCommittedMemory());
+    }
+
+    @Test(expected = NativeOutOfMemoryError.class)
+    public void testMaxMemoryExceeded() {
+        OffHeapStorage small = new OffHeapStorage(newConfig(NativeMemoryConfig.MemoryAllocatorType.POOLED, 1), 1);
+        Data data = serializationService.toData(new byte[PAGE_SIZE / 2]);
+
+        small.put(1, data);
+        small.put(1, data);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPageSizeNotPowerOfTwo() {
+        NativeMemoryConfig config = newConfig(NativeMemoryConfig.MemoryAllocatorType.POOLED, 64).setPageSize(1000);
+        new OffHeapStorage(config, 1);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.storage.impl.OffHeapStorage;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryStats;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeInMemoryFormatTest extends HazelcastTestSupport {
+
+    private HazelcastInstance hz;
+    private OffHeapStorage storage;
+
+    @Before
+    public void setUp() {
+        Config config = new Config();
+        config.getMapConfig("native*").setInMemoryFormat(InMemoryFormat.NATIVE).setBackupCount(0);
+        config.getNativeMemoryConfig()
+                .setEnabled(true)
+                .setSize(new MemorySize(16, MemoryUnit.MEGABYTES))
+                .setPageSize(1 << 16);
+        hz = createHazelcastInstance(config);
+        storage = (OffHeapStorage) getNode(hz).getNodeExtension().getNativeDataStorage();
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        IMap<Integer, String> map = hz.getMap("native-map");
+
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, "value-" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value-" + i, map.get(i));
+        }
+        assertTrue(storage.getUsedMemory() > 0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value-" + i, map.remove(i));
+        }
+        assertNull(map.get(0));
+        assertEquals(0, storage.getUsedMemory());
+    }
+
+    @Test
+    public void testUpdate_releasesOldValue() {
+        IMap<Integer, String> map = hz.getMap("native-map");
+
+        for (int i = 0; i < 100; i++) {
+            map.put(1, "value-" + i);
+        }
+
+        assertEquals("value-99", map.get(1));
+        assertEquals(1, storage.getAllocationCount() - storage.getFreeCount());
+    }
+
+    @Test
+    public void testClear_releasesValues() {
+        IMap<Integer, String> map = hz.getMap("native-map");
+        for (int i = 0; i < 100; i++) {
+            map.put(i, "value-" + i);
+        }
+
+        map.clear();
+
+        assertEquals(0, storage.getUsedMemory());
+    }
+
+    @Test
+    public void testMemoryStats() {
+        IMap<Integer, String> map = hz.getMap("native-map");
+        map.put(1, "value");
+
+        MemoryStats memoryStats = getNode(hz).getNodeExtension().getMemoryStats();
+
+        assertEquals(new MemorySize(16, MemoryUnit.MEGABYTES).bytes(), memoryStats.getMaxNativeMemory());
+        assertTrue(memoryStats.getUsedNativeMemory() > 0);
+        assertTrue(memoryStats.getCommittedNativeMemory() >= memoryStats.getUsedNativeMemory());
+    }
+
+    @Test
+    public void testMetrics() {
+        IMap<Integer, String> map = hz.getMap("native-map");
+        map.put(1, "value");
+
+        MetricsRegistry metricsRegistry = getMetricsRegistry(hz);
+
+        assertEquals(storage.getUsedMemory(), metricsRegistry.newLongGauge("native.storage.usedMemory").read());
+        assertEquals(1, metricsRegistry.newLongGauge("native.storage.allocationCount").read());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the cursor mode of {@link PagingPredicate}.
+ */
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PagingCursorTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 300;
+    private static final int PAGE_SIZE = 10;
+    private static final int PAGE_COUNT = ENTRY_COUNT / PAGE_SIZE;
+
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setup() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT, "3");
+        HazelcastInstance instance = createHazelcastInstance(config);
+        map = instance.getMap(randomMapName());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, ENTRY_COUNT - i);
+        }
+    }
+
+    @Test
+    public void testPages_matchRegularPaging() {
+        PagingPredicate regular = new PagingPredicate(new CountingPredicate(), PAGE_SIZE);
+        PagingPredicate cursor = new PagingPredicate(new CountingPredicate(), PAGE_SIZE);
+        cursor.setCursorEnabled(true);
+
+        for (int page = 0; page <= PAGE_COUNT; page++) {
+            assertEquals(new ArrayList<Integer>(map.values(regular)), new ArrayList<Integer>(map.values(cursor)));
+            regular.nextPage();
+            cursor.nextPage();
+        }
+    }
+
+    @Test
+    public void testPartitions_areNotScannedForEveryPage() {
+        CountingPredicate regularPredicate = new CountingPredicate();
+        queryAllPages(new PagingPredicate(regularPredicate, PAGE_SIZE));
+
+        CountingPredicate cursorPredicate = new CountingPredicate();
+        PagingPredicate cursor = new PagingPredicate(cursorPredicate, PAGE_SIZE);
+        cursor.setCursorEnabled(true);
+        queryAllPages(cursor);
+
+        int regularApplyCount = regularPredicate.applyCount.get();
+        int cursorApplyCount = cursorPredicate.applyCount.get();
+        assertEquals(PAGE_COUNT * ENTRY_COUNT, regularApplyCount);
+        assertTrue("regular: " + regularApplyCount + ", cursor: " + cursorApplyCount,
+                cursorApplyCount * 3 < regularApplyCount);
+    }
+
+    @Test
+    public void testJumpingToPage_fallsBackToRegularPaging() {
+        PagingPredicate cursor = new PagingPredicate(PAGE_SIZE);
+        cursor.setCursorEnabled(true);
+        map.values(cursor);
+        cursor.setPage(5);
+
+        List<Integer> values = new ArrayList<Integer>(map.values(cursor));
+
+        assertEquals(PAGE_SIZE, values.size());
+        assertEquals(5 * PAGE_SIZE + 1, (int) values.get(0));
+    }
+
+    private void queryAllPages(PagingPredicate pagingPredicate) {
+        int valueCount = 0;
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            Collection<Integer> values = map.values(pagingPredicate);
+            valueCount += values.size();
+            pagingPredicate.nextPage();
+        }
+        assertEquals(ENTRY_COUNT, valueCount);
+    }
+
+    /**
+     * Counts the evaluated entries, the predicate is not serialized since the test runs on a single member.
+     */
+    private static class CountingPredicate implements Predicate<Integer, Integer> {
+
+        private final AtomicInteger applyCount = new AtomicInteger();
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            applyCount.incrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.aggregation.Aggregators;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class AggregationTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 500;
+
+    private static void fill(IMap<Integer, Employee> map) {
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, new Employee(i, "name" + i, i % 50, (i & 1) == 1, i));
+        }
+    }
+
+    private IMap<Integer, Employee> newMap(Config config) {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+        return instance.getMap(randomMapName());
+    }
+
+    @Test
+    public void testAggregate_withoutPredicate() {
+        IMap<Integer, Employee> map = newMap(new Config());
+        fill(map);
+
+        assertEquals(Long.valueOf(COUNT), map.aggregate(Aggregators.count()));
+        assertEquals(Long.valueOf(12250), map.aggregate(Aggregators.longSum("age")));
+        assertEquals(124750d, map.aggregate(Aggregators.doubleSum("salary")), 0d);
+        assertEquals(24.5d, map.aggregate(Aggregators.doubleAvg("age")), 0d);
+        assertEquals(499d, map.aggregate(Aggregators.<Object, Double>comparableMax("salary")), 0d);
+        assertEquals("name0", map.aggregate(Aggregators.<Object, String>comparableMin("name")));
+    }
+
+    @Test
+    public void testAggregate_withPredicate() {
+        IMap<Integer, Employee> map = newMap(new Config());
+        fill(map);
+
+        assertAggregationsOfYoungEmployees(map);
+    }
+
+    @Test
+    public void testAggregate_withIndex() {
+        IMap<Integer, Employee> map = newMap(new Config());
+        map.addIndex("age", true);
+        fill(map);
+
+        assertAggregationsOfYoungEmployees(map);
+    }
+
+    @Test
+    public void testAggregate_withPartitionedIndex() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.QUERY_PARTITIONED_INDEXES.getName(), "true");
+        IMap<Integer, Employee> map = newMap(config);
+        map.addIndex("age", true);
+        fill(map);
+
+        assertAggregationsOfYoungEmployees(map);
+    }
+
+    @Test
+    public void testAggregate_whenEmpty() {
+        IMap<Integer, Employee> map = newMap(new Config());
+
+        assertEquals(Long.valueOf(0), map.aggregate(Aggregators.count()));
+        assertNull(map.aggregate(Aggregators.doubleAvg("age")));
+        assertNull(map.aggregate(Aggregators.comparableMax("age")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregate_withPagingPredicate() {
+        IMap<Integer, Employee> map = newMap(new Config());
+
+        map.aggregate(Aggregators.count(), new PagingPredicate(10));
+    }
+
+    private static void assertAggregationsOfYoungEmployees(IMap<Integer, Employee> map) {
+        SqlPredicate predicate = new SqlPredicate("age < 10");
+        assertEquals(Long.valueOf(100), map.aggregate(Aggregators.count(), predicate));
+        assertEquals(Long.valueOf(450), map.aggregate(Aggregators.longSum("age"), predicate));
+        assertEquals(4.5d, map.aggregate(Aggregators.doubleAvg("age"), predicate), 0d);
+        assertEquals(Integer.valueOf(9), map.aggregate(Aggregators.<Object, Integer>comparableMax("age"), predicate));
+        assertEquals(Long.valueOf(10), map.aggregate(Aggregators.count(), Predicates.equal("age", 5)));
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.query.TruePredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MapQueryIteratorTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 1000;
+
+    private static void fill(IMap<Integer, Employee> map) {
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, new Employee(i, "name" + i, i % 50, (i & 1) == 1, i));
+        }
+    }
+
+    private IMap<Integer, Employee> newMap(Config config) {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance(config);
+        factory.newHazelcastInstance(config);
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+        return instance.getMap(randomMapName());
+    }
+
+    @Test
+    public void testIterator_returnsAllEntries() {
+        IMap<Integer, Employee> map = newMap(new Config());
+        fill(map);
+
+        Set<Integer> keys = collectKeys(map.iterator(TruePredicate.INSTANCE, 7));
+
+        assertEquals(COUNT, keys.size());
+    }
+
+    @Test
+    public void testIterator_returnsMatchingEntries() {
+        IMap<Integer, Employee> map = newMap(new Config());
+        fill(map);
+
+        Iterator<Map.Entry<Integer, Employee>> iterator = map.iterator(new SqlPredicate("age < 10"), 13);
+        int count = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Employee> entry = iterator.next();
+            assertEquals(entry.getKey().intValue(), entry.getValue().getId());
+            assertTrue(entry.getValue().getAge() < 10);
+            count++;
+        }
+
+        assertEquals(200, count);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIterator_whenEmpty() {
+        IMap<Integer, Employee> map = newMap(new Config());
+
+        Iterator<Map.Entry<Integer, Employee>> iterator = map.iterator(TruePredicate.INSTANCE, 10);
+
+        assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIterator_withPagingPredicate() {
+        IMap<Integer, Employee> map = newMap(new Config());
+
+        map.iterator(new PagingPredicate(10), 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIterator_withInvalidFetchSize() {
+        IMap<Integer, Employee> map = newMap(new Config());
+
+        map.iterator(TruePredicate.INSTANCE, 0);
+    }
+
+    private static Set<Integer> collectKeys(Iterator<Map.Entry<Integer, Employee>> iterator) {
+        Set<Integer> keys = new HashSet<Integer>();
+        while (iterator.hasNext()) {
+            keys.add(iterator.next().getKey());
+        }
+        return keys;
+    }
+}
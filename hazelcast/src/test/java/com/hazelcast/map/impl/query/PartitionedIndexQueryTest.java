@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PartitionedIndexQueryTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 500;
+
+    private Config newConfig() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.QUERY_PARTITIONED_INDEXES.getName(), "true");
+        return config;
+    }
+
+    private static void fill(IMap<Integer, Employee> map) {
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, new Employee(i, "name" + i, i % 50, (i & 1) == 1, i));
+        }
+    }
+
+    @Test
+    public void testQueries_whenIndexesAddedBeforeData() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Employee> map = instance.getMap(randomMapName());
+        map.addIndex("age", true);
+        map.addIndex("name", false);
+        fill(map);
+
+        assertQueries(map);
+    }
+
+    @Test
+    public void testQueries_whenIndexesAddedAfterData() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Employee> map = instance.getMap(randomMapName());
+        fill(map);
+        map.addIndex("age", true);
+        map.addIndex("name", false);
+
+        assertQueries(map);
+    }
+
+    @Test
+    public void testQueries_reflectUpdatesAndRemoves() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Employee> map = instance.getMap(randomMapName());
+        map.addIndex("age", true);
+        fill(map);
+
+        for (int i = 0; i < COUNT; i += 50) {
+            map.remove(i);
+        }
+        map.put(1, new Employee(1, "name1", 0, true, 1));
+
+        Collection<Employee> values = map.values(Predicates.equal("age", 0));
+        assertEquals(1, values.size());
+        assertEquals("name1", values.iterator().next().getName());
+        assertEquals(COUNT / 50 - 1, map.values(Predicates.equal("age", 1)).size());
+    }
+
+    @Test
+    public void testPagingPredicate() {
+        HazelcastInstance instance = createHazelcastInstance(newConfig());
+        IMap<Integer, Employee> map = instance.getMap(randomMapName());
+        map.addIndex("age", true);
+        fill(map);
+
+        PagingPredicate predicate = new PagingPredicate(Predicates.lessThan("age", 2), 5);
+        Set<Integer> seen = new HashSet<Integer>();
+        for (int page = 0; page < 4; page++) {
+            Set<Integer> keys = map.keySet(predicate);
+            assertEquals(5, keys.size());
+            seen.addAll(keys);
+            predicate.nextPage();
+        }
+        assertEquals(20, seen.size());
+    }
+
+    @Test
+    public void testQueries_afterMigration() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(newConfig());
+        String mapName = randomMapName();
+        IMap<Integer, Employee> map = instance1.getMap(mapName);
+        map.addIndex("age", true);
+        map.addIndex("name", false);
+        fill(map);
+
+        HazelcastInstance instance2 = factory.newHazelcastInstance(newConfig());
+        waitAllForSafeState(instance1, instance2);
+
+        assertQueries(map);
+        assertQueries(instance2.<Integer, Employee>getMap(mapName));
+    }
+
+    private static void assertQueries(IMap<Integer, Employee> map) {
+        Collection<Employee> values = map.values(Predicates.equal("age", 7));
+        assertEquals(COUNT / 50, values.size());
+        for (Employee employee : values) {
+            assertEquals(7, employee.getAge());
+        }
+
+        assertEquals(COUNT / 50 * 3, map.values(Predicates.between("age", 10, 12)).size());
+        assertEquals(COUNT / 50 * 9, map.values(Predicates.greaterThan("age", 40)).size());
+        assertEquals(1, map.values(Predicates.equal("name", "name42")).size());
+
+        Collection<Employee> sql = map.values(new SqlPredicate("age < 2 and name = 'name51'"));
+        assertEquals(1, sql.size());
+        assertTrue(sql.iterator().next().getAge() < 2);
+    }
+}
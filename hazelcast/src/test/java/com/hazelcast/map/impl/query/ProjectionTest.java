@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.projection.Projections;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ProjectionTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 500;
+
+    private static void fill(IMap<Integer, Employee> map) {
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, new Employee(i, "name" + i, i % 50, (i & 1) == 1, i));
+        }
+    }
+
+    private IMap<Integer, Employee> newMap() {
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance = factory.newHazelcastInstance();
+        factory.newHazelcastInstance();
+        waitAllForSafeState(factory.getAllHazelcastInstances());
+        return instance.getMap(randomMapName());
+    }
+
+    @Test
+    public void testSingleAttribute() {
+        IMap<Integer, Employee> map = newMap();
+        fill(map);
+
+        Collection<Long> ids = map.project(Projections.<Object, Long>singleAttribute("id"));
+
+        assertEquals(COUNT, ids.size());
+        Set<Long> expected = new HashSet<Long>();
+        for (long i = 0; i < COUNT; i++) {
+            expected.add(i);
+        }
+        assertEquals(expected, new HashSet<Long>(ids));
+    }
+
+    @Test
+    public void testSingleAttribute_withPredicate() {
+        IMap<Integer, Employee> map = newMap();
+        map.addIndex("age", true);
+        fill(map);
+
+        Collection<Integer> ages = map.project(Projections.<Object, Integer>singleAttribute("age"),
+                new SqlPredicate("age < 10"));
+
+        assertEquals(100, ages.size());
+        for (Integer age : ages) {
+            assertTrue(age < 10);
+        }
+    }
+
+    @Test
+    public void testMultiAttribute() {
+        IMap<Integer, Employee> map = newMap();
+        fill(map);
+
+        Collection<Object[]> rows = map.project(Projections.multiAttribute("name", "age"), new SqlPredicate("id = 42"));
+
+        assertEquals(1, rows.size());
+        Object[] row = rows.iterator().next();
+        assertEquals("name42", row[0]);
+        assertEquals(42, row[1]);
+    }
+
+    @Test
+    public void testProject_whenEmpty() {
+        IMap<Integer, Employee> map = newMap();
+
+        assertTrue(map.project(Projections.singleAttribute("id")).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testProject_withPagingPredicate() {
+        IMap<Integer, Employee> map = newMap();
+
+        map.project(Projections.singleAttribute("id"), new PagingPredicate(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiAttribute_withoutPaths() {
+        Projections.multiAttribute();
+    }
+}
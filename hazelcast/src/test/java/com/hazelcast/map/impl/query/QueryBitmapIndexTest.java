@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.query;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapConfig;
+import com.hazelcast.config.MapIndexConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class QueryBitmapIndexTest extends HazelcastTestSupport {
+
+    private static final int COUNT = 1000;
+
+    @Test
+    public void testQuery_withBitmapIndexes() {
+        String mapName = randomMapName();
+        TestHazelcastInstanceFactory factory = createHazelcastInstanceFactory(2);
+        HazelcastInstance instance1 = factory.newHazelcastInstance(newConfig(mapName));
+        IMap<Integer, Employee> map = instance1.getMap(mapName);
+        for (int i = 0; i < COUNT; i++) {
+            map.put(i, new Employee(i, "name" + i, i % 10, (i & 1) == 1, i));
+        }
+        HazelcastInstance instance2 = factory.newHazelcastInstance(newConfig(mapName));
+        waitAllForSafeState(instance1, instance2);
+
+        assertQuery(map);
+        assertQuery(instance2.<Integer, Employee>getMap(mapName));
+    }
+
+    private static void assertQuery(IMap<Integer, Employee> map) {
+        Collection<Employee> values = map.values(new SqlPredicate("age = 3 and active = true"));
+        assertEquals(COUNT / 10, values.size());
+        for (Employee employee : values) {
+            assertEquals(3, employee.getAge());
+            assertTrue(employee.isActive());
+        }
+        assertEquals(COUNT / 10 * 3, map.values(new SqlPredicate("age in (1, 2) or age = 5")).size());
+    }
+
+    private static Config newConfig(String mapName) {
+        Config config = new Config();
+        MapConfig mapConfig = config.getMapConfig(mapName);
+        mapConfig.addMapIndexConfig(new MapIndexConfig("age", false).setBitmap(true));
+        mapConfig.addMapIndexConfig(new MapIndexConfig("active", false).setBitmap(true));
+        return config;
+    }
+}
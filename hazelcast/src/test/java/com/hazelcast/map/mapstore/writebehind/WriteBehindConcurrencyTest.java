@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.mapstore.writebehind;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.MapStoreConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.MapStoreAdapter;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WriteBehindConcurrencyTest extends HazelcastTestSupport {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    @Test
+    public void testPartitionGroups_areStoredInParallel() {
+        String mapName = randomMapName();
+        SlowMapStore mapStore = new SlowMapStore(200);
+        Config config = newConfig(mapName, mapStore, 10);
+        config.setProperty(GroupProperty.MAP_WRITE_BEHIND_CONCURRENCY, "4");
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        IMap<Integer, Integer> map = instance.getMap(mapName);
+        populate(map);
+
+        assertAllStored(mapStore);
+        assertTrue("max concurrent stores: " + mapStore.maxConcurrentStores.get(),
+                mapStore.maxConcurrentStores.get() > 1);
+        assertTrue(readGauge(instance, mapName, "storeCount") > 0);
+        assertEquals(0, readGauge(instance, mapName, "queueSize"));
+    }
+
+    @Test
+    public void testBatchSize_adaptsToStoreLatency() {
+        final String mapName = randomMapName();
+        SlowMapStore mapStore = new SlowMapStore(50);
+        Config config = newConfig(mapName, mapStore, 64);
+        config.setProperty(GroupProperty.MAP_WRITE_BEHIND_TARGET_BATCH_LATENCY_MILLIS, "10");
+        final HazelcastInstance instance = createHazelcastInstance(config);
+
+        IMap<Integer, Integer> map = instance.getMap(mapName);
+        populate(map);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(readGauge(instance, mapName, "batchSize") < 64);
+            }
+        });
+    }
+
+    @Test
+    public void testSlowRun_doesNotOverlapWithNextRun() {
+        String mapName = randomMapName();
+        final OrderRecordingMapStore mapStore = new OrderRecordingMapStore(1500);
+        Config config = new Config();
+        config.setProperty(GroupProperty.MAP_WRITE_BEHIND_CONCURRENCY, "2");
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(mapStore)
+                .setWriteDelaySeconds(1);
+        mapStoreConfig.setWriteCoalescing(false);
+        config.getMapConfig(mapName).setMapStoreConfig(mapStoreConfig);
+        HazelcastInstance instance = createHazelcastInstance(config);
+
+        final int keyCount = 10;
+        final int updateCount = 5;
+        IMap<Integer, Integer> map = instance.getMap(mapName);
+        for (int value = 0; value < updateCount; value++) {
+            for (int key = 0; key < keyCount; key++) {
+                map.put(key, value);
+            }
+            // spread the updates over several runs of the store worker
+            sleepMillis(700);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                for (int key = 0; key < keyCount; key++) {
+                    List<Integer> values = mapStore.getStoredValues(key);
+                    assertEquals("key " + key + " stored " + values, updateCount, values.size());
+                }
+            }
+        });
+        for (int key = 0; key < keyCount; key++) {
+            List<Integer> values = mapStore.getStoredValues(key);
+            for (int value = 0; value < updateCount; value++) {
+                assertEquals("key " + key + " stored " + values, value, (int) values.get(value));
+            }
+        }
+    }
+
+    private static Config newConfig(String mapName, SlowMapStore mapStore, int writeBatchSize) {
+        Config config = new Config();
+        config.setProperty(GroupProperty.PERFORMANCE_METRICS_LEVEL, ProbeLevel.INFO.name());
+        MapStoreConfig mapStoreConfig = new MapStoreConfig()
+                .setEnabled(true)
+                .setImplementation(mapStore)
+                .setWriteDelaySeconds(1)
+                .setWriteBatchSize(writeBatchSize);
+        config.getMapConfig(mapName).setMapStoreConfig(mapStoreConfig);
+        return config;
+    }
+
+    private static void populate(IMap<Integer, Integer> map) {
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+    }
+
+    private static void assertAllStored(final SlowMapStore mapStore) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(ENTRY_COUNT, mapStore.store.size());
+            }
+        });
+    }
+
+    private static long readGauge(HazelcastInstance instance, String mapName, String name) {
+        MetricsRegistry metricsRegistry = getNodeEngineImpl(instance).getMetricsRegistry();
+        return metricsRegistry.newLongGauge("map[" + mapName + "].writeBehind." + name).read();
+    }
+
+    private static class SlowMapStore extends MapStoreAdapter<Integer, Integer> {
+
+        private final ConcurrentMap<Integer, Integer> store = new ConcurrentHashMap<Integer, Integer>();
+        private final AtomicInteger concurrentStores = new AtomicInteger();
+        private final AtomicInteger maxConcurrentStores = new AtomicInteger();
+        private final long storeMillis;
+
+        SlowMapStore(long storeMillis) {
+            this.storeMillis = storeMillis;
+        }
+
+        @Override
+        public void store(Integer key, Integer value) {
+            storeAll(Collections.singletonMap(key, value));
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            int concurrent = concurrentStores.incrementAndGet();
+            for (; ; ) {
+                int max = maxConcurrentStores.get();
+                if (concurrent <= max || maxConcurrentStores.compareAndSet(max, concurrent)) {
+                    break;
+                }
+            }
+            sleepMillis((int) storeMillis);
+            store.putAll(map);
+            concurrentStores.decrementAndGet();
+        }
+    }
+
+    private static class OrderRecordingMapStore extends MapStoreAdapter<Integer, Integer> {
+
+        private final ConcurrentMap<Integer, List<Integer>> storedValues = new ConcurrentHashMap<Integer, List<Integer>>();
+        private final long storeMillis;
+
+        OrderRecordingMapStore(long storeMillis) {
+            this.storeMillis = storeMillis;
+        }
+
+        @Override
+        public void store(Integer key, Integer value) {
+            storeAll(Collections.singletonMap(key, value));
+        }
+
+        @Override
+        public void storeAll(Map<Integer, Integer> map) {
+            sleepMillis((int) storeMillis);
+            for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+                getStoredValues(entry.getKey()).add(entry.getValue());
+            }
+        }
+
+        List<Integer> getStoredValues(Integer key) {
+            List<Integer> values = storedValues.get(key);
+            if (values == null) {
+                values = Collections.synchronizedList(new ArrayList<Integer>());
+                List<Integer> existing = storedValues.putIfAbsent(key, values);
+                values = existing == null ? values : existing;
+            }
+            return values;
+        }
+    }
+}
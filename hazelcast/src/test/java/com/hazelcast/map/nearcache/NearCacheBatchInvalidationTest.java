@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.nearcache;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.nearcache.NearCache;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NearCacheBatchInvalidationTest extends HazelcastTestSupport {
+
+    @Test
+    public void testInvalidation_whenBatchSizeReached() {
+        // the batch frequency is too long to be involved
+        testInvalidation(10, 10000, 10);
+    }
+
+    @Test
+    public void testInvalidation_whenBatchFrequencyPassed() {
+        // the batch size is too large to be involved
+        testInvalidation(1000, 1, 1);
+    }
+
+    private void testInvalidation(int batchSize, int batchFrequencySeconds, int updateCount) {
+        String mapName = randomMapName();
+        Config config = newConfig(mapName, batchSize, batchFrequencySeconds);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        HazelcastInstance owner = instances[0];
+        HazelcastInstance nearCacheOwner = instances[1];
+
+        String key = generateKeyOwnedBy(owner);
+        IMap<String, Integer> ownerMap = owner.getMap(mapName);
+        ownerMap.put(key, 0);
+
+        IMap<String, Integer> nearCachedMap = nearCacheOwner.getMap(mapName);
+        nearCachedMap.get(key);
+        final NearCache nearCache = getNearCache(mapName, nearCacheOwner);
+        assertEquals(1, nearCache.size());
+
+        // the updates of the same key are coalesced into a single invalidation
+        for (int k = 1; k <= updateCount; k++) {
+            ownerMap.put(key, k);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(0, nearCache.size());
+            }
+        });
+        assertEquals(Integer.valueOf(updateCount), nearCachedMap.get(key));
+    }
+
+    private static Config newConfig(String mapName, int batchSize, int batchFrequencySeconds) {
+        Config config = new Config();
+        config.setProperty(GroupProperty.MAP_INVALIDATION_BATCH_ENABLED, "true");
+        config.setProperty(GroupProperty.MAP_INVALIDATION_BATCH_SIZE, String.valueOf(batchSize));
+        config.setProperty(GroupProperty.MAP_INVALIDATION_BATCH_FREQUENCY_SECONDS, String.valueOf(batchFrequencySeconds));
+        config.getMapConfig(mapName).setNearCacheConfig(new NearCacheConfig().setInvalidateOnChange(true));
+        return config;
+    }
+
+    private static NearCache getNearCache(String mapName, HazelcastInstance instance) {
+        MapService service = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return service.getMapServiceContext().getNearCacheProvider().getNearCache(mapName);
+    }
+}
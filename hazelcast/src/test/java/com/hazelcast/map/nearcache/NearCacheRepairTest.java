@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.nearcache;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.NearCacheConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.nearcache.InvalidationMetaDataGenerator;
+import com.hazelcast.map.impl.nearcache.NearCache;
+import com.hazelcast.map.impl.nearcache.NearCacheProvider;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NearCacheRepairTest extends HazelcastTestSupport {
+
+    @Test
+    public void testRepair_whenInvalidationLost() {
+        testRepair(false);
+    }
+
+    @Test
+    public void testRepair_whenPartitionOwnerChanged() {
+        testRepair(true);
+    }
+
+    private void testRepair(boolean ownerChanged) {
+        String mapName = randomMapName();
+        Config config = new Config();
+        config.setProperty(GroupProperty.MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS, "1");
+        config.getMapConfig(mapName).setNearCacheConfig(new NearCacheConfig().setInvalidateOnChange(true));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        // a migration changes the UUID of the partition, which repairs it
+        waitAllForSafeState(instances);
+        HazelcastInstance owner = instances[0];
+        HazelcastInstance nearCacheOwner = instances[1];
+
+        String key = generateKeyOwnedBy(owner);
+        owner.getMap(mapName).put(key, 0);
+        IMap<String, Integer> nearCachedMap = nearCacheOwner.getMap(mapName);
+        final NearCache nearCache = getNearCache(mapName, nearCacheOwner);
+
+        // neither the first nor the later reconciliations drop anything while no invalidations are lost
+        nearCachedMap.get(key);
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, nearCache.size());
+            }
+        }, 3);
+
+        int partitionId = owner.getPartitionService().getPartition(key).getPartitionId();
+        InvalidationMetaDataGenerator generator = getNearCacheProvider(owner).getInvalidationMetaDataGenerator();
+        if (ownerChanged) {
+            generator.regenerateUuid(partitionId);
+        } else {
+            // an invalidation is sent with this sequence, but it never arrives
+            generator.nextSequence(mapName, partitionId);
+        }
+        assertNearCacheSizeEventually(nearCache, 0);
+    }
+
+    @Test
+    public void testNoRepair_whenInvalidationsReceived() {
+        String mapName = randomMapName();
+        Config config = new Config();
+        config.setProperty(GroupProperty.MAP_INVALIDATION_RECONCILIATION_INTERVAL_SECONDS, "1");
+        config.getMapConfig(mapName).setNearCacheConfig(new NearCacheConfig().setInvalidateOnChange(true));
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        // a migration changes the UUID of the partition, which repairs it
+        waitAllForSafeState(instances);
+        HazelcastInstance owner = instances[0];
+        HazelcastInstance nearCacheOwner = instances[1];
+
+        String key = generateKeyOwnedBy(owner);
+        IMap<String, Integer> ownerMap = owner.getMap(mapName);
+        ownerMap.put(key, 0);
+        IMap<String, Integer> nearCachedMap = nearCacheOwner.getMap(mapName);
+        final NearCache nearCache = getNearCache(mapName, nearCacheOwner);
+
+        for (int value = 1; value <= 3; value++) {
+            nearCachedMap.get(key);
+            ownerMap.put(key, value);
+            // the invalidation has arrived
+            assertNearCacheSizeEventually(nearCache, 0);
+        }
+
+        nearCachedMap.get(key);
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, nearCache.size());
+            }
+        }, 3);
+    }
+
+    private static void assertNearCacheSizeEventually(final NearCache nearCache, final int expectedSize) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(expectedSize, nearCache.size());
+            }
+        });
+    }
+
+    private static NearCache getNearCache(String mapName, HazelcastInstance instance) {
+        return getNearCacheProvider(instance).getNearCache(mapName);
+    }
+
+    private static NearCacheProvider getNearCacheProvider(HazelcastInstance instance) {
+        MapService service = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return service.getMapServiceContext().getNearCacheProvider();
+    }
+}
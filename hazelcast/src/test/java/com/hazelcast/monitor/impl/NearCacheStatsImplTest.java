@@ -38,6 +38,9 @@ public class NearCacheStatsImplTest {
 
         nearCacheStats.setMisses(304);
         nearCacheStats.incrementMisses();
+
+        nearCacheStats.addEviction(1, 300);
+        nearCacheStats.addEviction(2, 200);
     }
 
     @Test
@@ -47,6 +50,9 @@ public class NearCacheStatsImplTest {
         assertEquals(1280, nearCacheStats.getOwnedEntryMemoryCost());
         assertEquals(602, nearCacheStats.getHits());
         assertEquals(305, nearCacheStats.getMisses());
+        assertEquals(3, nearCacheStats.getEvictions());
+        assertEquals(500, nearCacheStats.getTotalEvictionLatencyNanos());
+        assertEquals(300, nearCacheStats.getMaxEvictionLatencyNanos());
         assertNotNull(nearCacheStats.toString());
     }
 
@@ -61,6 +67,9 @@ public class NearCacheStatsImplTest {
         assertEquals(1280, deserialized.getOwnedEntryMemoryCost());
         assertEquals(602, deserialized.getHits());
         assertEquals(305, deserialized.getMisses());
+        assertEquals(3, deserialized.getEvictions());
+        assertEquals(500, deserialized.getTotalEvictionLatencyNanos());
+        assertEquals(300, deserialized.getMaxEvictionLatencyNanos());
         assertNotNull(deserialized.toString());
     }
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class Lz4CodecTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void testRoundTrip_whenEmpty() {
+        assertRoundTrip(new byte[0]);
+    }
+
+    @Test
+    public void testRoundTrip_whenSmallerThanMinimumMatchInput() {
+        assertRoundTrip(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+    }
+
+    @Test
+    public void testRoundTrip_whenRepetitive() {
+        byte[] bytes = new byte[100000];
+        for (int k = 0; k < bytes.length; k++) {
+            bytes[k] = (byte) (k % 17);
+        }
+
+        int compressedLength = assertRoundTrip(bytes);
+
+        assertTrue("compressedLength: " + compressedLength, compressedLength < bytes.length / 10);
+    }
+
+    @Test
+    public void testRoundTrip_whenLongRunOfSameByte() {
+        // a run is encoded as a match that overlaps with the bytes being written
+        byte[] bytes = new byte[5000];
+        bytes[0] = 1;
+        bytes[bytes.length - 1] = 2;
+
+        assertRoundTrip(bytes);
+    }
+
+    @Test
+    public void testRoundTrip_whenLongLiteralsFollowedByMatches() {
+        byte[] bytes = new byte[10000];
+        random.nextBytes(bytes);
+        System.arraycopy(bytes, 0, bytes, 5000, 1000);
+
+        assertRoundTrip(bytes);
+    }
+
+    @Test
+    public void testRoundTrip_whenRandom() {
+        byte[] bytes = new byte[20000];
+        random.nextBytes(bytes);
+
+        assertRoundTrip(bytes);
+    }
+
+    @Test
+    public void testCompress_whenOutputDoesNotFit() {
+        byte[] bytes = new byte[20000];
+        random.nextBytes(bytes);
+
+        int compressedLength = Lz4Codec.compress(bytes, 0, bytes.length, new byte[bytes.length], 0, bytes.length);
+
+        assertEquals(-1, compressedLength);
+    }
+
+    @Test
+    public void testRoundTrip_withOffsets() {
+        byte[] bytes = new byte[1000];
+        for (int k = 0; k < bytes.length; k++) {
+            bytes[k] = (byte) (k % 7);
+        }
+        byte[] compressed = new byte[10 + Lz4Codec.maxCompressedLength(900)];
+
+        int compressedLength = Lz4Codec.compress(bytes, 100, 900, compressed, 10, compressed.length - 10);
+        byte[] decompressed = new byte[905];
+        Lz4Codec.decompress(compressed, 10, compressedLength, decompressed, 5, 900);
+
+        for (int k = 0; k < 900; k++) {
+            assertEquals(bytes[100 + k], decompressed[5 + k]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecompress_whenLengthDoesNotMatch() {
+        byte[] bytes = new byte[1000];
+        byte[] compressed = new byte[Lz4Codec.maxCompressedLength(bytes.length)];
+        int compressedLength = Lz4Codec.compress(bytes, 0, bytes.length, compressed, 0, compressed.length);
+
+        Lz4Codec.decompress(compressed, 0, compressedLength, new byte[999], 0, 999);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecompress_whenMalformed() {
+        // a literal length of 15 + 255 + ... that runs past the end of the input
+        byte[] compressed = new byte[]{(byte) 0xF0, (byte) 0xFF, (byte) 0xFF};
+
+        Lz4Codec.decompress(compressed, 0, compressed.length, new byte[1000], 0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecompress_whenOffsetBeforeStart() {
+        // 1 literal, followed by a match with offset 10
+        byte[] compressed = new byte[]{0x10, 1, 10, 0, 0x10};
+
+        Lz4Codec.decompress(compressed, 0, compressed.length, new byte[100], 0, 100);
+    }
+
+    private int assertRoundTrip(byte[] bytes) {
+        byte[] compressed = new byte[Lz4Codec.maxCompressedLength(bytes.length)];
+        int compressedLength = Lz4Codec.compress(bytes, 0, bytes.length, compressed, 0, compressed.length);
+        assertTrue(compressedLength > 0);
+
+        byte[] decompressed = new byte[bytes.length];
+        Lz4Codec.decompress(compressed, 0, compressedLength, decompressed, 0, bytes.length);
+
+        assertArrayEquals(bytes, decompressed);
+        return compressedLength;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketCompressorTest {
+
+    private static final int THRESHOLD = 1024;
+
+    private final PacketCompressor compressor = new PacketCompressor(THRESHOLD);
+
+    @Test
+    public void testCompress_whenBelowThreshold() {
+        Packet packet = new Packet(compressiblePayload(THRESHOLD - 1));
+
+        assertSame(packet, compressor.compress(packet));
+    }
+
+    @Test
+    public void testCompress_whenIncompressible() {
+        byte[] payload = new byte[THRESHOLD * 4];
+        new Random(42).nextBytes(payload);
+        Packet packet = new Packet(payload);
+
+        assertSame(packet, compressor.compress(packet));
+    }
+
+    @Test
+    public void testCompress_whenAlreadyCompressed() {
+        Packet compressed = compressor.compress(newOperationPacket(compressiblePayload(THRESHOLD * 4)));
+
+        assertSame(compressed, compressor.compress(compressed));
+    }
+
+    @Test
+    public void testCompressAndDecompress() {
+        byte[] payload = compressiblePayload(THRESHOLD * 4);
+        Packet packet = newOperationPacket(payload);
+        Connection connection = mock(Connection.class);
+
+        Packet compressed = compressor.compress(packet);
+        assertNotSame(packet, compressed);
+        assertTrue(compressed.isHeaderSet(Packet.HEADER_COMPRESSED));
+        assertTrue(compressed.isHeaderSet(Packet.HEADER_OP));
+        assertTrue(compressed.isUrgent());
+        assertEquals(packet.getPartitionId(), compressed.getPartitionId());
+        assertTrue(compressed.totalSize() < payload.length);
+        // the original packet is not modified
+        assertFalse(packet.isHeaderSet(Packet.HEADER_COMPRESSED));
+
+        compressed.setConn(connection);
+        Packet decompressed = compressor.decompress(compressed);
+        assertFalse(decompressed.isHeaderSet(Packet.HEADER_COMPRESSED));
+        assertEquals(packet.getHeader(), decompressed.getHeader());
+        assertEquals(packet.getPartitionId(), decompressed.getPartitionId());
+        assertSame(connection, decompressed.getConn());
+        assertArrayEquals(payload, decompressed.toByteArray());
+    }
+
+    @Test
+    public void testDecompress_whenNotCompressed() {
+        Packet packet = new Packet(compressiblePayload(THRESHOLD * 4));
+
+        assertSame(packet, compressor.decompress(packet));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecompress_whenMalformed() {
+        Packet packet = new Packet(new byte[]{0, 0, 0, 100, 1, 2, 3, 4}, 1, (short) (1 << Packet.HEADER_COMPRESSED));
+
+        compressor.decompress(packet);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecompress_whenLengthExceedsMaxCompressionRatio() {
+        // claims to decompress to 2GB, while 4 bytes of LZ4 can't decompress to more than about 1KB
+        Packet packet = new Packet(new byte[]{0x7F, 0, 0, 0, 1, 2, 3, 4}, 1, (short) (1 << Packet.HEADER_COMPRESSED));
+
+        compressor.decompress(packet);
+    }
+
+    private static Packet newOperationPacket(byte[] payload) {
+        Packet packet = new Packet(payload, 10);
+        packet.setHeader(Packet.HEADER_OP);
+        packet.setHeader(Packet.HEADER_URGENT);
+        return packet;
+    }
+
+    private static byte[] compressiblePayload(int length) {
+        byte[] payload = new byte[length];
+        for (int k = 0; k < length; k++) {
+            payload[k] = (byte) (k % 10);
+        }
+        return payload;
+    }
+}
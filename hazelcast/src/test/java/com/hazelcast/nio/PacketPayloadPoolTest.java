@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketPayloadPoolTest {
+
+    private final PacketPayloadPool pool = new PacketPayloadPool(1024, 2);
+
+    @Test
+    public void test_acquire_roundsUpToSizeClass() {
+        assertEquals(64, pool.acquire(1).length);
+        assertEquals(64, pool.acquire(64).length);
+        assertEquals(128, pool.acquire(65).length);
+        assertEquals(1024, pool.acquire(1024).length);
+    }
+
+    @Test
+    public void test_acquire_whenNotPooled() {
+        assertNull(pool.acquire(0));
+        assertNull(pool.acquire(1025));
+    }
+
+    @Test
+    public void test_release_makesArrayReusable() {
+        byte[] array = pool.acquire(100);
+        pool.release(array);
+
+        assertSame(array, pool.acquire(120));
+        assertNotSame(array, pool.acquire(120));
+    }
+
+    @Test
+    public void test_release_whenSizeClassFull() {
+        byte[] array1 = pool.acquire(100);
+        byte[] array2 = pool.acquire(100);
+        byte[] array3 = pool.acquire(100);
+        pool.release(array1);
+        pool.release(array2);
+        pool.release(array3);
+
+        assertSame(array1, pool.acquire(100));
+        assertSame(array2, pool.acquire(100));
+        assertNotSame(array3, pool.acquire(100));
+    }
+
+    @Test
+    public void test_release_whenArrayNotFromPool() {
+        byte[] array = new byte[100];
+        pool.release(array);
+        pool.release(new byte[2048]);
+
+        assertNotSame(array, pool.acquire(100));
+    }
+}
@@ -19,6 +19,7 @@ package com.hazelcast.nio.serialization;
 import com.hazelcast.internal.serialization.SerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
 import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.PacketPayloadPool;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.QuickTest;
@@ -34,7 +35,11 @@ import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.FACTO
 import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.Person;
 import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.PortableAddress;
 import static com.hazelcast.nio.serialization.SerializationConcurrencyTest.PortablePerson;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastSerialClassRunner.class)
@@ -89,4 +94,56 @@ public class PacketTest {
         assertEquals(originalPacket, clonedPacket);
         assertEquals(originalObject, clonedObject);
     }
+
+    @Test
+    public void testPacketWriteRead_withPayloadPool() throws IOException {
+        SerializationService ss = createSerializationServiceBuilder().build();
+        byte[] originalPayload = ss.toBytes(person);
+
+        Packet originalPacket = new Packet(originalPayload, 1);
+        originalPacket.setHeader(Packet.HEADER_OP);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(originalPayload.length * 2);
+        assertTrue(originalPacket.writeTo(buffer));
+        buffer.flip();
+
+        PacketPayloadPool pool = new PacketPayloadPool();
+        Packet clonedPacket = new Packet();
+        clonedPacket.setPayloadPool(pool);
+        assertTrue(clonedPacket.readFrom(buffer));
+
+        byte[] pooledPayload = clonedPacket.payloadArray();
+        assertTrue(pooledPayload.length >= originalPayload.length);
+        assertEquals(originalPacket.totalSize(), clonedPacket.totalSize());
+        assertEquals(originalPacket.getPartitionHash(), clonedPacket.getPartitionHash());
+        assertEquals(originalPacket.getHeapCost(), clonedPacket.getHeapCost());
+        assertEquals(originalPacket.hashCode(), clonedPacket.hashCode());
+        assertEquals(originalPacket, clonedPacket);
+        assertEquals(clonedPacket, originalPacket);
+        assertArrayEquals(originalPayload, clonedPacket.toByteArray());
+        assertNotSame(pooledPayload, clonedPacket.toByteArray());
+        assertEquals(person, ss.toObject(clonedPacket));
+
+        clonedPacket.releasePayload();
+        assertNull(clonedPacket.payloadArray());
+        assertSame(pooledPayload, pool.acquire(originalPayload.length));
+    }
+
+    @Test
+    public void testPacketWriteRead_withPayloadPool_whenNotOperation() throws IOException {
+        SerializationService ss = createSerializationServiceBuilder().build();
+        byte[] originalPayload = ss.toBytes(person);
+
+        Packet originalPacket = new Packet(originalPayload);
+        originalPacket.setHeader(Packet.HEADER_EVENT);
+        ByteBuffer buffer = ByteBuffer.allocate(originalPayload.length * 2);
+        assertTrue(originalPacket.writeTo(buffer));
+        buffer.flip();
+
+        Packet clonedPacket = new Packet();
+        clonedPacket.setPayloadPool(new PacketPayloadPool());
+        assertTrue(clonedPacket.readFrom(buffer));
+        clonedPacket.releasePayload();
+
+        assertEquals(originalPacket, clonedPacket);
+    }
 }
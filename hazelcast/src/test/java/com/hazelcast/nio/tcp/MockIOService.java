@@ -39,6 +39,15 @@ public class MockIOService implements IOService {
     public final HazelcastThreadGroup hazelcastThreadGroup;
     public final ConcurrentHashMap<Long, DummyPayload> payloads = new ConcurrentHashMap<Long, DummyPayload>();
     public volatile PacketHandler packetHandler;
+    public volatile boolean socketWriteBatchingEnabled;
+    public volatile boolean socketBufferDirect;
+    public volatile boolean socketReceivePayloadPoolingEnabled;
+    public volatile int memberConnectionCount = 1;
+    public volatile boolean socketCompressionEnabled;
+    public volatile int socketCompressionThreshold = 8192;
+    public volatile boolean ioWorkStealingEnabled;
+    public volatile int inputThreadCount = 1;
+    public volatile boolean selectorOptimizationEnabled = true;
 
     public MockIOService(int port) throws Exception {
         loggingService = new LoggingServiceImpl("somegroup", "log4j", BuildInfoProvider.getBuildInfo());
@@ -175,6 +184,41 @@ public class MockIOService implements IOService {
         return 32;
     }
 
+    @Override
+    public boolean isSocketWriteBatchingEnabled() {
+        return socketWriteBatchingEnabled;
+    }
+
+    @Override
+    public int getSocketWriteBatchMaxPackets() {
+        return 64;
+    }
+
+    @Override
+    public boolean isSocketBufferDirect() {
+        return socketBufferDirect;
+    }
+
+    @Override
+    public boolean isSocketCompressionEnabled() {
+        return socketCompressionEnabled;
+    }
+
+    @Override
+    public int getSocketCompressionThreshold() {
+        return socketCompressionThreshold;
+    }
+
+    @Override
+    public int getMemberConnectionCount() {
+        return memberConnectionCount;
+    }
+
+    @Override
+    public boolean isSocketReceivePayloadPoolingEnabled() {
+        return socketReceivePayloadPoolingEnabled;
+    }
+
     @Override
     public int getSocketClientReceiveBufferSize() {
         return 32;
@@ -207,7 +251,7 @@ public class MockIOService implements IOService {
 
     @Override
     public int getInputSelectorThreadCount() {
-        return 1;
+        return inputThreadCount;
     }
 
     @Override
@@ -230,6 +274,16 @@ public class MockIOService implements IOService {
         return 0;
     }
 
+    @Override
+    public boolean isIoWorkStealingEnabled() {
+        return ioWorkStealingEnabled;
+    }
+
+    @Override
+    public boolean isSelectorOptimizationEnabled() {
+        return selectorOptimizationEnabled;
+    }
+
     @Override
     public void onDisconnect(Address endpoint) {
 
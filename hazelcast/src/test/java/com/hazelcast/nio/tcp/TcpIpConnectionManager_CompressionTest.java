@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpIpConnectionManager_CompressionTest extends TcpIpConnection_AbstractTest {
+
+    private final List<Packet> packetsB = Collections.synchronizedList(new ArrayList<Packet>());
+    private final List<MetricsRegistry> metricsRegistries = new ArrayList<MetricsRegistry>();
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        connManagerA.start();
+        connManagerB.start();
+
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                packetsB.add(packet);
+            }
+        };
+    }
+
+    @Override
+    protected TcpIpConnectionManager newConnectionManager(int port) throws Exception {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
+        metricsRegistries.add(metricsRegistry);
+        MockIOService ioService = new MockIOService(port);
+
+        return new TcpIpConnectionManager(
+                ioService,
+                ioService.serverSocketChannel,
+                ioService.loggingService,
+                metricsRegistry,
+                threadingModelFactory.create(ioService, metricsRegistry));
+    }
+
+    @Test
+    public void whenBothMembersEnabled_thenLargePacketCompressed() {
+        ioServiceA.socketCompressionEnabled = true;
+        ioServiceB.socketCompressionEnabled = true;
+        // the connection is registered once the bind reply of B, which completes the negotiation, is processed
+        TcpIpConnection connection = connect(connManagerA, addressB);
+
+        String value = largeString();
+        Packet packet = new Packet(serializationService.toBytes(value), 5);
+        packet.setHeader(Packet.HEADER_OP);
+        assertTrue(connManagerA.transmit(packet, connection));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, packetsB.size());
+            }
+        });
+
+        assertEquals(1, compressionProbe(0, "compressedPacketCount"));
+        assertEquals(1, compressionProbe(1, "decompressedPacketCount"));
+        assertTrue(compressionProbe(0, "bytesSaved") > 0);
+
+        Packet received = packetsB.get(0);
+        assertFalse(received.isHeaderSet(Packet.HEADER_COMPRESSED));
+        assertTrue(received.isHeaderSet(Packet.HEADER_OP));
+        assertEquals(5, received.getPartitionId());
+        assertEquals(value, serializationService.toObject(received));
+    }
+
+    @Test
+    public void whenRemoteMemberDisabled_thenNotCompressed() {
+        ioServiceA.socketCompressionEnabled = true;
+        TcpIpConnection connection = connect(connManagerA, addressB);
+
+        String value = largeString();
+        assertTrue(connManagerA.transmit(new Packet(serializationService.toBytes(value)), connection));
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, packetsB.size());
+            }
+        });
+        assertEquals(value, serializationService.toObject(packetsB.get(0)));
+        assertEquals(0, compressionProbe(0, "compressedPacketCount"));
+    }
+
+    private long compressionProbe(int member, String name) {
+        return metricsRegistries.get(member).newLongGauge("tcp.compression." + name).read();
+    }
+
+    private static String largeString() {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < 10000; k++) {
+            sb.append("value-").append(k % 100);
+        }
+        return sb.toString();
+    }
+}
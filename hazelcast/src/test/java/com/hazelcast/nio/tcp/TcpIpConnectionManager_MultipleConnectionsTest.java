@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class TcpIpConnectionManager_MultipleConnectionsTest extends TcpIpConnection_AbstractTest {
+
+    private static final int CONNECTION_COUNT = 3;
+
+    private final List<Packet> packetsB = Collections.synchronizedList(new ArrayList<Packet>());
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        connManagerA.start();
+        connManagerB.start();
+
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                packetsB.add(packet);
+            }
+        };
+    }
+
+    @Override
+    protected TcpIpConnectionManager newConnectionManager(int port) throws Exception {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
+        MockIOService ioService = new MockIOService(port);
+        ioService.memberConnectionCount = CONNECTION_COUNT;
+
+        return new TcpIpConnectionManager(
+                ioService,
+                ioService.serverSocketChannel,
+                ioService.loggingService,
+                metricsRegistry,
+                threadingModelFactory.create(ioService, metricsRegistry));
+    }
+
+    @Test
+    public void whenConnected_thenLaneConnectionsOpened() {
+        connect(connManagerA, addressB);
+
+        assertLaneConnectionsOpened();
+    }
+
+    @Test
+    public void transmit_whenPartitionPackets_thenSentOverLaneByPartitionAndInOrder() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLaneConnectionsOpened();
+
+        final int packetsPerPartition = 100;
+        for (int k = 0; k < packetsPerPartition; k++) {
+            for (int partitionId = 0; partitionId < CONNECTION_COUNT; partitionId++) {
+                assertTrue(connManagerA.transmit(newPacket(k, partitionId), connection));
+            }
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(packetsPerPartition * CONNECTION_COUNT, packetsB.size());
+            }
+        });
+
+        Map<Integer, Connection> connectionPerPartition = new HashMap<Integer, Connection>();
+        Map<Integer, Integer> lastValuePerPartition = new HashMap<Integer, Integer>();
+        synchronized (packetsB) {
+            for (Packet packet : packetsB) {
+                int partitionId = packet.getPartitionId();
+                Connection previous = connectionPerPartition.put(partitionId, packet.getConn());
+                if (previous != null) {
+                    assertSame("all packets of a partition should use the same connection", previous, packet.getConn());
+                }
+
+                int value = (Integer) serializationService.toObject(packet);
+                Integer lastValue = lastValuePerPartition.put(partitionId, value);
+                assertEquals(lastValue == null ? 0 : lastValue + 1, value);
+            }
+        }
+
+        Set<Connection> usedConnections = new HashSet<Connection>(connectionPerPartition.values());
+        assertEquals(CONNECTION_COUNT, usedConnections.size());
+    }
+
+    @Test
+    public void transmit_whenNoPartition_thenSentOverPrimaryConnection() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLaneConnectionsOpened();
+
+        assertTrue(connManagerA.transmit(newPacket(0, -1), connection));
+        assertTrue(connManagerA.transmit(newPacket(1, 0), connection));
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(2, packetsB.size());
+            }
+        });
+
+        Packet noPartitionPacket = packetsB.get(0).getPartitionId() == -1 ? packetsB.get(0) : packetsB.get(1);
+        Packet partitionPacket = packetsB.get(0).getPartitionId() == -1 ? packetsB.get(1) : packetsB.get(0);
+        assertSame(noPartitionPacket.getConn(), partitionPacket.getConn());
+    }
+
+    @Test
+    public void transmit_whenLaneConnectionClosed_thenReopened() {
+        connect(connManagerA, addressB);
+        assertLaneConnectionsOpened();
+
+        final TcpIpConnection laneConnection = connManagerA.getConnectionLanes(addressB).get(1);
+        laneConnection.close();
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                TcpIpConnection reopened = connManagerA.getConnectionLanes(addressB).get(1);
+                assertNotNull(reopened);
+                assertNotSame(laneConnection, reopened);
+            }
+        });
+    }
+
+    @Test
+    public void transmit_whenLaneReconnectedDuringTraffic_thenPartitionPacketsNotReordered() throws Exception {
+        final TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLaneConnectionsOpened();
+        final int partitionId = 1;
+        final TcpIpConnection laneConnection = connManagerA.getConnectionLanes(addressB).get(partitionId);
+
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicInteger sendCount = new AtomicInteger();
+        Future producer = spawn(new Runnable() {
+            @Override
+            public void run() {
+                for (int k = 0; !stop.get(); k++) {
+                    connManagerA.transmit(newPacket(k, partitionId), connection);
+                    sendCount.incrementAndGet();
+                }
+            }
+        });
+
+        sleepMillis(100);
+        laneConnection.close();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                TcpIpConnection reopened = connManagerA.getConnectionLanes(addressB).get(partitionId);
+                assertNotNull(reopened);
+                assertNotSame(laneConnection, reopened);
+            }
+        });
+        final int sendCountAfterReopen = sendCount.get();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(sendCount.get() > sendCountAfterReopen + 1000);
+            }
+        });
+        stop.set(true);
+        producer.get();
+
+        // wait until the last packet has been received; the packets in the write queue of the closed lane are lost
+        final int lastValue = sendCount.get() - 1;
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                synchronized (packetsB) {
+                    assertFalse(packetsB.isEmpty());
+                    assertEquals(lastValue, serializationService.toObject(packetsB.get(packetsB.size() - 1)));
+                }
+            }
+        });
+
+        Set<Connection> usedConnections = new HashSet<Connection>();
+        int previousValue = -1;
+        synchronized (packetsB) {
+            for (Packet packet : packetsB) {
+                int value = (Integer) serializationService.toObject(packet);
+                assertTrue("received " + value + " after " + previousValue, value > previousValue);
+                previousValue = value;
+                usedConnections.add(packet.getConn());
+            }
+        }
+        // the packets were received over the original and the reopened lane, never over the primary connection
+        assertEquals(2, usedConnections.size());
+    }
+
+    @Test
+    public void destroyConnection_whenPrimary_thenLaneConnectionsDestroyed() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        assertLaneConnectionsOpened();
+        TcpIpConnectionLanes lanes = connManagerA.getConnectionLanes(addressB);
+
+        connManagerA.destroyConnection(connection);
+
+        assertNull(connManagerA.getConnectionLanes(addressB));
+        for (int lane = 1; lane < CONNECTION_COUNT; lane++) {
+            assertFalse(lanes.get(lane).isAlive());
+        }
+    }
+
+    private void assertLaneConnectionsOpened() {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                TcpIpConnectionLanes lanes = connManagerA.getConnectionLanes(addressB);
+                assertNotNull(lanes);
+                for (int lane = 1; lane < CONNECTION_COUNT; lane++) {
+                    TcpIpConnection connection = lanes.get(lane);
+                    assertNotNull("lane " + lane, connection);
+                    assertTrue("lane " + lane, connection.isAlive());
+                }
+            }
+        });
+    }
+
+    private Packet newPacket(int value, int partitionId) {
+        return new Packet(serializationService.toBytes(value), partitionId);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.MockIOService;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
+import com.hazelcast.nio.tcp.TcpIpConnection_AbstractTest;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.spi.impl.operationexecutor.classic.MpscScheduleQueue;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.NightlyTest;
+import com.hazelcast.util.concurrent.BackoffIdleStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.nio.Bits.readIntB;
+import static com.hazelcast.nio.Bits.writeIntB;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the packets of a partition are processed in the order they were sent when work stealing, multiple
+ * member connections, write batching and the MPSC partition queues are combined. The packets of B are handed over
+ * to 'partition threads' through small {@link MpscScheduleQueue} instances so the overflow path is used as well.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(NightlyTest.class)
+public class NonBlockingIOThread_WorkStealingOrderingStressTest extends TcpIpConnection_AbstractTest {
+
+    private static final int CONNECTION_COUNT = 3;
+    private static final int PARTITION_COUNT = 24;
+    private static final int PARTITION_THREAD_COUNT = 4;
+    private static final int SENDER_THREAD_COUNT = 4;
+    private static final int PAYLOAD_SIZE = 512;
+    private static final int DURATION_SECONDS = 30;
+    // bounds the packets queued on A, so the senders don't outrun the connections
+    private static final int MAX_IN_FLIGHT = 10000;
+
+    private final List<MetricsRegistry> metricsRegistries = new ArrayList<MetricsRegistry>();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicReference<String> failure = new AtomicReference<String>();
+    private final MpscScheduleQueue[] partitionQueues = new MpscScheduleQueue[PARTITION_THREAD_COUNT];
+    private final List<Thread> partitionThreads = new ArrayList<Thread>();
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        ioServiceA.socketWriteBatchingEnabled = true;
+
+        for (int k = 0; k < PARTITION_THREAD_COUNT; k++) {
+            partitionQueues[k] = new MpscScheduleQueue(16, new BackoffIdleStrategy(100, 100, 1000, 100000));
+            PartitionThread thread = new PartitionThread(partitionQueues[k]);
+            partitionThreads.add(thread);
+            thread.start();
+        }
+
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                partitionQueues[packet.getPartitionId() % PARTITION_THREAD_COUNT].add(packet);
+            }
+        };
+
+        connManagerA.start();
+        connManagerB.start();
+    }
+
+    @After
+    public void stopPartitionThreads() throws Exception {
+        for (Thread thread : partitionThreads) {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+    @Override
+    protected TcpIpConnectionManager newConnectionManager(int port) throws Exception {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
+        metricsRegistries.add(metricsRegistry);
+        MockIOService ioService = new MockIOService(port);
+        ioService.ioWorkStealingEnabled = true;
+        ioService.inputThreadCount = 2;
+        ioService.memberConnectionCount = CONNECTION_COUNT;
+
+        return new TcpIpConnectionManager(
+                ioService,
+                ioService.serverSocketChannel,
+                ioService.loggingService,
+                metricsRegistry,
+                threadingModelFactory.create(ioService, metricsRegistry));
+    }
+
+    @Test
+    public void whenStealingAndBatching_thenPacketsOfPartitionProcessedInOrder() throws Exception {
+        final TcpIpConnection connection = connect(connManagerA, addressB);
+
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(DURATION_SECONDS);
+        final AtomicLong sent = new AtomicLong();
+        List<Thread> senders = new ArrayList<Thread>();
+        for (int k = 0; k < SENDER_THREAD_COUNT; k++) {
+            final int senderId = k;
+            Thread sender = new Thread() {
+                @Override
+                public void run() {
+                    // every sender owns a set of partitions, so the sequence of a partition has a single writer
+                    int[] sequences = new int[PARTITION_COUNT];
+                    while (System.currentTimeMillis() < deadline && failure.get() == null) {
+                        for (int partitionId = senderId; partitionId < PARTITION_COUNT; partitionId += SENDER_THREAD_COUNT) {
+                            while (sent.get() - processed.get() > MAX_IN_FLIGHT) {
+                                Thread.yield();
+                            }
+                            byte[] payload = new byte[PAYLOAD_SIZE];
+                            writeIntB(payload, 0, sequences[partitionId]++);
+                            Packet packet = new Packet(payload, partitionId);
+                            packet.setHeader(Packet.HEADER_OP);
+                            if (!connManagerA.transmit(packet, connection)) {
+                                failure.compareAndSet(null, "failed to transmit a packet of partition " + partitionId);
+                                return;
+                            }
+                            sent.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            senders.add(sender);
+            sender.start();
+        }
+        for (Thread sender : senders) {
+            assertJoinable(sender);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(sent.get(), processed.get());
+            }
+        });
+        assertNull(failure.get());
+        assertTrue(ioThreadProbe(1, "stolenCount") > 0);
+    }
+
+    private long ioThreadProbe(int member, String name) {
+        MetricsRegistry metricsRegistry = metricsRegistries.get(member);
+        long sum = 0;
+        for (String probeName : metricsRegistry.getNames()) {
+            if (probeName.startsWith("tcp.") && probeName.endsWith("." + name)) {
+                sum += metricsRegistry.newLongGauge(probeName).read();
+            }
+        }
+        return sum;
+    }
+
+    private class PartitionThread extends Thread {
+        private final MpscScheduleQueue queue;
+        // the next expected sequence of every partition; only the partitions mapped to this thread are used
+        private final int[] expectedSequences = new int[PARTITION_COUNT];
+
+        PartitionThread(MpscScheduleQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (; ; ) {
+                    Packet packet = (Packet) queue.take();
+                    int partitionId = packet.getPartitionId();
+                    int sequence = readIntB(packet.toByteArray(), 0);
+                    int expected = expectedSequences[partitionId]++;
+                    if (sequence != expected) {
+                        failure.compareAndSet(null, "partition " + partitionId + " expected sequence "
+                                + expected + " but found " + sequence);
+                    }
+                    processed.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                // the test is done
+            }
+        }
+    }
+}
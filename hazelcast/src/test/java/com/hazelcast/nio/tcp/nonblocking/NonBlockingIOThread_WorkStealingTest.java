@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.MockIOService;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
+import com.hazelcast.nio.tcp.TcpIpConnection_AbstractTest;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class NonBlockingIOThread_WorkStealingTest extends TcpIpConnection_AbstractTest {
+
+    private static final int CONNECTION_COUNT = 3;
+
+    private final AtomicLong packetsB = new AtomicLong();
+    private final List<MetricsRegistry> metricsRegistries = new ArrayList<MetricsRegistry>();
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        connManagerA.start();
+        connManagerB.start();
+
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                packetsB.incrementAndGet();
+            }
+        };
+    }
+
+    @Override
+    protected TcpIpConnectionManager newConnectionManager(int port) throws Exception {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
+        metricsRegistries.add(metricsRegistry);
+        MockIOService ioService = new MockIOService(port);
+        ioService.ioWorkStealingEnabled = true;
+        // A opens 3 connections to B; B spreads them over its 2 input threads so one thread owns 2 of them.
+        ioService.inputThreadCount = 2;
+        ioService.memberConnectionCount = CONNECTION_COUNT;
+
+        return new TcpIpConnectionManager(
+                ioService,
+                ioService.serverSocketChannel,
+                ioService.loggingService,
+                metricsRegistry,
+                threadingModelFactory.create(ioService, metricsRegistry));
+    }
+
+    @Test
+    public void whenMultipleConnectionsReady_thenIdleThreadStealsAndAllPacketsDelivered() {
+        // packets are sent over the primary connection until the other connections have been opened
+        final TcpIpConnection connection = connect(connManagerA, addressB);
+
+        final byte[] payload = serializationService.toBytes(new byte[1000]);
+        final AtomicLong sent = new AtomicLong();
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                for (int k = 0; k < 1000; k++) {
+                    Packet packet = new Packet(payload, k % CONNECTION_COUNT);
+                    packet.setHeader(Packet.HEADER_OP);
+                    assertTrue(connManagerA.transmit(packet, connection));
+                    sent.incrementAndGet();
+                }
+                assertTrue(ioThreadProbe(1, "stolenCount") > 0);
+            }
+        });
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(sent.get(), packetsB.get());
+            }
+        });
+        assertTrue(ioThreadProbe(1, "offeredForStealingCount") >= ioThreadProbe(1, "stolenCount"));
+    }
+
+    private long ioThreadProbe(int member, String name) {
+        MetricsRegistry metricsRegistry = metricsRegistries.get(member);
+        long sum = 0;
+        for (String probeName : metricsRegistry.getNames()) {
+            if (probeName.startsWith("tcp.") && probeName.endsWith("." + name)) {
+                sum += metricsRegistry.newLongGauge(probeName).read();
+
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.GatheringSocketChannelWrapper;
+import com.hazelcast.nio.tcp.SocketChannelWrapper;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketWriteBatchTest {
+
+    private ByteBuffer socketBuffer;
+    private int maxBytesPerWrite;
+    private GatheringSocketChannelWrapper socketChannel;
+
+    @Before
+    public void setup() throws Exception {
+        socketBuffer = ByteBuffer.allocate(1024);
+        maxBytesPerWrite = Integer.MAX_VALUE;
+        socketChannel = mock(GatheringSocketChannelWrapper.class);
+        when(socketChannel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) throws Throwable {
+                Object[] args = invocation.getArguments();
+                ByteBuffer[] srcs = (ByteBuffer[]) args[0];
+                int offset = (Integer) args[1];
+                int length = (Integer) args[2];
+                long written = 0;
+                for (int k = offset; k < offset + length && written < maxBytesPerWrite; k++) {
+                    ByteBuffer src = srcs[k];
+                    while (src.hasRemaining() && written < maxBytesPerWrite) {
+                        socketBuffer.put(src.get());
+                        written++;
+                    }
+                }
+                return written;
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construct_whenMaxPacketsNotPositive() {
+        new PacketWriteBatch(0, 100);
+    }
+
+    @Test
+    public void test_isFull_whenMaxPacketsReached() {
+        PacketWriteBatch batch = new PacketWriteBatch(2, 1000);
+
+        batch.add(newPacket(10, 1));
+        assertFalse(batch.isFull());
+        batch.add(newPacket(10, 1));
+
+        assertTrue(batch.isFull());
+        assertEquals(2, batch.packetCount());
+    }
+
+    @Test
+    public void test_isFull_whenMaxBytesReached() {
+        PacketWriteBatch batch = new PacketWriteBatch(10, 100);
+
+        batch.add(newPacket(100, 1));
+
+        assertTrue(batch.isFull());
+    }
+
+    @Test
+    public void test_writeTo_whenCompletelyWritten() throws Exception {
+        PacketWriteBatch batch = new PacketWriteBatch(10, 1000);
+        Packet packet1 = newPacket(30, 1);
+        Packet packet2 = newPacket(0, 2);
+        batch.add(packet1);
+        batch.add(packet2);
+
+        long written = batch.writeTo(socketChannel);
+
+        assertEquals(2 * Packet.HEADER_SIZE + 30, written);
+        assertTrue(batch.isEmpty());
+        assertPackets(packet1, packet2);
+    }
+
+    @Test
+    public void test_writeTo_whenPartiallyWritten() throws Exception {
+        PacketWriteBatch batch = new PacketWriteBatch(10, 1000);
+        Packet packet1 = newPacket(50, 1);
+        Packet packet2 = newPacket(20, 2);
+        batch.add(packet1);
+        batch.add(packet2);
+
+        maxBytesPerWrite = Packet.HEADER_SIZE + 7;
+        long total = 0;
+        while (!batch.isEmpty()) {
+            total += batch.writeTo(socketChannel);
+        }
+
+        assertEquals(2 * Packet.HEADER_SIZE + 70, total);
+        assertPackets(packet1, packet2);
+    }
+
+    @Test
+    public void test_writeTo_whenNotGatheringSocketChannel_thenWrittenBufferByBuffer() throws Exception {
+        SocketChannelWrapper plainSocketChannel = mock(SocketChannelWrapper.class);
+        when(plainSocketChannel.write(any(ByteBuffer.class))).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) throws Throwable {
+                ByteBuffer src = (ByteBuffer) invocation.getArguments()[0];
+                int written = 0;
+                while (src.hasRemaining() && written < maxBytesPerWrite) {
+                    socketBuffer.put(src.get());
+                    written++;
+                }
+                return written;
+            }
+        });
+        PacketWriteBatch batch = new PacketWriteBatch(10, 1000);
+        Packet packet1 = newPacket(50, 1);
+        Packet packet2 = newPacket(20, 2);
+        batch.add(packet1);
+        batch.add(packet2);
+
+        maxBytesPerWrite = Packet.HEADER_SIZE + 7;
+        long total = 0;
+        while (!batch.isEmpty()) {
+            total += batch.writeTo(plainSocketChannel);
+        }
+
+        assertEquals(2 * Packet.HEADER_SIZE + 70, total);
+        assertPackets(packet1, packet2);
+    }
+
+    @Test
+    public void test_urgentPacketCount() {
+        PacketWriteBatch batch = new PacketWriteBatch(10, 1000);
+        Packet urgent = newPacket(10, 1);
+        urgent.setHeader(Packet.HEADER_URGENT);
+        batch.add(urgent);
+        batch.add(newPacket(10, 2));
+
+        assertEquals(2, batch.packetCount());
+        assertEquals(1, batch.urgentPacketCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void test_add_whenPartiallyWritten() throws Exception {
+        PacketWriteBatch batch = new PacketWriteBatch(10, 1000);
+        batch.add(newPacket(30, 1));
+        maxBytesPerWrite = Packet.HEADER_SIZE;
+        batch.writeTo(socketChannel);
+
+        batch.add(newPacket(30, 1));
+    }
+
+    private static Packet newPacket(int payloadSize, int partitionId) {
+        byte[] payload = new byte[payloadSize];
+        for (int k = 0; k < payloadSize; k++) {
+            payload[k] = (byte) k;
+        }
+        return new Packet(payload, partitionId);
+    }
+
+    private void assertPackets(Packet... expected) {
+        socketBuffer.flip();
+        for (Packet expectedPacket : expected) {
+            Packet packet = new Packet();
+            assertTrue(packet.readFrom(socketBuffer));
+            assertEquals(expectedPacket.getPartitionId(), packet.getPartitionId());
+            assertArrayEquals(expectedPacket.toByteArray(), packet.toByteArray());
+        }
+        assertFalse(socketBuffer.hasRemaining());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.MockIOService;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
+import com.hazelcast.nio.tcp.TcpIpConnection_AbstractTest;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class Select_TcpIpConnection_BatchedWriteTest extends TcpIpConnection_AbstractTest {
+
+    private final AtomicInteger packetsB = new AtomicInteger();
+    private final List<MetricsRegistry> metricsRegistries = new ArrayList<MetricsRegistry>();
+
+    @Before
+    public void setup() throws Exception {
+        threadingModelFactory = new Select_NonBlockingIOThreadingModelFactory();
+        super.setup();
+        ioServiceA.socketWriteBatchingEnabled = true;
+        connManagerA.start();
+        connManagerB.start();
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                packetsB.incrementAndGet();
+            }
+        };
+    }
+
+    @Override
+    protected TcpIpConnectionManager newConnectionManager(int port) throws Exception {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
+        metricsRegistries.add(metricsRegistry);
+        MockIOService ioService = new MockIOService(port);
+
+        return new TcpIpConnectionManager(
+                ioService,
+                ioService.serverSocketChannel,
+                ioService.loggingService,
+                metricsRegistry,
+                threadingModelFactory.create(ioService, metricsRegistry));
+    }
+
+    @Test
+    public void whenPacketsWrittenInBatches_thenFramesCounted() {
+        TcpIpConnection connection = connect(connManagerA, addressB);
+        // the bind message has been written as well
+        final long normalFramesBefore = writerProbe("normalFramesWritten");
+        final long priorityFramesBefore = writerProbe("priorityFramesWritten");
+        byte[] payload = serializationService.toBytes(new byte[100]);
+
+        for (int k = 0; k < 100; k++) {
+            Packet packet = new Packet(payload, k);
+            if (k % 10 == 0) {
+                packet.setHeader(Packet.HEADER_URGENT);
+            }
+            assertTrue(connection.write(packet));
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(100, packetsB.get());
+                assertEquals(90, writerProbe("normalFramesWritten") - normalFramesBefore);
+                assertEquals(10, writerProbe("priorityFramesWritten") - priorityFramesBefore);
+            }
+        });
+        assertTrue(writerProbe("batchedWriteCount") > 0);
+    }
+
+    private long writerProbe(String name) {
+        MetricsRegistry metricsRegistry = metricsRegistries.get(0);
+        long sum = 0;
+        for (String probeName : metricsRegistry.getNames()) {
+            if (probeName.startsWith("tcp.connection[") && probeName.endsWith(".out." + name)) {
+                sum += metricsRegistry.newLongGauge(probeName).read();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.nio.tcp.nonblocking;
+
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SelectorOptimizerTest {
+
+    private final ILogger logger = Logger.getLogger(SelectorOptimizerTest.class);
+    private Selector selector;
+    private Pipe pipe;
+
+    @After
+    public void tearDown() throws Exception {
+        if (selector != null) {
+            selector.close();
+        }
+        if (pipe != null) {
+            pipe.source().close();
+            pipe.sink().close();
+        }
+    }
+
+    @Test
+    public void newSelector_whenOptimized() throws Exception {
+        selector = SelectorOptimizer.newSelector(logger, true);
+
+        assertTrue(selector.selectedKeys() instanceof SelectionKeysSet);
+    }
+
+    @Test
+    public void newSelector_whenNotOptimized() throws Exception {
+        selector = SelectorOptimizer.newSelector(logger, false);
+
+        assertFalse(selector.selectedKeys() instanceof SelectionKeysSet);
+    }
+
+    @Test
+    public void select_whenOptimized_thenReadyKeyAddedToSet() throws Exception {
+        selector = SelectorOptimizer.newSelector(logger, true);
+        pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        SelectionKey key = pipe.source().register(selector, SelectionKey.OP_READ);
+
+        pipe.sink().write(ByteBuffer.wrap(new byte[]{1}));
+
+        assertEquals(1, selector.select(5000));
+        SelectionKeysSet selectedKeys = (SelectionKeysSet) selector.selectedKeys();
+        assertEquals(1, selectedKeys.size());
+        assertSame(key, selectedKeys.keys()[0]);
+    }
+
+    @Test
+    public void selectionKeysSet_addResetAndIterate() {
+        SelectionKeysSet set = new SelectionKeysSet();
+        SelectionKey[] keys = new SelectionKey[2000];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = new DummySelectionKey();
+            assertTrue(set.add(keys[k]));
+        }
+        assertFalse(set.add(null));
+        assertEquals(keys.length, set.size());
+
+        Iterator<SelectionKey> it = set.iterator();
+        for (SelectionKey key : keys) {
+            assertSame(key, it.next());
+        }
+        assertFalse(it.hasNext());
+
+        set.reset();
+        assertEquals(0, set.size());
+        assertEquals(null, set.keys()[0]);
+    }
+
+    private static class DummySelectionKey extends SelectionKey {
+        @Override
+        public SelectableChannel channel() {
+            return null;
+        }
+
+        @Override
+        public Selector selector() {
+            return null;
+        }
+
+        @Override
+        public boolean isValid() {
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+        }
+
+        @Override
+        public int interestOps() {
+            return 0;
+        }
+
+        @Override
+        public SelectionKey interestOps(int ops) {
+            return this;
+        }
+
+        @Override
+        public int readyOps() {
+            return 0;
+        }
+    }
+}
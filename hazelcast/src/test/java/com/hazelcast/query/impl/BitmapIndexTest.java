@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.query.Predicates;
+import com.hazelcast.query.SampleObjects.Employee;
+import com.hazelcast.query.SqlPredicate;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BitmapIndexTest {
+
+    private static final int COUNT = 1000;
+
+    private SerializationService serializationService;
+    private Indexes indexes;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        indexes = new Indexes();
+        indexes.addOrGetIndex("age", false, true);
+        indexes.addOrGetIndex("active", false, true);
+        indexes.addOrGetIndex("name", false);
+        for (int i = 0; i < COUNT; i++) {
+            save(i, new Employee(i, "name" + i, i % 10, (i & 1) == 1, i));
+        }
+    }
+
+    @Test
+    public void testIndexIsBitmap() {
+        assertTrue(indexes.getIndex("age").isBitmap());
+        assertEquals(false, indexes.getIndex("age").isOrdered());
+        assertEquals(false, indexes.getIndex("name").isBitmap());
+    }
+
+    @Test
+    public void testEqual() {
+        Set<QueryableEntry> result = indexes.query(Predicates.equal("age", 3));
+
+        assertTrue(result instanceof BitmapResultSet);
+        assertEquals(COUNT / 10, result.size());
+        assertEquals(expected(Predicates.equal("age", 3)), keysOf(result));
+    }
+
+    @Test
+    public void testAnd_isEvaluatedOnBitmaps() {
+        Predicate predicate = Predicates.and(Predicates.equal("age", 3), Predicates.equal("active", true));
+        Set<QueryableEntry> result = indexes.query(predicate);
+
+        assertTrue(result instanceof BitmapResultSet);
+        assertEquals(expected(predicate), keysOf(result));
+    }
+
+    @Test
+    public void testOrAndIn_areEvaluatedOnBitmaps() {
+        Predicate predicate = Predicates.or(Predicates.in("age", 1, 2), Predicates.equal("age", 5));
+        Set<QueryableEntry> result = indexes.query(predicate);
+
+        assertTrue(result instanceof BitmapResultSet);
+        assertEquals(COUNT / 10 * 3, result.size());
+        assertEquals(expected(predicate), keysOf(result));
+    }
+
+    @Test
+    public void testAnd_withNonBitmapIndexAndNonIndexedPredicate() {
+        Predicate predicate = new SqlPredicate("age = 4 and active = false and name = 'name14' and salary > 0");
+
+        assertEquals(expected(predicate), keysOf(indexes.query(predicate)));
+    }
+
+    @Test
+    public void testRange() {
+        Predicate predicate = Predicates.and(Predicates.between("age", 2, 4), Predicates.greaterEqual("age", 3));
+
+        assertEquals(expected(predicate), keysOf(indexes.query(predicate)));
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        for (int i = 0; i < COUNT; i += 10) {
+            indexes.removeEntryIndex(serializationService.toData(i));
+        }
+        save(1, new Employee(1, "name1", 0, true, 1));
+        // reuses a released ordinal
+        save(COUNT, new Employee(COUNT, "name" + COUNT, 7, false, COUNT));
+
+        Set<Object> keys = keysOf(indexes.query(Predicates.equal("age", 0)));
+        assertEquals(1, keys.size());
+        assertTrue(keys.contains(1));
+        assertEquals(COUNT / 10 - 1, indexes.query(Predicates.equal("age", 1)).size());
+        assertEquals(COUNT / 10 + 1, indexes.query(Predicates.equal("age", 7)).size());
+    }
+
+    @Test
+    public void testOrdinalReusedAfterLookup_isNotMixedIntoResult() {
+        BitmapResultSet age = (BitmapResultSet) indexes.query(Predicates.equal("age", 3));
+        Set<Object> expectedAge = keysOf(age);
+        indexes.removeEntryIndex(serializationService.toData(3));
+        // reuses the ordinal of the removed entry
+        save(COUNT, new Employee(COUNT, "name" + COUNT, 7, true, COUNT));
+        BitmapResultSet active = (BitmapResultSet) indexes.query(Predicates.equal("active", true));
+
+        assertEquals(expectedAge, keysOf(age));
+        Set<Object> keys = keysOf(age.and(active));
+        assertFalse(keys.contains(COUNT));
+        assertFalse(keys.contains(3));
+        assertEquals(COUNT / 10 - 1, keys.size());
+        assertNull(age.or(active));
+        for (QueryableEntry entry : active) {
+            assertEquals(expectedAge.contains(entry.getKey()), age.contains(entry));
+        }
+    }
+
+    private void save(int key, Employee employee) {
+        Data keyData = serializationService.toData(key);
+        indexes.saveEntryIndex(new QueryEntry(serializationService, keyData, key, employee));
+    }
+
+    private Set<Object> expected(Predicate predicate) {
+        Set<Object> keys = new HashSet<Object>();
+        for (int i = 0; i < COUNT; i++) {
+            Employee employee = new Employee(i, "name" + i, i % 10, (i & 1) == 1, i);
+            Data keyData = serializationService.toData(i);
+            if (predicate.apply(new QueryEntry(serializationService, keyData, i, employee))) {
+                keys.add(i);
+            }
+        }
+        return keys;
+    }
+
+    private static Set<Object> keysOf(Set<QueryableEntry> entries) {
+        Set<Object> keys = new HashSet<Object>();
+        for (QueryableEntry entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.query.impl;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.hazelcast.query.QueryConstants.THIS_ATTRIBUTE_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NumericSortedIndexStoreTest {
+
+    private SerializationService serializationService;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+    }
+
+    @Test
+    public void testIsSupported() {
+        assertTrue(NumericSortedIndexStore.isSupported(AttributeType.LONG));
+        assertTrue(NumericSortedIndexStore.isSupported(AttributeType.INTEGER));
+        assertTrue(NumericSortedIndexStore.isSupported(AttributeType.DOUBLE));
+        assertTrue(NumericSortedIndexStore.isSupported(AttributeType.DATE));
+        assertTrue(NumericSortedIndexStore.isSupported(AttributeType.SQL_DATE));
+        assertEquals(false, NumericSortedIndexStore.isSupported(AttributeType.SQL_TIMESTAMP));
+        assertEquals(false, NumericSortedIndexStore.isSupported(AttributeType.STRING));
+        assertEquals(false, NumericSortedIndexStore.isSupported(null));
+    }
+
+    @Test
+    public void testRangeQueries_withDuplicatesSpanningBlocks() {
+        IndexImpl index = new IndexImpl(THIS_ATTRIBUTE_NAME, true);
+        int count = NumericSortedIndexStore.BLOCK_CAPACITY * 10;
+        for (int i = 0; i < count; i++) {
+            save(index, i, (long) (i % 10));
+        }
+
+        int perValue = count / 10;
+        assertEquals(perValue, index.getRecords(3L).size());
+        assertEquals(perValue * 3, index.getSubRecordsBetween(2L, 4L).size());
+        assertEquals(perValue * 3, index.getSubRecordsBetween(4L, 2L).size());
+        assertEquals(perValue * 3, index.getSubRecords(ComparisonType.LESSER, 3L).size());
+        assertEquals(perValue * 4, index.getSubRecords(ComparisonType.LESSER_EQUAL, 3L).size());
+        assertEquals(perValue * 6, index.getSubRecords(ComparisonType.GREATER, 3L).size());
+        assertEquals(perValue * 7, index.getSubRecords(ComparisonType.GREATER_EQUAL, 3L).size());
+        assertEquals(perValue * 9, index.getSubRecords(ComparisonType.NOT_EQUAL, 3L).size());
+        assertEquals(perValue * 2, index.getRecords(new Comparable[]{1L, 7L, 20L}).size());
+        assertEquals(0, index.getSubRecords(ComparisonType.GREATER, 9L).size());
+
+        for (int i = 0; i < count; i += 10) {
+            index.removeEntryIndex(serializationService.toData(i + 3));
+        }
+        assertEquals(0, index.getRecords(3L).size());
+        assertNull(index.getRecordMap(3L));
+        assertEquals(perValue * 2, index.getSubRecordsBetween(2L, 4L).size());
+    }
+
+    @Test
+    public void testRandomUpdates_matchReference() {
+        IndexImpl index = new IndexImpl(THIS_ATTRIBUTE_NAME, true);
+        Map<Integer, Long> reference = new HashMap<Integer, Long>();
+        Random random = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextInt(4) == 0) {
+                index.removeEntryIndex(serializationService.toData(key));
+                reference.remove(key);
+            } else {
+                long value = random.nextInt(500) - 250;
+                save(index, key, value);
+                reference.put(key, value);
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            long from = random.nextInt(500) - 250;
+            long to = from + random.nextInt(100);
+            assertEquals(keysBetween(reference, from, to), keysOf(index.getSubRecordsBetween(from, to)));
+            assertEquals(keysBetween(reference, from + 1, Long.MAX_VALUE),
+                    keysOf(index.getSubRecords(ComparisonType.GREATER, from)));
+            assertEquals(keysBetween(reference, from, from), keysOf(index.getRecords(from)));
+        }
+    }
+
+    @Test
+    public void testDoubleOrder() {
+        IndexImpl index = new IndexImpl(THIS_ATTRIBUTE_NAME, true);
+        double[] values = {-Double.MAX_VALUE, -2.5, -1.0, -0.0, 0.0, Double.MIN_VALUE, 1.0, 2.5, Double.POSITIVE_INFINITY};
+        for (int i = 0; i < values.length; i++) {
+            save(index, i, values[i]);
+        }
+
+        assertEquals(3, index.getSubRecords(ComparisonType.LESSER, -0.0).size());
+        assertEquals(4, index.getSubRecords(ComparisonType.LESSER, 0.0).size());
+        assertEquals(4, index.getSubRecordsBetween(-2.5, 0.0).size());
+        assertEquals(2, index.getSubRecords(ComparisonType.GREATER, 1.0).size());
+        assertEquals(1, index.getRecords(-2.5).size());
+    }
+
+    @Test
+    public void testDateRanges() {
+        IndexImpl index = new IndexImpl(THIS_ATTRIBUTE_NAME, true);
+        long now = 1444000000000L;
+        for (int i = 0; i < 1000; i++) {
+            save(index, i, new Date(now + i * 1000L));
+        }
+
+        assertEquals(101, index.getSubRecordsBetween(new Date(now + 100000L), new Date(now + 200000L)).size());
+        assertEquals(100, index.getSubRecords(ComparisonType.LESSER, new Date(now + 100000L)).size());
+        assertEquals(1, index.getRecords(new Date(now)).size());
+    }
+
+    @Test
+    public void testView_staysValidAfterUpdates() {
+        NumericSortedIndexStore store = new NumericSortedIndexStore(false, false);
+        int count = NumericSortedIndexStore.BLOCK_CAPACITY * 3;
+        for (int i = 0; i < count; i++) {
+            store.newIndex((long) i, entry(i, (long) i));
+        }
+
+        MultiResultSet results = new MultiResultSet();
+        store.getSubRecordsBetween(results, 10L, (long) count);
+        for (int i = 0; i < count; i += 2) {
+            store.removeIndex((long) i, serializationService.toData(i));
+            store.newIndex(-1L, entry(count + i, -1L));
+        }
+
+        Set<Object> keys = keysOf(results);
+        assertEquals(count - 10, keys.size());
+        for (int i = 10; i < count; i++) {
+            assertTrue(keys.contains(i));
+        }
+        assertTrue(results.contains(entry(20, 20L)));
+        assertEquals(count / 2, store.getRecords(-1L).size());
+        assertEquals(0, store.getRecords(10L).size());
+        assertEquals(1, store.getRecords(11L).size());
+    }
+
+    @Test
+    public void testNullValues() {
+        NumericSortedIndexStore store = new NumericSortedIndexStore(false, false);
+        store.newIndex(1L, entry(1, 1L));
+        store.newIndex(IndexImpl.NULL, entry(2, null));
+
+        assertEquals(1, store.getRecords(IndexImpl.NULL).size());
+        assertEquals(1, store.getRecords(1L).size());
+
+        MultiResultSet results = new MultiResultSet();
+        store.getSubRecords(results, ComparisonType.GREATER_EQUAL, 0L);
+        assertEquals(1, results.size());
+
+        store.removeIndex(IndexImpl.NULL, serializationService.toData(2));
+        assertEquals(0, store.getRecords(IndexImpl.NULL).size());
+    }
+
+    private void save(IndexImpl index, int key, Object value) {
+        index.saveEntryIndex(entry(key, value));
+    }
+
+    private QueryEntry entry(int key, Object value) {
+        Data keyData = serializationService.toData(key);
+        return new QueryEntry(serializationService, keyData, keyData, value);
+    }
+
+    private Set<Object> keysOf(Set<QueryableEntry> entries) {
+        Set<Object> keys = new HashSet<Object>();
+        for (QueryableEntry entry : entries) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    private static Set<Object> keysBetween(Map<Integer, Long> reference, long from, long to) {
+        Set<Object> keys = new HashSet<Object>();
+        for (Map.Entry<Integer, Long> entry : reference.entrySet()) {
+            if (entry.getValue() >= from && entry.getValue() <= to) {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
+    }
+}
@@ -29,6 +29,39 @@ public class ClassicOperationExecutorTest extends AbstractClassicOperationExecut
                 executor.getGenericOperationThreadCount());
     }
 
+    @Test
+    public void test_execute_whenMpscQueueEnabled() throws Exception {
+        config.setProperty(GroupProperty.OPERATION_PARTITION_QUEUE_MPSC_ENABLED, "true");
+        config.setProperty(GroupProperty.OPERATION_PARTITION_QUEUE_MPSC_CAPACITY, "2");
+        initExecutor();
+
+        final int partitionCount = groupProperties.getInteger(GroupProperty.PARTITION_COUNT);
+        final int operationsPerPartition = 10;
+        for (int k = 0; k < operationsPerPartition; k++) {
+            for (int partitionId = 0; partitionId < partitionCount; partitionId++) {
+                executor.execute(new DummyOperation(partitionId));
+            }
+        }
+
+        final DummyOperationRunnerFactory runnerFactory = (DummyOperationRunnerFactory) handlerFactory;
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                for (DummyOperationRunner runner : runnerFactory.partitionOperationHandlers) {
+                    assertEquals(operationsPerPartition, runner.operations.size());
+                }
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construct_whenUnknownIdleStrategy() {
+        config.setProperty(GroupProperty.OPERATION_PARTITION_QUEUE_MPSC_ENABLED, "true");
+        config.setProperty(GroupProperty.OPERATION_PARTITION_QUEUE_IDLE_STRATEGY, "foo");
+
+        initExecutor();
+    }
+
     @Test
     public void test_getRunningOperationCount() {
         initExecutor();
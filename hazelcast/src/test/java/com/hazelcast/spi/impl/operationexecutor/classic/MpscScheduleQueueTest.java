@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationexecutor.classic;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.util.concurrent.BackoffIdleStrategy;
+import com.hazelcast.util.concurrent.BusySpinIdleStrategy;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MpscScheduleQueueTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 4;
+
+    private MpscScheduleQueue queue;
+
+    @Before
+    public void setup() {
+        queue = new MpscScheduleQueue(CAPACITY, new BackoffIdleStrategy(10, 10, 1000, TimeUnit.SECONDS.toNanos(10)));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_construct_whenNullIdleStrategy() {
+        new MpscScheduleQueue(CAPACITY, null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_add_whenNull() {
+        queue.add(null);
+    }
+
+    @Test
+    public void test_take_priorityIsRetrievedFirst() throws InterruptedException {
+        queue.add("normal1");
+        queue.addUrgent("priority1");
+        queue.add("normal2");
+        queue.addUrgent("priority2");
+
+        assertEquals(2, queue.prioritySize());
+        assertEquals(2, queue.normalSize());
+        assertEquals(4, queue.size());
+
+        assertEquals("priority1", queue.take());
+        assertEquals("priority2", queue.take());
+        assertEquals("normal1", queue.take());
+        assertEquals("normal2", queue.take());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void test_add_preservesOrderWhenOverflowing() throws InterruptedException {
+        int taskCount = CAPACITY * 3;
+        for (int k = 0; k < taskCount; k++) {
+            queue.add(k);
+        }
+
+        assertEquals(taskCount, queue.normalSize());
+        for (int k = 0; k < taskCount; k++) {
+            assertEquals(k, queue.take());
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void test_take_isWokenUp_whenIdling() throws Exception {
+        // a park period of 10 seconds, so the take only returns in time when it is unparked
+        Future<Object> future = spawn(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return queue.take();
+            }
+        });
+        sleepMillis(200);
+
+        queue.add("task");
+
+        assertEquals("task", future.get(5, TimeUnit.SECONDS));
+        assertEquals(1, queue.getWakeupCount());
+    }
+
+    @Test
+    public void test_add_doesNotWakeup_whileConsumerSpins() throws Exception {
+        final MpscScheduleQueue queue = new MpscScheduleQueue(CAPACITY,
+                new BackoffIdleStrategy(Long.MAX_VALUE / 2, 0, 1000, 1000));
+        final int taskCount = 100;
+        Future consumer = spawn(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                for (int k = 0; k < taskCount; k++) {
+                    assertEquals(k, queue.take());
+                }
+                return null;
+            }
+        });
+
+        for (int k = 0; k < taskCount; k++) {
+            queue.add(k);
+            sleepMillis(1);
+        }
+
+        consumer.get(30, TimeUnit.SECONDS);
+        assertEquals(0, queue.getWakeupCount());
+    }
+
+    @Test
+    public void test_take_whenInterrupted() throws Exception {
+        FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return queue.take();
+            }
+        });
+        Thread consumer = new Thread(task);
+        consumer.start();
+        sleepMillis(100);
+
+        consumer.interrupt();
+
+        try {
+            task.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        }
+    }
+
+    @Test
+    public void test_concurrentProducers_preserveOrderPerProducer() throws Exception {
+        final MpscScheduleQueue queue = new MpscScheduleQueue(16, new BusySpinIdleStrategy());
+        final int producerCount = 4;
+        final int tasksPerProducer = 10000;
+
+        List<Future> producers = new ArrayList<Future>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producerId = p;
+            producers.add(spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (int k = 0; k < tasksPerProducer; k++) {
+                        queue.add(new int[]{producerId, k});
+                    }
+                }
+            }));
+        }
+
+        int[] expected = new int[producerCount];
+        for (int k = 0; k < producerCount * tasksPerProducer; k++) {
+            int[] task = (int[]) queue.take();
+            assertEquals(expected[task[0]], task[1]);
+            expected[task[0]]++;
+        }
+
+        for (Future producer : producers) {
+            producer.get();
+        }
+        assertEquals(0, queue.size());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationservice.impl.responses.NormalResponse;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.instance.GroupProperty.BACKPRESSURE_ENABLED;
+import static com.hazelcast.instance.GroupProperty.OPERATION_INVOCATION_REGISTRY_SLOTS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class InvocationRegistry_slotsTest extends HazelcastTestSupport {
+
+    private static final int SLOT_COUNT = 4;
+
+    private InvocationRegistry invocationRegistry;
+    private NodeEngineImpl nodeEngine;
+
+    @Before
+    public void setup() {
+        Config config = new Config();
+        config.setProperty(BACKPRESSURE_ENABLED, "false");
+        config.setProperty(OPERATION_INVOCATION_REGISTRY_SLOTS, "" + SLOT_COUNT);
+        HazelcastInstance local = createHazelcastInstance(config);
+        warmUpPartitions(local);
+        nodeEngine = getNodeEngineImpl(local);
+
+        OperationServiceImpl operationService = (OperationServiceImpl) getOperationService(local);
+        invocationRegistry = operationService.invocationsRegistry;
+    }
+
+    private Invocation newInvocation() {
+        Operation op = new DummyBackupAwareOperation();
+        return new PartitionInvocation(nodeEngine, null, op, op.getPartitionId(), 0, 0, 0, 0, null, false);
+    }
+
+    @Test
+    public void register_whenMoreInvocationsThanSlots_thenAllFound() {
+        List<Invocation> invocations = new ArrayList<Invocation>();
+        for (int k = 0; k < SLOT_COUNT * 2; k++) {
+            Invocation invocation = newInvocation();
+            invocationRegistry.register(invocation);
+            invocations.add(invocation);
+        }
+
+        for (Invocation invocation : invocations) {
+            assertSame(invocation, invocationRegistry.get(invocation.op.getCallId()));
+        }
+        assertTrue(invocationRegistry.size() >= invocations.size());
+
+        for (Invocation invocation : invocations) {
+            long callId = invocation.op.getCallId();
+            invocationRegistry.deregister(invocation);
+            assertNull(invocationRegistry.get(callId));
+        }
+    }
+
+    @Test
+    public void notify_whenResponseOfPreviousGenerationOfSlot_thenIgnored() {
+        Invocation oldInvocation = newInvocation();
+        invocationRegistry.register(oldInvocation);
+        long oldCallId = oldInvocation.op.getCallId();
+        invocationRegistry.deregister(oldInvocation);
+
+        // register invocations until one of them ends up in the slot of the old invocation
+        Invocation newInvocation;
+        do {
+            newInvocation = newInvocation();
+            invocationRegistry.register(newInvocation);
+        } while ((newInvocation.op.getCallId() - oldCallId) % SLOT_COUNT != 0);
+        long newCallId = newInvocation.op.getCallId();
+
+        invocationRegistry.notify(new NormalResponse("foo", oldCallId, 0, false), null);
+
+        assertNull(invocationRegistry.get(oldCallId));
+        assertSame(newInvocation, invocationRegistry.get(newCallId));
+        assertFalse(newInvocation.invocationFuture.isDone());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.GroupProperty;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.ProbeLevel;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class OperationServiceImpl_batchingTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 2000;
+
+    private HazelcastInstance local;
+    private HazelcastInstance remote;
+
+    @Before
+    public void setup() {
+        Config config = new Config();
+        config.setProperty(GroupProperty.OPERATION_BATCHING_ENABLED, "true");
+        // the batcher probes are not mandatory
+        config.setProperty(GroupProperty.PERFORMANCE_METRICS_LEVEL, ProbeLevel.INFO.name());
+        HazelcastInstance[] nodes = createHazelcastInstanceFactory(2).newInstances(config);
+        warmUpPartitions(nodes);
+        local = nodes[0];
+        remote = nodes[1];
+    }
+
+    @Test
+    public void whenManyAsyncOperations_thenBatchedAndAllCompleted() throws Exception {
+        IMap<Integer, Integer> map = local.getMap(randomMapName());
+
+        List<Future<Integer>> futures = new ArrayList<Future<Integer>>(KEY_COUNT);
+        for (int k = 0; k < KEY_COUNT; k++) {
+            futures.add(map.putAsync(k, k));
+        }
+        for (Future<Integer> future : futures) {
+            future.get();
+        }
+
+        futures.clear();
+        for (int k = 0; k < KEY_COUNT; k++) {
+            futures.add(map.getAsync(k));
+        }
+        for (int k = 0; k < KEY_COUNT; k++) {
+            assertEquals(Integer.valueOf(k), futures.get(k).get());
+        }
+
+        assertEquals(KEY_COUNT, map.size());
+        assertTrue(batcherProbe(local, "batchCount") > 0);
+        // the responses are batched as well
+        assertTrue(batcherProbe(remote, "batchCount") > 0);
+        assertTrue(batcherProbe(local, "batchedPacketCount") > batcherProbe(local, "batchCount"));
+    }
+
+    private static long batcherProbe(HazelcastInstance hz, String name) {
+        MetricsRegistry metricsRegistry = getNodeEngineImpl(hz).getMetricsRegistry();
+        return metricsRegistry.newLongGauge("operation.batcher." + name).read();
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.instance.HazelcastThreadGroup;
+import com.hazelcast.instance.Node;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.ConnectionManager;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class PacketBatcherTest {
+
+    private static final int MAX_BATCH_BYTES = 32768;
+    private static final int VERIFY_TIMEOUT_MILLIS = 10000;
+
+    @Test
+    public void newBatchPacket() {
+        Packet batch = PacketBatcher.newBatchPacket(asList(newOperationPacket(1, 10), newResponsePacket(2)), 0);
+
+        assertTrue(batch.isHeaderSet(Packet.HEADER_OP));
+        assertTrue(batch.isHeaderSet(Packet.HEADER_BATCH));
+        assertFalse(batch.isHeaderSet(Packet.HEADER_RESPONSE));
+        assertFalse(batch.isUrgent());
+    }
+
+    @Test
+    public void unbatch() throws Exception {
+        Packet operation = newOperationPacket(1, 10);
+        Packet response = newResponsePacket(2);
+        Packet empty = new Packet(new byte[0], 20);
+        empty.setHeader(Packet.HEADER_OP);
+        Packet batch = PacketBatcher.newBatchPacket(asList(operation, response, empty), 0);
+        Connection connection = mock(Connection.class);
+        batch.setConn(connection);
+
+        final List<Packet> packets = new ArrayList<Packet>();
+        PacketBatcher.unbatch(batch, new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                packets.add(packet);
+            }
+        });
+
+        assertEquals(3, packets.size());
+        assertPacket(operation, packets.get(0));
+        assertPacket(response, packets.get(1));
+        assertPacket(empty, packets.get(2));
+        for (Packet packet : packets) {
+            assertSame(connection, packet.getConn());
+        }
+    }
+
+    @Test
+    public void send_whenNotConnected() {
+        Address target = newAddress(5701);
+        ConnectionManager connectionManager = mock(ConnectionManager.class);
+        when(connectionManager.getOrConnect(target)).thenReturn(null);
+        PacketBatcher batcher = newBatcher(connectionManager);
+
+        assertFalse(batcher.send(newOperationPacket(1, 10), target));
+        verify(connectionManager, never()).transmit(any(Packet.class), any(Connection.class));
+    }
+
+    @Test
+    public void send_whenConnectionNotAlive() {
+        Address target = newAddress(5701);
+        Connection connection = mock(Connection.class);
+        when(connection.isAlive()).thenReturn(false);
+        ConnectionManager connectionManager = mock(ConnectionManager.class);
+        when(connectionManager.getOrConnect(target)).thenReturn(connection);
+        PacketBatcher batcher = newBatcher(connectionManager);
+
+        assertFalse(batcher.send(newOperationPacket(1, 10), target));
+        verify(connectionManager, never()).transmit(any(Packet.class), any(Connection.class));
+    }
+
+    @Test
+    public void send_whenConnected() {
+        Address target = newAddress(5701);
+        Connection connection = mock(Connection.class);
+        when(connection.isAlive()).thenReturn(true);
+        ConnectionManager connectionManager = mock(ConnectionManager.class);
+        when(connectionManager.getOrConnect(target)).thenReturn(connection);
+        when(connectionManager.transmit(any(Packet.class), any(Connection.class))).thenReturn(true);
+        PacketBatcher batcher = newBatcher(connectionManager);
+        batcher.start();
+        try {
+            Packet packet = newOperationPacket(1, 10);
+            assertTrue(batcher.send(packet, target));
+            verify(connectionManager, timeout(VERIFY_TIMEOUT_MILLIS)).transmit(packet, connection);
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void send_whenMultipleLanes_thenBatchedPerLane() throws Exception {
+        Address target = newAddress(5701);
+        Connection connection = mock(Connection.class);
+        when(connection.isAlive()).thenReturn(true);
+        ConnectionManager connectionManager = mock(ConnectionManager.class);
+        when(connectionManager.getOrConnect(target)).thenReturn(connection);
+        when(connectionManager.transmit(any(Packet.class), any(Connection.class))).thenReturn(true);
+        Packet[] packets = new Packet[4];
+        for (int partitionId = 0; partitionId < packets.length; partitionId++) {
+            packets[partitionId] = newOperationPacket(partitionId, partitionId);
+        }
+        // a batch is sent as soon as it holds 2 packets
+        int maxBatchBytes = 2 * (PacketBatcher.ENTRY_OVERHEAD + packets[0].totalSize());
+        PacketBatcher batcher = newBatcher(connectionManager, maxBatchBytes, 2);
+
+        for (Packet packet : packets) {
+            assertTrue(batcher.send(packet, target));
+        }
+
+        ArgumentCaptor<Packet> captor = ArgumentCaptor.forClass(Packet.class);
+        verify(connectionManager, times(2)).transmit(captor.capture(), any(Connection.class));
+        for (int lane = 0; lane < 2; lane++) {
+            Packet batch = captor.getAllValues().get(lane);
+            assertTrue(batch.isHeaderSet(Packet.HEADER_BATCH));
+            // the partition id of a batch maps to its lane
+            assertEquals(lane, batch.getPartitionId());
+            final List<Packet> unbatched = new ArrayList<Packet>();
+            PacketBatcher.unbatch(batch, new PacketHandler() {
+                @Override
+                public void handle(Packet packet) throws Exception {
+                    unbatched.add(packet);
+                }
+            });
+            assertEquals(2, unbatched.size());
+            assertPacket(packets[lane], unbatched.get(0));
+            assertPacket(packets[lane + 2], unbatched.get(1));
+        }
+    }
+
+    private static PacketBatcher newBatcher(ConnectionManager connectionManager) {
+        return newBatcher(connectionManager, MAX_BATCH_BYTES, 1);
+    }
+
+    private static PacketBatcher newBatcher(ConnectionManager connectionManager, int maxBatchBytes, int laneCount) {
+        ILogger logger = Logger.getLogger(PacketBatcherTest.class);
+        Node node = mock(Node.class);
+        when(node.getHazelcastThreadGroup())
+                .thenReturn(new HazelcastThreadGroup("test", logger, PacketBatcherTest.class.getClassLoader()));
+        when(node.getConnectionManager()).thenReturn(connectionManager);
+        return new PacketBatcher(node, logger, MICROSECONDS.toNanos(100), maxBatchBytes, laneCount);
+    }
+
+    private static Address newAddress(int port) {
+        try {
+            return new Address("127.0.0.1", port);
+        } catch (UnknownHostException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void assertPacket(Packet expected, Packet found) {
+        assertEquals(expected.getHeader(), found.getHeader());
+        assertEquals(expected.getPartitionId(), found.getPartitionId());
+        assertArrayEquals(expected.toByteArray(), found.toByteArray());
+    }
+
+    private static Packet newOperationPacket(int value, int partitionId) {
+        Packet packet = new Packet(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, (byte) value}, partitionId);
+        packet.setHeader(Packet.HEADER_OP);
+        return packet;
+    }
+
+    private static Packet newResponsePacket(int value) {
+        Packet packet = new Packet(new byte[]{8, 7, 6, 5, 4, 3, 2, 1, (byte) value});
+        packet.setHeader(Packet.HEADER_OP);
+        packet.setHeader(Packet.HEADER_RESPONSE);
+        return packet;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.spi.impl.operationservice.impl;
+
+import com.hazelcast.instance.HazelcastThreadGroup;
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.nio.Packet;
+import com.hazelcast.nio.tcp.MockIOService;
+import com.hazelcast.nio.tcp.TcpIpConnectionManager;
+import com.hazelcast.nio.tcp.TcpIpConnection_AbstractTest;
+import com.hazelcast.spi.impl.PacketHandler;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that batching doesn't reorder the packets of a partition when a member opens multiple connections to another
+ * member.
+ */
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class PacketBatcher_MultipleConnectionsTest extends TcpIpConnection_AbstractTest {
+
+    private static final int CONNECTION_COUNT = 3;
+    private static final int PARTITION_COUNT = 7;
+    private static final int PACKETS_PER_PARTITION = 5000;
+
+    private final AtomicInteger receivedCount = new AtomicInteger();
+    private final ConcurrentMap<Integer, Integer> lastValuePerPartition = new ConcurrentHashMap<Integer, Integer>();
+    private final ConcurrentMap<Integer, Connection> connectionPerPartition = new ConcurrentHashMap<Integer, Connection>();
+    // the packets of a partition should be received over a single connection and in order
+    private final List<String> reorderings = new CopyOnWriteArrayList<String>();
+
+    private PacketBatcher batcher;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        connManagerA.start();
+        connManagerB.start();
+
+        final PacketHandler recorder = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                int partitionId = packet.getPartitionId();
+                Connection connection = connectionPerPartition.putIfAbsent(partitionId, packet.getConn());
+                if (connection != null && connection != packet.getConn()) {
+                    reorderings.add("partition " + partitionId + " received over multiple connections");
+                }
+                int value = (Integer) serializationService.toObject(packet);
+                Integer lastValue = lastValuePerPartition.put(partitionId, value);
+                if (value != (lastValue == null ? 0 : lastValue + 1)) {
+                    reorderings.add("partition " + partitionId + " received " + value + " after " + lastValue);
+                }
+                receivedCount.incrementAndGet();
+            }
+        };
+        // every connection has its own reader thread, like the operation service the handler unbatches in place
+        ioServiceB.packetHandler = new PacketHandler() {
+            @Override
+            public void handle(Packet packet) throws Exception {
+                if (packet.isHeaderSet(Packet.HEADER_BATCH)) {
+                    PacketBatcher.unbatch(packet, recorder);
+                } else {
+                    recorder.handle(packet);
+                }
+            }
+        };
+
+        Node node = mock(Node.class);
+        when(node.getHazelcastThreadGroup()).thenReturn(new HazelcastThreadGroup("test", logger, getClass().getClassLoader()));
+        when(node.getConnectionManager()).thenReturn(connManagerA);
+        batcher = new PacketBatcher(node, logger, MICROSECONDS.toNanos(10), 1024, CONNECTION_COUNT);
+        batcher.start();
+    }
+
+    @Override
+    public void tearDown() {
+        batcher.shutdown();
+        super.tearDown();
+    }
+
+    @Override
+    protected TcpIpConnectionManager newConnectionManager(int port) throws Exception {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(loggingService.getLogger(MetricsRegistryImpl.class), INFO);
+        MockIOService ioService = new MockIOService(port);
+        ioService.memberConnectionCount = CONNECTION_COUNT;
+
+        return new TcpIpConnectionManager(
+                ioService,
+                ioService.serverSocketChannel,
+                ioService.loggingService,
+                metricsRegistry,
+                threadingModelFactory.create(ioService, metricsRegistry));
+    }
+
+    @Test
+    public void whenBatchesAndSinglePacketsMixed_thenPartitionPacketsNotReordered() {
+        connect(connManagerA, addressB);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertTrue(connManagerA.getActiveConnectionCount() >= CONNECTION_COUNT);
+            }
+        });
+
+        for (int k = 0; k < PACKETS_PER_PARTITION; k++) {
+            for (int partitionId = 0; partitionId < PARTITION_COUNT; partitionId++) {
+                boolean single = k % 100 == partitionId;
+                if (single) {
+                    // lets the flush thread send this packet on its own instead of in a batch
+                    sleepMillis(1);
+                }
+                Packet packet = new Packet(serializationService.toBytes(k), partitionId);
+                packet.setHeader(Packet.HEADER_OP);
+                assertTrue(batcher.send(packet, addressB));
+                if (single) {
+                    sleepMillis(1);
+                }
+            }
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(PACKETS_PER_PARTITION * PARTITION_COUNT, receivedCount.get());
+            }
+        });
+        assertEquals("[]", reorderings.toString());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.PagingPredicate;
+import com.hazelcast.query.PagingPredicateAccessor;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.QueryableEntry;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SortedSubListCollectorTest {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int PAGE_SIZE = 10;
+
+    private SerializationService serializationService;
+    private List<QueryableEntry> entries;
+
+    @Before
+    public void setup() {
+        serializationService = new DefaultSerializationServiceBuilder().build();
+        entries = new ArrayList<QueryableEntry>(ENTRY_COUNT);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            Data keyData = serializationService.toData(i);
+            entries.add(new QueryEntry(serializationService, keyData, keyData, i));
+        }
+        Collections.shuffle(entries, new Random(42));
+    }
+
+    private PagingPredicate newPagingPredicate() {
+        PagingPredicate pagingPredicate = new PagingPredicate(PAGE_SIZE);
+        pagingPredicate.setIterationType(IterationType.VALUE);
+        return pagingPredicate;
+    }
+
+    @Test
+    public void testFirstPage() {
+        PagingPredicate pagingPredicate = newPagingPredicate();
+
+        assertValues(0, PAGE_SIZE, collect(pagingPredicate));
+    }
+
+    @Test
+    public void testPages_withoutAnchor() {
+        PagingPredicate pagingPredicate = newPagingPredicate();
+        pagingPredicate.setPage(3);
+
+        assertValues(0, 4 * PAGE_SIZE, collect(pagingPredicate));
+    }
+
+    @Test
+    public void testPage_withNearestAnchor() {
+        PagingPredicate pagingPredicate = newPagingPredicate();
+        PagingPredicateAccessor.setAnchor(pagingPredicate, 0, entries.get(0));
+        pagingPredicate.setPage(1);
+
+        assertEquals(PAGE_SIZE, collect(pagingPredicate).size());
+    }
+
+    @Test
+    public void testSameResultAsSortingEverything() {
+        PagingPredicate pagingPredicate = newPagingPredicate();
+        pagingPredicate.setPage(5);
+        Map.Entry<Integer, Map.Entry> nearestAnchorEntry = PagingPredicateAccessor.getNearestAnchorEntry(pagingPredicate);
+
+        List<QueryableEntry> sorted = new ArrayList<QueryableEntry>(entries);
+        Collections.sort(sorted, SortingUtil.newComparator(pagingPredicate));
+        int size = SortingUtil.getSortedSubListSize(pagingPredicate, nearestAnchorEntry);
+
+        assertEquals(sorted.subList(0, size), SortingUtil.getSortedSubList(entries, pagingPredicate, nearestAnchorEntry));
+    }
+
+    @Test
+    public void testFewerEntriesThanPage() {
+        PagingPredicate pagingPredicate = newPagingPredicate();
+        SortedSubListCollector collector = new SortedSubListCollector(pagingPredicate,
+                PagingPredicateAccessor.getNearestAnchorEntry(pagingPredicate));
+        collector.addAll(entries.subList(0, 3));
+
+        assertEquals(3, collector.getSortedSubList().size());
+    }
+
+    private List<QueryableEntry> collect(PagingPredicate pagingPredicate) {
+        SortedSubListCollector collector = new SortedSubListCollector(pagingPredicate,
+                PagingPredicateAccessor.getNearestAnchorEntry(pagingPredicate));
+        collector.addAll(entries);
+        return collector.getSortedSubList();
+    }
+
+    private static void assertValues(int from, int to, List<QueryableEntry> result) {
+        assertEquals(to - from, result.size());
+        for (int i = from; i < to; i++) {
+            assertEquals(i, result.get(i - from).getValue());
+        }
+    }
+}
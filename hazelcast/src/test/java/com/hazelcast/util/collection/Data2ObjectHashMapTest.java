@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.collection;
+
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class Data2ObjectHashMapTest {
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final Data2ObjectHashMap<String> map = new Data2ObjectHashMap<String>();
+
+    @Test
+    public void shouldDoPutAndThenGet() {
+        map.put(key(7), "Seven");
+
+        assertEquals("Seven", map.get(key(7)));
+        assertTrue(map.containsKey(key(7)));
+        assertFalse(map.containsKey(key(8)));
+    }
+
+    @Test
+    public void shouldReplaceExistingValueForTheSameKey() {
+        map.put(key(7), "Seven");
+
+        String oldValue = map.put(key(7), "New Seven");
+
+        assertEquals("Seven", oldValue);
+        assertEquals("New Seven", map.get(key(7)));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void shouldGrowWhenThresholdExceeded() {
+        Data2ObjectHashMap<String> map = new Data2ObjectHashMap<String>(32, 0.5d);
+        for (int i = 0; i < 16; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+        assertEquals(32, map.capacity());
+
+        map.put(key(16), "16");
+
+        assertEquals(64, map.capacity());
+        for (int i = 0; i <= 16; i++) {
+            assertEquals(Integer.toString(i), map.get(key(i)));
+        }
+    }
+
+    @Test
+    public void shouldRemoveEntryAndReuseItsSlot() {
+        Data2ObjectHashMap<String> map = new Data2ObjectHashMap<String>(8, 0.5d);
+        for (int i = 0; i < 1000; i++) {
+            map.put(key(i), "value");
+            assertEquals("value", map.remove(key(i)));
+        }
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get(key(0)));
+        assertEquals(8, map.capacity());
+    }
+
+    @Test
+    public void shouldFindEntriesBehindTombstones() {
+        for (int i = 0; i < 100; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            map.remove(key(i));
+        }
+
+        assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? null : Integer.toString(i), map.get(key(i)));
+        }
+    }
+
+    @Test
+    public void shouldClear() {
+        for (int i = 0; i < 10; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(key(1)));
+    }
+
+    @Test
+    public void shouldIterateOverAllEntries() {
+        Map<Data, String> expected = new HashMap<Data, String>();
+        for (int i = 0; i < 100; i++) {
+            map.put(key(i), Integer.toString(i));
+            expected.put(key(i), Integer.toString(i));
+        }
+
+        assertEquals(expected, new HashMap<Data, String>(map));
+        assertEquals(expected.keySet(), new HashSet<Data>(map.keySet()));
+        assertEquals(new HashSet<String>(expected.values()), new HashSet<String>(map.values()));
+    }
+
+    @Test
+    public void shouldRemoveViaIterator() {
+        for (int i = 0; i < 100; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+
+        Iterator<String> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            if (Integer.parseInt(iterator.next()) % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(50, map.size());
+        assertFalse(map.containsValue("2"));
+        assertTrue(map.containsValue("3"));
+    }
+
+    @Test
+    public void shouldRemoveViaKeySet() {
+        for (int i = 0; i < 10; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+
+        Set<Data> keys = map.keySet();
+        keys.removeAll(setOf(key(1), key(2)));
+
+        assertEquals(8, map.size());
+        assertFalse(map.containsKey(key(1)));
+    }
+
+    @Test
+    public void iteratorCreatedBeforeRehash_doesNotReturnRemovedEntries() {
+        Data2ObjectHashMap<String> map = new Data2ObjectHashMap<String>(8, 0.5d);
+        for (int i = 0; i < 4; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+
+        Iterator<String> iterator = map.values().iterator();
+        for (int i = 0; i < 4; i++) {
+            map.remove(key(i));
+        }
+        for (int i = 100; i < 200; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+
+        while (iterator.hasNext()) {
+            assertTrue(Integer.parseInt(iterator.next()) >= 100);
+        }
+    }
+
+    @Test
+    public void iteratorCreatedBeforeRehash_returnsCurrentValues() {
+        Data2ObjectHashMap<String> map = new Data2ObjectHashMap<String>(8, 0.5d);
+        map.put(key(1), "old");
+
+        Iterator<String> iterator = map.values().iterator();
+        for (int i = 100; i < 200; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+        map.put(key(1), "new");
+
+        Set<String> values = new HashSet<String>();
+        while (iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+        assertTrue(values.contains("new"));
+        assertFalse(values.contains("old"));
+    }
+
+    @Test
+    public void shouldReturnRequestedNumberOfSamples() {
+        for (int i = 0; i < 100; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+
+        Set<String> samples = new HashSet<String>();
+        for (String sample : map.getRandomSamples(15)) {
+            samples.add(sample);
+        }
+
+        assertEquals(15, samples.size());
+    }
+
+    @Test
+    public void shouldReturnAllEntries_whenSampleCountExceedsSize() {
+        for (int i = 0; i < 10; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+
+        int count = 0;
+        for (String ignored : map.getRandomSamples(100)) {
+            count++;
+        }
+
+        assertEquals(10, count);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnNegativeSampleCount() {
+        map.getRandomSamples(-1);
+    }
+
+    @Test
+    public void shouldReturnNoSamples_whenEmpty() {
+        assertFalse(map.getRandomSamples(10).iterator().hasNext());
+    }
+
+    @Test
+    public void shouldFetchAllValuesInBatches() {
+        for (int i = 0; i < 100; i++) {
+            map.put(key(i), Integer.toString(i));
+        }
+        map.remove(key(50));
+
+        List<String> fetched = new ArrayList<String>();
+        int tableIndex = Integer.MAX_VALUE;
+        while (tableIndex >= 0) {
+            int sizeBefore = fetched.size();
+            tableIndex = map.fetch(tableIndex, 7, fetched);
+            assertTrue(fetched.size() - sizeBefore <= 7);
+        }
+
+        assertEquals(99, fetched.size());
+        assertEquals(new HashSet<String>(map.values()), new HashSet<String>(fetched));
+    }
+
+    @Test
+    public void shouldFetchNothing_whenEmpty() {
+        List<String> fetched = new ArrayList<String>();
+
+        assertTrue(map.fetch(Integer.MAX_VALUE, 10, fetched) < 0);
+        assertTrue(fetched.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void shouldNotAllowNullValues() {
+        map.put(key(1), null);
+    }
+
+    private Data key(int i) {
+        return serializationService.toData(i);
+    }
+
+    private static <T> Set<T> setOf(T... items) {
+        Set<T> set = new HashSet<T>();
+        for (T item : items) {
+            set.add(item);
+        }
+        return set;
+    }
+}
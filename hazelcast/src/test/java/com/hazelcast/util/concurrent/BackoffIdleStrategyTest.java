@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.concurrent;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class BackoffIdleStrategyTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construct_whenMaxParkSmallerThanMinPark() {
+        new BackoffIdleStrategy(1, 1, 10, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construct_whenNegativeSpins() {
+        new BackoffIdleStrategy(-1, 1, 1, 5);
+    }
+
+    @Test
+    public void test_idle_spinsThenYieldsThenParks() {
+        BackoffIdleStrategy strategy = new BackoffIdleStrategy(2, 2, 1, 10);
+
+        assertFalse(strategy.idle(0));
+        assertFalse(strategy.idle(1));
+        assertFalse(strategy.idle(2));
+        assertFalse(strategy.idle(3));
+        assertTrue(strategy.idle(4));
+    }
+
+    @Test
+    public void test_willPark_onlyInParkPhase() {
+        BackoffIdleStrategy strategy = new BackoffIdleStrategy(2, 2, 1, 10);
+
+        assertFalse(strategy.willPark(0));
+        assertFalse(strategy.willPark(3));
+        assertTrue(strategy.willPark(4));
+        assertTrue(strategy.willPark(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void test_parkPeriodNs_increasesUpToMax() {
+        BackoffIdleStrategy strategy = new BackoffIdleStrategy(0, 0, 1, 10);
+
+        assertEquals(1, strategy.parkPeriodNs(0));
+        assertEquals(2, strategy.parkPeriodNs(1));
+        assertEquals(8, strategy.parkPeriodNs(3));
+        assertEquals(10, strategy.parkPeriodNs(4));
+        assertEquals(10, strategy.parkPeriodNs(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void test_busySpin_neverParks() {
+        assertFalse(new BusySpinIdleStrategy().idle(Long.MAX_VALUE));
+        assertFalse(new BusySpinIdleStrategy().willPark(Long.MAX_VALUE));
+    }
+}
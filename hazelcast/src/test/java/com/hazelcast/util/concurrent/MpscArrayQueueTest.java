@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2008-2015, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.util.concurrent;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MpscArrayQueueTest extends HazelcastTestSupport {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_construct_whenCapacityNotPositive() {
+        new MpscArrayQueue<Integer>(0);
+    }
+
+    @Test
+    public void test_capacity_isRoundedToPowerOfTwo() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<Integer>(5);
+
+        assertEquals(8, queue.capacity());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void test_offer_whenNull() {
+        new MpscArrayQueue<Integer>(4).offer(null);
+    }
+
+    @Test
+    public void test_offerAndPoll_fifo() {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<Integer>(4);
+
+        assertNull(queue.poll());
+
+        for (int k = 0; k < 4; k++) {
+            assertTrue(queue.offer(k));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+
+        for (int k = 0; k < 4; k++) {
+            assertEquals(Integer.valueOf(k), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void test_concurrentProducers() throws Exception {
+        final MpscArrayQueue<Integer> queue = new MpscArrayQueue<Integer>(16);
+        final int producerCount = 4;
+        final int itemsPerProducer = 25000;
+
+        Future[] producers = new Future[producerCount];
+        for (int p = 0; p < producerCount; p++) {
+            producers[p] = spawn(new Runnable() {
+                @Override
+                public void run() {
+                    for (int k = 0; k < itemsPerProducer; k++) {
+                        while (!queue.offer(k)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+        }
+
+        long sum = 0;
+        for (int taken = 0; taken < producerCount * itemsPerProducer; ) {
+            Integer item = queue.poll();
+            if (item == null) {
+                Thread.yield();
+                continue;
+            }
+            sum += item;
+            taken++;
+        }
+
+        for (Future producer : producers) {
+            producer.get();
+        }
+        assertEquals((long) producerCount * itemsPerProducer * (itemsPerProducer - 1) / 2, sum);
+        assertNull(queue.poll());
+    }
+}